@@ -0,0 +1,21 @@
+package com.bolivartech.utils.btthreads.annotations;
+import java.lang.annotation.*;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ * The class to which this annotation is applied is thread-safe only for ONE
+ * producer thread and ONE consumer thread: the producer methods and the
+ * consumer methods documented by the class can run concurrently, but each set
+ * must be called from a single thread at a time. It must not be shared by
+ * several producers or several consumers, even through an interface that is
+ * otherwise implemented by thread-safe classes.
+ *
+ * @see ThreadSafe
+ * @see NotThreadSafe
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleProducerSingleConsumer {
+}
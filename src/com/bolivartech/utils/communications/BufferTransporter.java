@@ -0,0 +1,59 @@
+package com.bolivartech.utils.communications;
+
+import com.bolivartech.utils.exception.UtilsException;
+import java.nio.ByteBuffer;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Class is the BolivarTech's ByteBuffer Transporter Interface Class.
+ *
+ *   Esta interface extiende Transporter con el envio y recepcion de datos en ByteBuffer
+ *   suministrados por el llamador, sin reservar un arreglo por mensaje. Los buffers directos
+ *   (por ejemplo de DirectBufferPool) se escriben en el canal sin copias intermedias cuando
+ *   el transporter tiene un canal NIO.
+ *
+ *   Los metodos Send(byte[]) y Recive() de Transporter se mantienen como adaptadores sobre
+ *   estos metodos.
+ *
+ *   Esta es una interface
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial.
+ */
+public interface BufferTransporter extends Transporter {
+
+    /**
+     * Envia los bytes entre la posicion y el limite de "Datos", al retornar la
+     * posicion queda en el limite.
+     *
+     * @param Datos Datos a enviar
+     * @return Numero de bytes enviados
+     * @throws UtilsException
+     */
+    public int send(ByteBuffer Datos) throws UtilsException;
+
+    /**
+     * Envia en orden los bytes restantes de todos los buffers de "Datos" en
+     * una sola escritura cuando el transporter lo permite.
+     *
+     * @param Datos Buffers a enviar
+     * @return Numero de bytes enviados
+     * @throws UtilsException
+     */
+    public long send(ByteBuffer[] Datos) throws UtilsException;
+
+    /**
+     * Copia en "Destino" hasta sus bytes restantes de los datos recibidos, sin
+     * bloquearse y sin reservar memoria.
+     *
+     * @param Destino Buffer del llamador
+     * @return Numero de bytes copiados, 0 si no hay datos
+     */
+    public int receive(ByteBuffer Destino);
+}
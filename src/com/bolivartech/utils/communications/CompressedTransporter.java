@@ -0,0 +1,475 @@
+package com.bolivartech.utils.communications;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import com.bolivartech.utils.lzma.BTLZMA;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Class is the BolivarTech's Compressed Transporter over another Transporter .
+ *
+ *   This Class is Thread Safe
+ *
+ *   Esta clase comprime con BTLZMA los mensajes enviados por el Transporter "Inner" que tengan
+ *   al menos "Threshold" bytes. Cada mensaje lleva un byte inicial que indica si los datos van
+ *   sin comprimir (0) o comprimidos con LZMA (1), por lo que el Transporter interno debe
+ *   respetar los limites de los mensajes, como FramedTransporter o UdpTransporter; sobre un
+ *   TcpIpClient directamente Recive no retorna mensajes completos.
+ *
+ *   Por defecto se usa un diccionario de 64 KB, el Match Finder BT4 y 5 Fast Bytes, que
+ *   favorecen la velocidad sobre la razon de compresion: el codificador acepta la primera
+ *   coincidencia de 5 bytes en lugar de buscar el mejor parseo. getCompressor permite
+ *   cambiarlos.
+ *
+ *   La compresion es adaptativa: si un mensaje comprimido no baja de "MaxRatio" veces su
+ *   tamaño original los datos se consideran incompresibles, el mensaje se envia sin comprimir
+ *   y los siguientes "SkipFrames" mensajes se envian sin intentar comprimirlos; el siguiente
+ *   vuelve a servir de muestra. Si se conoce la velocidad del enlace (setLinkRate), tambien se
+ *   deja de comprimir cuando el tiempo de CPU de la compresion es mayor que el tiempo que se
+ *   ahorra en el enlace, de forma que en enlaces rapidos no se penaliza el envio.
+ *
+ *   getCompressionRatio y getCompressTime reportan la razon de compresion y el tiempo de CPU
+ *   de la hebra usado en comprimir (o el tiempo transcurrido si la JVM no lo soporta).
+ *
+ *   Class ID: "35DGFIG" Loc: 000-005
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial.
+ */
+@ThreadSafe
+public class CompressedTransporter implements Transporter {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFIG";
+
+    // Marcas del primer byte de cada mensaje
+    private static final byte RAW = 0;
+    private static final byte LZMA = 1;
+
+    // Tamaño minimo por defecto de los mensajes a comprimir
+    public static final int DEFAULTTHRESHOLD = 256;
+    // Diccionario por defecto, 64 KB
+    public static final int DEFAULTDICTIONARY = 1 << 16;
+    // Fast Bytes por defecto
+    public static final int DEFAULTFASTBYTES = 5;
+    // Razon maxima por defecto (comprimido / original) para seguir comprimiendo
+    public static final double DEFAULTMAXRATIO = 0.9;
+    // Mensajes por defecto que se envian sin comprimir despues de una muestra incompresible
+    public static final int DEFAULTSKIP = 32;
+    // Tamaño maximo por defecto de un mensaje descomprimido, 16 MB
+    public static final int DEFAULTMAXLENGTH = 1 << 24;
+
+    // Parametro de configuracion invalido
+    public static final int ERRORCONFIG = 1;
+
+    // Medidor del tiempo de CPU de la hebra
+    private static final ThreadMXBean CPU = ManagementFactory.getThreadMXBean();
+    private static final boolean CPUTIME = CPU.isCurrentThreadCpuTimeSupported() && CPU.isThreadCpuTimeEnabled();
+
+    // Transporter de los mensajes
+    private final Transporter Inner;
+    // Compresor de los mensajes enviados y descompresor de los recibidos
+    private final BTLZMA Compresor;
+    private final BTLZMA Descompresor;
+    // Parametros de la compresion adaptativa
+    @GuardedBy("this")
+    private int Threshold;
+    @GuardedBy("this")
+    private double MaxRatio;
+    @GuardedBy("this")
+    private int SkipFrames;
+    @GuardedBy("this")
+    private long LinkRate;
+    // Mensajes que faltan por enviar sin intentar comprimirlos
+    @GuardedBy("this")
+    private int Omitir;
+    private volatile int MaxLength;
+    // Estadisticas de envio
+    private final AtomicLong BytesSent = new AtomicLong(0);
+    private final AtomicLong WireBytesSent = new AtomicLong(0);
+    private final AtomicLong CompressedCount = new AtomicLong(0);
+    private final AtomicLong SkippedCount = new AtomicLong(0);
+    private final AtomicLong CompressTime = new AtomicLong(0);
+    // Estadisticas de recepcion
+    private final AtomicLong BytesReceived = new AtomicLong(0);
+    private final AtomicLong WireBytesReceived = new AtomicLong(0);
+    private final AtomicLong DecompressTime = new AtomicLong(0);
+    // Logger para el manejo de la bitacora
+    private LoggerFormatter BTLogF;
+
+    /**
+     * Constructor sobre el transporter de mensajes "Inner"
+     *
+     * @param Inner Transporter de los mensajes
+     */
+    public CompressedTransporter(Transporter Inner) {
+
+        this.Inner = Inner;
+        this.BTLogF = LoggerFormatter.getInstance(null);
+        this.Compresor = new BTLZMA();
+        this.Descompresor = new BTLZMA();
+        this.Compresor.setDictionarySize(DEFAULTDICTIONARY);
+        try {
+            this.Compresor.setMatchFinder(BTLZMA.BT4);
+            this.Compresor.setFastBytes(DEFAULTFASTBYTES);
+        } catch (UtilsException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Can't set the LZMA parameters", CompressedTransporter.CLASSID, "000");
+        }
+        this.Threshold = DEFAULTTHRESHOLD;
+        this.MaxRatio = DEFAULTMAXRATIO;
+        this.SkipFrames = DEFAULTSKIP;
+        this.LinkRate = 0;
+        this.Omitir = 0;
+        this.MaxLength = DEFAULTMAXLENGTH;
+    }
+
+    /**
+     * Establece la Bitacora a utilizar por la clase
+     *
+     * @param Bitacora
+     */
+    public void setBitacora(LoggerManager Bitacora) {
+        this.BTLogF = LoggerFormatter.getInstance(Bitacora);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el transporter de los mensajes
+     *
+     * @return Transporter interno
+     */
+    public Transporter getTransporter() {
+        return this.Inner;
+    }
+
+    /**
+     * Retorna el compresor de los mensajes enviados, para ajustar el
+     * diccionario, el Match Finder o los Fast Bytes.
+     *
+     * @return Compresor LZMA
+     */
+    public BTLZMA getCompressor() {
+        return this.Compresor;
+    }
+
+    /**
+     * Establece el tamaño minimo de los mensajes a comprimir, los menores se
+     * envian sin comprimir.
+     *
+     * @param Threshold Tamaño minimo en bytes
+     * @throws UtilsException Si Threshold es negativo
+     */
+    public synchronized void setThreshold(int Threshold) throws UtilsException {
+
+        if (Threshold < 0) {
+            throw new UtilsException("ERROR: Invalid threshold " + Integer.toString(Threshold), ERRORCONFIG, CompressedTransporter.CLASSID + "001");
+        }
+        this.Threshold = Threshold;
+    }
+
+    /**
+     * Establece la razon maxima (comprimido / original) para considerar que
+     * vale la pena comprimir y cuantos mensajes se envian sin comprimir despues
+     * de una muestra que no la cumpla.
+     *
+     * @param MaxRatio Razon maxima, mayor a 0 y menor o igual a 1
+     * @param SkipFrames Mensajes sin comprimir despues de la muestra
+     * @throws UtilsException Si los parametros son invalidos
+     */
+    public synchronized void setAdaptive(double MaxRatio, int SkipFrames) throws UtilsException {
+
+        if ((MaxRatio <= 0) || (MaxRatio > 1) || (SkipFrames < 0)) {
+            throw new UtilsException("ERROR: Invalid adaptive parameters " + Double.toString(MaxRatio) + "/" + Integer.toString(SkipFrames), ERRORCONFIG, CompressedTransporter.CLASSID + "002");
+        }
+        this.MaxRatio = MaxRatio;
+        this.SkipFrames = SkipFrames;
+        this.Omitir = 0;
+    }
+
+    /**
+     * Establece la velocidad del enlace en bytes por segundo. Si es mayor a 0
+     * la compresion se omite cuando su tiempo de CPU es mayor que el tiempo de
+     * transmision que ahorra; con 0 solo se usa la razon de compresion.
+     *
+     * @param LinkRate Bytes por segundo del enlace o 0
+     */
+    public synchronized void setLinkRate(long LinkRate) {
+
+        this.LinkRate = Math.max(LinkRate, 0);
+        this.Omitir = 0;
+    }
+
+    /**
+     * Establece el tamaño maximo aceptado de un mensaje recibido una vez
+     * descomprimido, los mayores se descartan.
+     *
+     * @param MaxLength Tamaño maximo en bytes
+     */
+    public void setMaxLength(int MaxLength) {
+        this.MaxLength = MaxLength;
+    }
+
+    /**
+     * Retorna el numero de bytes originales de los mensajes enviados
+     *
+     * @return Bytes enviados antes de comprimir
+     */
+    public long getBytesSent() {
+        return this.BytesSent.get();
+    }
+
+    /**
+     * Retorna el numero de bytes entregados al transporter interno, incluyendo
+     * el byte de marca de cada mensaje
+     *
+     * @return Bytes enviados despues de comprimir
+     */
+    public long getWireBytesSent() {
+        return this.WireBytesSent.get();
+    }
+
+    /**
+     * Retorna el numero de bytes de los mensajes recibidos una vez
+     * descomprimidos
+     *
+     * @return Bytes recibidos despues de descomprimir
+     */
+    public long getBytesReceived() {
+        return this.BytesReceived.get();
+    }
+
+    /**
+     * Retorna el numero de bytes recibidos del transporter interno
+     *
+     * @return Bytes recibidos antes de descomprimir
+     */
+    public long getWireBytesReceived() {
+        return this.WireBytesReceived.get();
+    }
+
+    /**
+     * Retorna la razon de compresion de los envios, bytes entregados al
+     * transporter interno entre bytes originales; 1 si no se ha enviado nada.
+     *
+     * @return Razon de compresion
+     */
+    public double getCompressionRatio() {
+        long Originales;
+        double Result;
+
+        Originales = this.BytesSent.get();
+        Result = (Originales > 0 ? (double) this.WireBytesSent.get() / (double) Originales : 1.0);
+        return Result;
+    }
+
+    /**
+     * Retorna el numero de mensajes enviados comprimidos
+     *
+     * @return Mensajes comprimidos
+     */
+    public long getCompressedCount() {
+        return this.CompressedCount.get();
+    }
+
+    /**
+     * Retorna el numero de mensajes que se enviaron sin intentar comprimirlos
+     * por una muestra incompresible previa
+     *
+     * @return Mensajes omitidos
+     */
+    public long getSkippedCount() {
+        return this.SkippedCount.get();
+    }
+
+    /**
+     * Retorna el tiempo de CPU usado en comprimir, en nanosegundos
+     *
+     * @return Tiempo de compresion
+     */
+    public long getCompressTime() {
+        return this.CompressTime.get();
+    }
+
+    /**
+     * Retorna el tiempo de CPU usado en descomprimir, en nanosegundos
+     *
+     * @return Tiempo de descompresion
+     */
+    public long getDecompressTime() {
+        return this.DecompressTime.get();
+    }
+
+    /**
+     * Reinicia las estadisticas de envio y recepcion
+     */
+    public void resetStatistics() {
+
+        this.BytesSent.set(0);
+        this.WireBytesSent.set(0);
+        this.CompressedCount.set(0);
+        this.SkippedCount.set(0);
+        this.CompressTime.set(0);
+        this.BytesReceived.set(0);
+        this.WireBytesReceived.set(0);
+        this.DecompressTime.set(0);
+    }
+
+    /**
+     * Envia "Datos" como un mensaje, comprimido si tiene al menos Threshold
+     * bytes y la compresion reduce su tamaño lo suficiente.
+     *
+     * @param Datos Datos del mensaje
+     * @throws UtilsException
+     */
+    @Override
+    public synchronized void Send(byte[] Datos) throws UtilsException {
+        byte[] Comprimido, Salida;
+        long Inicio, Tiempo;
+        boolean Util;
+
+        Salida = null;
+        if (Datos.length >= this.Threshold) {
+            if (this.Omitir > 0) {
+                this.Omitir--;
+                this.SkippedCount.incrementAndGet();
+            } else {
+                Inicio = CpuTime();
+                try {
+                    Comprimido = this.Compresor.CompressBlock(Datos, 0, Datos.length);
+                } catch (UtilsException ex) {
+                    Comprimido = null;
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, ex, "WARNING: Message sent uncompressed", CompressedTransporter.CLASSID, "003");
+                }
+                Tiempo = CpuTime() - Inicio;
+                this.CompressTime.addAndGet(Tiempo);
+                Util = (Comprimido != null) && (Comprimido.length <= (Datos.length * this.MaxRatio));
+                if (Util && (this.LinkRate > 0)) {
+                    // Tiempo de transmision ahorrado contra el tiempo de CPU de la compresion
+                    Util = (((double) (Datos.length - Comprimido.length) * 1e9) / this.LinkRate) > Tiempo;
+                }
+                if (Util) {
+                    Salida = new byte[Comprimido.length + 1];
+                    Salida[0] = LZMA;
+                    System.arraycopy(Comprimido, 0, Salida, 1, Comprimido.length);
+                    this.CompressedCount.incrementAndGet();
+                } else {
+                    this.Omitir = this.SkipFrames;
+                }
+            }
+        }
+        if (Salida == null) {
+            Salida = new byte[Datos.length + 1];
+            Salida[0] = RAW;
+            System.arraycopy(Datos, 0, Salida, 1, Datos.length);
+        }
+        this.Inner.Send(Salida);
+        this.BytesSent.addAndGet(Datos.length);
+        this.WireBytesSent.addAndGet(Salida.length);
+    }
+
+    /**
+     * Retorna el siguiente mensaje recibido, descomprimido si es necesario, o
+     * null si no hay ninguno. Si el mensaje es invalido se registra en la
+     * bitacora, se descarta y retorna null.
+     *
+     * @return Datos del mensaje o null
+     */
+    @Override
+    public byte[] Recive() {
+        byte[] Mensaje, Datos;
+        long Inicio;
+
+        Datos = null;
+        Mensaje = this.Inner.Recive();
+        if (Mensaje != null) {
+            this.WireBytesReceived.addAndGet(Mensaje.length);
+            if ((Mensaje.length > 0) && (Mensaje[0] == RAW)) {
+                Datos = Arrays.copyOfRange(Mensaje, 1, Mensaje.length);
+            } else if ((Mensaje.length > 0) && (Mensaje[0] == LZMA)) {
+                Inicio = CpuTime();
+                try {
+                    Datos = this.Descompresor.DecompressBlock(Mensaje, 1, Mensaje.length - 1, this.MaxLength);
+                } catch (UtilsException ex) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Invalid compressed message received", CompressedTransporter.CLASSID, "004");
+                }
+                this.DecompressTime.addAndGet(CpuTime() - Inicio);
+            } else {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, null, "ERROR: Invalid message flag received", CompressedTransporter.CLASSID, "005");
+            }
+            if (Datos != null) {
+                this.BytesReceived.addAndGet(Datos.length);
+            }
+        }
+        return Datos;
+    }
+
+    @Override
+    public boolean DataAvailable() {
+        return this.Inner.DataAvailable();
+    }
+
+    @Override
+    public int TransporterTypeID() {
+        return this.Inner.TransporterTypeID();
+    }
+
+    @Override
+    public void Open() throws UtilsException {
+
+        synchronized (this) {
+            this.Omitir = 0;
+        }
+        this.Inner.Open();
+    }
+
+    @Override
+    public void Close() throws UtilsException {
+        this.Inner.Close();
+    }
+
+    /**
+     * Retorna el MTU del transporter interno menos el byte de marca, ningun
+     * mensaje crece al comprimirlo porque en ese caso se envia sin comprimir.
+     *
+     * @return Maximum Transmission Unit (MTU) o -1
+     * @throws UtilsException
+     */
+    @Override
+    public int getMTU() throws UtilsException {
+        int Result;
+
+        Result = this.Inner.getMTU();
+        return (Result > 0 ? Result - 1 : Result);
+    }
+
+    /**
+     * Retorna el tiempo de CPU de la hebra en nanosegundos o, si la JVM no lo
+     * soporta, el tiempo transcurrido.
+     *
+     * @return Tiempo en nanosegundos
+     */
+    private static long CpuTime() {
+        return (CPUTIME ? CPU.getCurrentThreadCpuTime() : System.nanoTime());
+    }
+}
@@ -0,0 +1,271 @@
+package com.bolivartech.utils.communications;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.communications.utils.FrameCodec;
+import com.bolivartech.utils.communications.utils.FrameListener;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import java.nio.ByteBuffer;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Class is the BolivarTech's Framed Transporter over a BufferTransporter .
+ *
+ *   This Class is Thread Safe
+ *
+ *   Esta clase agrega la separacion en tramas de FrameCodec a un BufferTransporter como
+ *   TcpIpClient, para que la aplicacion reciba mensajes completos en lugar de los bytes que
+ *   hayan llegado. Los datos recibidos se acumulan en un buffer propio que crece hasta el
+ *   tamaño maximo de una trama codificada.
+ *
+ *   poll entrega todas las tramas completas al FrameListener sin copiarlas y sendFrames envia
+ *   un lote de tramas en una sola escritura gather. Como Transporter, Send envia una trama y
+ *   Recive retorna una copia de la siguiente trama completa.
+ *
+ *   Si llega una trama invalida (CRC, tamaño o encabezado) el flujo queda desincronizado y
+ *   los bytes siguientes no se pueden separar en tramas: se descartan los datos acumulados,
+ *   se cierra el transporter, como hace TcpIpMultiplexer, y poll lanza la excepcion.
+ *
+ *   Class ID: "35DGFIB" Loc: 000-002
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.1
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial. v1.0.1 (2026-10-19) Al recibir una
+ * trama invalida se cierra el transporter en lugar de seguir leyendo el flujo
+ * desincronizado.
+ */
+@ThreadSafe
+public class FramedTransporter implements Transporter {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFIB";
+
+    // Capacidad inicial del buffer de recepcion
+    private static final int INITIALSIZE = 8192;
+
+    // Transporter y codificador de las tramas
+    private final BufferTransporter Inner;
+    private final FrameCodec Codec;
+    // Datos recibidos pendientes por decodificar, en modo escritura
+    @GuardedBy("this")
+    private ByteBuffer Entrada;
+    // Logger para el manejo de la bitacora
+    private LoggerFormatter BTLogF;
+
+    /**
+     * Constructor sobre el transporter "Inner" con el codificador "Codec"
+     *
+     * @param Inner Transporter de los bytes
+     * @param Codec Codificador de las tramas
+     */
+    public FramedTransporter(BufferTransporter Inner, FrameCodec Codec) {
+
+        this.Inner = Inner;
+        this.Codec = Codec;
+        this.Entrada = ByteBuffer.allocate(Math.min(INITIALSIZE, Codec.getMaxEncodedSize()));
+        this.BTLogF = LoggerFormatter.getInstance(null);
+    }
+
+    /**
+     * Establece la Bitacora a utilizar por la clase
+     *
+     * @param Bitacora
+     */
+    public void setBitacora(LoggerManager Bitacora) {
+        this.BTLogF = LoggerFormatter.getInstance(Bitacora);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el transporter de los bytes
+     *
+     * @return Transporter interno
+     */
+    public BufferTransporter getTransporter() {
+        return this.Inner;
+    }
+
+    /**
+     * Retorna el codificador de las tramas
+     *
+     * @return Codificador de las tramas
+     */
+    public FrameCodec getCodec() {
+        return this.Codec;
+    }
+
+    /**
+     * Envia un lote de tramas en una sola escritura gather, los datos de cada
+     * trama son los bytes restantes de cada buffer.
+     *
+     * @param Frames Datos de las tramas
+     * @return Numero de bytes enviados incluyendo encabezados y CRC
+     * @throws UtilsException
+     */
+    public long sendFrames(ByteBuffer[] Frames) throws UtilsException {
+
+        return this.Inner.send(this.Codec.encode(Frames));
+    }
+
+    /**
+     * Lee los datos disponibles y entrega todas las tramas completas a
+     * "Listener", sin bloquearse. Las tramas son vistas sobre el buffer de
+     * recepcion validas solo durante la llamada al listener.
+     *
+     * @param Listener Receptor de las tramas
+     * @return Numero de tramas entregadas
+     * @throws UtilsException Si llega una trama invalida, en cuyo caso el
+     * transporter se cierra
+     */
+    public synchronized int poll(FrameListener Listener) throws UtilsException {
+        int Result, Tramas;
+        boolean Lleno;
+
+        Result = 0;
+        do {
+            // Si el buffer se lleno pueden quedar datos en el transporter
+            this.Fill();
+            Lleno = !this.Entrada.hasRemaining();
+            this.Entrada.flip();
+            try {
+                Tramas = this.Codec.decode(this.Entrada, Listener);
+                this.Entrada.compact();
+            } catch (UtilsException ex) {
+                this.Desync();
+                throw ex;
+            }
+            Result += Tramas;
+        } while (Lleno && (Tramas > 0));
+        return Result;
+    }
+
+    /**
+     * Envia "Datos" como una trama
+     *
+     * @param Datos Datos de la trama
+     * @throws UtilsException
+     */
+    @Override
+    public void Send(byte[] Datos) throws UtilsException {
+
+        this.sendFrames(new ByteBuffer[]{ByteBuffer.wrap(Datos)});
+    }
+
+    /**
+     * Retorna una copia de la siguiente trama completa o null si no hay
+     * ninguna, sin bloquearse. Si llega una trama invalida se registra en la
+     * bitacora, se cierra el transporter y retorna null.
+     *
+     * @return Datos de la trama o null
+     */
+    @Override
+    public synchronized byte[] Recive() {
+        ByteBuffer Frame;
+        byte[] Datos;
+
+        Datos = null;
+        this.Fill();
+        this.Entrada.flip();
+        try {
+            Frame = this.Codec.next(this.Entrada);
+            if (Frame != null) {
+                Datos = new byte[Frame.remaining()];
+                Frame.get(Datos);
+            }
+            this.Entrada.compact();
+        } catch (UtilsException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Invalid frame received", FramedTransporter.CLASSID, "001");
+            this.Desync();
+        }
+        return Datos;
+    }
+
+    /**
+     * Descarta los datos acumulados y cierra el transporter, el flujo se
+     * desincronizo y los bytes siguientes no se pueden separar en tramas.
+     */
+    @GuardedBy("this")
+    private void Desync() {
+
+        this.Entrada.clear();
+        try {
+            this.Inner.Close();
+        } catch (UtilsException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Can't close the desynchronized transporter", FramedTransporter.CLASSID, "002");
+        }
+    }
+
+    /**
+     * Retorna TRUE si hay datos recibidos pendientes, la trama puede estar
+     * incompleta.
+     *
+     * @return TRUE si hay datos disponibles y FALSE si no
+     */
+    @Override
+    public synchronized boolean DataAvailable() {
+
+        return (this.Entrada.position() > 0) || this.Inner.DataAvailable();
+    }
+
+    @Override
+    public int TransporterTypeID() {
+        return this.Inner.TransporterTypeID();
+    }
+
+    @Override
+    public void Open() throws UtilsException {
+
+        synchronized (this) {
+            this.Entrada.clear();
+        }
+        this.Inner.Open();
+    }
+
+    @Override
+    public void Close() throws UtilsException {
+
+        this.Inner.Close();
+        synchronized (this) {
+            this.Entrada.clear();
+        }
+    }
+
+    @Override
+    public int getMTU() throws UtilsException {
+        return this.Inner.getMTU();
+    }
+
+    /**
+     * Copia al buffer de recepcion los datos disponibles en el transporter,
+     * creciendo hasta el tamaño maximo de una trama codificada.
+     */
+    private void Fill() {
+        ByteBuffer Nuevo;
+        int Leidos;
+
+        do {
+            if (!this.Entrada.hasRemaining() && (this.Entrada.capacity() < this.Codec.getMaxEncodedSize())) {
+                Nuevo = ByteBuffer.allocate((int) Math.min((long) this.Entrada.capacity() << 1, this.Codec.getMaxEncodedSize()));
+                this.Entrada.flip();
+                Nuevo.put(this.Entrada);
+                this.Entrada = Nuevo;
+            }
+            Leidos = (this.Entrada.hasRemaining() ? this.Inner.receive(this.Entrada) : 0);
+        } while (Leidos > 0);
+    }
+}
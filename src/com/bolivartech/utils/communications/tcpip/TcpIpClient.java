@@ -1,6 +1,9 @@
 package com.bolivartech.utils.communications.tcpip;
 
-import com.bolivartech.utils.communications.Transporter;
+import com.bolivartech.utils.communications.BufferTransporter;
+import com.bolivartech.utils.communications.utils.DirectBufferPool;
+import com.bolivartech.utils.communications.utils.ByteRingBuffer;
+import com.bolivartech.utils.communications.utils.SpscSyncroBuffer;
 import com.bolivartech.utils.communications.utils.SyncroBuffer;
 import com.bolivartech.utils.exception.UtilsException;
 import com.bolivartech.utils.log.LoggerManager;
@@ -11,10 +14,13 @@ import com.bolivartech.utils.log.LoggerFormatter;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
 /**
  * Copyright 2011 BolivarTech C.A.
@@ -32,17 +38,48 @@ import java.net.UnknownHostException;
  * Esta clase implementa la interface trasnporte sobre TCP/IP para el envio y
  * recepcion de datos desde y hacia un servidor TCP/IP .
  *
- * Class ID: "35DGFH5" Loc: 000-017
+ * En el modo de recepcion RECEIVE_BLOCKING la hebra de recepcion se bloquea en
+ * la lectura del socket y entrega los datos apenas llegan al
+ * TcpIpClientListener registrado o al buffer, despertando a las hebras que
+ * esperan en Recive(Timeout). En el modo RECEIVE_POLLING (por defecto) la
+ * hebra consulta el socket cada 100-500 ms como en las versiones anteriores.
+ *
+ * Implementa BufferTransporter: en el modo RECEIVE_BLOCKING la conexion se abre
+ * con un SocketChannel, send(ByteBuffer) escribe los buffers directos en el
+ * canal sin copias y send(ByteBuffer[]) los envia en una sola escritura; la
+ * hebra de recepcion lee en un buffer de DirectBufferPool. En el modo
+ * RECEIVE_POLLING los ByteBuffer se escriben por el stream del socket, ya que
+ * available() no funciona sobre el stream de un SocketChannel en Java 8.
+ * receive(ByteBuffer) copia los datos recibidos al buffer del llamador sin
+ * reservar memoria.
+ *
+ * Si una sola hebra de la aplicacion lee los datos (Recive, Recive(Timeout) o
+ * receive), setSingleReaderCapacity hace que la recepcion use un
+ * SpscSyncroBuffer de capacidad fija sin locks en lugar del SyncroBuffer que
+ * crece sin limite: si la aplicacion no lee, la hebra de recepcion espera y la
+ * contrapresion llega al emisor por la ventana TCP.
+ *
+ * Class ID: "35DGFH5" Loc: 000-020
  *
  * @author Julian Bolivar
- * @since 2011 @date January 10, 2012.
- * @version 1.0.1
+ * @since 2011 @date October 19, 2026.
+ * @version 1.2.4
  *
  * Change Logs: v1.0.0 (2011-01-10) Version Inicial. v1.0.1 (2016-03-25) Se
- * implemento el uso del codigo de ubicacion unico
+ * implemento el uso del codigo de ubicacion unico. v1.1.0 (2026-10-19) Se
+ * agrego el modo de recepcion bloqueante con TcpIpClientListener y
+ * Recive(Timeout). v1.2.0 (2026-10-19) Se implemento BufferTransporter, Send y
+ * Recive se mantienen como adaptadores. v1.2.1 (2026-10-19) Las opciones del
+ * socket se configuran antes de conectar. v1.2.2 (2026-10-19) Se agrego la
+ * opcion de recibir en un SpscSyncroBuffer para un solo lector, y la hebra de
+ * recepcion por consulta escribe en el buffer sin tomar el lock. v1.2.3
+ * (2026-10-19) El buffer de recepcion se maneja como ByteRingBuffer, ya que
+ * SpscSyncroBuffer no es un SyncroBuffer. v1.2.4 (2026-10-19) La escritura de
+ * ByteBuffer por el stream se comparte con TcpIpServerConnectionManager en
+ * TcpIpStreamWriter.
  */
 @ThreadSafe
-public class TcpIpClient implements Transporter, Runnable {
+public class TcpIpClient implements BufferTransporter, Runnable {
 
     // Codigo de identificacion de la clase
     private static final String CLASSID = "35DGFH5";
@@ -57,13 +94,28 @@ public class TcpIpClient implements Transporter, Runnable {
     private DataOutputStream os; //  PrintStream os;
     @GuardedBy("this")
     private Socket clientSocket = null;
+    // Canal de la conexion en el modo RECEIVE_BLOCKING, NULL en RECEIVE_POLLING
+    @GuardedBy("this")
+    private SocketChannel Canal = null;
+    // Arreglo para escribir buffers directos por el stream del socket
+    @GuardedBy("this")
+    private byte[] Scratch = null;
     // Hebra de recepcion de datos
     private Thread Receptor = null;
     // Control de la Hebra de Recepcion
-    private boolean RunReceptor;
+    private volatile boolean RunReceptor;
     // Buffer de datos recibidos;
     @GuardedBy("this")
-    private SyncroBuffer Buffer;
+    private ByteRingBuffer Buffer;
+    // Monitor de llegada de datos para Recive(Timeout), separado de "this"
+    // para que la hebra de recepcion no espere a un Send bloqueado
+    private final Object Llegada = new Object();
+    // Capacidad del SpscSyncroBuffer de recepcion, 0 para el SyncroBuffer sin limite, se aplica en Open
+    private volatile int SingleReaderCapacity = 0;
+    // Modo de recepcion, se aplica en Open
+    private volatile int ReceiveMode = RECEIVE_POLLING;
+    // Receptor de los datos en el modo bloqueante
+    private volatile TcpIpClientListener Listener = null;
     // Buffer de recepcion de datos del socket de conexion
     private int ReceiveBufferSize;
     // Buffer de envio de datos del socket de conexion
@@ -97,6 +149,19 @@ public class TcpIpClient implements Transporter, Runnable {
      */
     public final static int IPTOS_LOWDELAY = 0x10;
 
+    /**
+     * ****** Modos de Recepcion *******
+     */
+    /**
+     * La hebra de recepcion consulta el socket cada 100-500 ms
+     */
+    public final static int RECEIVE_POLLING = 0;
+    /**
+     * La hebra de recepcion se bloquea en la lectura del socket y entrega los
+     * datos apenas llegan
+     */
+    public final static int RECEIVE_BLOCKING = 1;
+
     /**
      * **** Seleccion de Causas de Error en la conexion ******
      */
@@ -398,6 +463,68 @@ public class TcpIpClient implements Transporter, Runnable {
      *
      * public void setPort(int Port) { this.Port = Port; }
      */
+    /**
+     * Establece el modo de recepcion, RECEIVE_POLLING o RECEIVE_BLOCKING, se
+     * aplica en la siguiente llamada a Open.
+     *
+     * @param ReceiveMode Modo de recepcion
+     */
+    public void setReceiveMode(int ReceiveMode) {
+
+        if ((ReceiveMode == RECEIVE_POLLING) || (ReceiveMode == RECEIVE_BLOCKING)) {
+            this.ReceiveMode = ReceiveMode;
+        }
+    }
+
+    /**
+     * Retorna el modo de recepcion
+     *
+     * @return RECEIVE_POLLING o RECEIVE_BLOCKING
+     */
+    public int getReceiveMode() {
+
+        return this.ReceiveMode;
+    }
+
+    /**
+     * Establece la capacidad en bytes del SpscSyncroBuffer de recepcion, se
+     * aplica en la siguiente llamada a Open. Con 0 (por defecto) se usa un
+     * SyncroBuffer que crece sin limite.
+     *
+     * El SpscSyncroBuffer no toma locks pero solo admite una hebra que lea los
+     * datos con Recive, Recive(Timeout) o receive. Si se llena, la hebra de
+     * recepcion espera a que se lea.
+     *
+     * @param Capacity Capacidad en bytes o 0
+     */
+    public void setSingleReaderCapacity(int Capacity) {
+
+        this.SingleReaderCapacity = Math.max(0, Capacity);
+    }
+
+    /**
+     * Retorna la capacidad del SpscSyncroBuffer de recepcion
+     *
+     * @return Capacidad en bytes o 0 si se usa el SyncroBuffer sin limite
+     */
+    public int getSingleReaderCapacity() {
+
+        return this.SingleReaderCapacity;
+    }
+
+    /**
+     * Establece el receptor de los datos recibidos, con NULL los datos se
+     * guardan en el buffer que se lee con Recive.
+     *
+     * El receptor solo se usa en el modo RECEIVE_BLOCKING.
+     *
+     * @param Listener Receptor de los datos o NULL
+     */
+    public void setReceiveListener(TcpIpClientListener Listener) {
+
+        this.Listener = Listener;
+    }
+
     /**
      * Metodo para enviar un bloque de datos hacia el sensor.
      *
@@ -408,13 +535,69 @@ public class TcpIpClient implements Transporter, Runnable {
     @Override
     public synchronized void Send(byte[] Datos) throws UtilsException {
 
+        this.send(ByteBuffer.wrap(Datos));
+    }
+
+    /**
+     * Envia los bytes restantes de "Datos", los buffers directos se escriben
+     * en el canal sin copias en el modo RECEIVE_BLOCKING.
+     *
+     * @param Datos Datos a enviar
+     * @return Numero de bytes enviados
+     * @throws UtilsException
+     */
+    @Override
+    public synchronized int send(ByteBuffer Datos) throws UtilsException {
+        int Enviados;
+
+        Enviados = Datos.remaining();
         try {
-            os.write(Datos, 0, Datos.length);
+            if (Canal != null) {
+                while (Datos.hasRemaining()) {
+                    Canal.write(Datos);
+                }
+            } else {
+                Scratch = TcpIpStreamWriter.WriteStream(os, Datos, Scratch);
+            }
         } catch (IOException ex) {
             throw new UtilsException("ERROR: Error al enviar datos al Host " + this.Host + " " + ex.getLocalizedMessage(), ERROR_SENDDATA, TcpIpClient.CLASSID + "010");
             //Logger.getLogger(EtherTrasnporter.class.getName()).log(Level.SEVERE, null, ex);
         }
-        //throw new UnsupportedOperationException("Not supported yet.");
+        return Enviados;
+    }
+
+    /**
+     * Envia en orden los bytes restantes de los buffers de "Datos", en el modo
+     * RECEIVE_BLOCKING con una escritura gather sobre el canal.
+     *
+     * @param Datos Buffers a enviar
+     * @return Numero de bytes enviados
+     * @throws UtilsException
+     */
+    @Override
+    public synchronized long send(ByteBuffer[] Datos) throws UtilsException {
+        long Enviados, Restantes;
+        int i;
+
+        Enviados = 0;
+        for (i = 0; i < Datos.length; i++) {
+            Enviados += Datos[i].remaining();
+        }
+        try {
+            if (Canal != null) {
+                Restantes = Enviados;
+                while (Restantes > 0) {
+                    Restantes -= Canal.write(Datos);
+                }
+            } else {
+                for (i = 0; i < Datos.length; i++) {
+                    Scratch = TcpIpStreamWriter.WriteStream(os, Datos[i], Scratch);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Error al enviar datos al Host " + this.Host + " " + ex.getLocalizedMessage(), ERROR_SENDDATA, TcpIpClient.CLASSID + "020");
+        }
+        return Enviados;
     }
 
     /**
@@ -433,6 +616,69 @@ public class TcpIpClient implements Transporter, Runnable {
         //throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    /**
+     * Copia en "Destino" hasta sus bytes restantes de los datos recibidos, sin
+     * bloquearse y sin reservar memoria.
+     *
+     * @param Destino Buffer del llamador
+     * @return Numero de bytes copiados, 0 si no hay datos
+     */
+    @Override
+    public int receive(ByteBuffer Destino) {
+        ByteRingBuffer Local;
+        int Leidos;
+
+        synchronized (this) {
+            Local = this.Buffer;
+        }
+        Leidos = 0;
+        if (Local != null) {
+            Leidos = Local.read(Destino);
+        }
+        return Leidos;
+    }
+
+    /**
+     * Metodo que retorna los datos recibidos por el puerto de comunicacion,
+     * esperando hasta "Timeout" milisegundos a que lleguen si no hay ninguno.
+     *
+     * Con Timeout 0 espera hasta que lleguen datos o se cierre la conexion.
+     *
+     * @param Timeout Milisegundos maximos de espera
+     * @return Datos leidos del puerto o null si no llego ninguno.
+     */
+    public byte[] Recive(long Timeout) {
+        ByteRingBuffer Local;
+        byte[] Datos;
+        long Limite, Espera;
+
+        synchronized (this) {
+            Local = this.Buffer;
+        }
+        Datos = null;
+        if (Local != null) {
+            Limite = System.currentTimeMillis() + Timeout;
+            Espera = Timeout;
+            synchronized (this.Llegada) {
+                while (((Datos = Local.getall()) == null) && this.RunReceptor && (Espera >= 0)) {
+                    try {
+                        this.Llegada.wait(Espera);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        Espera = -1;
+                    }
+                    if ((Timeout > 0) && (Espera >= 0)) {
+                        Espera = Limite - System.currentTimeMillis();
+                        if (Espera == 0) {
+                            Espera = -1;
+                        }
+                    }
+                }
+            }
+        }
+        return Datos;
+    }
+
     /**
      * Metodo que retorna TRUE si hay datos disponibles en el puerto para leer,
      * FALSE en caso contrario.
@@ -477,17 +723,31 @@ public class TcpIpClient implements Transporter, Runnable {
      */
     @Override
     public synchronized void Open() throws UtilsException {
+        InetSocketAddress Direccion;
         boolean ChangeThead;
         int Priority;
 
-        Buffer = new SyncroBuffer();
+        Buffer = (this.SingleReaderCapacity > 0 ? new SpscSyncroBuffer(this.SingleReaderCapacity) : new SyncroBuffer());
         try {
-            clientSocket = new Socket(this.Host, this.Port);
+            Direccion = new InetSocketAddress(this.Host, this.Port);
+            if (Direccion.isUnresolved()) {
+                throw new UnknownHostException(this.Host);
+            }
+            if (this.ReceiveMode == RECEIVE_BLOCKING) {
+                Canal = SocketChannel.open();
+                clientSocket = Canal.socket();
+            } else {
+                Canal = null;
+                clientSocket = new Socket();
+            }
+            // Los buffers se configuran antes de conectar para que la ventana TCP
+            // negociada corresponda al buffer de recepcion
             clientSocket.setKeepAlive(this.KeepAlive);
             clientSocket.setTcpNoDelay(this.TcpNoDelay);
             clientSocket.setReceiveBufferSize(this.ReceiveBufferSize);
             clientSocket.setSendBufferSize(this.SendBufferSize);
             clientSocket.setTrafficClass(this.TrafficClass);
+            clientSocket.connect(Direccion);
             //clientSocket.setPerformancePreferences(8,2,3);
             //System.out.println("Class: "+Integer.toString(clientSocket.getTrafficClass()));
             is = new DataInputStream(clientSocket.getInputStream());
@@ -501,6 +761,7 @@ public class TcpIpClient implements Transporter, Runnable {
         }
         RunReceptor = true;
         Receptor = new Thread(this);
+        Receptor.setName(TcpIpClient.CLASSID + "[" + this.Host + ":" + this.Port + "]");
         ChangeThead = true;
         try {
             Receptor.checkAccess();
@@ -527,12 +788,18 @@ public class TcpIpClient implements Transporter, Runnable {
 
         if (Receptor != null) {
             this.RunReceptor = false;
+            this.Signal();
+        }
+        if (Buffer instanceof SpscSyncroBuffer) {
+            // Libera a la hebra de recepcion si espera espacio en el buffer
+            ((SpscSyncroBuffer) Buffer).close();
         }
         try {
             is.close();
             os.close();
             clientSocket.close();
             clientSocket = null;
+            Canal = null;
             is = null;
             os = null;
         } catch (IOException ex) {
@@ -540,8 +807,94 @@ public class TcpIpClient implements Transporter, Runnable {
         }
     }
 
+    /**
+     * Despierta a las hebras que esperan en Recive(Timeout)
+     */
+    private void Signal() {
+
+        synchronized (this.Llegada) {
+            this.Llegada.notifyAll();
+        }
+    }
+
+    /**
+     * Recepcion bloqueante: lee del canal apenas llegan datos y los entrega
+     * al receptor o al buffer, termina al cerrarse la conexion.
+     */
+    private void BlockingReceive() {
+        SocketChannel Entrada;
+        ByteRingBuffer Local;
+        TcpIpClientListener Receptor;
+        ByteBuffer Lectura;
+        byte[] BufferByte;
+        int NumBytes;
+
+        synchronized (this) {
+            Entrada = this.Canal;
+            Local = this.Buffer;
+        }
+        Lectura = DirectBufferPool.getDefault().acquire(Math.max(this.ReceiveBufferSize, 8192));
+        NumBytes = 0;
+        while (this.RunReceptor && (Entrada != null) && (NumBytes >= 0)) {
+            try {
+                // La lectura se bloquea sin tomar el lock, Send y Recive no esperan
+                Lectura.clear();
+                NumBytes = Entrada.read(Lectura);
+            } catch (IOException ex) {
+                if (this.RunReceptor) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Blocking Receive Fail", TcpIpClient.CLASSID, "018");
+                }
+                NumBytes = -1;
+            }
+            if (NumBytes > 0) {
+                Lectura.flip();
+                Receptor = this.Listener;
+                if (Receptor != null) {
+                    BufferByte = new byte[NumBytes];
+                    Lectura.get(BufferByte);
+                    try {
+                        Receptor.handleReceive(this, BufferByte);
+                    } catch (RuntimeException ex) {
+                        this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, true, ex, "ERROR: Receive Listener Fail", TcpIpClient.CLASSID, "019");
+                    }
+                } else {
+                    Local.put(Lectura);
+                    this.Signal();
+                }
+            }
+        }
+        DirectBufferPool.getDefault().release(Lectura);
+        // El servidor cerro la conexion o fallo la lectura
+        if (this.RunReceptor) {
+            this.RunReceptor = false;
+            Receptor = this.Listener;
+            if (Receptor != null) {
+                Receptor.handleClose(this);
+            }
+        }
+        this.Signal();
+    }
+
     @Override
     public void run() {
+        boolean Bloqueante;
+
+        // El modo se fijo en Open al crear o no el canal
+        synchronized (this) {
+            Bloqueante = (this.Canal != null);
+        }
+        if (Bloqueante) {
+            this.BlockingReceive();
+        } else {
+            this.PollingReceive();
+        }
+    }
+
+    /**
+     * Recepcion por consulta: verifica el socket cada 100-500 ms
+     */
+    private void PollingReceive() {
+        ByteRingBuffer Local;
         byte[] BufferByte;
         int NumBytes;
         MersenneTwisterPlus Aleatorio;
@@ -566,12 +919,19 @@ public class TcpIpClient implements Transporter, Runnable {
                 } while ((NumBytes < 1) && (this.RunReceptor));
                 if (this.RunReceptor) {
                     BufferByte = new byte[NumBytes];
-                    synchronized (this) {  // Realiza el bloque del buffer para realizar la escritura en el buffer
+                    Local = null;
+                    synchronized (this) {
                         if (is != null) {
-                            is.read(BufferByte, 0, NumBytes);
-                            Buffer.put(BufferByte);
+                            NumBytes = is.read(BufferByte, 0, NumBytes);
+                            Local = Buffer;
                         }
                     }
+                    // Se escribe sin el lock, un SpscSyncroBuffer lleno espera a
+                    // que el lector, que puede estar en Recive, libere espacio
+                    if ((Local != null) && (NumBytes > 0)) {
+                        Local.put(BufferByte, 0, NumBytes);
+                    }
+                    this.Signal();
                 }
             } catch (IOException ex) {
                 this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Thread RUN Fail", TcpIpClient.CLASSID, "017");
@@ -0,0 +1,51 @@
+package com.bolivartech.utils.communications.tcpip;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This class is the BolivarTech's interface to handle the data received by a
+ * TcpIpClient.</p>
+ *
+ * <p>
+ * Esta clase define la interface para manejar los datos recibidos por un
+ * TcpIpClient. Los metodos se llaman desde la hebra de recepcion del cliente
+ * apenas llegan los datos, por lo que no deben bloquearse: mientras se
+ * ejecutan no se leen mas datos del socket.</p>
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0 - October 19, 2026
+ * @since 2026
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+public interface TcpIpClientListener {
+
+    /**
+     * Se llama cada vez que el cliente recibe datos, en el orden en que
+     * llegan.
+     *
+     * @param Client Cliente que recibio los datos
+     * @param Datos Datos recibidos, el arreglo pertenece al receptor
+     */
+    public void handleReceive(TcpIpClient Client, byte[] Datos);
+
+    /**
+     * Se llama cuando el servidor cierra la conexion o falla la lectura del
+     * socket.
+     *
+     * @param Client Cliente cuya conexion se cerro
+     */
+    public default void handleClose(TcpIpClient Client) {
+    }
+}
@@ -0,0 +1,725 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.communications.BufferTransporter;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's Stream Multiplexer over a single TCP/IP
+ * connection.</p>
+ *
+ * <p>
+ * Transporta muchos flujos logicos (TcpIpStream) sobre una sola conexion, en
+ * lugar de abrir un TcpIpClient por canal. Cada flujo se identifica con un
+ * numero, se abre con openStream o con getStream y un numero elegido por la
+ * aplicacion; los flujos que abre el otro extremo se entregan con
+ * getNewStreams. Para que dos extremos que abren flujos al mismo tiempo no
+ * elijan el mismo numero, el extremo que inicia la conexion (Initiator) usa
+ * numeros impares y el otro numeros pares; el 0 esta reservado.</p>
+ *
+ * <p>
+ * Los datos viajan en tramas con un encabezado de 9 bytes: longitud de los
+ * datos (4 bytes), tipo (1 byte: datos, ventana, cierre o configuracion) y
+ * numero de flujo (4 bytes). Cada flujo tiene una ventana de control de flujo:
+ * el emisor solo envia los bytes que el receptor le autorizo y el receptor
+ * devuelve el credito con una trama de ventana a medida que la aplicacion lee
+ * los datos, de modo que un flujo que no se lee no bloquea la conexion ni a
+ * los demas flujos. La primera trama que envia cada extremo al llamar start()
+ * es la de configuracion con su ventana inicial, que es la ventana de envio
+ * de cada flujo en el otro extremo; los flujos no envian datos hasta
+ * recibirla.</p>
+ *
+ * <p>
+ * Una sola hebra de escritura envia las tramas: primero las de control y luego
+ * un fragmento de a lo sumo ChunkSize bytes de cada flujo con datos pendientes
+ * en orden circular, en lotes de una escritura gather. Asi una transferencia
+ * grande no retrasa mas de un lote a los mensajes pequeños de otros
+ * flujos.</p>
+ *
+ * <p>
+ * Con el constructor sobre un TcpIpClient el multiplexor lo pone en el modo
+ * RECEIVE_BLOCKING y recibe sus datos como TcpIpClientListener, por lo que se
+ * debe crear antes de abrir el cliente. Sobre cualquier otro BufferTransporter,
+ * como una TcpIpNioConnection del servidor, los datos recibidos se entregan
+ * con handleData desde su listener.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFIE"</li>
+ * <li>Loc: 000-004</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.2
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): Si el enlace es una TcpIpNioConnection con la
+ * cola de envio llena la hebra de escritura espera y reintenta el lote en
+ * lugar de cerrar el multiplexor.</li>
+ * <li>v1.0.2 (2026-10-19): Cada extremo anuncia su ventana inicial en la
+ * primera trama, los numeros de flujo son impares en el extremo que inicia la
+ * conexion y pares en el otro, se agrega openStream y ChunkSize se limita al
+ * tamaño de un lote.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class TcpIpMultiplexer implements TcpIpClientListener, Runnable {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFIE";
+
+    /**
+     * Numero de bytes del encabezado de las tramas
+     */
+    public static final int HEADERSIZE = 9;
+    /**
+     * Ventana inicial por defecto de cada flujo
+     */
+    public static final int DEFAULTWINDOW = 256 * 1024;
+    /**
+     * Tamaño maximo por defecto de los fragmentos de datos
+     */
+    public static final int DEFAULTCHUNK = 16 * 1024;
+    /**
+     * Tamaño maximo de los datos de una trama
+     */
+    public static final int MAXFRAME = 1024 * 1024;
+
+    // Tipos de trama
+    static final byte TYPE_DATA = 0;
+    static final byte TYPE_WINDOW = 1;
+    static final byte TYPE_CLOSE = 2;
+    static final byte TYPE_SETTINGS = 3;
+    // Bytes maximos por lote de escritura
+    private static final int MAXBATCH = 64 * 1024;
+    // Capacidad inicial del buffer de recepcion
+    private static final int INITIALSIZE = 8192;
+    // Milisegundos de espera antes de reintentar un lote rechazado por la cola de envio llena
+    private static final long BACKPRESSUREWAIT = 1;
+
+    // Conexion sobre la que se multiplexa
+    private final BufferTransporter Link;
+    // El extremo inicio la conexion, usa numeros de flujo impares
+    private final boolean Initiator;
+    // Configuracion, se aplica al crear cada flujo
+    private volatile int InitialWindow = DEFAULTWINDOW;
+    private volatile int ChunkSize = DEFAULTCHUNK;
+    // Flujos por numero
+    @GuardedBy("this")
+    private final HashMap<Integer, TcpIpStream> Streams = new HashMap<Integer, TcpIpStream>();
+    // Flujos abiertos por el otro extremo aun no entregados
+    @GuardedBy("this")
+    private final ArrayList<TcpIpStream> Nuevos = new ArrayList<TcpIpStream>();
+    // Flujos con datos y ventana para enviar, en orden circular
+    @GuardedBy("this")
+    private final ArrayDeque<TcpIpStream> Activos = new ArrayDeque<TcpIpStream>();
+    // Tramas de control pendientes
+    @GuardedBy("this")
+    private final ArrayDeque<ByteBuffer> Control = new ArrayDeque<ByteBuffer>();
+    // Ventana inicial anunciada por el otro extremo, -1 hasta recibirla
+    @GuardedBy("this")
+    private int RemoteWindow = -1;
+    // Siguiente numero de flujo de openStream
+    @GuardedBy("this")
+    private int NextID;
+    // Hebra de escritura
+    private Thread Escritor = null;
+    // Control de la Hebra de escritura
+    private volatile boolean RunEscritor = false;
+    // La conexion se cerro o fallo
+    @GuardedBy("this")
+    private boolean Cerrado = false;
+    // Datos recibidos pendientes por decodificar, en modo escritura
+    @GuardedBy("Recepcion")
+    private ByteBuffer Entrada;
+    private final Object Recepcion = new Object();
+    // Logger para el manejo de la bitacora
+    private LoggerFormatter BTLogF;
+
+    /**
+     * Constructor sobre un TcpIpClient sin abrir, lo configura en el modo
+     * RECEIVE_BLOCKING con el multiplexor como receptor de los datos. El
+     * cliente inicia la conexion y usa numeros de flujo impares.
+     *
+     * @param Client Cliente TCP/IP
+     */
+    public TcpIpMultiplexer(TcpIpClient Client) {
+
+        this(Client, true);
+        Client.setReceiveMode(TcpIpClient.RECEIVE_BLOCKING);
+        Client.setReceiveListener(this);
+    }
+
+    /**
+     * Constructor sobre un BufferTransporter del extremo que acepto la
+     * conexion, como una TcpIpNioConnection del servidor, usa numeros de flujo
+     * pares. Los datos recibidos se entregan con handleData.
+     *
+     * @param Link Conexion sobre la que se multiplexa
+     */
+    public TcpIpMultiplexer(BufferTransporter Link) {
+
+        this(Link, false);
+    }
+
+    /**
+     * Constructor sobre un BufferTransporter, los datos recibidos se entregan
+     * con handleData. Los dos extremos de la conexion deben tener valores
+     * distintos de "Initiator".
+     *
+     * @param Link Conexion sobre la que se multiplexa
+     * @param Initiator TRUE si el extremo inicio la conexion y usa numeros de
+     * flujo impares, FALSE si usa numeros pares
+     */
+    public TcpIpMultiplexer(BufferTransporter Link, boolean Initiator) {
+
+        this.Link = Link;
+        this.Initiator = Initiator;
+        this.NextID = (Initiator ? 1 : 2);
+        this.Entrada = ByteBuffer.allocate(INITIALSIZE);
+        this.BTLogF = LoggerFormatter.getInstance(null);
+    }
+
+    /**
+     * Establece la Bitacora a utilizar por la clase
+     *
+     * @param Bitacora
+     */
+    public void setBitacora(LoggerManager Bitacora) {
+        this.BTLogF = LoggerFormatter.getInstance(Bitacora);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna la conexion sobre la que se multiplexa
+     *
+     * @return Conexion
+     */
+    public BufferTransporter getLink() {
+        return this.Link;
+    }
+
+    /**
+     * Retorna TRUE si el extremo inicio la conexion y usa numeros de flujo
+     * impares
+     *
+     * @return TRUE si usa numeros impares y FALSE si usa pares
+     */
+    public boolean isInitiator() {
+        return this.Initiator;
+    }
+
+    /**
+     * Establece la ventana inicial de recepcion de los flujos, se anuncia al
+     * otro extremo al llamar start() por lo que se debe fijar antes.
+     *
+     * @param InitialWindow Ventana en bytes, mayor a 0
+     */
+    public void setInitialWindow(int InitialWindow) {
+        this.InitialWindow = Math.max(1, InitialWindow);
+    }
+
+    /**
+     * Retorna la ventana inicial de los flujos
+     *
+     * @return Ventana en bytes
+     */
+    public int getInitialWindow() {
+        return this.InitialWindow;
+    }
+
+    /**
+     * Establece el tamaño maximo de los fragmentos de datos, un valor menor
+     * reparte mejor la conexion entre los flujos. No puede exceder el lote de
+     * escritura de 64 KB, para que un fragmento no retrase mas de un lote a los
+     * demas flujos.
+     *
+     * @param ChunkSize Bytes entre 1 y 64 KB
+     */
+    public void setChunkSize(int ChunkSize) {
+        this.ChunkSize = Math.max(1, Math.min(ChunkSize, MAXBATCH));
+    }
+
+    /**
+     * Retorna el tamaño maximo de los fragmentos de datos
+     *
+     * @return Bytes por fragmento
+     */
+    public int getChunkSize() {
+        return this.ChunkSize;
+    }
+
+    /**
+     * Inicia la hebra de escritura y anuncia la ventana inicial al otro
+     * extremo, la conexion debe estar abierta.
+     */
+    public synchronized void start() {
+
+        if (this.Escritor == null) {
+            this.Cerrado = false;
+            this.Enqueue(TYPE_SETTINGS, 0, this.InitialWindow);
+            this.RunEscritor = true;
+            this.Escritor = new Thread(this, "TcpIpMultiplexer");
+            this.Escritor.setDaemon(true);
+            this.Escritor.start();
+        }
+    }
+
+    /**
+     * Detiene la hebra de escritura y cierra todos los flujos, no cierra la
+     * conexion.
+     */
+    public void Stop() {
+
+        synchronized (this) {
+            this.RunEscritor = false;
+            this.Escritor = null;
+            this.Shutdown();
+        }
+    }
+
+    /**
+     * Retorna el flujo "StreamID", creandolo si no existe. Solo se pueden
+     * crear los flujos con numeros del extremo, impares si es Initiator y
+     * pares si no.
+     *
+     * @param StreamID Numero del flujo
+     * @return Flujo
+     * @throws UtilsException Si el multiplexor esta cerrado o el numero es del
+     * otro extremo y el flujo no existe
+     */
+    public synchronized TcpIpStream getStream(int StreamID) throws UtilsException {
+        TcpIpStream Result;
+
+        if (this.Cerrado) {
+            throw new UtilsException("ERROR: Multiplexer closed", TcpIpStream.ERROR_CLOSED, TcpIpMultiplexer.CLASSID + "000");
+        }
+        Result = this.Streams.get(StreamID);
+        if (Result == null) {
+            if (!this.isLocal(StreamID)) {
+                throw new UtilsException("ERROR: Stream " + Integer.toString(StreamID) + " belongs to the remote end", TcpIpStream.ERROR_STREAMID, TcpIpMultiplexer.CLASSID + "003");
+            }
+            Result = this.Create(StreamID);
+        }
+        return Result;
+    }
+
+    /**
+     * Abre un flujo con el siguiente numero libre del extremo
+     *
+     * @return Flujo nuevo
+     * @throws UtilsException Si el multiplexor esta cerrado
+     */
+    public synchronized TcpIpStream openStream() throws UtilsException {
+        TcpIpStream Result;
+
+        if (this.Cerrado) {
+            throw new UtilsException("ERROR: Multiplexer closed", TcpIpStream.ERROR_CLOSED, TcpIpMultiplexer.CLASSID + "004");
+        }
+        while ((this.NextID == 0) || this.Streams.containsKey(this.NextID)) {
+            this.NextID += 2;
+        }
+        Result = this.Create(this.NextID);
+        this.NextID += 2;
+        return Result;
+    }
+
+    /**
+     * Retorna los flujos abiertos por el otro extremo desde la ultima llamada
+     *
+     * @return Flujos nuevos, puede ser vacio
+     */
+    public synchronized TcpIpStream[] getNewStreams() {
+        TcpIpStream[] Result;
+
+        Result = this.Nuevos.toArray(new TcpIpStream[this.Nuevos.size()]);
+        this.Nuevos.clear();
+        return Result;
+    }
+
+    /**
+     * Retorna el numero de flujos abiertos
+     *
+     * @return Numero de flujos
+     */
+    public synchronized int getStreamCount() {
+        return this.Streams.size();
+    }
+
+    /**
+     * Entrega los datos recibidos por el TcpIpClient
+     *
+     * @param Client Cliente que recibio los datos
+     * @param Datos Datos recibidos
+     */
+    @Override
+    public void handleReceive(TcpIpClient Client, byte[] Datos) {
+        this.handleData(Datos);
+    }
+
+    /**
+     * El TcpIpClient cerro la conexion
+     *
+     * @param Client Cliente cuya conexion se cerro
+     */
+    @Override
+    public void handleClose(TcpIpClient Client) {
+        this.Stop();
+    }
+
+    /**
+     * Entrega al multiplexor los datos recibidos por la conexion, en el orden
+     * en que llegan. Si llega una trama invalida el flujo de bytes queda
+     * desincronizado y se cierra el multiplexor.
+     *
+     * @param Datos Datos recibidos
+     */
+    public void handleData(byte[] Datos) {
+        ByteBuffer Nuevo;
+        int Longitud, Tipo, StreamID, Fin;
+        boolean Valido;
+
+        Valido = true;
+        synchronized (this.Recepcion) {
+            if (this.Entrada.remaining() < Datos.length) {
+                Nuevo = ByteBuffer.allocate(Math.max(this.Entrada.capacity() << 1, this.Entrada.position() + Datos.length));
+                this.Entrada.flip();
+                Nuevo.put(this.Entrada);
+                this.Entrada = Nuevo;
+            }
+            this.Entrada.put(Datos);
+            this.Entrada.flip();
+            while (Valido && (this.Entrada.remaining() >= HEADERSIZE)
+                    && (this.Entrada.remaining() >= (HEADERSIZE + this.Entrada.getInt(this.Entrada.position())))) {
+                Longitud = this.Entrada.getInt();
+                Tipo = this.Entrada.get();
+                StreamID = this.Entrada.getInt();
+                Valido = (Longitud >= 0) && (Longitud <= MAXFRAME);
+                if (Valido) {
+                    Fin = this.Entrada.limit();
+                    this.Entrada.limit(this.Entrada.position() + Longitud);
+                    Valido = this.Dispatch(Tipo, StreamID, this.Entrada);
+                    this.Entrada.position(this.Entrada.limit());
+                    this.Entrada.limit(Fin);
+                }
+            }
+            // Una longitud negativa o excesiva nunca completa la trama
+            if (Valido && (this.Entrada.remaining() >= HEADERSIZE)) {
+                Longitud = this.Entrada.getInt(this.Entrada.position());
+                Valido = (Longitud >= 0) && (Longitud <= MAXFRAME);
+            }
+            if (Valido) {
+                this.Entrada.compact();
+            } else {
+                this.Entrada.clear();
+            }
+        }
+        if (!Valido) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, null, "ERROR: Invalid multiplexer frame received", TcpIpMultiplexer.CLASSID, "001");
+            this.Stop();
+        }
+    }
+
+    /**
+     * Hebra de escritura
+     */
+    @Override
+    public void run() {
+        ByteBuffer[] Lote;
+        boolean Enviado;
+
+        while (this.RunEscritor) {
+            Lote = null;
+            synchronized (this) {
+                while (this.RunEscritor && this.Control.isEmpty() && this.Activos.isEmpty()) {
+                    try {
+                        this.wait();
+                    } catch (InterruptedException ex) {
+                        this.RunEscritor = false;
+                    }
+                }
+                if (this.RunEscritor) {
+                    Lote = this.Schedule();
+                }
+            }
+            Enviado = (Lote == null);
+            while (!Enviado && this.RunEscritor) {
+                try {
+                    this.Link.send(Lote);
+                    Enviado = true;
+                } catch (UtilsException ex) {
+                    if ((this.Link instanceof TcpIpNioConnection) && (ex.getErrorCode() == TcpIpNioConnection.ERROR_BACKPRESSURE)) {
+                        // El lote no se escribio, se reintenta cuando el selector vacie la cola
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(BACKPRESSUREWAIT));
+                    } else {
+                        if (this.RunEscritor) {
+                            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Multiplexer write fail", TcpIpMultiplexer.CLASSID, "002");
+                        }
+                        this.Stop();
+                        Enviado = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Agrega el flujo a la cola circular de envio si tiene datos y ventana, y
+     * despierta a la hebra de escritura.
+     *
+     * @param Stream Flujo
+     */
+    @GuardedBy("this")
+    void Schedule(TcpIpStream Stream) {
+
+        if (!Stream.EnCola && Stream.isReady()) {
+            Stream.EnCola = true;
+            this.Activos.add(Stream);
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Encola una trama de control y despierta a la hebra de escritura
+     *
+     * @param Tipo Tipo de trama
+     * @param StreamID Numero del flujo
+     * @param Valor Incremento de la ventana en TYPE_WINDOW o ventana inicial
+     * en TYPE_SETTINGS
+     */
+    @GuardedBy("this")
+    void Enqueue(byte Tipo, int StreamID, int Valor) {
+        ByteBuffer Trama;
+        boolean ConValor;
+
+        ConValor = (Tipo == TYPE_WINDOW) || (Tipo == TYPE_SETTINGS);
+        Trama = ByteBuffer.allocate(HEADERSIZE + (ConValor ? 4 : 0));
+        Trama.putInt(ConValor ? 4 : 0);
+        Trama.put(Tipo);
+        Trama.putInt(StreamID);
+        if (ConValor) {
+            Trama.putInt(Valor);
+        }
+        Trama.flip();
+        this.Control.add(Trama);
+        this.notifyAll();
+    }
+
+    /**
+     * Retira el flujo cerrado por ambos extremos para que su numero pueda
+     * volver a usarse.
+     *
+     * @param Stream Flujo
+     */
+    @GuardedBy("this")
+    void Remove(TcpIpStream Stream) {
+
+        if (this.Streams.get(Stream.getStreamID()) == Stream) {
+            this.Streams.remove(Stream.getStreamID());
+        }
+    }
+
+    /**
+     * Retorna TRUE si el multiplexor esta cerrado
+     *
+     * @return Estado del multiplexor
+     */
+    @GuardedBy("this")
+    boolean isClosed() {
+        return this.Cerrado;
+    }
+
+    /**
+     * Retorna el MTU de la conexion descontando el encabezado de las tramas
+     *
+     * @return MTU neto o -1
+     * @throws UtilsException
+     */
+    int getMTU() throws UtilsException {
+        int Result;
+
+        Result = this.Link.getMTU();
+        if (Result > 0) {
+            Result -= HEADERSIZE;
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna TRUE si "StreamID" es un numero de flujo de este extremo
+     *
+     * @param StreamID Numero del flujo
+     * @return TRUE si el numero es del extremo
+     */
+    private boolean isLocal(int StreamID) {
+        return (StreamID != 0) && (((StreamID & 1) == 1) == this.Initiator);
+    }
+
+    /**
+     * Crea y registra el flujo "StreamID", su ventana de envio es la anunciada
+     * por el otro extremo o 0 si aun no llega.
+     *
+     * @param StreamID Numero del flujo
+     * @return Flujo nuevo
+     */
+    @GuardedBy("this")
+    private TcpIpStream Create(int StreamID) {
+        TcpIpStream Result;
+
+        Result = new TcpIpStream(this, StreamID, this.InitialWindow, Math.max(0, this.RemoteWindow));
+        this.Streams.put(StreamID, Result);
+        return Result;
+    }
+
+    /**
+     * Arma un lote de tramas: todas las de control y fragmentos de los flujos
+     * activos en orden circular hasta MAXBATCH bytes.
+     *
+     * @return Buffers a enviar
+     */
+    @GuardedBy("this")
+    private ByteBuffer[] Schedule() {
+        ArrayList<ByteBuffer> Lote;
+        TcpIpStream Stream;
+        ByteBuffer Encabezado, Datos;
+        int Bytes;
+
+        Lote = new ArrayList<ByteBuffer>();
+        Bytes = 0;
+        while (!this.Control.isEmpty()) {
+            Lote.add(this.Control.poll());
+            Bytes += HEADERSIZE;
+        }
+        while (!this.Activos.isEmpty() && (Bytes < MAXBATCH)) {
+            Stream = this.Activos.poll();
+            Datos = Stream.nextChunk(this.ChunkSize);
+            Encabezado = ByteBuffer.allocate(HEADERSIZE);
+            Encabezado.putInt(Datos.remaining());
+            Encabezado.put(TYPE_DATA);
+            Encabezado.putInt(Stream.getStreamID());
+            Encabezado.flip();
+            Lote.add(Encabezado);
+            Lote.add(Datos);
+            Bytes += HEADERSIZE + Datos.remaining();
+            if (Stream.isReady()) {
+                this.Activos.add(Stream);
+            } else {
+                Stream.EnCola = false;
+                if (Stream.takeClose()) {
+                    this.Enqueue(TYPE_CLOSE, Stream.getStreamID(), 0);
+                    Lote.add(this.Control.poll());
+                }
+            }
+        }
+        // Despierta a los emisores que esperan espacio
+        this.notifyAll();
+        return Lote.toArray(new ByteBuffer[Lote.size()]);
+    }
+
+    /**
+     * Procesa una trama recibida
+     *
+     * @param Tipo Tipo de trama
+     * @param StreamID Numero del flujo
+     * @param Datos Datos de la trama entre la posicion y el limite
+     * @return FALSE si la trama es invalida
+     */
+    @GuardedBy("Recepcion")
+    private boolean Dispatch(int Tipo, int StreamID, ByteBuffer Datos) {
+        TcpIpStream Stream;
+        boolean Result;
+
+        Result = true;
+        synchronized (this) {
+            if (Tipo == TYPE_SETTINGS) {
+                // Solo se acepta una vez, con una ventana valida
+                Result = (this.RemoteWindow < 0) && (Datos.remaining() == 4);
+                if (Result) {
+                    this.RemoteWindow = Datos.getInt();
+                    Result = (this.RemoteWindow > 0);
+                }
+                if (Result) {
+                    // Los flujos creados antes de recibirla empiezan a enviar
+                    for (TcpIpStream Abierto : this.Streams.values()) {
+                        Abierto.handleWindow(this.RemoteWindow);
+                    }
+                }
+                Stream = null;
+            } else {
+                Stream = this.Streams.get(StreamID);
+                if ((Stream == null) && (Tipo == TYPE_DATA) && !this.Cerrado) {
+                    // Flujo abierto por el otro extremo, con un numero del otro extremo
+                    Result = (StreamID != 0) && !this.isLocal(StreamID);
+                    if (Result) {
+                        Stream = this.Create(StreamID);
+                        this.Nuevos.add(Stream);
+                    }
+                }
+            }
+            if (Stream != null) {
+                switch (Tipo) {
+                    case TYPE_DATA:
+                        Result = Stream.handleData(Datos);
+                        break;
+                    case TYPE_WINDOW:
+                        Result = (Datos.remaining() == 4) && Stream.handleWindow(Datos.getInt());
+                        break;
+                    case TYPE_CLOSE:
+                        Stream.handleClose();
+                        break;
+                    default:
+                        Result = false;
+                }
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Marca el multiplexor como cerrado y cierra todos los flujos
+     */
+    @GuardedBy("this")
+    private void Shutdown() {
+
+        this.Cerrado = true;
+        for (TcpIpStream Stream : this.Streams.values()) {
+            Stream.handleShutdown();
+        }
+        this.Streams.clear();
+        this.Activos.clear();
+        this.Control.clear();
+        this.notifyAll();
+    }
+}
@@ -0,0 +1,602 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.communications.BufferTransporter;
+import com.bolivartech.utils.communications.utils.SyncroBuffer;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's Server Connection Over TCP/IP Class for the
+ * NIO mode of TcpIpServer.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa una conexion del servidor TCP/IP en modo NIO sobre un
+ * SocketChannel no bloqueante. La conexion no tiene hebra propia: la atiende
+ * la hebra del selector (TcpIpNioEventLoop) al que fue asignada, que lee los
+ * datos cuando el canal esta listo y los entrega al TcpIpReceiveListener del
+ * servidor o, si no hay listener, los guarda en el buffer que se lee con
+ * Recive().</p>
+ *
+ * <p>
+ * Send escribe directamente en el canal desde la hebra que envia, lo que el
+ * socket no acepta se encola y lo termina de escribir la hebra del selector
+ * cuando el canal vuelve a estar listo para escritura, por lo que Send nunca
+ * se bloquea. La cola de envio esta acotada por una marca de nivel alto
+ * (setMaxPendingBytes): si ya hay datos encolados y el envio la supera, Send
+ * falla con ERROR_BACKPRESSURE sin escribir nada, y el llamador puede
+ * reintentar cuando getPendingBytes baje. Un solo envio mayor que la marca se
+ * acepta si la cola esta vacia.</p>
+ *
+ * <p>
+ * Implementa BufferTransporter: send(ByteBuffer) escribe los buffers directos
+ * en el canal sin copias y send(ByteBuffer[]) hace una escritura gather, solo
+ * se copia lo que el socket no acepta.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI6"</li>
+ * <li>Loc: 000-008</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.1.1
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.1.0 (2026-10-19): Se implemento BufferTransporter.</li>
+ * <li>v1.1.1 (2026-10-19): La cola de envio se acota con una marca de nivel
+ * alto, al superarla Send falla con ERROR_BACKPRESSURE.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class TcpIpNioConnection implements BufferTransporter {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI6";
+
+    // Secuencia de conexiones para formar el ID unico
+    private static final AtomicLong Secuencia = new AtomicLong(0);
+
+    /**
+     * **** Seleccion de Causas de Error en la conexion ******
+     */
+    /**
+     * Error de IO
+     */
+    public final static int ERROR_IO = 2;
+    /**
+     * Error de IO al enviar datos
+     */
+    public final static int ERROR_SENDDATA = 3;
+    /**
+     * Error la conexion la abre el servidor
+     */
+    public final static int ERROR_OPENBYSERVER = 4;
+    /**
+     * Error de Interface
+     */
+    public final static int ERROR_INTERFACE = 7;
+    /**
+     * Error la conexion esta cerrada
+     */
+    public final static int ERROR_CLOSED = 8;
+    /**
+     * Error la cola de envio supera la marca de nivel alto
+     */
+    public final static int ERROR_BACKPRESSURE = 9;
+
+    /**
+     * Marca de nivel alto por defecto de la cola de envio en bytes
+     */
+    public final static long DEFAULTMAXPENDING = 4 * 1024 * 1024;
+
+    // Canal de la conexion y selector que la atiende
+    private final SocketChannel Channel;
+    private final TcpIpNioEventLoop Loop;
+    private final TcpIpServer Server;
+    // Llave del canal en el selector, la asigna la hebra del selector
+    private volatile SelectionKey Key = null;
+    // ID Unico de conexion del servidor
+    private final String ConectionID;
+    // Tiempo en milisegndos cuando se abrio la conexion
+    private final long OpenTime;
+    // Direccion del cliente
+    private final InetSocketAddress Remote;
+    // Buffer de datos recibidos si no hay listener
+    private final SyncroBuffer Buffer = new SyncroBuffer();
+    // Datos pendientes por enviar
+    @GuardedBy("this")
+    private final ArrayDeque<ByteBuffer> Pendientes = new ArrayDeque<ByteBuffer>();
+    // Bytes pendientes por enviar y marca de nivel alto de la cola
+    @GuardedBy("this")
+    private long PendingBytes = 0;
+    @GuardedBy("this")
+    private long MaxPending = DEFAULTMAXPENDING;
+    // Banderas de control
+    @GuardedBy("this")
+    private boolean OpenConnection = true;
+    private volatile boolean IsNew = true;
+    // Logger para el manejo de la bitacora
+    private final LoggerFormatter BTLogF;
+
+    /**
+     * Constructor de la conexion sobre el canal aceptado por el servidor
+     *
+     * @param Channel Canal no bloqueante de la conexion
+     * @param Loop Selector que atiende la conexion
+     * @param Server Servidor que acepto la conexion
+     * @throws IOException Si no se puede recuperar la direccion del cliente
+     */
+    TcpIpNioConnection(SocketChannel Channel, TcpIpNioEventLoop Loop, TcpIpServer Server) throws IOException {
+
+        this.Channel = Channel;
+        this.Loop = Loop;
+        this.Server = Server;
+        this.OpenTime = System.currentTimeMillis();
+        this.Remote = (InetSocketAddress) Channel.getRemoteAddress();
+        this.ConectionID = String.format("%016x", (this.OpenTime << 20) ^ Secuencia.incrementAndGet());
+        this.BTLogF = LoggerFormatter.getInstance(null);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna un valor hexadecimal que representa el ID de la conexion, el cual
+     * es unico para cada conexion hacia el servidor
+     *
+     * @return ID de la conexion
+     */
+    public String getConnectionID() {
+
+        return ConectionID;
+    }
+
+    /**
+     * Retorna el hombre del cliente si se puede hacer una resolucion por DNS o
+     * su IP si no.
+     *
+     * @return Nombre del Cliente o IP
+     */
+    public String getClient() {
+
+        return this.Remote.getAddress().getHostName();
+    }
+
+    /**
+     * Retorna el puerto donde se realizo la conexion
+     *
+     * @return Puerto de conexion
+     */
+    public int getPort() {
+
+        return this.Remote.getPort();
+    }
+
+    /**
+     * Retorna la cantidad de milisegundos que tiene la conexion establecida
+     *
+     * @return milisegundos que tiene la conexion establecida
+     */
+    public long getConnetionTime() {
+
+        return System.currentTimeMillis() - this.OpenTime;
+    }
+
+    /**
+     * Establece la marca de nivel alto en bytes de la cola de envio, si hay
+     * datos encolados y un envio la supera Send falla con ERROR_BACKPRESSURE.
+     *
+     * @param MaxPending Maximo de bytes encolados, mayor a cero
+     */
+    public synchronized void setMaxPendingBytes(long MaxPending) {
+
+        this.MaxPending = Math.max(1, MaxPending);
+    }
+
+    /**
+     * Retorna la marca de nivel alto en bytes de la cola de envio
+     *
+     * @return Maximo de bytes encolados
+     */
+    public synchronized long getMaxPendingBytes() {
+
+        return this.MaxPending;
+    }
+
+    /**
+     * Retorna los bytes encolados que el socket aun no ha aceptado
+     *
+     * @return Bytes pendientes por enviar
+     */
+    public synchronized long getPendingBytes() {
+
+        return this.PendingBytes;
+    }
+
+    /**
+     * Habilita el "TCP NO Delay" en el socket de conexion.
+     *
+     * @param TcpNoDelay
+     * @throws UtilsException
+     */
+    public void setTCPNoDelay(boolean TcpNoDelay) throws UtilsException {
+
+        try {
+            this.Channel.socket().setTcpNoDelay(TcpNoDelay);
+        } catch (SocketException ex) {
+            throw new UtilsException("ERROR: Can't set Socket TcpNoDelay", ERROR_INTERFACE, TcpIpNioConnection.CLASSID + "000");
+        }
+    }
+
+    /**
+     * Habilita el Keep Alive en el socket de conexion.
+     *
+     * @param KeepAlive
+     * @throws UtilsException
+     */
+    public void setKeepAlive(boolean KeepAlive) throws UtilsException {
+
+        try {
+            this.Channel.socket().setKeepAlive(KeepAlive);
+        } catch (SocketException ex) {
+            throw new UtilsException("ERROR: Can't set Socket KeepAlive", ERROR_INTERFACE, TcpIpNioConnection.CLASSID + "001");
+        }
+    }
+
+    /**
+     * La conexion la abre el servidor al aceptarla, este metodo siempre lanza
+     * la excepcion.
+     *
+     * @throws UtilsException
+     */
+    @Override
+    public void Open() throws UtilsException {
+
+        throw new UtilsException("ERROR: NIO connections are opened by the server", ERROR_OPENBYSERVER, TcpIpNioConnection.CLASSID + "002");
+    }
+
+    /**
+     * Cierra la conexion descartando los datos pendientes por enviar.
+     *
+     * @throws UtilsException
+     */
+    @Override
+    public void Close() throws UtilsException {
+
+        if (!this.Disconnect()) {
+            throw new UtilsException("ERROR: Al cerrar conexion con el Host " + this.Remote.getAddress().getHostAddress(), ERROR_IO, TcpIpNioConnection.CLASSID + "003");
+        }
+    }
+
+    /**
+     * Metodo para enviar un bloque de datos hacia el cliente, no se bloquea.
+     *
+     * @param Datos Datos enviados al cliente
+     * @throws UtilsException Si la conexion esta cerrada, falla el envio o la
+     * cola de envio supera la marca de nivel alto (ERROR_BACKPRESSURE)
+     */
+    @Override
+    public void Send(byte[] Datos) throws UtilsException {
+
+        this.send(ByteBuffer.wrap(Datos));
+    }
+
+    /**
+     * Envia los bytes restantes de "Datos" sin bloquearse, los buffers
+     * directos se escriben en el canal sin copias.
+     *
+     * @param Datos Datos a enviar
+     * @return Numero de bytes enviados o encolados
+     * @throws UtilsException
+     */
+    @Override
+    public int send(ByteBuffer Datos) throws UtilsException {
+
+        return (int) this.send(new ByteBuffer[]{Datos});
+    }
+
+    /**
+     * Envia en orden los bytes restantes de los buffers de "Datos" con una
+     * escritura gather sobre el canal, sin bloquearse.
+     *
+     * @param Datos Buffers a enviar
+     * @return Numero de bytes enviados o encolados
+     * @throws UtilsException Si la conexion esta cerrada, falla el envio o la
+     * cola de envio supera la marca de nivel alto (ERROR_BACKPRESSURE)
+     */
+    @Override
+    public long send(ByteBuffer[] Datos) throws UtilsException {
+        ByteBuffer Copia;
+        boolean Error, Pendiente;
+        long Enviados;
+        int i, Faltan;
+
+        Error = false;
+        Pendiente = false;
+        Enviados = 0;
+        for (i = 0; i < Datos.length; i++) {
+            Enviados += Datos[i].remaining();
+        }
+        synchronized (this) {
+            if (!this.OpenConnection) {
+                throw new UtilsException("ERROR: Connection closed", ERROR_CLOSED, TcpIpNioConnection.CLASSID + "004");
+            }
+            if ((this.PendingBytes > 0) && (this.PendingBytes + Enviados > this.MaxPending)) {
+                // Con datos encolados no se escribe nada, el envio se rechaza completo
+                throw new UtilsException("ERROR: Send queue full, " + this.PendingBytes + " bytes pending", ERROR_BACKPRESSURE, TcpIpNioConnection.CLASSID + "008");
+            }
+            try {
+                if (this.Pendientes.isEmpty()) {
+                    this.Channel.write(Datos);
+                }
+                Faltan = 0;
+                for (i = 0; i < Datos.length; i++) {
+                    Faltan += Datos[i].remaining();
+                }
+                if (Faltan > 0) {
+                    // Los buffers son del llamador, se encola una copia de lo que falta
+                    Copia = ByteBuffer.allocate(Faltan);
+                    for (i = 0; i < Datos.length; i++) {
+                        Copia.put(Datos[i]);
+                    }
+                    Copia.flip();
+                    this.Pendientes.addLast(Copia);
+                    this.PendingBytes += Faltan;
+                    Pendiente = (this.Pendientes.size() == 1);
+                }
+            } catch (IOException ex) {
+                Error = true;
+            }
+        }
+        if (Error) {
+            this.Disconnect();
+            throw new UtilsException("ERROR: Error al enviar datos al Host " + this.Remote.getAddress().getHostAddress(), ERROR_SENDDATA, TcpIpNioConnection.CLASSID + "005");
+        }
+        if (Pendiente) {
+            this.Loop.requestWrite(this);
+        }
+        return Enviados;
+    }
+
+    /**
+     * Metodo que retorna los datos recibidos por el puerto de comunicacion Este
+     * metodo no produce bloqueo si no hay datos disponibles, este metodo
+     * retorna los datos recibidos por el puerto o null si no hay ninguno.
+     *
+     * NOTA: Si el servidor tiene un TcpIpReceiveListener los datos se entregan
+     * al listener y este metodo siempre retorna null.
+     *
+     * @return Datos leidos del puerto o null si no existe ninguno.
+     */
+    @Override
+    public byte[] Recive() {
+
+        return this.Buffer.getall();
+    }
+
+    /**
+     * Copia en "Destino" hasta sus bytes restantes de los datos recibidos, sin
+     * bloquearse y sin reservar memoria.
+     *
+     * @param Destino Buffer del llamador
+     * @return Numero de bytes copiados, 0 si no hay datos
+     */
+    @Override
+    public int receive(ByteBuffer Destino) {
+
+        return this.Buffer.read(Destino);
+    }
+
+    /**
+     * Metodo que retorna TRUE si hay datos disponibles en el buffer para leer,
+     * FALSE en caso contrario.
+     *
+     * @return TRUE si hay datos disponibles y FALSE si no
+     */
+    @Override
+    public boolean DataAvailable() {
+
+        return (this.Buffer.length() > 0);
+    }
+
+    /**
+     * Metodo que retorna el tipo de transporter que se esta usando.
+     *
+     * ID del Transporter Tipo 1 Ethernet
+     *
+     * @return ID del tipo de transponder
+     */
+    @Override
+    public int TransporterTypeID() {
+        return 1;
+    }
+
+    /**
+     * Retorna TRUE si la conexion esta abierta y FALSE si no esta abierta.
+     *
+     * @return TRUE si esta abierta la conexion y FALSE si se cerro
+     */
+    public synchronized boolean isOpen() {
+
+        return this.OpenConnection;
+    }
+
+    /**
+     * Metodo que retorna el Maximum Transmission Unit (MTU) de la interface,
+     * retornando la CANTIDAD NETA de bytes que se pueden enviar por la
+     * interface tomando en cuenta los encabezados usados por el protocolo.
+     *
+     * NOTA: Retorna -1 si no logra recuperar el valor del MTU de la interface
+     *
+     * @return Maximum Transmission Unit (MTU)
+     * @throws UtilsException
+     */
+    @Override
+    public int getMTU() throws UtilsException {
+        NetworkInterface Interfaz;
+        int MTU;
+
+        MTU = -1;
+        try {
+            Interfaz = NetworkInterface.getByInetAddress(this.Channel.socket().getLocalAddress());
+            if (Interfaz != null) {
+                // Resto los 20 bytes del encabezado IP y los 20 del encabezado TCP
+                MTU = Interfaz.getMTU() - 40;
+            }
+        } catch (SocketException ex) {
+            throw new UtilsException("ERROR: Al obtener el MTU de la interface:" + ex.getLocalizedMessage(), ERROR_INTERFACE, TcpIpNioConnection.CLASSID + "006");
+        }
+        return MTU;
+    }
+
+    /**
+     * Verifica si es una conexion nueva retornando TRUE si lo es y FALSE si no.
+     *
+     * @return TRUE o FALSE
+     */
+    protected boolean isNew() {
+
+        return IsNew;
+    }
+
+    /**
+     * Limpia la bandera de nueva conexion
+     */
+    protected void ClearNewFlag() {
+
+        IsNew = false;
+    }
+
+    /**
+     * Retorna el canal de la conexion
+     *
+     * @return Canal de la conexion
+     */
+    SocketChannel getChannel() {
+
+        return this.Channel;
+    }
+
+    /**
+     * Asigna la llave del canal en el selector, la llama la hebra del selector
+     *
+     * @param Key Llave del canal
+     */
+    void setKey(SelectionKey Key) {
+
+        this.Key = Key;
+    }
+
+    /**
+     * Entrega los datos leidos por la hebra del selector al listener del
+     * servidor o al buffer de recepcion.
+     *
+     * @param Datos Datos recibidos
+     */
+    void Deliver(byte[] Datos) {
+        TcpIpReceiveListener Listener;
+
+        Listener = this.Server.getReceiveListener();
+        if (Listener != null) {
+            try {
+                Listener.handleReceive(this, Datos);
+            } catch (RuntimeException ex) {
+                // Un listener con error no detiene el selector
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, true, ex, "ERROR: Receive Listener Fail", TcpIpNioConnection.CLASSID, "007");
+            }
+        } else {
+            this.Buffer.put(Datos);
+        }
+    }
+
+    /**
+     * Escribe los datos pendientes en el canal, la llama la hebra del selector
+     * cuando el canal esta listo para escritura.
+     *
+     * @return TRUE si quedan datos pendientes
+     * @throws IOException Si falla la escritura
+     */
+    synchronized boolean Flush() throws IOException {
+        ByteBuffer Salida;
+        boolean Lleno;
+
+        Lleno = false;
+        while (!Lleno && ((Salida = this.Pendientes.peekFirst()) != null)) {
+            this.PendingBytes -= this.Channel.write(Salida);
+            if (Salida.hasRemaining()) {
+                Lleno = true;
+            } else {
+                this.Pendientes.pollFirst();
+            }
+        }
+        return !this.Pendientes.isEmpty();
+    }
+
+    /**
+     * Cierra el canal y notifica al servidor, solo la primera llamada tiene
+     * efecto.
+     *
+     * @return FALSE si fallo el cierre del canal
+     */
+    boolean Disconnect() {
+        SelectionKey Local;
+        boolean Cerrar, Result;
+
+        Result = true;
+        synchronized (this) {
+            Cerrar = this.OpenConnection;
+            this.OpenConnection = false;
+            this.Pendientes.clear();
+            this.PendingBytes = 0;
+        }
+        if (Cerrar) {
+            Local = this.Key;
+            if (Local != null) {
+                Local.cancel();
+            }
+            try {
+                this.Channel.close();
+            } catch (IOException ex) {
+                Result = false;
+            }
+            this.Server.Closed(this);
+        }
+        return Result;
+    }
+}
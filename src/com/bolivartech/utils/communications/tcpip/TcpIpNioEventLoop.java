@@ -0,0 +1,290 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's Selector event loop for the NIO mode of
+ * TcpIpServer.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa una hebra con un Selector que atiende las conexiones NIO que el
+ * servidor le asigna: lee los datos de los canales listos para lectura y los
+ * entrega a la conexion, y escribe los datos pendientes de los canales listos
+ * para escritura. El primer selector del servidor tambien acepta las
+ * conexiones nuevas.</p>
+ *
+ * <p>
+ * Los registros de canales y los cambios de interes de escritura que piden
+ * otras hebras se encolan y los aplica la hebra del selector, despertandolo
+ * con wakeup(), por lo que solo la hebra del selector modifica sus llaves.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI7"</li>
+ * <li>Loc: 000-003</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+@ThreadSafe
+final class TcpIpNioEventLoop implements Runnable {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI7";
+
+    private static final int READBUFFERSIZE = 65536;  // Bytes del buffer de lectura
+    private static final long SELECTTIMEOUT = 1000;   // Milisegundos maximos de espera del selector
+
+    // Selector de los canales
+    private final Selector Selector;
+    // Servidor al que pertenece el selector
+    private final TcpIpServer Server;
+    // Hebra del selector
+    private final Thread Ejecutor;
+    // Bandera de Ejecucion de la hebra
+    private volatile boolean Ejecutar = true;
+    // Conexiones por registrar y conexiones con datos pendientes por enviar
+    private final ConcurrentLinkedQueue<TcpIpNioConnection> Registros = new ConcurrentLinkedQueue<TcpIpNioConnection>();
+    private final ConcurrentLinkedQueue<TcpIpNioConnection> Escrituras = new ConcurrentLinkedQueue<TcpIpNioConnection>();
+    // Buffer de lectura reutilizado por todas las conexiones del selector
+    private final ByteBuffer Lectura = ByteBuffer.allocateDirect(READBUFFERSIZE);
+    // Logger para el manejo de la bitacora
+    private final LoggerFormatter BTLogF;
+
+    /**
+     * Constructor del selector, si "Acceptor" no es NULL el selector tambien
+     * acepta las conexiones nuevas.
+     *
+     * @param Server Servidor al que pertenece el selector
+     * @param Acceptor Canal de escucha del servidor o NULL
+     * @param Name Nombre de la hebra
+     * @throws IOException Si no se puede abrir el selector
+     */
+    TcpIpNioEventLoop(TcpIpServer Server, ServerSocketChannel Acceptor, String Name) throws IOException {
+
+        this.Server = Server;
+        this.Selector = java.nio.channels.Selector.open();
+        if (Acceptor != null) {
+            Acceptor.register(this.Selector, SelectionKey.OP_ACCEPT);
+        }
+        this.BTLogF = LoggerFormatter.getInstance(null);
+        this.Ejecutor = new Thread(this);
+        this.Ejecutor.setName(Name);
+        this.Ejecutor.setDaemon(true);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Inicia la hebra del selector
+     */
+    void start() {
+
+        this.Ejecutor.start();
+    }
+
+    /**
+     * Detiene la hebra del selector cerrando sus conexiones
+     */
+    void Stop() {
+
+        this.Ejecutar = false;
+        this.Selector.wakeup();
+        try {
+            this.Ejecutor.join();
+        } catch (InterruptedException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Event Loop Stop Fail", TcpIpNioEventLoop.CLASSID, "000");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Asigna la conexion al selector, la registra la hebra del selector
+     *
+     * @param Connection Conexion nueva
+     */
+    void register(TcpIpNioConnection Connection) {
+
+        this.Registros.add(Connection);
+        this.Selector.wakeup();
+    }
+
+    /**
+     * Solicita al selector que escriba los datos pendientes de la conexion
+     * cuando su canal este listo para escritura
+     *
+     * @param Connection Conexion con datos pendientes
+     */
+    void requestWrite(TcpIpNioConnection Connection) {
+
+        this.Escrituras.add(Connection);
+        this.Selector.wakeup();
+    }
+
+    /**
+     * Registra en el selector las conexiones asignadas
+     */
+    private void ProcessRegistros() {
+        TcpIpNioConnection Connection;
+
+        while ((Connection = this.Registros.poll()) != null) {
+            try {
+                Connection.setKey(Connection.getChannel().register(this.Selector, SelectionKey.OP_READ, Connection));
+            } catch (ClosedChannelException ex) {
+                Connection.Disconnect();
+            }
+        }
+    }
+
+    /**
+     * Agrega el interes de escritura de las conexiones con datos pendientes
+     */
+    private void ProcessEscrituras() {
+        TcpIpNioConnection Connection;
+        SelectionKey Key;
+
+        while ((Connection = this.Escrituras.poll()) != null) {
+            Key = Connection.getChannel().keyFor(this.Selector);
+            if ((Key != null) && Key.isValid()) {
+                try {
+                    Key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                } catch (CancelledKeyException ex) {
+                    Connection.Disconnect();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lee los datos disponibles del canal y los entrega a la conexion
+     *
+     * @param Connection Conexion lista para lectura
+     */
+    private void Read(TcpIpNioConnection Connection) {
+        byte[] Datos;
+        int Leidos;
+
+        this.Lectura.clear();
+        try {
+            Leidos = Connection.getChannel().read(this.Lectura);
+        } catch (IOException ex) {
+            Leidos = -1;
+        }
+        if (Leidos > 0) {
+            Datos = new byte[Leidos];
+            this.Lectura.flip();
+            this.Lectura.get(Datos);
+            Connection.Deliver(Datos);
+        } else if (Leidos < 0) {
+            Connection.Disconnect();
+        }
+    }
+
+    /**
+     * Escribe los datos pendientes de la conexion y retira el interes de
+     * escritura si ya no quedan
+     *
+     * @param Connection Conexion lista para escritura
+     * @param Key Llave del canal
+     */
+    private void Write(TcpIpNioConnection Connection, SelectionKey Key) {
+
+        try {
+            if (!Connection.Flush()) {
+                Key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException | CancelledKeyException ex) {
+            Connection.Disconnect();
+        }
+    }
+
+    @Override
+    public void run() {
+        Iterator<SelectionKey> Llaves;
+        SelectionKey Key;
+        SocketChannel Canal;
+
+        while (this.Ejecutar) {
+            try {
+                this.Selector.select(SELECTTIMEOUT);
+                this.ProcessRegistros();
+                this.ProcessEscrituras();
+                Llaves = this.Selector.selectedKeys().iterator();
+                while (Llaves.hasNext()) {
+                    Key = Llaves.next();
+                    Llaves.remove();
+                    if (Key.isValid() && Key.isAcceptable()) {
+                        while ((Canal = ((ServerSocketChannel) Key.channel()).accept()) != null) {
+                            this.Server.Accept(Canal);
+                        }
+                    } else if (Key.isValid()) {
+                        if (Key.isReadable()) {
+                            this.Read((TcpIpNioConnection) Key.attachment());
+                        }
+                        if (Key.isValid() && Key.isWritable()) {
+                            this.Write((TcpIpNioConnection) Key.attachment(), Key);
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Event Loop Select Fail", TcpIpNioEventLoop.CLASSID, "001");
+            } catch (CancelledKeyException ex) {
+                // La conexion se cerro desde otra hebra mientras se atendia
+                this.BTLogF.LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_DEBUG, false, ex, "Key cancelled while selected", TcpIpNioEventLoop.CLASSID, "002");
+            }
+        }
+        // Cierra las conexiones del selector
+        this.ProcessRegistros();
+        for (SelectionKey Local : this.Selector.keys()) {
+            if (Local.attachment() instanceof TcpIpNioConnection) {
+                ((TcpIpNioConnection) Local.attachment()).Disconnect();
+            }
+        }
+        try {
+            this.Selector.close();
+        } catch (IOException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Selector Close Fail", TcpIpNioEventLoop.CLASSID, "003");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bolivartech.utils.communications.tcpip;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This class is the BolivarTech's interface to handle the events of the
+ * connections of a TcpIpServer in NIO mode.</p>
+ *
+ * <p>
+ * Esta clase define la interface para manejar los eventos de las conexiones
+ * de un TcpIpServer en modo NIO. Los metodos se llaman desde la hebra del
+ * selector que atiende la conexion, por lo que no deben bloquearse: mientras
+ * se ejecutan no se atienden las demas conexiones de ese selector.</p>
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0 - October 19, 2026
+ * @since 2026
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+public interface TcpIpReceiveListener {
+
+    /**
+     * Se llama cada vez que la conexion recibe datos, en el orden en que
+     * llegan.
+     *
+     * @param Connection Conexion que recibio los datos
+     * @param Datos Datos recibidos, el arreglo pertenece al receptor
+     */
+    public void handleReceive(TcpIpNioConnection Connection, byte[] Datos);
+
+    /**
+     * Se llama cuando el servidor acepta una conexion nueva, antes de recibir
+     * sus datos.
+     *
+     * @param Connection Conexion aceptada
+     */
+    public default void handleAccept(TcpIpNioConnection Connection) {
+    }
+
+    /**
+     * Se llama una vez cuando la conexion se cierra, por el cliente, por error
+     * o por el servidor.
+     *
+     * @param Connection Conexion cerrada
+     */
+    public default void handleClose(TcpIpNioConnection Connection) {
+    }
+}
@@ -7,8 +7,15 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
 import com.bolivartech.utils.btthreads.annotations.GuardedBy;
 import com.bolivartech.utils.log.LoggerFormatter;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Copyright 2011 BolivarTech C.A.
@@ -27,14 +34,24 @@ import java.sql.Timestamp;
  *
  * Adicionalmente maneja todas las conexion establecidas al servidor
  *
- * Class ID: "35DGFH6" Loc: 000-003
+ * En el modo NIO (EventLoops &gt; 0) las conexiones no tienen hebra propia: uno
+ * o mas selectores (TcpIpNioEventLoop) atienden todos los SocketChannel no
+ * bloqueantes, leen los datos cuando el canal esta listo y los entregan al
+ * TcpIpReceiveListener del servidor o al buffer de cada TcpIpNioConnection.
+ * Las conexiones nuevas se recuperan con getNewNioConnections o con
+ * TcpIpReceiveListener.handleAccept.
+ *
+ * Class ID: "35DGFH6" Loc: 000-006
  *
  * @author Julian Bolivar
- * @since 2011 - March 25, 2016.
- * @version 1.0.1
+ * @since 2011 - October 19, 2026.
+ * @version 1.1.1
  *
  * Change Logs: v1.0.0 (2011-01-10) Version Inicial. v1.0.1 (2016-03-25) Se
- * implemento el uso del codigo de ubicacion unico
+ * implemento el uso del codigo de ubicacion unico. v1.1.0 (2026-10-19) Se
+ * agrego el modo NIO con selectores y canales no bloqueantes. v1.1.1
+ * (2026-10-19) Los selectores se publican en un campo volatile y Accept
+ * cierra la conexion si el servidor se esta deteniendo.
  */
 public class TcpIpServer implements Runnable {
 
@@ -57,6 +74,20 @@ public class TcpIpServer implements Runnable {
     private int ErrorCode;
     // Logger para el manejo de la bitacora
     private LoggerFormatter BTLogF;
+    // Numero de selectores del modo NIO, 0 para una hebra por conexion
+    private final int EventLoops;
+    // Canal de escucha y selectores del modo NIO
+    private ServerSocketChannel Canal = null;
+    // Se publica completo y se lee una sola vez, Accept corre en la hebra de un
+    // selector y no puede tomar un lock que StopNio mantiene mientras lo detiene
+    private volatile TcpIpNioEventLoop[] Loops = null;
+    // Selector al que se asigna la siguiente conexion
+    private final AtomicInteger Siguiente = new AtomicInteger(0);
+    // Conexiones abiertas y conexiones nuevas del modo NIO
+    private final ConcurrentHashMap<String, TcpIpNioConnection> NioConexiones = new ConcurrentHashMap<String, TcpIpNioConnection>();
+    private final ConcurrentLinkedQueue<TcpIpNioConnection> NuevasNio = new ConcurrentLinkedQueue<TcpIpNioConnection>();
+    // Receptor de los eventos de las conexiones del modo NIO
+    private volatile TcpIpReceiveListener Listener = null;
 
     /**
      * **** Seleccion de Causas de Error en la conexion ******
@@ -91,7 +122,24 @@ public class TcpIpServer implements Runnable {
      * @param Port Puerto de escucha de las peticiones de conexiones
      */
     public TcpIpServer(int Port) {
+        this(Port, 0);
+    }
+
+    /**
+     * Constructor del servidor que maneja conexiones TCP/IP, se debe
+     * especificar el puerto donde se escuchan las peticiones de conexiones y
+     * el numero de selectores del modo NIO.
+     *
+     * Si EventLoops es 0 cada conexion se atiende con su propia hebra
+     * (TcpIpServerConnectionManager), si es mayor a 0 las conexiones se
+     * reparten entre EventLoops selectores (TcpIpNioConnection).
+     *
+     * @param Port Puerto de escucha de las peticiones de conexiones
+     * @param EventLoops Numero de selectores del modo NIO o 0
+     */
+    public TcpIpServer(int Port, int EventLoops) {
         this.Port = Port;
+        this.EventLoops = Math.max(0, EventLoops);
         this.Conexiones = null;
         this.RunServer = false;
         this.BTLogF = LoggerFormatter.getInstance(null);
@@ -123,6 +171,43 @@ public class TcpIpServer implements Runnable {
     public static String getCLASSID() {
         return CLASSID;
     }
+
+    /**
+     * Retorna TRUE si el servidor atiende las conexiones con selectores NIO
+     *
+     * @return TRUE en modo NIO y FALSE con una hebra por conexion
+     */
+    public boolean isNioMode() {
+        return (this.EventLoops > 0);
+    }
+
+    /**
+     * Establece el receptor de los eventos de las conexiones del modo NIO, con
+     * NULL los datos recibidos se guardan en el buffer de cada conexion.
+     *
+     * @param Listener Receptor de los eventos o NULL
+     */
+    public void setReceiveListener(TcpIpReceiveListener Listener) {
+        this.Listener = Listener;
+    }
+
+    /**
+     * Retorna el receptor de los eventos de las conexiones del modo NIO
+     *
+     * @return Receptor de los eventos o NULL
+     */
+    public TcpIpReceiveListener getReceiveListener() {
+        return this.Listener;
+    }
+
+    /**
+     * Retorna el numero de conexiones abiertas en el modo NIO
+     *
+     * @return Numero de conexiones abiertas
+     */
+    public int getConnectionCount() {
+        return this.NioConexiones.size();
+    }
     
     /**
      * Inicial el servidor de conexiones TCP/IP.
@@ -130,6 +215,20 @@ public class TcpIpServer implements Runnable {
      * @throws UtilsException
      */
     public void start() throws UtilsException {
+
+        if (this.EventLoops > 0) {
+            this.StartNio();
+        } else {
+            this.StartThreads();
+        }
+    }
+
+    /**
+     * Inicia el servidor con una hebra por conexion
+     *
+     * @throws UtilsException
+     */
+    private void StartThreads() throws UtilsException {
         boolean ChangeThead;
         int Priority;
 
@@ -180,6 +279,20 @@ public class TcpIpServer implements Runnable {
      * @throws UtilsException
      */
     public void Stop() throws UtilsException {
+
+        if (this.EventLoops > 0) {
+            this.StopNio();
+        } else {
+            this.StopThreads();
+        }
+    }
+
+    /**
+     * Detiene el servidor con una hebra por conexion
+     *
+     * @throws UtilsException
+     */
+    private void StopThreads() throws UtilsException {
         boolean Error;
 
         Error = false;
@@ -252,6 +365,167 @@ public class TcpIpServer implements Runnable {
         return NewConexiones;
     }
 
+    /**
+     * Retorna las nuevas conexiones realizadas al servidor en modo NIO, si no
+     * hay nuevas conexiones retorna null.
+     *
+     * NOTA: las conexiones retornadas por esta clase no pueden ser recuperadas
+     * despues.
+     *
+     * @return Conexiones nuevas al servidor
+     */
+    public TcpIpNioConnection[] getNewNioConnections() {
+        TcpIpNioConnection[] NewConexiones = null;
+        TcpIpNioConnection Connection;
+        ArrayList<TcpIpNioConnection> Nuevas;
+
+        Nuevas = new ArrayList<TcpIpNioConnection>();
+        while ((Connection = this.NuevasNio.poll()) != null) {
+            if (Connection.isOpen()) {
+                Connection.ClearNewFlag();
+                Nuevas.add(Connection);
+            }
+        }
+        if (!Nuevas.isEmpty()) {
+            NewConexiones = Nuevas.toArray(new TcpIpNioConnection[Nuevas.size()]);
+        }
+        return NewConexiones;
+    }
+
+    /**
+     * Abre el canal de escucha y arranca los selectores del modo NIO, el
+     * primer selector tambien acepta las conexiones.
+     *
+     * @throws UtilsException
+     */
+    private void StartNio() throws UtilsException {
+        TcpIpNioEventLoop[] Local;
+        int i;
+
+        Local = new TcpIpNioEventLoop[this.EventLoops];
+        try {
+            this.Canal = ServerSocketChannel.open();
+            this.Canal.socket().setReuseAddress(true);
+            this.Canal.bind(new InetSocketAddress(this.Port), 1024);
+            this.Canal.configureBlocking(false);
+            for (i = 0; i < this.EventLoops; i++) {
+                Local[i] = new TcpIpNioEventLoop(this, (i == 0 ? this.Canal : null), TcpIpServer.CLASSID + "[NIO-" + i + ":" + this.Port + "]");
+            }
+        } catch (IOException ex) {
+            this.CloseNioChannel();
+            throw new UtilsException("ERROR: Could not open listener on port: " + this.Port, ERROR_CANTOPENPORT, TcpIpServer.CLASSID + "004");
+        }
+        this.RunServer = true;
+        // Los selectores se publican antes de arrancar el que acepta
+        this.Loops = Local;
+        for (i = 0; i < this.EventLoops; i++) {
+            Local[i].start();
+        }
+    }
+
+    /**
+     * Detiene los selectores del modo NIO cerrando sus conexiones y el canal
+     * de escucha
+     *
+     * @throws UtilsException
+     */
+    private void StopNio() throws UtilsException {
+        TcpIpNioEventLoop[] Local;
+        boolean Error;
+        int i;
+
+        this.RunServer = false;
+        Error = !this.CloseNioChannel();
+        // Se retira antes de detenerlos, un Accept en curso ve NULL y cierra el canal
+        Local = this.Loops;
+        this.Loops = null;
+        if (Local != null) {
+            for (i = 0; i < Local.length; i++) {
+                Local[i].Stop();
+            }
+        }
+        this.NuevasNio.clear();
+        if (Error) {
+            throw new UtilsException("ERROR: Could not close listen on port: " + this.Port, ERROR_CANTCLOSEPORT, TcpIpServer.CLASSID + "005");
+        }
+    }
+
+    /**
+     * Cierra el canal de escucha del modo NIO
+     *
+     * @return FALSE si fallo el cierre
+     */
+    private boolean CloseNioChannel() {
+        boolean Result = true;
+
+        if (this.Canal != null) {
+            try {
+                this.Canal.close();
+            } catch (IOException ex) {
+                Result = false;
+            }
+            this.Canal = null;
+        }
+        return Result;
+    }
+
+    /**
+     * Configura el canal aceptado y lo asigna al siguiente selector, lo llama
+     * la hebra del selector que acepta las conexiones.
+     *
+     * @param Aceptado Canal de la conexion aceptada
+     */
+    void Accept(SocketChannel Aceptado) {
+        TcpIpNioEventLoop[] Local;
+        TcpIpNioEventLoop Loop;
+        TcpIpNioConnection Connection;
+        TcpIpReceiveListener Receptor;
+
+        Local = this.Loops;
+        try {
+            if (Local == null) {
+                // El servidor se esta deteniendo
+                throw new IOException("Server stopped");
+            }
+            Aceptado.configureBlocking(false);
+            Loop = Local[Math.floorMod(this.Siguiente.getAndIncrement(), Local.length)];
+            Connection = new TcpIpNioConnection(Aceptado, Loop, this);
+            this.NioConexiones.put(Connection.getConnectionID(), Connection);
+            Receptor = this.Listener;
+            if (Receptor != null) {
+                Receptor.handleAccept(Connection);
+            } else {
+                this.NuevasNio.add(Connection);
+            }
+            Loop.register(Connection);
+        } catch (IOException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Could not accept connection", TcpIpServer.CLASSID, "006");
+            try {
+                Aceptado.close();
+            } catch (IOException e) {
+                synchronized (this) {
+                    this.ErrorCode = ERROR_CANTCONNECTREQUEST;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retira la conexion cerrada del servidor y notifica al receptor
+     *
+     * @param Connection Conexion cerrada
+     */
+    void Closed(TcpIpNioConnection Connection) {
+        TcpIpReceiveListener Receptor;
+
+        if (this.NioConexiones.remove(Connection.getConnectionID()) != null) {
+            Receptor = this.Listener;
+            if (Receptor != null) {
+                Receptor.handleClose(Connection);
+            }
+        }
+    }
+
     /**
      * Realiza la limpieza de todas las conexiones abiertas en el servidor
      */
@@ -1,6 +1,6 @@
 package com.bolivartech.utils.communications.tcpip;
 
-import com.bolivartech.utils.communications.Transporter;
+import com.bolivartech.utils.communications.BufferTransporter;
 import com.bolivartech.utils.communications.utils.SyncroBuffer;
 import com.bolivartech.utils.exception.UtilsException;
 import com.bolivartech.utils.log.LoggerManager;
@@ -15,6 +15,7 @@ import java.net.NetworkInterface;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 import java.sql.Timestamp;
 
 /**
@@ -32,16 +33,24 @@ import java.sql.Timestamp;
  *
  * Esta clase implementa el Manager de Conexiones para el servidor TCP/IP.
  *
- * Class ID: "35DGFH7" Loc: 000-022
+ * Implementa BufferTransporter sobre el stream del socket: los ByteBuffer con
+ * arreglo se escriben sin copias, send(ByteBuffer[]) agrupa los buffers en una
+ * sola escritura y receive(ByteBuffer) copia los datos recibidos al buffer del
+ * llamador sin reservar memoria.
+ *
+ * Class ID: "35DGFH7" Loc: 000-023
  *
  * @author Julian Bolivar
- * @since 2011 - March 25, 2016.
- * @version 1.0.1
+ * @since 2011 - October 19, 2026.
+ * @version 1.1.1
  *
  * Change Logs: v1.0.0 (2011-01-10) Version Inicial. v1.0.1 (2016-03-25) Se
- * implemento el uso del codigo de ubicacion unico
+ * implemento el uso del codigo de ubicacion unico. v1.1.0 (2026-10-19) Se
+ * implemento BufferTransporter, Send y Recive se mantienen como adaptadores y
+ * la recepcion usa un arreglo reusable. v1.1.1 (2026-10-19) La escritura de
+ * ByteBuffer por el stream se comparte con TcpIpClient en TcpIpStreamWriter.
  */
-public class TcpIpServerConnectionManager extends Thread implements Transporter {
+public class TcpIpServerConnectionManager extends Thread implements BufferTransporter {
 
     // Codigo de identificacion de la clase
     private static final String CLASSID = "35DGFH7";
@@ -65,6 +74,9 @@ public class TcpIpServerConnectionManager extends Thread implements Transporter
     // Buffer de datos recibidos
     @GuardedBy("this")
     private SyncroBuffer Buffer;
+    // Arreglo para agrupar y escribir los ByteBuffer por el stream del socket
+    @GuardedBy("this")
+    private byte[] Scratch = null;
     // Buffer de recepcion de datos del socket de conexion
     private int ReceiveBufferSize;
     // Buffer de envio de datos del socket de conexion
@@ -98,6 +110,9 @@ public class TcpIpServerConnectionManager extends Thread implements Transporter
      */
     public final static int IPTOS_LOWDELAY = 0x10;
 
+    // Tamaño maximo de Scratch para agrupar los buffers de send(ByteBuffer[])
+    private final static int MAXSCRATCH = 65536;
+
     /**
      * **** Seleccion de Causas de Error en la conexion ******
      */
@@ -510,13 +525,69 @@ public class TcpIpServerConnectionManager extends Thread implements Transporter
     @Override
     public synchronized void Send(byte[] Datos) throws UtilsException {
 
+        this.send(ByteBuffer.wrap(Datos));
+    }
+
+    /**
+     * Envia los bytes restantes de "Datos", los buffers con arreglo se
+     * escriben sin copias.
+     *
+     * @param Datos Datos a enviar
+     * @return Numero de bytes enviados
+     * @throws UtilsException
+     */
+    @Override
+    public synchronized int send(ByteBuffer Datos) throws UtilsException {
+        int Enviados;
+
+        Enviados = Datos.remaining();
         try {
-            os.write(Datos, 0, Datos.length);
+            Scratch = TcpIpStreamWriter.WriteStream(os, Datos, Scratch);
         } catch (IOException ex) {
             throw new UtilsException("ERROR: Error al enviar datos al Host " + socket.getInetAddress().getHostName() + " " + ex.getLocalizedMessage(), ERROR_SENDDATA, TcpIpServerConnectionManager.CLASSID + "016");
             //Logger.getLogger(EtherTrasnporter.class.getName()).log(Level.SEVERE, null, ex);
         }
-        //throw new UnsupportedOperationException("Not supported yet.");
+        return Enviados;
+    }
+
+    /**
+     * Envia en orden los bytes restantes de los buffers de "Datos", si en
+     * total no superan MAXSCRATCH se agrupan en una sola escritura.
+     *
+     * @param Datos Buffers a enviar
+     * @return Numero de bytes enviados
+     * @throws UtilsException
+     */
+    @Override
+    public synchronized long send(ByteBuffer[] Datos) throws UtilsException {
+        long Enviados;
+        int i, Posicion, Parte;
+
+        Enviados = 0;
+        for (i = 0; i < Datos.length; i++) {
+            Enviados += Datos[i].remaining();
+        }
+        try {
+            if ((Datos.length > 1) && (Enviados <= MAXSCRATCH)) {
+                if ((Scratch == null) || (Scratch.length < Enviados)) {
+                    Scratch = new byte[Math.max(8192, Integer.highestOneBit((int) Enviados - 1) << 1)];
+                }
+                Posicion = 0;
+                for (i = 0; i < Datos.length; i++) {
+                    Parte = Datos[i].remaining();
+                    Datos[i].get(Scratch, Posicion, Parte);
+                    Posicion += Parte;
+                }
+                os.write(Scratch, 0, Posicion);
+            } else {
+                for (i = 0; i < Datos.length; i++) {
+                    Scratch = TcpIpStreamWriter.WriteStream(os, Datos[i], Scratch);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Error al enviar datos al Host " + socket.getInetAddress().getHostName() + " " + ex.getLocalizedMessage(), ERROR_SENDDATA, TcpIpServerConnectionManager.CLASSID + "023");
+        }
+        return Enviados;
     }
 
     /**
@@ -535,6 +606,28 @@ public class TcpIpServerConnectionManager extends Thread implements Transporter
         //throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    /**
+     * Copia en "Destino" hasta sus bytes restantes de los datos recibidos, sin
+     * bloquearse y sin reservar memoria.
+     *
+     * @param Destino Buffer del llamador
+     * @return Numero de bytes copiados, 0 si no hay datos
+     */
+    @Override
+    public int receive(ByteBuffer Destino) {
+        SyncroBuffer Local;
+        int Leidos;
+
+        synchronized (this) {
+            Local = this.Buffer;
+        }
+        Leidos = 0;
+        if (Local != null) {
+            Leidos = Local.read(Destino);
+        }
+        return Leidos;
+    }
+
     /**
      * Metodo que retorna TRUE si hay datos disponibles en el puerto para leer,
      * FALSE en caso contrario.
@@ -633,6 +726,7 @@ public class TcpIpServerConnectionManager extends Thread implements Transporter
         byte[] BufferByte;
         int NumBytes;
 
+        BufferByte = new byte[Math.max(this.ReceiveBufferSize, 8192)];
         while (this.OpenConnection) {
             try {
                 NumBytes = 0;
@@ -651,10 +745,11 @@ public class TcpIpServerConnectionManager extends Thread implements Transporter
                     }
                 } while ((NumBytes < 1) && (this.OpenConnection));
                 if (this.OpenConnection) {
-                    BufferByte = new byte[NumBytes];
                     synchronized (this) {  // Realiza el bloque del buffer para realizar la escritura en el buffer
-                        is.read(BufferByte, 0, NumBytes);
-                        Buffer.put(BufferByte);
+                        NumBytes = is.read(BufferByte, 0, Math.min(NumBytes, BufferByte.length));
+                        if (NumBytes > 0) {
+                            Buffer.put(BufferByte, 0, NumBytes);
+                        }
                     }
                 }
             } catch (IOException ex) {
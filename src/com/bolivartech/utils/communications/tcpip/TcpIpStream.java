@@ -0,0 +1,498 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.communications.BufferTransporter;
+import com.bolivartech.utils.communications.utils.SyncroBuffer;
+import com.bolivartech.utils.exception.UtilsException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's Logical Stream of a TcpIpMultiplexer
+ * implementing the BufferTransporter Interface.</p>
+ *
+ * <p>
+ * Flujo logico sobre la conexion de un TcpIpMultiplexer, se obtiene con
+ * TcpIpMultiplexer.getStream o getNewStreams. Como un TcpIpClient entrega los
+ * bytes en el orden en que se enviaron pero sin respetar los limites de cada
+ * envio; para recibir mensajes completos se puede usar con
+ * FramedTransporter.</p>
+ *
+ * <p>
+ * Send copia los datos a la cola de envio del flujo y retorna sin esperar a
+ * que se escriban; se bloquea solo si la cola ya tiene una ventana completa
+ * sin enviar. Los datos se envian dentro de la ventana anunciada por el otro
+ * extremo, y las lecturas le devuelven credito cuando se ha leido media
+ * ventana de recepcion.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias, su estado se protege con
+ * el lock del multiplexor.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFIF"</li>
+ * <li>Loc: 000-002</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.1
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): La ventana de envio inicial es la anunciada por el
+ * otro extremo y no la propia.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class TcpIpStream implements BufferTransporter {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFIF";
+
+    /**
+     * **** Seleccion de Causas de Error ******
+     */
+    /**
+     * Error el flujo o el multiplexor estan cerrados
+     */
+    public final static int ERROR_CLOSED = 1;
+    /**
+     * Error la hebra fue interrumpida esperando espacio en la cola de envio
+     */
+    public final static int ERROR_INTERRUPTED = 2;
+    /**
+     * Error el numero de flujo pertenece al otro extremo
+     */
+    public final static int ERROR_STREAMID = 3;
+
+    // Multiplexor del flujo, su lock protege el estado
+    private final TcpIpMultiplexer Mux;
+    private final int StreamID;
+    // Ventana inicial de recepcion anunciada al otro extremo
+    private final int InitialWindow;
+    // Datos recibidos
+    private final SyncroBuffer Buffer = new SyncroBuffer();
+    // Datos por enviar
+    @GuardedBy("Mux")
+    private final ArrayDeque<ByteBuffer> Pendientes = new ArrayDeque<ByteBuffer>();
+    @GuardedBy("Mux")
+    private long Pendiente = 0;
+    // Bytes que el otro extremo autorizo a enviar
+    @GuardedBy("Mux")
+    private long Ventana;
+    // Bytes recibidos sin leer y bytes leidos sin devolver como credito
+    @GuardedBy("Mux")
+    private long Recibido = 0;
+    @GuardedBy("Mux")
+    private int Consumido = 0;
+    // El flujo esta en la cola circular de envio del multiplexor
+    @GuardedBy("Mux")
+    boolean EnCola = false;
+    // Estado del cierre
+    @GuardedBy("Mux")
+    private boolean Cerrando = false;
+    @GuardedBy("Mux")
+    private boolean CierreEnviado = false;
+    @GuardedBy("Mux")
+    private boolean RemotoCerrado = false;
+    @GuardedBy("Mux")
+    private boolean Terminado = false;
+
+    /**
+     * Constructor del flujo, lo crea el multiplexor
+     *
+     * @param Mux Multiplexor
+     * @param StreamID Numero del flujo
+     * @param InitialWindow Ventana inicial de recepcion de este extremo
+     * @param SendWindow Ventana inicial de envio anunciada por el otro extremo
+     */
+    TcpIpStream(TcpIpMultiplexer Mux, int StreamID, int InitialWindow, int SendWindow) {
+
+        this.Mux = Mux;
+        this.StreamID = StreamID;
+        this.InitialWindow = InitialWindow;
+        this.Ventana = SendWindow;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el numero del flujo
+     *
+     * @return Numero del flujo
+     */
+    public int getStreamID() {
+        return this.StreamID;
+    }
+
+    /**
+     * Retorna el multiplexor del flujo
+     *
+     * @return Multiplexor
+     */
+    public TcpIpMultiplexer getMultiplexer() {
+        return this.Mux;
+    }
+
+    /**
+     * Retorna TRUE si el otro extremo cerro el flujo o se cerro la conexion
+     *
+     * @return Estado del flujo remoto
+     */
+    public boolean isRemoteClosed() {
+
+        synchronized (this.Mux) {
+            return this.RemotoCerrado;
+        }
+    }
+
+    /**
+     * Retorna el numero de bytes en la cola de envio
+     *
+     * @return Bytes pendientes por enviar
+     */
+    public long getPendingBytes() {
+
+        synchronized (this.Mux) {
+            return this.Pendiente;
+        }
+    }
+
+    @Override
+    public void Send(byte[] Datos) throws UtilsException {
+
+        this.send(ByteBuffer.wrap(Datos));
+    }
+
+    /**
+     * Copia los bytes restantes de "Datos" a la cola de envio del flujo
+     *
+     * @param Datos Datos a enviar
+     * @return Numero de bytes encolados
+     * @throws UtilsException Si el flujo esta cerrado
+     */
+    @Override
+    public int send(ByteBuffer Datos) throws UtilsException {
+        byte[] Copia;
+        int Result;
+
+        synchronized (this.Mux) {
+            try {
+                while (!this.Cerrando && !this.Terminado && (this.Pendiente >= this.InitialWindow)) {
+                    this.Mux.wait();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new UtilsException("ERROR: Interrupted waiting to send on stream " + Integer.toString(this.StreamID), ERROR_INTERRUPTED, TcpIpStream.CLASSID + "000");
+            }
+            if (this.Cerrando || this.Terminado) {
+                throw new UtilsException("ERROR: Stream " + Integer.toString(this.StreamID) + " closed", ERROR_CLOSED, TcpIpStream.CLASSID + "001");
+            }
+            Result = Datos.remaining();
+            if (Result > 0) {
+                Copia = new byte[Result];
+                Datos.get(Copia);
+                this.Pendientes.add(ByteBuffer.wrap(Copia));
+                this.Pendiente += Result;
+                this.Mux.Schedule(this);
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Copia los bytes restantes de cada buffer de "Datos" a la cola de envio
+     *
+     * @param Datos Buffers a enviar
+     * @return Numero de bytes encolados
+     * @throws UtilsException Si el flujo esta cerrado
+     */
+    @Override
+    public long send(ByteBuffer[] Datos) throws UtilsException {
+        long Result;
+        int i;
+
+        Result = 0;
+        for (i = 0; i < Datos.length; i++) {
+            Result += this.send(Datos[i]);
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna los datos recibidos o NULL si no hay, sin bloquearse
+     *
+     * @return Datos recibidos o NULL
+     */
+    @Override
+    public byte[] Recive() {
+        byte[] Datos;
+
+        Datos = this.Buffer.getall();
+        if (Datos != null) {
+            this.Consumed(Datos.length);
+        }
+        return Datos;
+    }
+
+    /**
+     * Espera hasta "Timeout" milisegundos a que lleguen datos. Con Timeout 0
+     * espera hasta que lleguen datos o se cierre el flujo.
+     *
+     * @param Timeout Milisegundos maximos de espera
+     * @return Datos recibidos o NULL si no llego ninguno
+     */
+    public byte[] Recive(long Timeout) {
+        long Limite, Espera;
+
+        Limite = System.currentTimeMillis() + Timeout;
+        Espera = Timeout;
+        synchronized (this.Mux) {
+            while ((this.Buffer.length() == 0) && !this.RemotoCerrado && (Espera >= 0)) {
+                try {
+                    this.Mux.wait(Espera);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    Espera = -1;
+                }
+                if ((Timeout > 0) && (Espera >= 0)) {
+                    Espera = Limite - System.currentTimeMillis();
+                    if (Espera == 0) {
+                        Espera = -1;
+                    }
+                }
+            }
+        }
+        return this.Recive();
+    }
+
+    /**
+     * Copia los datos recibidos a "Destino" sin bloquearse
+     *
+     * @param Destino Buffer destino
+     * @return Numero de bytes copiados
+     */
+    @Override
+    public int receive(ByteBuffer Destino) {
+        int Result;
+
+        Result = this.Buffer.read(Destino);
+        if (Result > 0) {
+            this.Consumed(Result);
+        }
+        return Result;
+    }
+
+    @Override
+    public boolean DataAvailable() {
+        return this.Buffer.length() > 0;
+    }
+
+    @Override
+    public int TransporterTypeID() {
+        return 1;
+    }
+
+    /**
+     * El flujo queda abierto al crearlo con el multiplexor
+     *
+     * @throws UtilsException Si el flujo ya se cerro
+     */
+    @Override
+    public void Open() throws UtilsException {
+
+        synchronized (this.Mux) {
+            if (this.Cerrando || this.Terminado) {
+                throw new UtilsException("ERROR: Stream " + Integer.toString(this.StreamID) + " closed", ERROR_CLOSED, TcpIpStream.CLASSID + "002");
+            }
+        }
+    }
+
+    /**
+     * Cierra el flujo, los datos pendientes se envian antes del cierre. Los
+     * datos que sigan llegando se pueden leer hasta que el otro extremo cierre
+     * el flujo.
+     *
+     * @throws UtilsException
+     */
+    @Override
+    public void Close() throws UtilsException {
+
+        synchronized (this.Mux) {
+            if (!this.Cerrando && !this.Terminado) {
+                this.Cerrando = true;
+                if (this.Pendiente == 0) {
+                    this.CierreEnviado = true;
+                    this.Mux.Enqueue(TcpIpMultiplexer.TYPE_CLOSE, this.StreamID, 0);
+                    if (this.RemotoCerrado) {
+                        this.Mux.Remove(this);
+                    }
+                }
+                this.Mux.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public int getMTU() throws UtilsException {
+        return this.Mux.getMTU();
+    }
+
+    /**
+     * Retorna TRUE si el flujo tiene datos y ventana para enviar
+     *
+     * @return Flujo listo para enviar
+     */
+    @GuardedBy("Mux")
+    boolean isReady() {
+        return (this.Pendiente > 0) && (this.Ventana > 0) && !this.Terminado;
+    }
+
+    /**
+     * Retira de la cola de envio el siguiente fragmento, limitado por "Max" y
+     * la ventana. Solo se llama si isReady().
+     *
+     * @param Max Tamaño maximo del fragmento
+     * @return Datos del fragmento
+     */
+    @GuardedBy("Mux")
+    ByteBuffer nextChunk(int Max) {
+        ByteBuffer Result, Primero;
+        int Longitud;
+
+        Primero = this.Pendientes.peek();
+        Longitud = (int) Math.min(Math.min(Max, this.Ventana), Primero.remaining());
+        if (Longitud == Primero.remaining()) {
+            Result = this.Pendientes.poll();
+        } else {
+            Result = Primero.duplicate();
+            Result.limit(Result.position() + Longitud);
+            Primero.position(Primero.position() + Longitud);
+        }
+        this.Pendiente -= Longitud;
+        this.Ventana -= Longitud;
+        return Result;
+    }
+
+    /**
+     * Retorna TRUE una sola vez cuando el flujo se cerro localmente y ya se
+     * enviaron sus datos, para que el multiplexor envie la trama de cierre.
+     *
+     * @return TRUE si se debe enviar el cierre
+     */
+    @GuardedBy("Mux")
+    boolean takeClose() {
+        boolean Result;
+
+        Result = this.Cerrando && !this.CierreEnviado && (this.Pendiente == 0);
+        if (Result) {
+            this.CierreEnviado = true;
+            if (this.RemotoCerrado) {
+                this.Mux.Remove(this);
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Agrega los datos de una trama recibida, el otro extremo no puede
+     * exceder la ventana de recepcion que se le anuncio.
+     *
+     * @param Datos Datos entre la posicion y el limite
+     * @return FALSE si el otro extremo excedio la ventana
+     */
+    @GuardedBy("Mux")
+    boolean handleData(ByteBuffer Datos) {
+        boolean Result;
+
+        Result = true;
+        if (!this.RemotoCerrado) {
+            this.Recibido += Datos.remaining();
+            Result = (this.Recibido <= this.InitialWindow);
+            this.Buffer.put(Datos);
+            this.Mux.notifyAll();
+        }
+        return Result;
+    }
+
+    /**
+     * Suma el credito devuelto por el otro extremo
+     *
+     * @param Incremento Bytes autorizados
+     * @return FALSE si el incremento es invalido
+     */
+    @GuardedBy("Mux")
+    boolean handleWindow(int Incremento) {
+        boolean Result;
+
+        Result = (Incremento > 0);
+        if (Result) {
+            this.Ventana += Incremento;
+            this.Mux.Schedule(this);
+        }
+        return Result;
+    }
+
+    /**
+     * El otro extremo cerro el flujo
+     */
+    @GuardedBy("Mux")
+    void handleClose() {
+
+        this.RemotoCerrado = true;
+        if (this.CierreEnviado) {
+            this.Mux.Remove(this);
+        }
+        this.Mux.notifyAll();
+    }
+
+    /**
+     * Se cerro el multiplexor
+     */
+    @GuardedBy("Mux")
+    void handleShutdown() {
+
+        this.Terminado = true;
+        this.RemotoCerrado = true;
+        this.Pendientes.clear();
+        this.Pendiente = 0;
+    }
+
+    /**
+     * Registra los bytes leidos por la aplicacion y devuelve el credito al
+     * otro extremo al completar media ventana.
+     *
+     * @param Leidos Bytes leidos
+     */
+    private void Consumed(int Leidos) {
+
+        synchronized (this.Mux) {
+            this.Recibido -= Leidos;
+            this.Consumido += Leidos;
+            if ((this.Consumido >= Math.max(1, this.InitialWindow >> 1)) && !this.RemotoCerrado) {
+                this.Mux.Enqueue(TcpIpMultiplexer.TYPE_WINDOW, this.StreamID, this.Consumido);
+                this.Consumido = 0;
+            }
+        }
+    }
+}
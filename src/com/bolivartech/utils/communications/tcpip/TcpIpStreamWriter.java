@@ -0,0 +1,76 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's ByteBuffer writer over the socket stream of
+ * TcpIpClient and TcpIpServerConnectionManager.</p>
+ *
+ * <p>
+ * Escribe los bytes restantes de un ByteBuffer por el stream del socket. Los
+ * buffers con arreglo se escriben sin copias y los demas se copian por bloques
+ * a un arreglo temporal del llamador, que se reserva la primera vez.</p>
+ *
+ * <p>
+ * NOTA: Esta clase no tiene estado, el llamador protege el stream y el arreglo
+ * temporal.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+final class TcpIpStreamWriter {
+
+    // Tamaño del arreglo temporal si el llamador no tiene uno
+    private static final int SCRATCHSIZE = 8192;
+
+    private TcpIpStreamWriter() {
+    }
+
+    /**
+     * Escribe los bytes restantes de "Datos" por "Salida", los buffers sin
+     * arreglo se copian por bloques a "Scratch". Al retornar la posicion de
+     * "Datos" queda en su limite.
+     *
+     * @param Salida Stream del socket
+     * @param Datos Datos a enviar
+     * @param Scratch Arreglo temporal del llamador o null
+     * @return Arreglo temporal a conservar para la siguiente escritura
+     * @throws IOException
+     */
+    static byte[] WriteStream(OutputStream Salida, ByteBuffer Datos, byte[] Scratch) throws IOException {
+        int Bloque;
+
+        if (Datos.hasArray()) {
+            Salida.write(Datos.array(), Datos.arrayOffset() + Datos.position(), Datos.remaining());
+            Datos.position(Datos.limit());
+        } else if (Datos.hasRemaining()) {
+            if (Scratch == null) {
+                Scratch = new byte[SCRATCHSIZE];
+            }
+            while (Datos.hasRemaining()) {
+                Bloque = Math.min(Datos.remaining(), Scratch.length);
+                Datos.get(Scratch, 0, Bloque);
+                Salida.write(Scratch, 0, Bloque);
+            }
+        }
+        return Scratch;
+    }
+}
@@ -0,0 +1,1029 @@
+package com.bolivartech.utils.communications.udp;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.communications.Transporter;
+import com.bolivartech.utils.communications.utils.FrameCodec;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.fec.reedsolomon.ReedSolomonErasure;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's Transporter Over UDP/IP Class implementing
+ * the Transporter Interface.</p>
+ *
+ * <p>
+ * Implementa la interface Transporter sobre un DatagramChannel no bloqueante
+ * para el envio de mensajes pequeños con baja latencia, como telemetria. Send
+ * agrega cada mensaje, con su longitud en formato varint de FrameCodec, al
+ * datagrama en construccion; el datagrama se envia cuando el siguiente mensaje
+ * no cabe, cuando vence el retardo de agrupacion (setBatchDelay) o al llamar
+ * flush(). Con retardo 0 (por defecto) cada mensaje se envia de inmediato. El
+ * tamaño del datagrama es el de getMTU() salvo que se fije con
+ * setDatagramSize, y ningun mensaje puede exceder un datagrama.</p>
+ *
+ * <p>
+ * Con setFEC los datagramas se agrupan de a DataShards y por cada grupo se
+ * envian ParityShards datagramas de paridad Reed-Solomon
+ * (ReedSolomonErasure), con lo que el receptor reconstruye hasta ParityShards
+ * datagramas perdidos del grupo sin retransmision. El grupo se cierra al
+ * completarse, con flush() o cuando no se envian datos durante el retardo de
+ * agrupacion, o durante GROUPDELAY si el retardo es 0. Los mensajes de los datagramas recibidos se entregan apenas
+ * llegan y los de los datagramas reconstruidos cuando llega la paridad, por
+ * lo que el orden de entrega no esta garantizado.</p>
+ *
+ * <p>
+ * Recive() retorna el siguiente mensaje recibido o null, sin bloquearse. El
+ * receptor toma la configuracion de FEC del encabezado de cada datagrama. Si
+ * el transporter tiene destino solo acepta los datagramas enviados desde el,
+ * sin destino atiende a un solo emisor por puerto local.</p>
+ *
+ * <p>
+ * Formato del datagrama: tipo (1 byte, 0 datos y 1 paridad), numero de grupo
+ * (4 bytes), indice en el grupo (1 byte), datagramas de datos del grupo (1
+ * byte, solo en la paridad), DataShards (1 byte), ParityShards (1 byte) y el
+ * cuerpo. El cuerpo de los datos es la longitud de los mensajes (2 bytes) y
+ * los mensajes, el de la paridad es la codificacion de los cuerpos de datos
+ * del grupo rellenos con ceros.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFID"</li>
+ * <li>Loc: 000-012</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.2
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): Se descartan los datagramas que no vienen del
+ * destino y los grupos de FEC incompletos se cierran tambien sin retardo de
+ * agrupacion.</li>
+ * <li>v1.0.2 (2026-10-19): Con el buffer del socket lleno el envio espera
+ * SENDWAIT antes de reintentar en lugar de ceder el procesador en un ciclo
+ * con el bloqueo de envio tomado.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class UdpTransporter implements Transporter, Runnable {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFID";
+
+    /**
+     * Tamaño maximo de los datos de un datagrama UDP sobre IPv4
+     */
+    public static final int MAXDATAGRAM = 65507;
+    /**
+     * Tamaño del datagrama si no se puede obtener el MTU (Ethernet)
+     */
+    public static final int DEFAULTDATAGRAM = 1472;
+    /**
+     * Tamaño minimo del datagrama
+     */
+    public static final int MINDATAGRAM = 64;
+    /**
+     * Numero de bytes del encabezado del datagrama
+     */
+    public static final int HEADERSIZE = 9;
+    /**
+     * Retardo en milisegundos para cerrar un grupo de FEC incompleto si el
+     * retardo de agrupacion es 0
+     */
+    public static final long GROUPDELAY = 10;
+
+    // Bytes de la longitud de los mensajes en el cuerpo de datos
+    private static final int LENGTHSIZE = 2;
+    // Tipos de datagrama
+    private static final byte TYPE_DATA = 0;
+    private static final byte TYPE_PARITY = 1;
+    // Numero de grupos recientes que conserva el receptor
+    private static final int WINDOW = 64;
+    // Bytes de los encabezados IP y UDP
+    private static final int IPUDPHEADERS = 28;
+    // Microsegundos de espera antes de reintentar un envio con el buffer del socket lleno
+    private static final long SENDWAIT = 50;
+
+    /**
+     * **** Seleccion de Causas de Error ******
+     */
+    /**
+     * Error Host Desconocido
+     */
+    public final static int ERROR_UNKNOWHOST = 1;
+    /**
+     * Error de IO
+     */
+    public final static int ERROR_IO = 2;
+    /**
+     * Error de IO al enviar datos
+     */
+    public final static int ERROR_SENDDATA = 3;
+    /**
+     * Error de Interface
+     */
+    public final static int ERROR_INTERFACE = 4;
+    /**
+     * Error el mensaje no cabe en un datagrama
+     */
+    public final static int ERROR_MESSAGESIZE = 5;
+    /**
+     * Error el transporter no esta abierto o no tiene destino
+     */
+    public final static int ERROR_NOTOPEN = 6;
+    /**
+     * Error de configuracion
+     */
+    public final static int ERROR_CONFIG = 7;
+
+    // Parametros de Conexion, Host es NULL si solo se recibe
+    private final String Host;
+    private final int Port;
+    private final int LocalPort;
+    // Configuracion, se aplica en Open
+    private volatile int DatagramSize = 0;
+    private volatile int DataShards = 0;
+    private volatile int ParityShards = 0;
+    private volatile long BatchDelay = 0;
+    private volatile int ReceiveBufferSize = 0;
+    private volatile int SendBufferSize = 0;
+    // Canal del transporter
+    private volatile DatagramChannel Canal = null;
+    // Hebra que vence el retardo de agrupacion
+    private Thread Temporizador = null;
+    // Control de la Hebra del retardo
+    private volatile boolean RunTemporizador;
+    // Codificador de los mensajes dentro del datagrama
+    private final FrameCodec Codec;
+
+    // Estado del envio
+    private final Object Envio = new Object();
+    @GuardedBy("Envio")
+    private InetSocketAddress Remoto = null;
+    // Mensajes del datagrama en construccion
+    @GuardedBy("Envio")
+    private ByteBuffer Lote = null;
+    // Datagrama a enviar
+    @GuardedBy("Envio")
+    private ByteBuffer Salida = null;
+    // Cuerpos de los datagramas del grupo y su paridad
+    @GuardedBy("Envio")
+    private byte[][] Shards = null;
+    @GuardedBy("Envio")
+    private int[] Longitudes = null;
+    @GuardedBy("Envio")
+    private ReedSolomonErasure Codigo = null;
+    @GuardedBy("Envio")
+    private int Grupo;
+    // Datagramas de datos del grupo y longitud del mayor cuerpo
+    @GuardedBy("Envio")
+    private int Cuenta;
+    @GuardedBy("Envio")
+    private int MaxLongitud;
+    // Tiempo del ultimo datagrama enviado
+    @GuardedBy("Envio")
+    private long UltimoEnvio;
+
+    // Estado de la recepcion
+    private final Object Recepcion = new Object();
+    @GuardedBy("Recepcion")
+    private ByteBuffer Entrada = null;
+    // Unico emisor aceptado, el destino, o NULL si se acepta cualquiera
+    @GuardedBy("Recepcion")
+    private InetSocketAddress Emisor = null;
+    @GuardedBy("Recepcion")
+    private final ArrayDeque<byte[]> Mensajes = new ArrayDeque<byte[]>();
+    @GuardedBy("Recepcion")
+    private final HashMap<Integer, GrupoRecibido> Grupos = new HashMap<Integer, GrupoRecibido>();
+    // Codigos por configuracion DataShards * 256 + ParityShards
+    @GuardedBy("Recepcion")
+    private final HashMap<Integer, ReedSolomonErasure> Codigos = new HashMap<Integer, ReedSolomonErasure>();
+    @GuardedBy("Recepcion")
+    private int Reciente;
+    @GuardedBy("Recepcion")
+    private boolean HayReciente = false;
+    @GuardedBy("Recepcion")
+    private long Recuperados = 0;
+
+    // Logger para el manejo de la bitacora
+    private LoggerFormatter BTLogF;
+
+    /**
+     * Datagramas recibidos de un grupo con FEC
+     */
+    private static final class GrupoRecibido {
+
+        // Cuerpos recibidos, indexados por su posicion en el grupo
+        byte[][] Shards;
+        boolean[] Presentes;
+        // Datagramas de datos del grupo, -1 hasta que llega la paridad
+        int Cuenta = -1;
+        // Longitud de los cuerpos de paridad
+        int Longitud = 0;
+        // No quedan datagramas por reconstruir
+        boolean Completo = false;
+
+        GrupoRecibido(int Total) {
+            this.Shards = new byte[Total][];
+            this.Presentes = new boolean[Total];
+        }
+    }
+
+    /**
+     * Constructor con inicializacion de la configuracion
+     *
+     * @param Host Destino de los datagramas, nombre de dominio o IP, NULL si
+     * solo se reciben datos
+     * @param Port Puerto UDP destino
+     * @param LocalPort Puerto UDP local de recepcion, 0 para uno libre
+     */
+    public UdpTransporter(String Host, int Port, int LocalPort) {
+        FrameCodec Local;
+
+        this.Host = Host;
+        this.Port = Port;
+        this.LocalPort = LocalPort;
+        this.BTLogF = LoggerFormatter.getInstance(null);
+        try {
+            Local = new FrameCodec(MAXDATAGRAM, false);
+        } catch (UtilsException ex) {
+            // MAXDATAGRAM es valido
+            throw new IllegalStateException(ex);
+        }
+        this.Codec = Local;
+    }
+
+    /**
+     * Establece la Bitacora a utilizar por la clase
+     *
+     * @param Bitacora
+     */
+    public void setBitacora(LoggerManager Bitacora) {
+        this.BTLogF = LoggerFormatter.getInstance(Bitacora);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el Host destino
+     *
+     * @return Host destino o NULL
+     */
+    public String getHost() {
+        return Host;
+    }
+
+    /**
+     * Retorna el Puerto destino
+     *
+     * @return Puerto destino
+     */
+    public int getPort() {
+        return Port;
+    }
+
+    /**
+     * Retorna el puerto local donde se reciben los datagramas, despues de Open
+     * es el puerto asignado.
+     *
+     * @return Puerto local
+     */
+    public int getLocalPort() {
+        DatagramChannel Local;
+        int Result;
+
+        Result = this.LocalPort;
+        Local = this.Canal;
+        if (Local != null) {
+            Result = Local.socket().getLocalPort();
+        }
+        return Result;
+    }
+
+    /**
+     * Establece el tamaño de los datagramas a enviar, 0 para usar getMTU().
+     * Se aplica en Open.
+     *
+     * @param DatagramSize Tamaño entre MINDATAGRAM y MAXDATAGRAM o 0
+     * @throws UtilsException
+     */
+    public void setDatagramSize(int DatagramSize) throws UtilsException {
+
+        if ((DatagramSize != 0) && ((DatagramSize < MINDATAGRAM) || (DatagramSize > MAXDATAGRAM))) {
+            throw new UtilsException("ERROR: Invalid datagram size " + Integer.toString(DatagramSize), ERROR_CONFIG, UdpTransporter.CLASSID + "000");
+        }
+        this.DatagramSize = DatagramSize;
+    }
+
+    /**
+     * Retorna el tamaño de los datagramas, 0 si se usa getMTU() y aun no se
+     * ha abierto.
+     *
+     * @return Tamaño de los datagramas
+     */
+    public int getDatagramSize() {
+        return this.DatagramSize;
+    }
+
+    /**
+     * Establece la correccion de errores: por cada DataShards datagramas se
+     * envian ParityShards datagramas de paridad. ParityShards 0 la desactiva.
+     * Se aplica en Open.
+     *
+     * @param DataShards Datagramas de datos por grupo
+     * @param ParityShards Datagramas de paridad por grupo
+     * @throws UtilsException
+     */
+    public void setFEC(int DataShards, int ParityShards) throws UtilsException {
+
+        if ((ParityShards < 0) || ((ParityShards > 0) && ((DataShards <= 0) || ((DataShards + ParityShards) > ReedSolomonErasure.MAXSHARDS - 1)))) {
+            throw new UtilsException("ERROR: Invalid FEC " + Integer.toString(DataShards) + "+" + Integer.toString(ParityShards), ERROR_CONFIG, UdpTransporter.CLASSID + "001");
+        }
+        this.DataShards = (ParityShards > 0 ? DataShards : 0);
+        this.ParityShards = ParityShards;
+    }
+
+    /**
+     * Retorna los datagramas de datos por grupo, 0 sin FEC
+     *
+     * @return Datagramas de datos por grupo
+     */
+    public int getDataShards() {
+        return this.DataShards;
+    }
+
+    /**
+     * Retorna los datagramas de paridad por grupo, 0 sin FEC
+     *
+     * @return Datagramas de paridad por grupo
+     */
+    public int getParityShards() {
+        return this.ParityShards;
+    }
+
+    /**
+     * Establece el retardo maximo en milisegundos que un mensaje espera a que
+     * se llene el datagrama, 0 para enviar cada mensaje de inmediato. Se
+     * aplica en Open.
+     *
+     * @param BatchDelay Retardo en milisegundos
+     */
+    public void setBatchDelay(long BatchDelay) {
+        this.BatchDelay = Math.max(0, BatchDelay);
+    }
+
+    /**
+     * Retorna el retardo de agrupacion en milisegundos
+     *
+     * @return Retardo de agrupacion
+     */
+    public long getBatchDelay() {
+        return this.BatchDelay;
+    }
+
+    /**
+     * Establece el tamaño del buffer de recepcion del socket, 0 para el del
+     * sistema. Se aplica en Open.
+     *
+     * @param ReceiveBufferSize Tamaño en bytes
+     */
+    public void setReceiveBufferSize(int ReceiveBufferSize) {
+        this.ReceiveBufferSize = Math.max(0, ReceiveBufferSize);
+    }
+
+    /**
+     * Establece el tamaño del buffer de envio del socket, 0 para el del
+     * sistema. Se aplica en Open.
+     *
+     * @param SendBufferSize Tamaño en bytes
+     */
+    public void setSendBufferSize(int SendBufferSize) {
+        this.SendBufferSize = Math.max(0, SendBufferSize);
+    }
+
+    /**
+     * Retorna el numero de datagramas de datos reconstruidos con la paridad
+     *
+     * @return Datagramas reconstruidos
+     */
+    public long getRecoveredCount() {
+
+        synchronized (this.Recepcion) {
+            return this.Recuperados;
+        }
+    }
+
+    /**
+     * Agrega "Datos" como un mensaje al datagrama en construccion
+     *
+     * @param Datos Mensaje a enviar
+     * @throws UtilsException Si el mensaje no cabe en un datagrama o falla el
+     * envio
+     */
+    @Override
+    public void Send(byte[] Datos) throws UtilsException {
+        int Necesario;
+
+        synchronized (this.Envio) {
+            if ((this.Canal == null) || (this.Remoto == null)) {
+                throw new UtilsException("ERROR: Transporter not open or without destination", ERROR_NOTOPEN, UdpTransporter.CLASSID + "002");
+            }
+            Necesario = FrameCodec.varintSize(Datos.length) + Datos.length;
+            if (Necesario > this.Lote.capacity()) {
+                throw new UtilsException("ERROR: Message of " + Integer.toString(Datos.length) + " bytes exceeds the datagram", ERROR_MESSAGESIZE, UdpTransporter.CLASSID + "003");
+            }
+            if (Necesario > this.Lote.remaining()) {
+                this.FlushBatch();
+            }
+            this.Codec.encode(ByteBuffer.wrap(Datos), this.Lote);
+            if (this.BatchDelay == 0) {
+                this.FlushBatch();
+            }
+        }
+    }
+
+    /**
+     * Envia el datagrama en construccion y cierra el grupo de FEC enviando su
+     * paridad.
+     *
+     * @throws UtilsException
+     */
+    public void flush() throws UtilsException {
+
+        synchronized (this.Envio) {
+            if ((this.Canal != null) && (this.Remoto != null)) {
+                this.FlushBatch();
+                this.CloseGroup();
+            }
+        }
+    }
+
+    /**
+     * Retorna el siguiente mensaje recibido o NULL si no hay ninguno, sin
+     * bloquearse.
+     *
+     * @return Mensaje recibido o NULL
+     */
+    @Override
+    public byte[] Recive() {
+
+        synchronized (this.Recepcion) {
+            this.Poll();
+            return this.Mensajes.poll();
+        }
+    }
+
+    /**
+     * Retorna TRUE si hay mensajes recibidos pendientes
+     *
+     * @return TRUE si hay datos disponibles y FALSE si no
+     */
+    @Override
+    public boolean DataAvailable() {
+
+        synchronized (this.Recepcion) {
+            this.Poll();
+            return !this.Mensajes.isEmpty();
+        }
+    }
+
+    @Override
+    public int TransporterTypeID() {
+        return 2;
+    }
+
+    /**
+     * Abre el canal en el puerto local
+     *
+     * @throws UtilsException
+     */
+    @Override
+    public synchronized void Open() throws UtilsException {
+        DatagramChannel Local;
+        InetSocketAddress Direccion;
+        int Tamano, MTU;
+
+        Direccion = null;
+        if (this.Host != null) {
+            Direccion = new InetSocketAddress(this.Host, this.Port);
+            if (Direccion.isUnresolved()) {
+                throw new UtilsException("ERROR: Host Desconocido " + this.Host, ERROR_UNKNOWHOST, UdpTransporter.CLASSID + "004");
+            }
+        }
+        try {
+            Local = DatagramChannel.open();
+            Local.configureBlocking(false);
+            if (this.ReceiveBufferSize > 0) {
+                Local.socket().setReceiveBufferSize(this.ReceiveBufferSize);
+            }
+            if (this.SendBufferSize > 0) {
+                Local.socket().setSendBufferSize(this.SendBufferSize);
+            }
+            Local.bind(new InetSocketAddress(this.LocalPort));
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Al abrir el puerto UDP " + Integer.toString(this.LocalPort) + " " + ex.getLocalizedMessage(), ERROR_IO, UdpTransporter.CLASSID + "005");
+        }
+        Tamano = this.DatagramSize;
+        if (Tamano == 0) {
+            MTU = MTU(Direccion, Local);
+            Tamano = (MTU >= MINDATAGRAM ? Math.min(MTU, MAXDATAGRAM) : DEFAULTDATAGRAM);
+        }
+        synchronized (this.Envio) {
+            this.Remoto = Direccion;
+            this.Lote = ByteBuffer.allocate(Tamano - HEADERSIZE - LENGTHSIZE);
+            this.Salida = ByteBuffer.allocateDirect(Tamano);
+            this.Codigo = null;
+            this.Shards = new byte[1][Tamano - HEADERSIZE];
+            if (this.ParityShards > 0) {
+                this.Codigo = new ReedSolomonErasure(this.DataShards, this.ParityShards);
+                this.Shards = new byte[this.DataShards + this.ParityShards][Tamano - HEADERSIZE];
+            }
+            this.Longitudes = new int[this.Shards.length];
+            // Inicio aleatorio para no confundir los grupos de una sesion anterior
+            this.Grupo = (int) System.nanoTime();
+            this.Cuenta = 0;
+            this.MaxLongitud = 0;
+            this.UltimoEnvio = System.nanoTime();
+        }
+        synchronized (this.Recepcion) {
+            this.Entrada = ByteBuffer.allocateDirect(MAXDATAGRAM);
+            this.Emisor = Direccion;
+            this.Mensajes.clear();
+            this.Grupos.clear();
+            this.HayReciente = false;
+        }
+        this.Canal = Local;
+        if (((this.BatchDelay > 0) || (this.ParityShards > 0)) && (Direccion != null)) {
+            this.RunTemporizador = true;
+            this.Temporizador = new Thread(this, "UdpTransporter-" + Integer.toString(Local.socket().getLocalPort()));
+            this.Temporizador.setDaemon(true);
+            this.Temporizador.start();
+        }
+    }
+
+    /**
+     * Envia los datos pendientes y cierra el canal
+     *
+     * @throws UtilsException
+     */
+    @Override
+    public synchronized void Close() throws UtilsException {
+        DatagramChannel Local;
+
+        if (this.Temporizador != null) {
+            this.RunTemporizador = false;
+            this.Temporizador.interrupt();
+            this.Temporizador = null;
+        }
+        Local = this.Canal;
+        if (Local != null) {
+            try {
+                this.flush();
+            } finally {
+                this.Canal = null;
+                try {
+                    Local.close();
+                } catch (IOException ex) {
+                    throw new UtilsException("ERROR: Al cerrar el puerto UDP " + ex.getLocalizedMessage(), ERROR_IO, UdpTransporter.CLASSID + "006");
+                }
+            }
+        }
+    }
+
+    /**
+     * Retorna el MTU neto de la interface hacia el destino, o de la interface
+     * local si no hay destino, descontando los encabezados IP y UDP.
+     *
+     * @return MTU neto o -1 si no se puede obtener
+     * @throws UtilsException
+     */
+    @Override
+    public int getMTU() throws UtilsException {
+        InetSocketAddress Direccion;
+        DatagramChannel Local;
+        int Result;
+
+        Result = -1;
+        Local = this.Canal;
+        if (Local != null) {
+            synchronized (this.Envio) {
+                Direccion = this.Remoto;
+            }
+            Result = MTU(Direccion, Local);
+        }
+        return Result;
+    }
+
+    /**
+     * Hebra del retardo de agrupacion: envia el datagrama en construccion y
+     * cierra el grupo de FEC cuando no se envian datos durante el retardo, o
+     * durante GROUPDELAY si el retardo de agrupacion es 0.
+     */
+    @Override
+    public void run() {
+        long Retardo;
+
+        Retardo = (this.BatchDelay > 0 ? this.BatchDelay : GROUPDELAY);
+        while (this.RunTemporizador) {
+            try {
+                Thread.sleep(Retardo);
+                synchronized (this.Envio) {
+                    if (this.Canal != null) {
+                        if (this.Lote.position() > 0) {
+                            this.FlushBatch();
+                        } else if ((this.Cuenta > 0) && ((System.nanoTime() - this.UltimoEnvio) >= (Retardo * 1000000L))) {
+                            this.CloseGroup();
+                        }
+                    }
+                }
+            } catch (InterruptedException ex) {
+                this.RunTemporizador = false;
+            } catch (UtilsException ex) {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Al enviar el datagrama agrupado", UdpTransporter.CLASSID, "007");
+            }
+        }
+    }
+
+    /**
+     * Retorna el MTU neto de la interface hacia "Direccion" o de la interface
+     * de "Local".
+     *
+     * @param Direccion Destino o NULL
+     * @param Local Canal abierto
+     * @return MTU neto o -1
+     * @throws UtilsException
+     */
+    private static int MTU(InetSocketAddress Direccion, DatagramChannel Local) throws UtilsException {
+        DatagramSocket Sonda;
+        NetworkInterface Interfaz;
+        InetAddress Origen;
+        int Result;
+
+        Result = -1;
+        Sonda = null;
+        try {
+            if (Direccion != null) {
+                // Un socket conectado toma la direccion local de la ruta al destino
+                Sonda = new DatagramSocket();
+                Sonda.connect(Direccion);
+                Origen = Sonda.getLocalAddress();
+            } else {
+                Origen = Local.socket().getLocalAddress();
+            }
+            Interfaz = NetworkInterface.getByInetAddress(Origen);
+            if (Interfaz != null) {
+                Result = Interfaz.getMTU() - IPUDPHEADERS;
+            }
+        } catch (SocketException ex) {
+            throw new UtilsException("ERROR: Al obtener el MTU de la interface:" + ex.getLocalizedMessage(), ERROR_INTERFACE, UdpTransporter.CLASSID + "008");
+        } finally {
+            if (Sonda != null) {
+                Sonda.close();
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Envia el datagrama en construccion y cierra el grupo si se completo
+     *
+     * @throws UtilsException
+     */
+    @GuardedBy("Envio")
+    private void FlushBatch() throws UtilsException {
+        byte[] Shard;
+        int Longitud;
+
+        if (this.Lote.position() > 0) {
+            Longitud = this.Lote.position();
+            Shard = this.Shards[this.Cuenta];
+            Shard[0] = (byte) (Longitud >>> 8);
+            Shard[1] = (byte) Longitud;
+            System.arraycopy(this.Lote.array(), 0, Shard, LENGTHSIZE, Longitud);
+            this.Lote.clear();
+            Longitud += LENGTHSIZE;
+            this.Transmit(TYPE_DATA, this.Cuenta, 0, Shard, Longitud);
+            if (this.Codigo != null) {
+                this.Longitudes[this.Cuenta] = Longitud;
+                this.MaxLongitud = Math.max(this.MaxLongitud, Longitud);
+                this.Cuenta++;
+                if (this.Cuenta == this.Codigo.getDataShards()) {
+                    this.CloseGroup();
+                }
+            } else {
+                this.Grupo++;
+            }
+        }
+    }
+
+    /**
+     * Envia la paridad del grupo en curso e inicia el siguiente grupo. Los
+     * datagramas que faltan en un grupo incompleto se codifican como ceros.
+     *
+     * @throws UtilsException
+     */
+    @GuardedBy("Envio")
+    private void CloseGroup() throws UtilsException {
+        int i, K;
+
+        if ((this.Codigo != null) && (this.Cuenta > 0)) {
+            K = this.Codigo.getDataShards();
+            for (i = 0; i < K; i++) {
+                Arrays.fill(this.Shards[i], (i < this.Cuenta ? this.Longitudes[i] : 0), this.MaxLongitud, (byte) 0);
+            }
+            this.Codigo.encode(this.Shards, 0, this.MaxLongitud);
+            for (i = 0; i < this.Codigo.getParityShards(); i++) {
+                this.Transmit(TYPE_PARITY, K + i, this.Cuenta, this.Shards[K + i], this.MaxLongitud);
+            }
+            this.Grupo++;
+            this.Cuenta = 0;
+            this.MaxLongitud = 0;
+        }
+    }
+
+    /**
+     * Envia un datagrama con el encabezado y "Longitud" bytes de "Cuerpo". Si
+     * el buffer del socket esta lleno reintenta despues de esperar SENDWAIT.
+     *
+     * @param Tipo Tipo de datagrama
+     * @param Indice Indice en el grupo
+     * @param Datos Datagramas de datos del grupo, solo en la paridad
+     * @param Cuerpo Cuerpo del datagrama
+     * @param Longitud Bytes del cuerpo
+     * @throws UtilsException
+     */
+    @GuardedBy("Envio")
+    private void Transmit(byte Tipo, int Indice, int Datos, byte[] Cuerpo, int Longitud) throws UtilsException {
+
+        this.Salida.clear();
+        this.Salida.put(Tipo);
+        this.Salida.putInt(this.Grupo);
+        this.Salida.put((byte) Indice);
+        this.Salida.put((byte) Datos);
+        this.Salida.put((byte) (this.Codigo != null ? this.Codigo.getDataShards() : 0));
+        this.Salida.put((byte) (this.Codigo != null ? this.Codigo.getParityShards() : 0));
+        this.Salida.put(Cuerpo, 0, Longitud);
+        this.Salida.flip();
+        try {
+            while (this.Canal.send(this.Salida, this.Remoto) == 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(SENDWAIT));
+            }
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Al enviar datagrama al Host " + this.Host + " " + ex.getLocalizedMessage(), ERROR_SENDDATA, UdpTransporter.CLASSID + "009");
+        }
+        this.UltimoEnvio = System.nanoTime();
+    }
+
+    /**
+     * Lee los datagramas disponibles hasta que haya mensajes pendientes o no
+     * queden datagramas. Si hay destino se descartan los datagramas de otros
+     * emisores.
+     */
+    @GuardedBy("Recepcion")
+    private void Poll() {
+        DatagramChannel Local;
+        SocketAddress Origen;
+
+        Local = this.Canal;
+        if (Local != null) {
+            try {
+                do {
+                    this.Entrada.clear();
+                    Origen = Local.receive(this.Entrada);
+                    if ((Origen != null) && ((this.Emisor == null) || this.Emisor.equals(Origen))) {
+                        this.Entrada.flip();
+                        this.Process(this.Entrada);
+                    }
+                } while ((Origen != null) && this.Mensajes.isEmpty());
+            } catch (IOException ex) {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Al recibir datagrama", UdpTransporter.CLASSID, "010");
+            }
+        }
+    }
+
+    /**
+     * Procesa un datagrama recibido: entrega sus mensajes y lo guarda en su
+     * grupo para reconstruir los datagramas perdidos.
+     *
+     * @param Datagrama Datagrama entre la posicion y el limite
+     */
+    @GuardedBy("Recepcion")
+    private void Process(ByteBuffer Datagrama) {
+        GrupoRecibido Actual;
+        byte[] Cuerpo;
+        byte Tipo;
+        int Numero, Indice, Datos, K, M;
+
+        if (Datagrama.remaining() >= HEADERSIZE) {
+            Tipo = Datagrama.get();
+            Numero = Datagrama.getInt();
+            Indice = Datagrama.get() & 0xFF;
+            Datos = Datagrama.get() & 0xFF;
+            K = Datagrama.get() & 0xFF;
+            M = Datagrama.get() & 0xFF;
+            Cuerpo = new byte[Datagrama.remaining()];
+            Datagrama.get(Cuerpo);
+            if ((K == 0) || (M == 0)) {
+                if (Tipo == TYPE_DATA) {
+                    this.Deliver(Cuerpo);
+                }
+            } else if ((Indice < (K + M)) && ((Tipo == TYPE_PARITY) == (Indice >= K))) {
+                Actual = this.Lookup(Numero, K + M);
+                if ((Actual == null) || !Actual.Presentes[Indice]) {
+                    if (Tipo == TYPE_DATA) {
+                        this.Deliver(Cuerpo);
+                    }
+                    if ((Actual != null) && !Actual.Completo) {
+                        Actual.Shards[Indice] = Cuerpo;
+                        Actual.Presentes[Indice] = true;
+                        if (Tipo == TYPE_PARITY) {
+                            Actual.Cuenta = Math.min(Datos, K);
+                            Actual.Longitud = Cuerpo.length;
+                        }
+                        this.Recover(Actual, K, M);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retorna el grupo "Numero", creandolo si es reciente, o NULL si es
+     * anterior a la ventana de grupos recientes. Un salto hacia atras mayor a
+     * cuatro ventanas se toma como un reinicio del emisor.
+     *
+     * @param Numero Numero del grupo
+     * @param Total Datagramas de datos y paridad del grupo
+     * @return Grupo o NULL
+     */
+    @GuardedBy("Recepcion")
+    private GrupoRecibido Lookup(int Numero, int Total) {
+        Iterator<Integer> Claves;
+        GrupoRecibido Result;
+        int Atraso;
+
+        Result = null;
+        if (this.HayReciente && ((this.Reciente - Numero) > (4 * WINDOW))) {
+            this.Grupos.clear();
+            this.HayReciente = false;
+        }
+        if (!this.HayReciente || ((Numero - this.Reciente) > 0)) {
+            this.Reciente = Numero;
+            this.HayReciente = true;
+            Claves = this.Grupos.keySet().iterator();
+            while (Claves.hasNext()) {
+                if ((this.Reciente - Claves.next()) >= WINDOW) {
+                    Claves.remove();
+                }
+            }
+        }
+        Atraso = this.Reciente - Numero;
+        if (Atraso < WINDOW) {
+            Result = this.Grupos.get(Numero);
+            if ((Result == null) || (Result.Presentes.length != Total)) {
+                Result = new GrupoRecibido(Total);
+                this.Grupos.put(Numero, Result);
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Reconstruye los datagramas de datos perdidos del grupo si ya llego la
+     * paridad necesaria y entrega sus mensajes.
+     *
+     * @param Actual Grupo
+     * @param K Datagramas de datos por grupo
+     * @param M Datagramas de paridad por grupo
+     */
+    @GuardedBy("Recepcion")
+    private void Recover(GrupoRecibido Actual, int K, int M) {
+        ReedSolomonErasure Decodificador;
+        boolean[] Faltantes;
+        Integer Clave;
+        int j, Perdidos, Recibidos;
+
+        if (Actual.Cuenta >= 0) {
+            Perdidos = 0;
+            Recibidos = 0;
+            for (j = 0; j < (K + M); j++) {
+                if (j < Actual.Cuenta) {
+                    if (Actual.Presentes[j]) {
+                        Recibidos++;
+                    } else {
+                        Perdidos++;
+                    }
+                } else if ((j >= K) && Actual.Presentes[j] && (Actual.Shards[j].length == Actual.Longitud)) {
+                    Recibidos++;
+                }
+            }
+            if (Perdidos == 0) {
+                Actual.Completo = true;
+            } else if (Recibidos >= Actual.Cuenta) {
+                Clave = (K << 8) | M;
+                Decodificador = this.Codigos.get(Clave);
+                try {
+                    if (Decodificador == null) {
+                        Decodificador = new ReedSolomonErasure(K, M);
+                        this.Codigos.put(Clave, Decodificador);
+                    }
+                    Faltantes = new boolean[K];
+                    for (j = 0; j < (K + M); j++) {
+                        if (j < K) {
+                            Faltantes[j] = !Actual.Presentes[j];
+                            if (j >= Actual.Cuenta) {
+                                // Datagramas no enviados de un grupo incompleto
+                                Actual.Shards[j] = new byte[Actual.Longitud];
+                                Actual.Presentes[j] = true;
+                            } else if (Actual.Presentes[j]) {
+                                Actual.Shards[j] = Arrays.copyOf(Actual.Shards[j], Actual.Longitud);
+                            }
+                        } else if (Actual.Presentes[j] && (Actual.Shards[j].length != Actual.Longitud)) {
+                            Actual.Presentes[j] = false;
+                        }
+                    }
+                    Decodificador.reconstruct(Actual.Shards, Actual.Presentes, 0, Actual.Longitud);
+                    for (j = 0; j < Actual.Cuenta; j++) {
+                        if (Faltantes[j]) {
+                            this.Deliver(Actual.Shards[j]);
+                            this.Recuperados++;
+                        }
+                    }
+                } catch (UtilsException ex) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Al reconstruir el grupo", UdpTransporter.CLASSID, "011");
+                }
+                Actual.Completo = true;
+            }
+            if (Actual.Completo) {
+                // Solo se conservan los indicadores para descartar duplicados
+                Actual.Shards = null;
+            }
+        }
+    }
+
+    /**
+     * Agrega a la cola de recepcion los mensajes de un cuerpo de datos
+     *
+     * @param Cuerpo Cuerpo del datagrama de datos
+     */
+    @GuardedBy("Recepcion")
+    private void Deliver(byte[] Cuerpo) {
+        ByteBuffer Datos, Mensaje;
+        byte[] Copia;
+        int Longitud;
+
+        if (Cuerpo.length >= LENGTHSIZE) {
+            Longitud = ((Cuerpo[0] & 0xFF) << 8) | (Cuerpo[1] & 0xFF);
+            if ((Longitud + LENGTHSIZE) <= Cuerpo.length) {
+                Datos = ByteBuffer.wrap(Cuerpo, LENGTHSIZE, Longitud);
+                try {
+                    while ((Mensaje = this.Codec.next(Datos)) != null) {
+                        Copia = new byte[Mensaje.remaining()];
+                        Mensaje.get(Copia);
+                        this.Mensajes.add(Copia);
+                    }
+                } catch (UtilsException ex) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "ERROR: Mensaje invalido en el datagrama", UdpTransporter.CLASSID, "012");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bolivartech.utils.communications.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Interface is the BolivarTech's Byte Ring Buffer .
+ *
+ *   Esta interface define las operaciones comunes de los buffers circulares de bytes usados
+ *   para pasar los datos recibidos de la hebra de recepcion a la aplicacion. La seguridad
+ *   entre hebras depende de la implementacion: SyncroBuffer admite cualquier numero de
+ *   productores y consumidores, SpscSyncroBuffer solo una hebra productora y una consumidora.
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial.
+ */
+public interface ByteRingBuffer {
+
+    /**
+     * Introduce un byte en la cola del buffer.
+     *
+     * @param in  Byte a ser introducido en el buffer
+     */
+    public void put(byte in);
+
+    /**
+     * Introduce un arreglo de bytes en la cola del buffer
+     *
+     * @param in  arreglo de bytes a introducir en el buffer
+     */
+    public void put(byte[] in);
+
+    /**
+     * Introduce "len" bytes del arreglo "in" a partir de "off" en la cola del buffer
+     *
+     * @param in arreglo de bytes a introducir en el buffer
+     * @param off posicion del primer byte
+     * @param len numero de bytes
+     */
+    public void put(byte[] in, int off, int len);
+
+    /**
+     * Introduce los bytes restantes de "in" en la cola del buffer, al retornar
+     * la posicion de "in" queda en su limite.
+     *
+     * @param in buffer con los bytes a introducir
+     */
+    public void put(ByteBuffer in);
+
+    /**
+     * Retorna todos los bytes contenidos en el buffer y los retira
+     *
+     * @return  Bytes contenidos en el buffer o null si esta vacio
+     */
+    public byte[] getall();
+
+    /**
+     * Retorna y retira el primer Byte contenido en el buffer, 0 si esta vacio
+     *
+     * @return Primer byte contenido en el buffer
+     */
+    public byte getByte();
+
+    /**
+     * Retorna y retira hasta "NumBytes" bytes del buffer
+     *
+     * @param NumBytes a ser retornados
+     * @return  Arreglo de bytes recuperado del buffer o null si esta vacio
+     */
+    public byte[] getBytes(int NumBytes);
+
+    /**
+     * Copia y retira hasta "len" bytes del buffer al arreglo "out" a partir de
+     * "off" sin esperar.
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero maximo de bytes
+     * @return numero de bytes copiados, 0 si el buffer esta vacio
+     */
+    public int read(byte[] out, int off, int len);
+
+    /**
+     * Copia y retira hasta los bytes restantes de "out" sin esperar, la
+     * posicion de "out" avanza.
+     *
+     * @param out buffer destino
+     * @return numero de bytes copiados, 0 si el buffer esta vacio
+     */
+    public int read(ByteBuffer out);
+
+    /**
+     * Copia y retira hasta "len" bytes del buffer al arreglo "out" a partir de
+     * "off", esperando hasta "Timeout" milisegundos a que haya datos si el
+     * buffer esta vacio. Con Timeout 0 espera hasta que haya datos.
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero maximo de bytes
+     * @param Timeout milisegundos maximos de espera
+     * @return numero de bytes copiados, 0 si se cumplio el tiempo de espera
+     * @throws InterruptedException si la hebra es interrumpida mientras espera
+     */
+    public int read(byte[] out, int off, int len, long Timeout) throws InterruptedException;
+
+    /**
+     * Retorna la cantidad de bytes almacenados en el buffer
+     *
+     * @return  Cantidad de bytes almacenados en el buffer
+     */
+    public int length();
+}
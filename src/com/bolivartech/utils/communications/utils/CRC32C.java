@@ -0,0 +1,225 @@
+package com.bolivartech.utils.communications.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.Checksum;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Class is the BolivarTech's CRC32C (Castagnoli) Checksum .
+ *
+ *   This Class is NOT Thread Safe
+ *
+ *   Esta clase implementa el CRC32C (polinomio de Castagnoli 0x1EDC6F41, reflejado 0x82F63B78)
+ *   usado por iSCSI, SCTP y ext4. java.util.zip.CRC32C existe solo a partir de Java 9: si esta
+ *   disponible se usa, ya que la JVM lo acelera con instrucciones del procesador, y en Java 8
+ *   se calcula con tablas "slicing-by-8" que procesan 8 bytes por iteracion.
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial.
+ */
+public final class CRC32C implements Checksum {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI9";
+
+    // Polinomio de Castagnoli reflejado
+    private static final int POLY = 0x82F63B78;
+
+    // Tablas para procesar 8 bytes por iteracion
+    private static final int[] T0 = new int[256];
+    private static final int[] T1 = new int[256];
+    private static final int[] T2 = new int[256];
+    private static final int[] T3 = new int[256];
+    private static final int[] T4 = new int[256];
+    private static final int[] T5 = new int[256];
+    private static final int[] T6 = new int[256];
+    private static final int[] T7 = new int[256];
+
+    // Constructor de java.util.zip.CRC32C y Checksum.update(ByteBuffer), null en Java 8
+    private static final MethodHandle NATIVO;
+    private static final MethodHandle NATIVOBUFFER;
+
+    static {
+        MethodHandles.Lookup Busqueda;
+        MethodHandle Constructor, Actualizar;
+        int[][] T;
+        int i, j, Valor;
+
+        T = new int[][]{T0, T1, T2, T3, T4, T5, T6, T7};
+        for (i = 0; i < 256; i++) {
+            Valor = i;
+            for (j = 0; j < 8; j++) {
+                Valor = ((Valor & 1) != 0 ? (Valor >>> 1) ^ POLY : Valor >>> 1);
+            }
+            T0[i] = Valor;
+        }
+        for (i = 0; i < 256; i++) {
+            for (j = 1; j < 8; j++) {
+                T[j][i] = (T[j - 1][i] >>> 8) ^ T0[T[j - 1][i] & 0xFF];
+            }
+        }
+        Busqueda = MethodHandles.publicLookup();
+        try {
+            Constructor = Busqueda.findConstructor(Class.forName("java.util.zip.CRC32C"), MethodType.methodType(void.class)).asType(MethodType.methodType(Checksum.class));
+            Actualizar = Busqueda.findVirtual(Checksum.class, "update", MethodType.methodType(void.class, ByteBuffer.class));
+        } catch (ReflectiveOperationException ex) {
+            Constructor = null;
+            Actualizar = null;
+        }
+        NATIVO = Constructor;
+        NATIVOBUFFER = Actualizar;
+    }
+
+    // Implementacion de la JVM o null si se usan las tablas
+    private final Checksum Nativo;
+    // Estado del CRC (invertido) con las tablas
+    private int Crc;
+
+    /**
+     * Constructor por defecto
+     */
+    public CRC32C() {
+        Checksum Local;
+
+        Local = null;
+        if (NATIVO != null) {
+            try {
+                Local = (Checksum) NATIVO.invokeExact();
+            } catch (Throwable ex) {
+                Local = null;
+            }
+        }
+        this.Nativo = Local;
+        this.Crc = 0xFFFFFFFF;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Calcula el CRC32C de los bytes restantes de "Datos" sin modificar su
+     * posicion.
+     *
+     * @param Datos Datos a procesar
+     * @return CRC32C de los datos
+     */
+    public static int compute(ByteBuffer Datos) {
+        CRC32C Calculo;
+
+        Calculo = new CRC32C();
+        Calculo.update(Datos.duplicate());
+        return (int) Calculo.getValue();
+    }
+
+    @Override
+    public void update(int b) {
+
+        if (this.Nativo != null) {
+            this.Nativo.update(b);
+        } else {
+            this.Crc = (this.Crc >>> 8) ^ T0[(this.Crc ^ b) & 0xFF];
+        }
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+
+        if (this.Nativo != null) {
+            this.Nativo.update(b, off, len);
+        } else {
+            this.Tables(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    /**
+     * Actualiza el CRC con los bytes restantes de "Datos", al retornar la
+     * posicion queda en el limite.
+     *
+     * @param Datos Datos a procesar
+     */
+    public void update(ByteBuffer Datos) {
+
+        if (this.Nativo == null) {
+            this.Tables(Datos);
+        } else if (Datos.hasArray()) {
+            this.Nativo.update(Datos.array(), Datos.arrayOffset() + Datos.position(), Datos.remaining());
+            Datos.position(Datos.limit());
+        } else {
+            try {
+                NATIVOBUFFER.invokeExact(this.Nativo, Datos);
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    @Override
+    public long getValue() {
+        long Result;
+
+        if (this.Nativo != null) {
+            Result = this.Nativo.getValue();
+        } else {
+            Result = (~this.Crc) & 0xFFFFFFFFL;
+        }
+        return Result;
+    }
+
+    @Override
+    public void reset() {
+
+        if (this.Nativo != null) {
+            this.Nativo.reset();
+        }
+        this.Crc = 0xFFFFFFFF;
+    }
+
+    /**
+     * Actualiza el CRC con las tablas, al retornar la posicion de "Datos" queda
+     * en el limite.
+     *
+     * @param Datos Datos a procesar
+     */
+    private void Tables(ByteBuffer Datos) {
+        ByteOrder Orden;
+        int Local, Bajo, Alto, Posicion, Limite;
+        long Valor;
+
+        Orden = Datos.order();
+        Datos.order(ByteOrder.LITTLE_ENDIAN);
+        Local = this.Crc;
+        Posicion = Datos.position();
+        Limite = Datos.limit();
+        while ((Limite - Posicion) >= 8) {
+            Valor = Datos.getLong(Posicion);
+            Bajo = (int) Valor ^ Local;
+            Alto = (int) (Valor >>> 32);
+            Local = T7[Bajo & 0xFF] ^ T6[(Bajo >>> 8) & 0xFF] ^ T5[(Bajo >>> 16) & 0xFF] ^ T4[Bajo >>> 24]
+                    ^ T3[Alto & 0xFF] ^ T2[(Alto >>> 8) & 0xFF] ^ T1[(Alto >>> 16) & 0xFF] ^ T0[Alto >>> 24];
+            Posicion += 8;
+        }
+        while (Posicion < Limite) {
+            Local = (Local >>> 8) ^ T0[(Local ^ Datos.get(Posicion)) & 0xFF];
+            Posicion++;
+        }
+        Datos.position(Limite);
+        Datos.order(Orden);
+        this.Crc = Local;
+    }
+}
@@ -0,0 +1,187 @@
+package com.bolivartech.utils.communications.utils;
+
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Class is the BolivarTech's pool of direct ByteBuffers .
+ *
+ *   This Class is Thread Safe
+ *
+ *   Esta clase implementa un pool de ByteBuffer directos para las operaciones de E/S de los
+ *   Transporter, evitando reservar memoria fuera del heap en cada mensaje. Los buffers se
+ *   agrupan por clases de tamaño potencia de 2 desde MINSIZE hasta MAXSIZE bytes, cada clase
+ *   guarda hasta "MaxPerClass" buffers libres. Las solicitudes mayores a MAXSIZE se reservan
+ *   sin pool y al liberarse se descartan.
+ *
+ *   acquire retorna un buffer limpio con el limite en el tamaño solicitado, el buffer debe
+ *   retornarse con release una sola vez y no se debe usar despues.
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.1
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial. v1.0.1 (2026-10-19) Se
+ * suprime la advertencia rawtypes del arreglo de colas.
+ */
+@ThreadSafe
+public final class DirectBufferPool {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI8";
+
+    /**
+     * Tamaño minimo de los buffers del pool
+     */
+    public static final int MINSIZE = 1 << 8;
+    /**
+     * Tamaño maximo de los buffers del pool
+     */
+    public static final int MAXSIZE = 1 << 20;
+
+    private static final int MINSHIFT = 8;
+    private static final int CLASSES = 13;  // Clases de tamaño de 2^8 a 2^20
+
+    // Pool compartido por defecto
+    private static final DirectBufferPool DEFAULT = new DirectBufferPool(64);
+
+    // Buffers libres y numero de buffers libres por clase de tamaño
+    private final ConcurrentLinkedQueue<ByteBuffer>[] Libres;
+    private final AtomicInteger[] Cuenta;
+    private final int MaxPerClass;
+    // Estadisticas de uso
+    private final AtomicLong Reservados = new AtomicLong(0);
+    private final AtomicLong Reusados = new AtomicLong(0);
+
+    /**
+     * Constructor con el numero maximo de buffers libres por clase de tamaño
+     *
+     * @param MaxPerClass Buffers libres maximos por clase
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public DirectBufferPool(int MaxPerClass) {
+        int i;
+
+        this.MaxPerClass = Math.max(0, MaxPerClass);
+        this.Libres = new ConcurrentLinkedQueue[CLASSES];
+        this.Cuenta = new AtomicInteger[CLASSES];
+        for (i = 0; i < CLASSES; i++) {
+            this.Libres[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+            this.Cuenta[i] = new AtomicInteger(0);
+        }
+    }
+
+    /**
+     * Retorna el pool compartido por defecto
+     *
+     * @return Pool por defecto
+     */
+    public static DirectBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna un buffer directo limpio con capacidad para "Size" bytes y el
+     * limite en "Size".
+     *
+     * @param Size Numero de bytes requeridos
+     * @return Buffer directo
+     */
+    public ByteBuffer acquire(int Size) {
+        ByteBuffer Result;
+        int Clase;
+
+        Clase = sizeClass(Size);
+        Result = null;
+        if (Clase < CLASSES) {
+            Result = this.Libres[Clase].poll();
+            if (Result != null) {
+                this.Cuenta[Clase].decrementAndGet();
+                this.Reusados.incrementAndGet();
+            }
+        }
+        if (Result == null) {
+            Result = ByteBuffer.allocateDirect(Clase < CLASSES ? 1 << (Clase + MINSHIFT) : Size);
+            this.Reservados.incrementAndGet();
+        }
+        Result.clear();
+        Result.limit(Math.max(0, Size));
+        return Result;
+    }
+
+    /**
+     * Retorna el buffer al pool, los buffers que no son del pool o exceden el
+     * numero de buffers libres de su clase se descartan.
+     *
+     * @param Buffer Buffer obtenido con acquire
+     */
+    public void release(ByteBuffer Buffer) {
+        int Clase, Capacidad;
+
+        if ((Buffer != null) && Buffer.isDirect() && !Buffer.isReadOnly()) {
+            Capacidad = Buffer.capacity();
+            Clase = sizeClass(Capacidad);
+            if ((Clase < CLASSES) && (Capacidad == (1 << (Clase + MINSHIFT)))) {
+                if (this.Cuenta[Clase].incrementAndGet() <= this.MaxPerClass) {
+                    Buffer.clear();
+                    this.Libres[Clase].offer(Buffer);
+                } else {
+                    this.Cuenta[Clase].decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Retorna el numero de buffers reservados por el pool
+     *
+     * @return Buffers reservados
+     */
+    public long getAllocatedCount() {
+        return this.Reservados.get();
+    }
+
+    /**
+     * Retorna el numero de solicitudes atendidas con un buffer reusado
+     *
+     * @return Buffers reusados
+     */
+    public long getReusedCount() {
+        return this.Reusados.get();
+    }
+
+    /**
+     * Retorna la clase de tamaño de "Size" bytes, CLASSES si excede MAXSIZE
+     *
+     * @param Size Numero de bytes
+     * @return Clase de tamaño
+     */
+    private static int sizeClass(int Size) {
+        int Result;
+
+        if (Size <= MINSIZE) {
+            Result = 0;
+        } else if (Size > MAXSIZE) {
+            Result = CLASSES;
+        } else {
+            Result = (32 - Integer.numberOfLeadingZeros(Size - 1)) - MINSHIFT;
+        }
+        return Result;
+    }
+}
@@ -0,0 +1,312 @@
+package com.bolivartech.utils.communications.utils;
+
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import java.nio.ByteBuffer;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Class is the BolivarTech's Length Prefixed Frame Codec .
+ *
+ *   This Class is Thread Safe
+ *
+ *   Esta clase implementa la separacion en tramas de un flujo de bytes como el de TCP. Cada
+ *   trama se forma con su longitud en formato varint (7 bits por byte, el bit alto indica que
+ *   sigue otro byte, maximo 5 bytes), los datos y opcionalmente el CRC32C de los datos en 4
+ *   bytes little endian.
+ *
+ *   decode extrae todas las tramas completas de un buffer y las entrega como vistas sobre el
+ *   mismo buffer, sin copiar los datos; los bytes de una trama incompleta quedan en el buffer
+ *   para la siguiente lectura. encode retorna los encabezados y los datos de un lote de tramas
+ *   como un arreglo de buffers para enviarlo en una sola escritura gather, sin copiar los datos.
+ *
+ *   La clase no tiene estado mutable y puede usarse desde varias hebras.
+ *
+ *   Class ID: "35DGFIA" Loc: 000-004
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial.
+ */
+@ThreadSafe
+public final class FrameCodec {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFIA";
+
+    /**
+     * Numero maximo de bytes del encabezado varint
+     */
+    public static final int MAXHEADER = 5;
+    /**
+     * Numero de bytes del CRC32C
+     */
+    public static final int CRCSIZE = 4;
+
+    /**
+     * **** Seleccion de Causas de Error ******
+     */
+    /**
+     * Error tamaño maximo de trama invalido
+     */
+    public final static int ERROR_INVALIDSIZE = 1;
+    /**
+     * Error trama mayor al tamaño maximo
+     */
+    public final static int ERROR_FRAMESIZE = 2;
+    /**
+     * Error el CRC32C de la trama no coincide
+     */
+    public final static int ERROR_CRC = 3;
+    /**
+     * Error encabezado varint invalido
+     */
+    public final static int ERROR_VARINT = 4;
+
+    // Tamaño maximo de los datos de una trama
+    private final int MaxFrameSize;
+    // Uso del CRC32C
+    private final boolean UseCRC;
+
+    /**
+     * Constructor con el tamaño maximo de trama y el uso del CRC32C
+     *
+     * @param MaxFrameSize Numero maximo de bytes de datos por trama, mayor a 0
+     * @param UseCRC TRUE para agregar y verificar el CRC32C de cada trama
+     * @throws UtilsException
+     */
+    public FrameCodec(int MaxFrameSize, boolean UseCRC) throws UtilsException {
+
+        if (MaxFrameSize <= 0) {
+            throw new UtilsException("ERROR: Invalid max frame size " + Integer.toString(MaxFrameSize), ERROR_INVALIDSIZE, FrameCodec.CLASSID + "000");
+        }
+        this.MaxFrameSize = MaxFrameSize;
+        this.UseCRC = UseCRC;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el numero maximo de bytes de datos por trama
+     *
+     * @return Tamaño maximo de trama
+     */
+    public int getMaxFrameSize() {
+        return this.MaxFrameSize;
+    }
+
+    /**
+     * Retorna TRUE si las tramas llevan CRC32C
+     *
+     * @return Uso del CRC32C
+     */
+    public boolean isUseCRC() {
+        return this.UseCRC;
+    }
+
+    /**
+     * Retorna el numero maximo de bytes que ocupa una trama codificada
+     *
+     * @return Tamaño maximo de la trama con encabezado y CRC
+     */
+    public int getMaxEncodedSize() {
+        return this.MaxFrameSize + MAXHEADER + (this.UseCRC ? CRCSIZE : 0);
+    }
+
+    /**
+     * Retorna el numero de bytes del varint de "Valor"
+     *
+     * @param Valor Valor no negativo
+     * @return Bytes del varint
+     */
+    public static int varintSize(int Valor) {
+        int Result;
+
+        Result = 1;
+        while ((Valor >>>= 7) != 0) {
+            Result++;
+        }
+        return Result;
+    }
+
+    /**
+     * Codifica un lote de tramas, retorna en orden los buffers de encabezado,
+     * datos y CRC para enviarlos con una escritura gather. Los buffers de datos
+     * son los de "Payloads", sin copiar, y su posicion avanza al enviarse.
+     *
+     * @param Payloads Datos de cada trama entre la posicion y el limite
+     * @return Buffers a enviar
+     * @throws UtilsException Si alguna trama excede el tamaño maximo
+     */
+    public ByteBuffer[] encode(ByteBuffer[] Payloads) throws UtilsException {
+        ByteBuffer[] Result;
+        ByteBuffer Encabezados, Vista;
+        int i, j, Longitud, Valor, Inicio;
+
+        Result = new ByteBuffer[Payloads.length * (this.UseCRC ? 3 : 2)];
+        Encabezados = ByteBuffer.allocate(Payloads.length * (MAXHEADER + (this.UseCRC ? CRCSIZE : 0)));
+        j = 0;
+        for (i = 0; i < Payloads.length; i++) {
+            Longitud = Payloads[i].remaining();
+            if (Longitud > this.MaxFrameSize) {
+                throw new UtilsException("ERROR: Frame of " + Integer.toString(Longitud) + " bytes exceeds " + Integer.toString(this.MaxFrameSize), ERROR_FRAMESIZE, FrameCodec.CLASSID + "001");
+            }
+            Inicio = Encabezados.position();
+            Valor = Longitud;
+            while ((Valor & ~0x7F) != 0) {
+                Encabezados.put((byte) ((Valor & 0x7F) | 0x80));
+                Valor >>>= 7;
+            }
+            Encabezados.put((byte) Valor);
+            Result[j++] = View(Encabezados, Inicio, Encabezados.position());
+            Result[j++] = Payloads[i];
+            if (this.UseCRC) {
+                Inicio = Encabezados.position();
+                Valor = CRC32C.compute(Payloads[i]);
+                Encabezados.put((byte) Valor);
+                Encabezados.put((byte) (Valor >>> 8));
+                Encabezados.put((byte) (Valor >>> 16));
+                Encabezados.put((byte) (Valor >>> 24));
+                Result[j++] = View(Encabezados, Inicio, Encabezados.position());
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Codifica una trama copiandola en "Out", util para tramas pequeñas.
+     *
+     * @param Payload Datos de la trama entre la posicion y el limite
+     * @param Out Buffer destino con espacio para la trama codificada
+     * @return Numero de bytes escritos en Out
+     * @throws UtilsException Si la trama excede el tamaño maximo
+     */
+    public int encode(ByteBuffer Payload, ByteBuffer Out) throws UtilsException {
+        int Longitud, Valor, Inicio;
+
+        Longitud = Payload.remaining();
+        if (Longitud > this.MaxFrameSize) {
+            throw new UtilsException("ERROR: Frame of " + Integer.toString(Longitud) + " bytes exceeds " + Integer.toString(this.MaxFrameSize), ERROR_FRAMESIZE, FrameCodec.CLASSID + "002");
+        }
+        Inicio = Out.position();
+        Valor = Longitud;
+        while ((Valor & ~0x7F) != 0) {
+            Out.put((byte) ((Valor & 0x7F) | 0x80));
+            Valor >>>= 7;
+        }
+        Out.put((byte) Valor);
+        Valor = (this.UseCRC ? CRC32C.compute(Payload) : 0);
+        Out.put(Payload);
+        if (this.UseCRC) {
+            Out.put((byte) Valor);
+            Out.put((byte) (Valor >>> 8));
+            Out.put((byte) (Valor >>> 16));
+            Out.put((byte) (Valor >>> 24));
+        }
+        return Out.position() - Inicio;
+    }
+
+    /**
+     * Extrae la siguiente trama completa de "In" como una vista sin copiar los
+     * datos, avanzando la posicion de "In" al final de la trama. Si la trama
+     * esta incompleta retorna null y no modifica "In".
+     *
+     * @param In Buffer con los datos recibidos entre la posicion y el limite
+     * @return Datos de la trama o null si no hay una trama completa
+     * @throws UtilsException Si el encabezado es invalido, la trama excede el
+     * tamaño maximo o el CRC32C no coincide
+     */
+    public ByteBuffer next(ByteBuffer In) throws UtilsException {
+        ByteBuffer Result;
+        int Posicion, Limite, Longitud, Desplazamiento, Byte, Fin, Esperado;
+        boolean Completo;
+
+        Result = null;
+        Posicion = In.position();
+        Limite = In.limit();
+        Longitud = 0;
+        Desplazamiento = 0;
+        Completo = false;
+        while (!Completo && (Posicion < Limite)) {
+            Byte = In.get(Posicion++);
+            Longitud |= (Byte & 0x7F) << Desplazamiento;
+            Completo = ((Byte & 0x80) == 0);
+            Desplazamiento += 7;
+            if (!Completo && (Desplazamiento >= (7 * MAXHEADER))) {
+                throw new UtilsException("ERROR: Invalid varint frame header", ERROR_VARINT, FrameCodec.CLASSID + "003");
+            }
+        }
+        if (Completo) {
+            if ((Longitud < 0) || (Longitud > this.MaxFrameSize)) {
+                throw new UtilsException("ERROR: Frame of " + Integer.toString(Longitud) + " bytes exceeds " + Integer.toString(this.MaxFrameSize), ERROR_FRAMESIZE, FrameCodec.CLASSID + "002");
+            }
+            Fin = Posicion + Longitud;
+            if ((Limite - Fin) >= (this.UseCRC ? CRCSIZE : 0)) {
+                Result = View(In, Posicion, Fin);
+                if (this.UseCRC) {
+                    Esperado = (In.get(Fin) & 0xFF) | ((In.get(Fin + 1) & 0xFF) << 8)
+                            | ((In.get(Fin + 2) & 0xFF) << 16) | ((In.get(Fin + 3) & 0xFF) << 24);
+                    if (CRC32C.compute(Result) != Esperado) {
+                        throw new UtilsException("ERROR: Frame CRC32C mismatch", ERROR_CRC, FrameCodec.CLASSID + "004");
+                    }
+                    Fin += CRCSIZE;
+                }
+                In.position(Fin);
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Extrae todas las tramas completas de "In" y las entrega a "Listener"
+     * como vistas sin copiar los datos. Al retornar la posicion de "In" queda
+     * al inicio de la trama incompleta, si existe.
+     *
+     * @param In Buffer con los datos recibidos entre la posicion y el limite
+     * @param Listener Receptor de las tramas
+     * @return Numero de tramas decodificadas
+     * @throws UtilsException Si el encabezado es invalido, una trama excede el
+     * tamaño maximo o el CRC32C no coincide
+     */
+    public int decode(ByteBuffer In, FrameListener Listener) throws UtilsException {
+        ByteBuffer Frame;
+        int Result;
+
+        Result = 0;
+        while ((Frame = this.next(In)) != null) {
+            Listener.handleFrame(Frame);
+            Result++;
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna una vista de "Buffer" entre las posiciones absolutas "Desde" y
+     * "Hasta"
+     *
+     * @param Buffer Buffer original
+     * @param Desde Posicion inicial
+     * @param Hasta Posicion final
+     * @return Vista sin copiar los datos
+     */
+    private static ByteBuffer View(ByteBuffer Buffer, int Desde, int Hasta) {
+        ByteBuffer Result;
+
+        Result = Buffer.duplicate();
+        Result.limit(Hasta);
+        Result.position(Desde);
+        return Result.slice();
+    }
+}
@@ -0,0 +1,42 @@
+package com.bolivartech.utils.communications.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This class is the BolivarTech's interface to handle the frames decoded by a
+ * FrameCodec.</p>
+ *
+ * <p>
+ * Esta clase define la interface para recibir las tramas decodificadas por un
+ * FrameCodec. La trama es una vista sobre el buffer de entrada sin copiar los
+ * datos, por lo que solo es valida durante la llamada: si se requiere despues
+ * se debe copiar.</p>
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0 - October 19, 2026
+ * @since 2026
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+public interface FrameListener {
+
+    /**
+     * Se llama por cada trama completa, en el orden en que llegan.
+     *
+     * @param Frame Contenido de la trama entre la posicion y el limite
+     */
+    public void handleFrame(ByteBuffer Frame);
+}
@@ -0,0 +1,401 @@
+package com.bolivartech.utils.communications.utils;
+
+import com.bolivartech.utils.btthreads.annotations.SingleProducerSingleConsumer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Copyright 2026 BolivarTech INC
+ *
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Class is the BolivarTech's lock free Single Producer Single Consumer Byte Buffer .
+ *
+ *   This Class is Thread Safe for ONE producer thread and ONE consumer thread
+ *
+ *   Esta clase implementa un ByteRingBuffer sin locks para el caso de una sola hebra que
+ *   escribe (put) y una sola hebra que lee (get, read, getall), como la hebra de recepcion
+ *   de un socket y la hebra de la aplicacion que procesa los datos. No extiende SyncroBuffer
+ *   para que no se pueda pasar donde se espera un buffer con varios lectores; un segundo
+ *   productor o consumidor corrompe los datos.
+ *
+ *   La capacidad es fija y potencia de 2: si no hay espacio el productor espera a que el
+ *   consumidor libere, trasladando la contrapresion al socket en lugar de crecer sin limite.
+ *   Las posiciones de escritura y lectura son volatiles y cada hebra solo modifica la suya,
+ *   las hebras que esperan se estacionan con LockSupport y la otra hebra las despierta.
+ *
+ *   length() se puede llamar desde cualquier hebra.
+ *
+ *   close() libera al productor que espera espacio cuando el consumidor dejo de leer, por
+ *   ejemplo al cerrar la conexion: a partir de ese momento put descarta los datos.
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.2.0
+ *
+ * Change Logs: v1.0.0 (2026-10-19) Version Inicial. v1.1.0 (2026-10-19) Escritura y
+ * lectura con ByteBuffer. v1.1.1 (2026-10-19) Se agrego close para liberar al productor
+ * que espera espacio. v1.2.0 (2026-10-19) Ya no extiende SyncroBuffer, ambos implementan
+ * ByteRingBuffer.
+ */
+@SingleProducerSingleConsumer
+public class SpscSyncroBuffer implements ByteRingBuffer {
+
+    // Tiempo maximo en nanosegundos que se estaciona una hebra antes de volver a verificar
+    private static final long PARKTIME = 1000000L;
+
+    // Buffer circular y mascara de las posiciones
+    private final byte[] Ring;
+    private final int Mask;
+    // Total de bytes escritos por el productor y leidos por el consumidor
+    private volatile long Tail = 0;
+    private volatile long Head = 0;
+    // Hebras estacionadas esperando datos o espacio
+    private volatile Thread Consumidor = null;
+    private volatile Thread Productor = null;
+    // El buffer se cerro, el productor ya no espera espacio
+    private volatile boolean Cerrado = false;
+
+    /**
+     * Constructor con la capacidad del buffer, se redondea a la siguiente
+     * potencia de 2.
+     *
+     * @param Capacity Numero de bytes del buffer
+     */
+    public SpscSyncroBuffer(int Capacity) {
+        int Capacidad;
+
+        Capacidad = 2;
+        while ((Capacidad < Capacity) && (Capacidad < (1 << 30))) {
+            Capacidad <<= 1;
+        }
+        this.Ring = new byte[Capacidad];
+        this.Mask = Capacidad - 1;
+    }
+
+    /**
+     * Cierra el buffer: el productor deja de esperar espacio y put descarta
+     * los datos nuevos, el consumidor puede leer lo que queda. Lo puede llamar
+     * cualquier hebra.
+     */
+    public void close() {
+
+        this.Cerrado = true;
+        this.wakeProducer();
+    }
+
+    /**
+     * Retorna la capacidad del buffer
+     *
+     * @return Numero de bytes del buffer
+     */
+    public int getCapacity() {
+
+        return this.Ring.length;
+    }
+
+    /**
+     * Introduce un byte en la cola del buffer, esperando espacio si esta
+     * lleno. Solo lo llama la hebra productora.
+     *
+     * @param in  Byte a ser introducido en el buffer
+     */
+    @Override
+    public void put(byte in) {
+        long Local;
+
+        Local = this.Tail;
+        while (((Local - this.Head) == this.Ring.length) && !this.Cerrado) {
+            this.awaitSpace();
+        }
+        if (!this.Cerrado) {
+            this.Ring[(int) Local & this.Mask] = in;
+            this.Tail = Local + 1;
+            this.wakeConsumer();
+        }
+    }
+
+    /**
+     * Introduce un arreglo de bytes en la cola del buffer, esperando espacio
+     * si esta lleno. Solo lo llama la hebra productora.
+     *
+     * @param in  arreglo de bytes a introducir en el buffer
+     */
+    @Override
+    public void put(byte[] in) {
+
+        this.put(in, 0, in.length);
+    }
+
+    /**
+     * Introduce "len" bytes del arreglo "in" a partir de "off" en la cola del
+     * buffer, esperando espacio si esta lleno. Solo lo llama la hebra
+     * productora.
+     *
+     * @param in arreglo de bytes a introducir en el buffer
+     * @param off posicion del primer byte
+     * @param len numero de bytes
+     */
+    @Override
+    public void put(byte[] in, int off, int len) {
+        long Local;
+        int Libre, Bloque, Posicion, Primero;
+
+        Local = this.Tail;
+        while ((len > 0) && !this.Cerrado) {
+            Libre = this.Ring.length - (int) (Local - this.Head);
+            if (Libre == 0) {
+                this.awaitSpace();
+            } else {
+                Bloque = Math.min(Libre, len);
+                Posicion = (int) Local & this.Mask;
+                Primero = Math.min(Bloque, this.Ring.length - Posicion);
+                System.arraycopy(in, off, this.Ring, Posicion, Primero);
+                System.arraycopy(in, off + Primero, this.Ring, 0, Bloque - Primero);
+                Local += Bloque;
+                off += Bloque;
+                len -= Bloque;
+                this.Tail = Local;
+                this.wakeConsumer();
+            }
+        }
+    }
+
+    /**
+     * Introduce los bytes restantes de "in" en la cola del buffer, esperando
+     * espacio si esta lleno. Solo lo llama la hebra productora.
+     *
+     * @param in buffer con los bytes a introducir
+     */
+    @Override
+    public void put(ByteBuffer in) {
+        long Local;
+        int Libre, Bloque, Posicion, Primero;
+
+        Local = this.Tail;
+        while (in.hasRemaining() && !this.Cerrado) {
+            Libre = this.Ring.length - (int) (Local - this.Head);
+            if (Libre == 0) {
+                this.awaitSpace();
+            } else {
+                Bloque = Math.min(Libre, in.remaining());
+                Posicion = (int) Local & this.Mask;
+                Primero = Math.min(Bloque, this.Ring.length - Posicion);
+                in.get(this.Ring, Posicion, Primero);
+                in.get(this.Ring, 0, Bloque - Primero);
+                Local += Bloque;
+                this.Tail = Local;
+                this.wakeConsumer();
+            }
+        }
+    }
+
+    /**
+     * Retorna todos los bytes contenidos en el buffer y los retira. Solo lo
+     * llama la hebra consumidora.
+     *
+     * @return  Bytes contenidos en el buffer o null si esta vacio
+     */
+    @Override
+    public byte[] getall() {
+        byte OutBuffer[];
+        int Disponibles;
+
+        OutBuffer = null;
+        Disponibles = (int) (this.Tail - this.Head);
+        if (Disponibles > 0) {
+            OutBuffer = new byte[Disponibles];
+            this.copyOut(OutBuffer, 0, Disponibles);
+        }
+        return OutBuffer;
+    }
+
+    /**
+     * Retorna el primer Byte contenido en el buffer o 0 si esta vacio. Solo lo
+     * llama la hebra consumidora.
+     *
+     * @return Primer byte contenido en el buffer
+     */
+    @Override
+    public byte getByte() {
+        byte Valor;
+        long Local;
+
+        Valor = 0x00;
+        Local = this.Head;
+        if (this.Tail > Local) {
+            Valor = this.Ring[(int) Local & this.Mask];
+            this.Head = Local + 1;
+            this.wakeProducer();
+        }
+        return Valor;
+    }
+
+    /**
+     * Retorna hasta "NumBytes" bytes del buffer. Solo lo llama la hebra
+     * consumidora.
+     *
+     * @param NumBytes a ser retornados
+     * @return  Arreglo de bytes recuperado del buffer o null si esta vacio
+     */
+    @Override
+    public byte[] getBytes(int NumBytes) {
+        byte OutBuffer[];
+
+        OutBuffer = null;
+        NumBytes = Math.min(NumBytes, (int) (this.Tail - this.Head));
+        if (NumBytes > 0) {
+            OutBuffer = new byte[NumBytes];
+            this.copyOut(OutBuffer, 0, NumBytes);
+        }
+        return OutBuffer;
+    }
+
+    /**
+     * Copia hasta "len" bytes del buffer al arreglo "out" a partir de "off" sin
+     * esperar. Solo lo llama la hebra consumidora.
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero maximo de bytes
+     * @return numero de bytes copiados, 0 si el buffer esta vacio
+     */
+    @Override
+    public int read(byte[] out, int off, int len) {
+        int Leidos;
+
+        Leidos = Math.min(len, (int) (this.Tail - this.Head));
+        if (Leidos > 0) {
+            this.copyOut(out, off, Leidos);
+        }
+        return Leidos;
+    }
+
+    /**
+     * Copia hasta los bytes restantes de "out" sin esperar. Solo lo llama la
+     * hebra consumidora.
+     *
+     * @param out buffer destino
+     * @return numero de bytes copiados, 0 si el buffer esta vacio
+     */
+    @Override
+    public int read(ByteBuffer out) {
+        long Local;
+        int Leidos, Posicion, Primero;
+
+        Local = this.Head;
+        Leidos = Math.min(out.remaining(), (int) (this.Tail - Local));
+        if (Leidos > 0) {
+            Posicion = (int) Local & this.Mask;
+            Primero = Math.min(Leidos, this.Ring.length - Posicion);
+            out.put(this.Ring, Posicion, Primero);
+            out.put(this.Ring, 0, Leidos - Primero);
+            this.Head = Local + Leidos;
+            this.wakeProducer();
+        }
+        return Leidos;
+    }
+
+    /**
+     * Copia hasta "len" bytes del buffer al arreglo "out" a partir de "off",
+     * esperando hasta "Timeout" milisegundos a que haya datos. Con Timeout 0
+     * espera hasta que haya datos. Solo lo llama la hebra consumidora.
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero maximo de bytes
+     * @param Timeout milisegundos maximos de espera
+     * @return numero de bytes copiados, 0 si se cumplio el tiempo de espera
+     * @throws InterruptedException si la hebra es interrumpida mientras espera
+     */
+    @Override
+    public int read(byte[] out, int off, int len, long Timeout) throws InterruptedException {
+        long Limite, Espera;
+
+        Limite = System.nanoTime() + (Timeout * 1000000L);
+        Espera = 1;
+        while ((this.Tail == this.Head) && (Espera > 0) && (len > 0)) {
+            this.Consumidor = Thread.currentThread();
+            // Verifica despues de publicar la hebra para no perder el aviso del productor
+            if (this.Tail == this.Head) {
+                Espera = (Timeout > 0 ? Limite - System.nanoTime() : PARKTIME);
+                if (Espera > 0) {
+                    LockSupport.parkNanos(this, Math.min(Espera, PARKTIME));
+                }
+            }
+            this.Consumidor = null;
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return this.read(out, off, len);
+    }
+
+    /**
+     * Retorna la cantidad de bytes almacenados en el buffer
+     *
+     * @return  Cantidad de bytes almacenados en el buffer
+     */
+    @Override
+    public int length() {
+
+        return (int) (this.Tail - this.Head);
+    }
+
+    /**
+     * Copia y retira "len" bytes disponibles del buffer
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero de bytes
+     */
+    private void copyOut(byte[] out, int off, int len) {
+        long Local;
+        int Posicion, Primero;
+
+        Local = this.Head;
+        Posicion = (int) Local & this.Mask;
+        Primero = Math.min(len, this.Ring.length - Posicion);
+        System.arraycopy(this.Ring, Posicion, out, off, Primero);
+        System.arraycopy(this.Ring, 0, out, off + Primero, len - Primero);
+        this.Head = Local + len;
+        this.wakeProducer();
+    }
+
+    /**
+     * Estaciona al productor hasta que el consumidor libere espacio
+     */
+    private void awaitSpace() {
+
+        this.Productor = Thread.currentThread();
+        // Verifica despues de publicar la hebra para no perder el aviso del consumidor
+        if ((this.Tail - this.Head) == this.Ring.length) {
+            LockSupport.parkNanos(this, PARKTIME);
+        }
+        this.Productor = null;
+    }
+
+    /**
+     * Despierta al consumidor si esta esperando datos
+     */
+    private void wakeConsumer() {
+        Thread Local;
+
+        Local = this.Consumidor;
+        if (Local != null) {
+            LockSupport.unpark(Local);
+        }
+    }
+
+    /**
+     * Despierta al productor si esta esperando espacio
+     */
+    private void wakeProducer() {
+        Thread Local;
+
+        Local = this.Productor;
+        if (Local != null) {
+            LockSupport.unpark(Local);
+        }
+    }
+}
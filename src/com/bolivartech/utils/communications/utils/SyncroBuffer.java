@@ -2,7 +2,7 @@ package com.bolivartech.utils.communications.utils;
 
 import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
 import com.bolivartech.utils.btthreads.annotations.GuardedBy;
-import com.bolivartech.utils.array.ArrayUtils;
+import java.nio.ByteBuffer;
 
 /**
  * Copyright 2011 BolivarTech C.A.
@@ -11,25 +11,53 @@ import com.bolivartech.utils.array.ArrayUtils;
  *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
  *
  *   This Class is the BolivarTech's Syncronized Byte Buffer .
- * 
+ *
  *   This Class is Thread Safe
  *
  *   Esta clase implmenta un buffer de Bytes sincronizado para la comunicacion entre hebras en el programa
  *   manteniendo la coherencia y que no se corrompan los datos .
- * 
+ *
  *   El tamaño del buffer se ajusta automaticamente a la cantidad de datos presentes
  *
- *   
+ *   Los datos se guardan en un buffer circular cuya capacidad es potencia de 2 y se duplica
+ *   cuando no hay espacio, por lo que put y get son O(1) amortizados y los bytes ya leidos
+ *   no se vuelven a copiar. La capacidad se mantiene al vaciarse el buffer.
+ *
+ *   Las lecturas con tiempo de espera (read con Timeout) esperan en el monitor del buffer
+ *   hasta que algun put agrega datos.
+ *
+ *   Implementa ByteRingBuffer. Para una hebra productora y una consumidora se puede usar
+ *   SpscSyncroBuffer, que no toma locks; no es un SyncroBuffer y no se debe compartir entre
+ *   varios lectores.
  *
  * @author Julian Bolivar
- * @since 2011 - January 10, 2012.
- * @version 1.0.0
+ * @since 2011 - October 19, 2026.
+ * @version 1.2.0
+ *
+ * Change Logs: v1.0.0 (2011-01-10) Version Inicial. v1.1.0 (2026-10-19) Buffer circular
+ * con crecimiento por duplicacion, lectura en bloque a arreglos del llamador, lectura
+ * con tiempo de espera y correccion de put(String) con el buffer no vacio. Escritura y
+ * lectura con ByteBuffer para los BufferTransporter. v1.2.0 (2026-10-19) Implementa
+ * ByteRingBuffer, la interface comun con SpscSyncroBuffer.
  */
 @ThreadSafe
-public class SyncroBuffer {
+public class SyncroBuffer implements ByteRingBuffer {
+
+    // Capacidad inicial del buffer circular
+    private static final int INITIALSIZE = 256;
+    // Capacidad maxima del buffer circular
+    private static final int MAXSIZE = 1 << 30;
 
     @GuardedBy("this")
     private byte buffer[];
+    // Posicion del primer byte y numero de bytes almacenados
+    @GuardedBy("this")
+    private int Head;
+    @GuardedBy("this")
+    private int Count;
+    // Numero de hebras esperando datos
+    @GuardedBy("this")
+    private int Esperando;
 
     /**
      *  Constructor por defecto con inicializacion de un buffer vacio
@@ -37,101 +65,121 @@ public class SyncroBuffer {
     public SyncroBuffer() {
 
         buffer = null;
+        Head = 0;
+        Count = 0;
+        Esperando = 0;
     }
 
     /**
      * Introduce un byte en la cola del buffer.
-     * 
+     *
      * @param in  Byte a ser introducido en el buffer
      */
+    @Override
     public synchronized void put(byte in) {
-        int leng;
-
-        if (buffer != null) {
-            leng = buffer.length;
-            buffer = (byte[]) ArrayUtils.resizeArray(buffer, leng + 1);
-            buffer[leng] = in;
-        } else {
-            buffer = new byte[1];
-            buffer[0] = in;
-        }
+
+        ensure(1);
+        buffer[(Head + Count) & (buffer.length - 1)] = in;
+        Count++;
+        signal();
     }
 
     /**
-     * Introduce un arreglo de bytes en la cola del buffer 
-     * 
+     * Introduce un arreglo de bytes en la cola del buffer
+     *
      * @param in  arreglo de bytes a introducir en el buffer
      */
-    public synchronized void put(byte[] in) {
-        int nleng, oldleng;
-
-        if (buffer != null) {
-            nleng = in.length;
-            oldleng = buffer.length;
-            buffer = (byte[]) ArrayUtils.resizeArray(buffer, oldleng + nleng);
-            ArrayUtils.arrayCopy(in, 0, buffer, oldleng, nleng);
-        } else {
-            nleng = in.length;
-            buffer = new byte[nleng];
-            ArrayUtils.arrayCopy(in, 0, buffer, 0, nleng);
+    @Override
+    public void put(byte[] in) {
+
+        put(in, 0, in.length);
+    }
+
+    /**
+     * Introduce "len" bytes del arreglo "in" a partir de "off" en la cola del buffer
+     *
+     * @param in arreglo de bytes a introducir en el buffer
+     * @param off posicion del primer byte
+     * @param len numero de bytes
+     */
+    @Override
+    public synchronized void put(byte[] in, int off, int len) {
+        int Tail, Primero;
+
+        if (len > 0) {
+            ensure(len);
+            Tail = (Head + Count) & (buffer.length - 1);
+            Primero = Math.min(len, buffer.length - Tail);
+            System.arraycopy(in, off, buffer, Tail, Primero);
+            System.arraycopy(in, off + Primero, buffer, 0, len - Primero);
+            Count += len;
+            signal();
+        }
+    }
+
+    /**
+     * Introduce los bytes restantes de "in" en la cola del buffer, al retornar
+     * la posicion de "in" queda en su limite.
+     *
+     * @param in buffer con los bytes a introducir
+     */
+    @Override
+    public synchronized void put(ByteBuffer in) {
+        int len, Tail, Primero;
+
+        len = in.remaining();
+        if (len > 0) {
+            ensure(len);
+            Tail = (Head + Count) & (buffer.length - 1);
+            Primero = Math.min(len, buffer.length - Tail);
+            in.get(buffer, Tail, Primero);
+            in.get(buffer, 0, len - Primero);
+            Count += len;
+            signal();
         }
     }
 
     /**
      * Introduce la representacion en bytes de un string en la cola del buffer
-     * 
+     *
      * @param in String a ser indroducido en la cola del buffer
      */
-    public synchronized void put(String in) {
-        int nleng, oldleng;
-        byte[] StringArray;
-
-        if (buffer != null) {
-            StringArray = in.getBytes();
-            nleng = StringArray.length;
-            oldleng = buffer.length;
-            buffer = (byte[]) ArrayUtils.resizeArray(buffer, oldleng + nleng);
-            ArrayUtils.arrayCopy(in, 0, buffer, oldleng, nleng);
-        } else {
-            buffer = in.getBytes();
-        }
+    public void put(String in) {
+
+        put(in.getBytes());
     }
 
     /**
-     * Retorna todos los bytes contenidos en el buffer y procede a vaciar el buffer 
-     * 
+     * Retorna todos los bytes contenidos en el buffer y procede a vaciar el buffer
+     *
      * @return  Bytes contenidos en el buffer
      */
+    @Override
     public synchronized byte[] getall() {
         byte OutBuffer[];
 
         OutBuffer = null;
-        if (buffer != null) {
-            OutBuffer = new byte[buffer.length];
-            ArrayUtils.arrayCopy(buffer, 0, OutBuffer, 0, buffer.length);
-            buffer = null;
+        if (Count > 0) {
+            OutBuffer = new byte[Count];
+            copyOut(OutBuffer, 0, Count);
         }
         return OutBuffer;
     }
 
     /**
-     * Retorna el primer Byte contenido en el buffer 
-     * 
+     * Retorna el primer Byte contenido en el buffer
+     *
      * @return Primer byte contenido en el buffer
      */
+    @Override
     public synchronized byte getByte() {
         byte Valor;
-        int OldLeng;
 
         Valor = 0x00;
-        if (buffer != null) {
-            Valor = buffer[0];
-            OldLeng = buffer.length;
-            if (OldLeng > 1) {
-                buffer = (byte[]) ArrayUtils.subArray(buffer, 1, OldLeng - 1);
-            } else {
-                buffer = null;
-            }
+        if (Count > 0) {
+            Valor = buffer[Head];
+            Head = (Head + 1) & (buffer.length - 1);
+            Count--;
         }
         return Valor;
     }
@@ -139,51 +187,188 @@ public class SyncroBuffer {
     /**
      * Retorna el numero de bytes especificados del buffer, si la cantidad de bytes
      * solicitados en mayor al tamaño del buffer retorna el contenido del buffer completo
-     * 
+     *
      * @param NumBytes a ser retornados
      * @return  Arreglo de bytes recuperado del buffer
      */
+    @Override
     public synchronized byte[] getBytes(int NumBytes) {
         byte OutBuffer[];
-        int OldLeng;
 
         OutBuffer = null;
-        if (buffer != null) {
-            OldLeng = buffer.length;
-            if (NumBytes > OldLeng) {
-                NumBytes = OldLeng;
+        if (NumBytes > Count) {
+            NumBytes = Count;
+        }
+        if (NumBytes > 0) {
+            OutBuffer = new byte[NumBytes];
+            copyOut(OutBuffer, 0, NumBytes);
+        }
+        return OutBuffer;
+    }
+
+    /**
+     * Copia hasta "len" bytes del buffer al arreglo "out" a partir de "off" sin
+     * esperar, los bytes copiados se retiran del buffer.
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero maximo de bytes
+     * @return numero de bytes copiados, 0 si el buffer esta vacio
+     */
+    @Override
+    public synchronized int read(byte[] out, int off, int len) {
+        int Leidos;
+
+        Leidos = Math.min(len, Count);
+        if (Leidos > 0) {
+            copyOut(out, off, Leidos);
+        }
+        return Leidos;
+    }
+
+    /**
+     * Copia hasta los bytes restantes de "out" sin esperar, los bytes copiados
+     * se retiran del buffer y la posicion de "out" avanza.
+     *
+     * @param out buffer destino
+     * @return numero de bytes copiados, 0 si el buffer esta vacio
+     */
+    @Override
+    public synchronized int read(ByteBuffer out) {
+        int Leidos, Primero;
+
+        Leidos = Math.min(out.remaining(), Count);
+        if (Leidos > 0) {
+            Primero = Math.min(Leidos, buffer.length - Head);
+            out.put(buffer, Head, Primero);
+            out.put(buffer, 0, Leidos - Primero);
+            Count -= Leidos;
+            Head = (Count == 0 ? 0 : (Head + Leidos) & (buffer.length - 1));
+        }
+        return Leidos;
+    }
+
+    /**
+     * Copia hasta "len" bytes del buffer al arreglo "out" a partir de "off",
+     * esperando hasta "Timeout" milisegundos a que haya datos si el buffer esta
+     * vacio. Con Timeout 0 espera hasta que haya datos.
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero maximo de bytes
+     * @param Timeout milisegundos maximos de espera
+     * @return numero de bytes copiados, 0 si se cumplio el tiempo de espera
+     * @throws InterruptedException si la hebra es interrumpida mientras espera
+     */
+    @Override
+    public synchronized int read(byte[] out, int off, int len, long Timeout) throws InterruptedException {
+        long Limite, Espera;
+
+        Limite = System.currentTimeMillis() + Timeout;
+        Espera = Timeout;
+        while ((Count == 0) && (Espera >= 0) && (len > 0)) {
+            Esperando++;
+            try {
+                wait(Espera);
+            } finally {
+                Esperando--;
             }
-            if (NumBytes > 0) {
-                OutBuffer = (byte[]) ArrayUtils.subArray(buffer, 0, NumBytes);
-                if (NumBytes == OldLeng) {
-                    buffer = null;
-                } else {
-                    buffer = (byte[]) ArrayUtils.subArray(buffer, NumBytes, OldLeng - NumBytes);
+            if (Timeout > 0) {
+                Espera = Limite - System.currentTimeMillis();
+                if (Espera == 0) {
+                    Espera = -1;
                 }
             }
         }
-        return OutBuffer;
+        return read(out, off, len);
     }
 
     /**
      * Retorna la cantidad de bytes almacenados en el buffer
-     * 
+     *
      * NOTA: Aunque se garantiza la atomicidad de esta funcion y esta bloqueado
      * el buffer durante su ejecucion, al finalizar el bloqueo es liberado permitiendo
      * que cualquier otra hebra modifique el contenido del buffer con lo cual este valor
-     * seria invalido, por esto se recomienda utilizar las tecnicas necesarias para 
+     * seria invalido, por esto se recomienda utilizar las tecnicas necesarias para
      * asegurar confiabilidad de los datos como por ejemplo recuperar una copia local
      * del contenido del buffer y usar esta copia para las operaciones requeridas.
-     * 
+     *
      * @return  Cantidad de bytes almacenados en el buffer
      */
+    @Override
     public synchronized int length() {
-        int Longitud;
 
-        Longitud = 0;
-        if (buffer != null) {
-            Longitud = buffer.length;
+        return Count;
+    }
+
+    /**
+     * Asegura espacio para "Extra" bytes mas, duplicando la capacidad y
+     * reacomodando los datos al inicio del nuevo arreglo.
+     *
+     * @param Extra bytes adicionales requeridos
+     */
+    private void ensure(int Extra) {
+        byte[] Nuevo;
+        int Capacidad;
+
+        if (buffer == null) {
+            Capacidad = INITIALSIZE;
+            while (Capacidad < Extra) {
+                Capacidad <<= 1;
+            }
+            buffer = new byte[Capacidad];
+            Head = 0;
+        } else if ((Count + Extra) > buffer.length) {
+            if ((Count + Extra) > MAXSIZE) {
+                throw new IllegalStateException("SyncroBuffer capacity exceeded");
+            }
+            Capacidad = buffer.length << 1;
+            while (Capacidad < (Count + Extra)) {
+                Capacidad <<= 1;
+            }
+            Nuevo = new byte[Capacidad];
+            copyTo(Nuevo, 0, Count);
+            buffer = Nuevo;
+            Head = 0;
+        }
+    }
+
+    /**
+     * Copia los primeros "len" bytes del buffer al arreglo "out" sin retirarlos
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero de bytes
+     */
+    private void copyTo(byte[] out, int off, int len) {
+        int Primero;
+
+        Primero = Math.min(len, buffer.length - Head);
+        System.arraycopy(buffer, Head, out, off, Primero);
+        System.arraycopy(buffer, 0, out, off + Primero, len - Primero);
+    }
+
+    /**
+     * Copia y retira los primeros "len" bytes del buffer
+     *
+     * @param out arreglo destino
+     * @param off posicion del primer byte en el destino
+     * @param len numero de bytes
+     */
+    private void copyOut(byte[] out, int off, int len) {
+
+        copyTo(out, off, len);
+        Count -= len;
+        Head = (Count == 0 ? 0 : (Head + len) & (buffer.length - 1));
+    }
+
+    /**
+     * Despierta a las hebras que esperan datos
+     */
+    private void signal() {
+
+        if (Esperando > 0) {
+            notifyAll();
         }
-        return Longitud;
     }
 }
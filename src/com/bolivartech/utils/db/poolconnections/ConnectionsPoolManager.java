@@ -33,7 +33,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  *
  * @author Julian Bolivar
  * @since 2016 - Date: April 22, 2016.
- * @version 1.0.1
+ * @version 1.0.2
  *
  * <p>
  * Change Logs:</p>
@@ -41,6 +41,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * <li>v1.0.0 (2016-04-16): Version Inicial.</li>
  * <li>v1.0.1 (2016-04-22): Se agrego el commit cuando se cierra la conexion y
  * no esta definido el autocommit en la base de datos.</li>
+ * <li>v1.0.2 (2026-10-19): checkIn elimina del pool la conexion cerrada
+ * encontrada y no la siguiente.</li>
  * </ul>
  */
 public class ConnectionsPoolManager implements Runnable {
@@ -455,8 +457,9 @@ public class ConnectionsPoolManager implements Runnable {
                     // Si no esta cerrada se libera en el pool para ser reutilizada
                     cached.setInUse(false);
                 } else {
-                    // Si esta cerrada o es null se elimina del pool
-                    this.poolConnections.remove(i);
+                    // Si esta cerrada o es null se elimina del pool, el ciclo
+                    // de busqueda deja "i" una posicion despues de la encontrada
+                    this.poolConnections.remove(i - 1);
                 }
             } else {
                 // La conexion pasada como parametro no pertenece al pool
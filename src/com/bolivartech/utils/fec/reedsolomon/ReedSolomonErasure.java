@@ -0,0 +1,310 @@
+package com.bolivartech.utils.fec.reedsolomon;
+
+import com.bolivartech.utils.exception.UtilsException;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC.</p>
+ *
+ * <p>
+ * BolivarTech Homepage:
+ * <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is the BolivarTech's Reed-Solomon erasure code over groups of
+ * packets.</p>
+ *
+ * <p>
+ * Implementa un codigo Reed-Solomon sistematico de borrado sobre el campo de
+ * Galois GF(256) de GenericGF.QR_CODE_FIELD_256. A diferencia de ReedSolomon,
+ * que corrige errores dentro de un bloque de bytes, este codigo trabaja sobre
+ * grupos de "DataShards" paquetes de igual longitud y genera "ParityShards"
+ * paquetes de paridad: el byte i de cada paquete de paridad se calcula con el
+ * byte i de todos los paquetes de datos. Como el receptor sabe cuales paquetes
+ * se perdieron (borrados), puede reconstruir hasta ParityShards paquetes de
+ * datos perdidos con cualquier combinacion de paquetes recibidos.</p>
+ *
+ * <p>
+ * La matriz de codificacion es una matriz de Cauchy, cuyas submatrices
+ * cuadradas son todas invertibles, con lo que el codigo es MDS. La
+ * multiplicacion en el campo se hace con una tabla de 64 KB.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias, no tiene estado
+ * mutable.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFIC"</li>
+ * <li>Loc: 000-002</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+public strictfp final class ReedSolomonErasure {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFIC";
+
+    /**
+     * Numero maximo de paquetes de datos mas paridad por grupo
+     */
+    public static final int MAXSHARDS = 256;
+
+    // Numero de paquetes invalido
+    public static final int ERRORINVALIDSHARDS = -1;
+    // Se perdieron mas paquetes de los que se pueden reconstruir
+    public static final int ERRORTOOMANYLOST = -2;
+    // Matriz singular al reconstruir
+    public static final int ERRORSINGULAR = -3;
+
+    // Tablas de multiplicacion e inverso en GF(256)
+    private static final byte[] MUL = new byte[256 * 256];
+    private static final int[] INV = new int[256];
+
+    static {
+        GenericGF Campo;
+        int a, b;
+
+        Campo = GenericGF.QR_CODE_FIELD_256;
+        for (a = 0; a < 256; a++) {
+            for (b = 0; b < 256; b++) {
+                MUL[(a << 8) | b] = (byte) Campo.multiply(a, b);
+            }
+            if (a > 0) {
+                INV[a] = Campo.inverse(a);
+            }
+        }
+    }
+
+    private final int DataShards;
+    private final int ParityShards;
+    // Coeficientes de la paridad i para el dato j, desplazados 8 bits para indexar MUL
+    private final int[][] Cauchy;
+
+    /**
+     * Constructor con el numero de paquetes de datos y de paridad por grupo
+     *
+     * @param DataShards Paquetes de datos por grupo, mayor a 0
+     * @param ParityShards Paquetes de paridad por grupo, mayor a 0
+     * @throws UtilsException Si DataShards + ParityShards excede MAXSHARDS
+     */
+    public ReedSolomonErasure(int DataShards, int ParityShards) throws UtilsException {
+        int i, j;
+
+        if ((DataShards <= 0) || (ParityShards <= 0) || ((DataShards + ParityShards) > MAXSHARDS)) {
+            throw new UtilsException("ERROR: Invalid shards " + Integer.toString(DataShards) + "+" + Integer.toString(ParityShards), ERRORINVALIDSHARDS, ReedSolomonErasure.CLASSID + "000");
+        }
+        this.DataShards = DataShards;
+        this.ParityShards = ParityShards;
+        this.Cauchy = new int[ParityShards][DataShards];
+        for (i = 0; i < ParityShards; i++) {
+            for (j = 0; j < DataShards; j++) {
+                // x_i = DataShards + i, y_j = j, la suma en GF(2^8) es XOR
+                this.Cauchy[i][j] = INV[(DataShards + i) ^ j] << 8;
+            }
+        }
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el numero de paquetes de datos por grupo
+     *
+     * @return Paquetes de datos
+     */
+    public int getDataShards() {
+        return this.DataShards;
+    }
+
+    /**
+     * Retorna el numero de paquetes de paridad por grupo
+     *
+     * @return Paquetes de paridad
+     */
+    public int getParityShards() {
+        return this.ParityShards;
+    }
+
+    /**
+     * Calcula los paquetes de paridad. Shards[0..DataShards-1] son los datos y
+     * en Shards[DataShards..DataShards+ParityShards-1] se escribe la paridad,
+     * entre las posiciones Offset y Offset+Length de cada arreglo.
+     *
+     * @param Shards Paquetes del grupo
+     * @param Offset Posicion inicial
+     * @param Length Numero de bytes por paquete
+     */
+    public void encode(byte[][] Shards, int Offset, int Length) {
+        byte[] Salida, Entrada;
+        int[] Fila;
+        int i, j, b, Fin, Coeficiente;
+
+        Fin = Offset + Length;
+        for (i = 0; i < this.ParityShards; i++) {
+            Salida = Shards[this.DataShards + i];
+            Fila = this.Cauchy[i];
+            for (j = 0; j < this.DataShards; j++) {
+                Entrada = Shards[j];
+                Coeficiente = Fila[j];
+                if (j == 0) {
+                    for (b = Offset; b < Fin; b++) {
+                        Salida[b] = MUL[Coeficiente | (Entrada[b] & 0xFF)];
+                    }
+                } else {
+                    for (b = Offset; b < Fin; b++) {
+                        Salida[b] ^= MUL[Coeficiente | (Entrada[b] & 0xFF)];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstruye los paquetes de datos perdidos del grupo. Present indica los
+     * paquetes recibidos, los de datos reconstruidos se crean si son null y se
+     * marcan como presentes. Los paquetes de paridad perdidos no se
+     * reconstruyen.
+     *
+     * @param Shards Paquetes del grupo, Offset+Length bytes cada uno
+     * @param Present Paquetes recibidos
+     * @param Offset Posicion inicial
+     * @param Length Numero de bytes por paquete
+     * @return Numero de paquetes de datos reconstruidos
+     * @throws UtilsException Si se perdieron mas paquetes de los que se pueden
+     * reconstruir
+     */
+    public int reconstruct(byte[][] Shards, boolean[] Present, int Offset, int Length) throws UtilsException {
+        int[] Perdidos, Paridades;
+        int[][] Matriz, Inversa;
+        byte[][] Sindromes;
+        byte[] Salida, Entrada;
+        int i, j, r, c, b, Fin, NumPerdidos, NumParidades, Coeficiente;
+
+        Fin = Offset + Length;
+        Perdidos = new int[this.DataShards];
+        NumPerdidos = 0;
+        for (j = 0; j < this.DataShards; j++) {
+            if (!Present[j]) {
+                Perdidos[NumPerdidos++] = j;
+            }
+        }
+        if (NumPerdidos > 0) {
+            Paridades = new int[NumPerdidos];
+            NumParidades = 0;
+            for (i = 0; (i < this.ParityShards) && (NumParidades < NumPerdidos); i++) {
+                if (Present[this.DataShards + i]) {
+                    Paridades[NumParidades++] = i;
+                }
+            }
+            if (NumParidades < NumPerdidos) {
+                throw new UtilsException("ERROR: " + Integer.toString(NumPerdidos) + " shards lost with " + Integer.toString(NumParidades) + " parity shards", ERRORTOOMANYLOST, ReedSolomonErasure.CLASSID + "001");
+            }
+            // Sindrome de cada paridad: paridad menos el aporte de los datos recibidos
+            Sindromes = new byte[NumPerdidos][Length];
+            for (r = 0; r < NumPerdidos; r++) {
+                Salida = Sindromes[r];
+                System.arraycopy(Shards[this.DataShards + Paridades[r]], Offset, Salida, 0, Length);
+                for (j = 0; j < this.DataShards; j++) {
+                    if (Present[j]) {
+                        Entrada = Shards[j];
+                        Coeficiente = this.Cauchy[Paridades[r]][j];
+                        for (b = 0; b < Length; b++) {
+                            Salida[b] ^= MUL[Coeficiente | (Entrada[Offset + b] & 0xFF)];
+                        }
+                    }
+                }
+            }
+            // Invierte la submatriz de Cauchy de las paridades usadas y los datos perdidos
+            Matriz = new int[NumPerdidos][NumPerdidos];
+            for (r = 0; r < NumPerdidos; r++) {
+                for (c = 0; c < NumPerdidos; c++) {
+                    Matriz[r][c] = this.Cauchy[Paridades[r]][Perdidos[c]] >>> 8;
+                }
+            }
+            Inversa = Invert(Matriz);
+            for (c = 0; c < NumPerdidos; c++) {
+                if (Shards[Perdidos[c]] == null) {
+                    Shards[Perdidos[c]] = new byte[Fin];
+                }
+                Salida = Shards[Perdidos[c]];
+                for (b = Offset; b < Fin; b++) {
+                    Salida[b] = 0;
+                }
+                for (r = 0; r < NumPerdidos; r++) {
+                    Entrada = Sindromes[r];
+                    Coeficiente = Inversa[c][r] << 8;
+                    for (b = 0; b < Length; b++) {
+                        Salida[Offset + b] ^= MUL[Coeficiente | (Entrada[b] & 0xFF)];
+                    }
+                }
+                Present[Perdidos[c]] = true;
+            }
+        }
+        return NumPerdidos;
+    }
+
+    /**
+     * Invierte una matriz cuadrada en GF(256) por Gauss-Jordan
+     *
+     * @param Matriz Matriz a invertir, se modifica
+     * @return Matriz inversa
+     * @throws UtilsException Si la matriz es singular
+     */
+    private static int[][] Invert(int[][] Matriz) throws UtilsException {
+        int[][] Inversa;
+        int[] Temporal;
+        int n, i, j, k, Pivote, Factor;
+
+        n = Matriz.length;
+        Inversa = new int[n][n];
+        for (i = 0; i < n; i++) {
+            Inversa[i][i] = 1;
+        }
+        for (i = 0; i < n; i++) {
+            Pivote = i;
+            while ((Pivote < n) && (Matriz[Pivote][i] == 0)) {
+                Pivote++;
+            }
+            if (Pivote == n) {
+                throw new UtilsException("ERROR: Singular erasure matrix", ERRORSINGULAR, ReedSolomonErasure.CLASSID + "002");
+            }
+            if (Pivote != i) {
+                Temporal = Matriz[i];
+                Matriz[i] = Matriz[Pivote];
+                Matriz[Pivote] = Temporal;
+                Temporal = Inversa[i];
+                Inversa[i] = Inversa[Pivote];
+                Inversa[Pivote] = Temporal;
+            }
+            Factor = INV[Matriz[i][i]] << 8;
+            for (k = 0; k < n; k++) {
+                Matriz[i][k] = MUL[Factor | Matriz[i][k]] & 0xFF;
+                Inversa[i][k] = MUL[Factor | Inversa[i][k]] & 0xFF;
+            }
+            for (j = 0; j < n; j++) {
+                if ((j != i) && (Matriz[j][i] != 0)) {
+                    Factor = Matriz[j][i] << 8;
+                    for (k = 0; k < n; k++) {
+                        Matriz[j][k] ^= MUL[Factor | Matriz[i][k]] & 0xFF;
+                        Inversa[j][k] ^= MUL[Factor | Inversa[i][k]] & 0xFF;
+                    }
+                }
+            }
+        }
+        return Inversa;
+    }
+}
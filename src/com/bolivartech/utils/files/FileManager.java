@@ -32,11 +32,11 @@ import java.nio.file.attribute.BasicFileAttributes;
  * Realiza el manejo de archivos
  * 
  * Class ID: "35DGFHA"
- * Loc: 000-044
+ * Loc: 000-047
  *
  * @author Julian Bolivar
- * @since 2007 - March 25, 2016.
- * @version 3.1.1
+ * @since 2007 - October 19, 2026.
+ * @version 3.2.0
  *
  * Change Logs: 
  * v1.0.0 (2007-04-25): Version Inicial. 
@@ -56,6 +56,7 @@ import java.nio.file.attribute.BasicFileAttributes;
  * v3.1.0 (2016-03-07): Se agrego el metodo CreateNewFile() para crear archivo vacios nuevos. 
  * v3.1.1 (2016-03-12): Se solvento un Bug en el metodo mkDirs para manejar el crear los directorios padres de un archivo
  * v3.1.2 (2016-03-25) Se agrego el codigo de localizacion para la excepcion.
+ * v3.2.0 (2026-10-19) Se agrego la escritura de un ByteBuffer completo con una sola llamada al canal del archivo y el metodo Sync para forzar los datos al disco.
  */
 public class FileManager implements Sortable {
     
@@ -873,6 +874,55 @@ public class FileManager implements Sortable {
         return NumBytesWrite;
     }
 
+    /**
+     * Escribe los bytes remanentes de "Data" en el archivo a traves de su
+     * canal, retornando la cantidad de bytes escritos en la operacion.
+     *
+     * A diferencia de Write(byte[]) no se consulta el sistema de archivos por
+     * cada escritura, la longitud del archivo se actualiza con los bytes
+     * escritos, por lo que es el metodo adecuado para escrituras por lotes.
+     *
+     * @param Data Buffer con los datos a escribir entre su posicion y su limite
+     * @return Numero de bytes escritos en la operacion
+     * @throws UtilsException
+     */
+    public long Write(ByteBuffer Data) throws UtilsException {
+        FileChannel Canal;
+        long NumBytesWrite = 0;
+
+        if (this.Salida == null) {
+            throw new UtilsException("ERROR: File " + FilePath + Separador + FileName + " NOT Open to Write", ERROR_NOWRITOPEN, FileManager.CLASSID + "045");
+        }
+        try {
+            Canal = this.Salida.getChannel();
+            while (Data.hasRemaining()) {
+                NumBytesWrite += Canal.write(Data);
+            }
+            this.FilePosition += NumBytesWrite;
+            this.FileLength += NumBytesWrite;
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: At Write File " + FilePath + Separador + FileName + " IO Error (" + ex.getMessage() + ")", ERROR_IO, FileManager.CLASSID + "046");
+        }
+        return NumBytesWrite;
+    }
+
+    /**
+     * Fuerza la escritura en el dispositivo de almacenamiento de los datos
+     * escritos en el archivo abierto para escritura.
+     *
+     * @throws UtilsException
+     */
+    public void Sync() throws UtilsException {
+
+        if (this.Salida != null) {
+            try {
+                this.Salida.getChannel().force(false);
+            } catch (IOException ex) {
+                throw new UtilsException("ERROR: At Sync File " + FilePath + Separador + FileName + " IO Error (" + ex.getMessage() + ")", ERROR_IO, FileManager.CLASSID + "047");
+            }
+        }
+    }
+
     /**
      * Realiza la lectura del archivo leyendo Data.length bytes, y cargando el
      * resultado en Data.
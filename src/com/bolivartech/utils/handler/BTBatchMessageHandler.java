@@ -0,0 +1,45 @@
+package com.bolivartech.utils.handler;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This class is the BolivarTech's interface to handle in batches the Messages
+ * received by the Handler.</p>
+ *
+ * <p>
+ * Esta clase que define la interface para manejar por lotes los mensajes
+ * recividos por el Handler, lo que permite amortizar costos por mensaje como
+ * los commits a bases de datos o los flush de sockets.</p>
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0 - October 19, 2026
+ * @since 2026
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+public interface BTBatchMessageHandler extends BTMessageHandler {
+
+    /**
+     * Subclasses must implement this method to process a batch of received
+     * messages, the messages are at positions 0 to count-1 of batch.
+     *
+     * NOTE: The batch array is reused by the Handler, so it must not be kept
+     * after this method returns.
+     *
+     * @param batch Messages Received
+     * @param count Number of messages in batch
+     */
+    public void handleMessages(BTMessage[] batch, int count);
+
+}
@@ -1,6 +1,7 @@
 package com.bolivartech.utils.handler;
 
 import com.bolivartech.utils.converters.Base64;
+import com.bolivartech.utils.kerneltasks.BTAdaptiveThreadPool;
 import com.bolivartech.utils.kerneltasks.BTTask;
 import com.bolivartech.utils.log.LoggerManager;
 import com.bolivartech.utils.random.MersenneTwisterPlus;
@@ -11,6 +12,8 @@ import com.bolivartech.utils.log.LoggerFormatter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 import java.util.concurrent.Executors;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -18,6 +21,11 @@ import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -39,11 +47,11 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  *
  * <ul>
  * <li>Class ID: "35DGFHN"</li>
- * <li>Loc: 000-040</li>
+ * <li>Loc: 000-045</li>
  * </ul>
  *
  * @author Julian Bolivar
- * @version 1.7.0 - April 20, 2016
+ * @version 1.11.6 - October 19, 2026
  * @since 2014
  *
  * <p>
@@ -74,6 +82,33 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * los mensajes recibidos; se implemento el uso de hebra de monitoreo dinamica
  * para optimizar los recursos de memoria y procesador cuando el handler excede
  * un TIMEOUT sin recibir mensajes a procesar.</li>
+ * <li>v1.8.0 (2026-10-19) Se implementaron las politicas de desbordamiento de
+ * la cola de mensajes (bloqueo con timeout, descarte del mas viejo, descarte
+ * del de menor prioridad, ejecucion en el llamador y falla inmediata) con sus
+ * contadores; los productores bloqueados son notificados cuando se libera
+ * espacio en la cola en lugar de dormir y reintentar.</li>
+ * <li>v1.9.0 (2026-10-19) Se implemento la extraccion por lotes de la cola de
+ * mensajes y su entrega al BTBatchMessageHandler.</li>
+ * <li>v1.10.0 (2026-10-19) Se sustituyo la PriorityBlockingQueue por la cola
+ * de multiples niveles BTMessageQueue, con costo constante por mensaje, orden
+ * FIFO dentro de cada prioridad y envejecimiento opcional.</li>
+ * <li>v1.11.0 (2026-10-19) Se agrego el controlador opcional del tamano del
+ * pool de ejecucion por escalada (BTAdaptiveThreadPool).</li>
+ * <li>v1.11.1 (2026-10-19) Las excepciones del manejador de mensajes se
+ * registran por mensaje sin descartar el resto del lote ni detener la hebra
+ * del handler.</li>
+ * <li>v1.11.2 (2026-10-19) Los mensajes descartados de la cola sin procesar
+ * (Clear, fin por inactividad y politicas de descarte) se notifican al
+ * manejador de descartes para que el BTHandlerGroup libere sus ranuras.</li>
+ * <li>v1.11.3 (2026-10-19) Se agrego la espera por espacio para N mensajes en
+ * la cola usada por el BTRemoteHandlerServer para devolver sus creditos.</li>
+ * <li>v1.11.4 (2026-10-19) Se agrego la insercion en la cola sin politica de
+ * desbordamiento usada por el BTHandlerGroup para migrar sus ranuras.</li>
+ * <li>v1.11.5 (2026-10-19) La cola de mensajes vuelve a ser sin limite por
+ * defecto, el limite y la politica de desbordamiento se aplican solo con el
+ * constructor con tamano de la cola o con setOverflowPolicy.</li>
+ * <li>v1.11.6 (2026-10-19) Post ya no sobrescribe el TimeStamp del mensaje de
+ * un BTTask postergado, la cola de multiples niveles no ordena por TimeStamp.</li>
  * </ul>
  */
 public class BTHandler implements Runnable {
@@ -89,16 +124,64 @@ public class BTHandler implements Runnable {
 
     private static final int THREADSLEEP = 500;     // Milisegundos que duerme la hebra
 
-    private static final int QUEUESIZE = 1024;     // Numero de Mensajes
+    private static final int QUEUESIZE = 1024;     // Numero de Mensajes de la cola limitada por setOverflowPolicy
+    private static final int UNBOUNDED = Integer.MAX_VALUE;  // Capacidad de la cola sin limite
     private static final long QUEUEWRITETIMEOUT = 100;  // Milisegundos
     private static final long QUEUEREADTIMEOUT = 10;  // Milisegundos
 
+    private static final int DEFBATCHSIZE = 32;     // Numero de Mensajes por lote
+    private static final int MAXBATCHSIZE = 1024;   // Numero maximo de Mensajes por lote
+
     // Maximo tiempo que una habra adicional al core puede estar idle
     private final static int DEFMAXIMUMPOOLSIZEKEEPALIVETIME = 5; // en Segundos
 
+    /**
+     * Politicas de desbordamiento de la cola de mensajes.
+     *
+     * OVERFLOW_BLOCK: El productor espera hasta el timeout configurado a que se
+     * libere espacio en la cola.
+     *
+     * OVERFLOW_DROP_OLDEST: Se descarta el mensaje mas viejo de la cola.
+     *
+     * OVERFLOW_DROP_LOWEST_PRIORITY: Se descarta el mensaje de menor prioridad,
+     * el cual puede ser el mismo mensaje entrante.
+     *
+     * OVERFLOW_CALLER_RUNS: El mensaje se procesa en la hebra del llamador,
+     * antes que los mensajes mas viejos que estan en la cola, por lo que no
+     * conserva el orden de los mensajes.
+     *
+     * OVERFLOW_FAIL_FAST: El mensaje se rechaza de inmediato.
+     */
+    public static final int OVERFLOW_BLOCK = 0;
+    public static final int OVERFLOW_DROP_OLDEST = 1;
+    public static final int OVERFLOW_DROP_LOWEST_PRIORITY = 2;
+    public static final int OVERFLOW_CALLER_RUNS = 3;
+    public static final int OVERFLOW_FAIL_FAST = 4;
+    // Numero de politicas de desbordamiento
+    private static final int OVERFLOW_POLICIES = 5;
+
     // Los lock para el manejo de concurrencia
     private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
 
+    // Lock y condicion para notificar a los productores que hay espacio en la cola
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private final Condition notFull = capacityLock.newCondition();
+    // Numero de productores esperando espacio en la cola
+    private final AtomicInteger WaitingProducers = new AtomicInteger(0);
+
+    // Capacidad maxima de la cola de mensajes
+    private volatile int QueueCapacity;
+    // Politica de desbordamiento de la cola
+    @GuardedBy("rwl")
+    private int OverflowPolicy = OVERFLOW_BLOCK;
+    // Tiempo maximo de espera de la politica OVERFLOW_BLOCK en milisegundos
+    @GuardedBy("rwl")
+    private long OverflowTimeout = QUEUEWRITETIMEOUT;
+    // Contadores de eventos de desbordamiento por politica
+    private final AtomicLongArray OverflowCounters = new AtomicLongArray(OVERFLOW_POLICIES);
+    // Contador de productores que agotaron el timeout de OVERFLOW_BLOCK
+    private final AtomicLong OverflowTimeouts = new AtomicLong(0);
+
     // Manejador de Bitacoras
     private final LoggerFormatter BTLogF;
     // Bandera de Ejecucion del Handler
@@ -106,24 +189,35 @@ public class BTHandler implements Runnable {
     // Identificador del Handler que es definido durante su inicializacion
     private long HandlerID;
 
-    // Cola FIFO de mensajes
-    @GuardedBy("rwl")
-    private PriorityBlockingQueue<BTMessage> queue = null;
+    // Cola de mensajes de multiples niveles de prioridad
+    private final BTMessageQueue queue;
 
     // Bandera para indicar si se finalizo el handler
     @GuardedBy("rwl")
     private boolean isFinished = true;
 
     // Hebra de Ejecucion
-    private Thread Ejecutor = null;
+    private volatile Thread Ejecutor = null;
     // LLave de contro del Handler
     private String ControlKey = null;
 
     // Manejador de mensajes
     private BTMessageHandler MsgHandler;
+    // Manejador notificado por cada mensaje descartado de la cola sin procesar
+    private volatile BTMessageHandler DiscardHandler = null;
+    // Numero maximo de mensajes extraidos de la cola por lote
+    @GuardedBy("rwl")
+    private int BatchSize = DEFBATCHSIZE;
 
     //creating the ThreadPoolExecutor
-    private ThreadPoolExecutor executorPool = null;
+    private BTAdaptiveThreadPool executorPool = null;
+    // Configuracion del controlador del tamano del pool
+    @GuardedBy("rwl")
+    private boolean AdaptivePool = false;
+    @GuardedBy("rwl")
+    private int AdaptiveMinThreads;
+    @GuardedBy("rwl")
+    private int AdaptiveMaxThreads;
     // Tamano del nucleo de Threads
     private int ThreadCorePoolSize;
     // Tamano del nucleo de Threads
@@ -132,24 +226,28 @@ public class BTHandler implements Runnable {
     private int NumCPUs;
 
     /**
-     * Constructor por defecto
+     * Constructor por defecto, la cola de mensajes no tiene limite
      */
     public BTHandler() {
-        this(QUEUESIZE, null);
+        this(0, null);
     }
 
     /**
-     * Constructor con inicializacion de la bitacora
+     * Constructor con inicializacion de la bitacora, la cola de mensajes no
+     * tiene limite
      *
      * @param vLog Apuntador a la Bitacora
      */
     public BTHandler(LoggerManager vLog) {
-        this(QUEUESIZE, vLog);
+        this(0, vLog);
     }
 
     /**
      * Constructor con inicializacion de la bitacora y tamaño de la cola FIFO
      *
+     * Si "Size" es mayor a 0 la cola se limita a "Size" mensajes y al llenarse
+     * se aplica la politica de desbordamiento, si no la cola no tiene limite.
+     *
      * @param Size Tamaño de la cola FIFO
      * @param vLog Apuntador a la Bitacora
      */
@@ -163,10 +261,11 @@ public class BTHandler implements Runnable {
         this.ThreadCorePoolSize = this.NumCPUs / 2;
         this.ThreadCorePoolSize = (this.ThreadCorePoolSize > 0 ? this.ThreadCorePoolSize : 1);
         if (Size < 1) {
-            queue = new PriorityBlockingQueue<BTMessage>(QUEUESIZE);
+            this.QueueCapacity = UNBOUNDED;
         } else {
-            queue = new PriorityBlockingQueue<BTMessage>(Size);
+            this.QueueCapacity = Size;
         }
+        queue = new BTMessageQueue(this.QueueCapacity);
         Random = new MersenneTwisterPlus();
         this.HandlerID = Random.nextLong63();
         this.MsgHandler = null;
@@ -382,33 +481,466 @@ public class BTHandler implements Runnable {
         }
     }
 
+    /**
+     * Establece el manejador que es notificado por cada mensaje descartado de
+     * la cola sin ser procesado, ya sea por Clear, por el fin de la hebra de
+     * monitoreo o por las politicas de descarte.
+     *
+     * @param Handler Manejador de los mensajes descartados
+     */
+    final void setDiscardHandler(BTMessageHandler Handler) {
+
+        this.DiscardHandler = Handler;
+    }
+
+    /**
+     * Establece el numero maximo de mensajes que el handler extrae de la cola
+     * en cada lote, el cual debe estar comprendido entre 1 y 1024.
+     *
+     * Si el manejador de mensajes implementa BTBatchMessageHandler los
+     * mensajes del lote sin BTTask se le entregan en una sola llamada a
+     * handleMessages.
+     *
+     * @param Size Numero maximo de mensajes por lote
+     */
+    public final void setBatchSize(int Size) {
+
+        rwl.writeLock().lock();
+        try {
+            if (Size > MAXBATCHSIZE) {
+                this.BatchSize = MAXBATCHSIZE;
+            } else if (Size < 1) {
+                this.BatchSize = 1;
+            } else {
+                this.BatchSize = Size;
+            }
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna el numero maximo de mensajes que el handler extrae de la cola en
+     * cada lote.
+     *
+     * @return Numero maximo de mensajes por lote
+     */
+    public final int getBatchSize() {
+        int Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.BatchSize;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
+    /**
+     * Establece la politica de desbordamiento de la cola de mensajes y el
+     * tiempo maximo de espera en milisegundos usado por OVERFLOW_BLOCK.
+     *
+     * Si la cola no tiene limite se limita a 1024 mensajes, ya que la politica
+     * solo se aplica cuando la cola esta llena.
+     *
+     * NOTE: Con OVERFLOW_CALLER_RUNS los mensajes sin BTTask son procesados por
+     * el BTMessageHandler en la hebra del llamador, por lo que este debe ser
+     * seguro para las concurrencias, y se procesan antes que los mensajes mas
+     * viejos de la cola, por lo que no se debe usar cuando se requiere el orden
+     * de los mensajes; el BTHandlerGroup la rechaza para sus shards.
+     *
+     * @param Policy Politica de desbordamiento OVERFLOW_*
+     * @param TimeoutMillis Tiempo maximo de espera de OVERFLOW_BLOCK
+     */
+    public final void setOverflowPolicy(int Policy, long TimeoutMillis) {
+
+        if ((Policy >= OVERFLOW_BLOCK) && (Policy < OVERFLOW_POLICIES)) {
+            rwl.writeLock().lock();
+            try {
+                if (this.QueueCapacity == UNBOUNDED) {
+                    this.QueueCapacity = QUEUESIZE;
+                    this.queue.setCapacity(QUEUESIZE);
+                }
+                this.OverflowPolicy = Policy;
+                this.OverflowTimeout = (TimeoutMillis > 0 ? TimeoutMillis : 0);
+            } finally {
+                rwl.writeLock().unlock();
+            }
+        } else {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "Invalid Overflow Policy " + Integer.toString(Policy), BTHandler.CLASSID, "041");
+        }
+    }
+
+    /**
+     * Retorna la politica de desbordamiento de la cola de mensajes.
+     *
+     * @return Politica de desbordamiento OVERFLOW_*
+     */
+    public final int getOverflowPolicy() {
+        int Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.OverflowPolicy;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
+    /**
+     * Establece el tiempo de envejecimiento en milisegundos de la cola de
+     * mensajes, los mensajes que lleven en la cola mas de este tiempo se
+     * procesan antes que los de mayor prioridad para evitar que los mensajes
+     * de baja prioridad nunca se procesen. Un valor menor o igual a 0
+     * deshabilita el envejecimiento, el cual esta deshabilitado por defecto.
+     *
+     * @param AgingMillis Tiempo de envejecimiento en milisegundos
+     */
+    public final void setMessageAging(long AgingMillis) {
+
+        this.queue.setAging(AgingMillis);
+    }
+
+    /**
+     * Retorna el tiempo de envejecimiento en milisegundos de la cola de
+     * mensajes o 0 si esta deshabilitado.
+     *
+     * @return Tiempo de envejecimiento en milisegundos
+     */
+    public final long getMessageAging() {
+
+        return this.queue.getAging();
+    }
+
+    /**
+     * Retorna la capacidad maxima de la cola de mensajes o Integer.MAX_VALUE
+     * si la cola no tiene limite.
+     *
+     * @return Capacidad maxima de la cola
+     */
+    public final int getQueueCapacity() {
+
+        return this.QueueCapacity;
+    }
+
+    /**
+     * Retorna el numero (aproximado) de mensajes en la cola de mensajes.
+     *
+     * @return Numero de mensajes en la cola
+     */
+    public final int getQueueSize() {
+
+        return this.queue.size();
+    }
+
+    /**
+     * Habilita o deshabilita el controlador del tamano del pool de ejecucion de
+     * los BTTask, el cual ajusta el numero de hebras entre "MinThreads" y
+     * "MaxThreads" buscando el mayor rendimiento. Al deshabilitarlo se restaura
+     * el tamano por defecto del pool.
+     *
+     * @param Enable TRUE para habilitar el controlador o FALSE para
+     * deshabilitarlo
+     * @param MinThreads Numero minimo de hebras
+     * @param MaxThreads Numero maximo de hebras
+     */
+    public final void setAdaptivePoolSize(boolean Enable, int MinThreads, int MaxThreads) {
+
+        rwl.writeLock().lock();
+        try {
+            this.AdaptivePool = Enable;
+            this.AdaptiveMinThreads = MinThreads;
+            this.AdaptiveMaxThreads = MaxThreads;
+            if (this.executorPool != null) {
+                this.executorPool.setAdaptive(Enable, MinThreads, MaxThreads);
+            }
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna las metricas del pool de ejecucion de los BTTask y de su
+     * controlador o NULL si el handler no esta corriendo.
+     *
+     * @return Metricas del pool o NULL
+     */
+    public final BTAdaptiveThreadPool.PoolMetrics getPoolMetrics() {
+        BTAdaptiveThreadPool.PoolMetrics Result = null;
+
+        rwl.readLock().lock();
+        try {
+            if (this.executorPool != null) {
+                Result = this.executorPool.getMetrics();
+            }
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna el numero de veces que se aplico la politica de desbordamiento
+     * "Policy" desde que se creo el handler.
+     *
+     * Para OVERFLOW_BLOCK cuenta los productores que tuvieron que esperar, para
+     * las politicas de descarte cuenta los mensajes descartados, para
+     * OVERFLOW_CALLER_RUNS los mensajes procesados en el llamador y para
+     * OVERFLOW_FAIL_FAST los mensajes rechazados.
+     *
+     * @param Policy Politica de desbordamiento OVERFLOW_*
+     * @return Numero de eventos de desbordamiento de la politica
+     */
+    public final long getOverflowCount(int Policy) {
+        long Result = 0;
+
+        if ((Policy >= OVERFLOW_BLOCK) && (Policy < OVERFLOW_POLICIES)) {
+            Result = this.OverflowCounters.get(Policy);
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna el numero de productores que agotaron el tiempo de espera de
+     * OVERFLOW_BLOCK sin lograr agregar el mensaje a la cola.
+     *
+     * @return Numero de timeouts de OVERFLOW_BLOCK
+     */
+    public final long getOverflowTimeouts() {
+
+        return this.OverflowTimeouts.get();
+    }
+
     /**
      * Envia el mensaje a la cola del manejador retornando TRUE si lo logro
      * agregar o FALSE si no.
      *
+     * Si la cola esta llena se aplica la politica de desbordamiento
+     * establecida con setOverflowPolicy, con OVERFLOW_CALLER_RUNS se retorna
+     * TRUE cuando el mensaje fue procesado en la hebra del llamador.
+     *
      * @param msg Mensaje a agregar a la cola
      * @return TRUE si lo logro agregar o FALSE si no.
      */
     public final boolean sendMessage(BTMessage msg) {
         boolean Salida = false;
+        boolean Lleno, Reintentar;
+        int Policy;
+        long Timeout, Deadline, Remaining;
 
         if (msg != null) {
+            Deadline = 0;
+            do {
+                Reintentar = false;
+                rwl.readLock().lock();
+                try {
+                    Policy = this.OverflowPolicy;
+                    Timeout = this.OverflowTimeout;
+                    Lleno = !this.queue.offer(msg);
+                    if (Lleno && (Policy == OVERFLOW_DROP_OLDEST)) {
+                        while (Lleno && this.dropOldestMessage()) {
+                            Lleno = !this.queue.offer(msg);
+                        }
+                    } else if (Lleno && (Policy == OVERFLOW_DROP_LOWEST_PRIORITY)) {
+                        while (Lleno && this.dropLowestPriorityMessage(msg)) {
+                            Lleno = !this.queue.offer(msg);
+                        }
+                    }
+                } finally {
+                    rwl.readLock().unlock();
+                }
+                Salida = !Lleno;
+                this.VerifyThread();
+                if (Lleno) {
+                    switch (Policy) {
+                        case OVERFLOW_BLOCK:
+                            if (Deadline == 0) {
+                                this.OverflowCounters.incrementAndGet(OVERFLOW_BLOCK);
+                                Deadline = System.currentTimeMillis() + Timeout;
+                            }
+                            Remaining = Deadline - System.currentTimeMillis();
+                            if ((Remaining > 0) && this.waitForCapacity(Remaining)) {
+                                Reintentar = true;
+                            } else {
+                                this.OverflowTimeouts.incrementAndGet();
+                            }
+                            break;
+                        case OVERFLOW_CALLER_RUNS:
+                            this.OverflowCounters.incrementAndGet(OVERFLOW_CALLER_RUNS);
+                            if (msg.Ejecutable == null) {
+                                this.handleMessage(msg);
+                            } else {
+                                msg.Ejecutable.run();
+                            }
+                            Salida = true;
+                            break;
+                        case OVERFLOW_DROP_OLDEST:
+                        case OVERFLOW_DROP_LOWEST_PRIORITY:
+                            // El mensaje entrante es el descartado
+                            this.OverflowCounters.incrementAndGet(Policy);
+                            break;
+                        default:
+                            this.OverflowCounters.incrementAndGet(OVERFLOW_FAIL_FAST);
+                    }
+                }
+            } while (Reintentar);
+        }
+        return Salida;
+    }
+
+    /**
+     * Agrega el mensaje a la cola del manejador sin aplicar la politica de
+     * desbordamiento, retornando TRUE si lo logro agregar o FALSE si la cola
+     * esta llena.
+     *
+     * Lo usa el BTHandlerGroup para entregar los mensajes retenidos de una
+     * ranura en migracion desde la hebra de otro shard sin bloquearla.
+     *
+     * @param msg Mensaje a agregar a la cola
+     * @return TRUE si lo logro agregar o FALSE si la cola esta llena.
+     */
+    final boolean offerMessage(BTMessage msg) {
+        boolean Salida;
+
+        rwl.readLock().lock();
+        try {
+            Salida = this.queue.offer(msg);
+        } finally {
+            rwl.readLock().unlock();
+        }
+        this.VerifyThread();
+        return Salida;
+    }
+
+    /**
+     * Metodo privado que inicia la hebra de monitoreo si no esta corriendo.
+     */
+    private void VerifyThread() {
+
+        if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
             rwl.writeLock().lock();
             try {
-                Salida = this.queue.offer(msg, QUEUEWRITETIMEOUT, TimeUnit.MILLISECONDS);
                 if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
                     // Inicia la hebra de monitoreo
                     this.StartThread();
                 }
-            } catch (ClassCastException ex) {
-                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "014");
-            } catch (NullPointerException ex) {
-                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "015");
             } finally {
                 rwl.writeLock().unlock();
             }
         }
-        return Salida;
+    }
+
+    /**
+     * Metodo privado que descarta el mensaje que mas tiempo lleva en la cola.
+     *
+     * @return TRUE si se descarto un mensaje o FALSE si la cola esta vacia.
+     */
+    private boolean dropOldestMessage() {
+        boolean Result = false;
+
+        BTMessage Descartado;
+
+        Descartado = this.queue.pollOldest();
+        if (Descartado != null) {
+            this.OverflowCounters.incrementAndGet(OVERFLOW_DROP_OLDEST);
+            this.notifyDiscarded(Descartado);
+            Result = true;
+        }
+        return Result;
+    }
+
+    /**
+     * Metodo privado que descarta el mensaje mas antiguo del nivel de menor
+     * prioridad de la cola, siempre que su prioridad sea menor que la del
+     * mensaje entrante "msg".
+     *
+     * @param msg Mensaje entrante
+     * @return TRUE si se descarto un mensaje de la cola o FALSE si el mensaje
+     * entrante es el de menor prioridad.
+     */
+    private boolean dropLowestPriorityMessage(BTMessage msg) {
+        boolean Result = false;
+        BTMessage Descartado;
+
+        Descartado = this.queue.pollLowest(msg.getPriority());
+        if (Descartado != null) {
+            this.OverflowCounters.incrementAndGet(OVERFLOW_DROP_LOWEST_PRIORITY);
+            this.notifyDiscarded(Descartado);
+            Result = true;
+        }
+        return Result;
+    }
+
+    /**
+     * Metodo privado que bloquea al productor hasta que se libere espacio en
+     * la cola de mensajes o se agote el tiempo de espera.
+     *
+     * @param TimeoutMillis Tiempo maximo de espera en milisegundos
+     * @return TRUE si hay espacio en la cola o FALSE si se agoto el tiempo.
+     */
+    private boolean waitForCapacity(long TimeoutMillis) {
+        boolean Result = false;
+
+        try {
+            Result = this.awaitCapacity(1, TimeoutMillis);
+        } catch (InterruptedException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "042");
+            Thread.currentThread().interrupt();
+        }
+        return Result;
+    }
+
+    /**
+     * Bloquea al llamador hasta que la cola de mensajes tenga espacio para "n"
+     * mensajes o se agote el tiempo de espera. Si "n" es mayor a la capacidad
+     * de la cola se espera a que la cola este vacia.
+     *
+     * @param n Numero de mensajes
+     * @param TimeoutMillis Tiempo maximo de espera en milisegundos
+     * @return TRUE si hay espacio para los mensajes o FALSE si se agoto el
+     * tiempo.
+     * @throws InterruptedException Si la hebra fue interrumpida
+     */
+    final boolean awaitCapacity(int n, long TimeoutMillis) throws InterruptedException {
+        boolean Result;
+        long Nanos;
+        int Limite;
+
+        Limite = this.QueueCapacity - Math.min(n, this.QueueCapacity);
+        Nanos = TimeUnit.MILLISECONDS.toNanos(TimeoutMillis);
+        capacityLock.lock();
+        try {
+            this.WaitingProducers.incrementAndGet();
+            try {
+                while ((this.queue.size() > Limite) && (Nanos > 0)) {
+                    Nanos = this.notFull.awaitNanos(Nanos);
+                }
+            } finally {
+                this.WaitingProducers.decrementAndGet();
+            }
+            Result = (this.queue.size() <= Limite);
+        } finally {
+            capacityLock.unlock();
+        }
+        return Result;
+    }
+
+    /**
+     * Metodo privado que notifica a los productores bloqueados que se libero
+     * espacio en la cola de mensajes.
+     */
+    private void signalCapacity() {
+
+        if (this.WaitingProducers.get() > 0) {
+            capacityLock.lock();
+            try {
+                this.notFull.signalAll();
+            } finally {
+                capacityLock.unlock();
+            }
+        }
     }
 
     /**
@@ -467,11 +999,6 @@ public class BTHandler implements Runnable {
             Mensaje = new BTMessage();
             Mensaje.Ejecutable = r;
             Mensaje.setPriority(r.getPriority());
-            // Para el caso que sea un mesaje de entreda postergada le asigna el mensaje contenedor el
-            // timestamp en el que se deberia ejecutar para optimizar el uso de las colas de mensajes
-            if (DelayedRunManager.class.isInstance(r)) {
-                Mensaje.setTimeStamp(((DelayedRunManager) r).getUptimeMillis());
-            }
             Salida = this.sendMessage(Mensaje);
         } else {
             this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "BTTask is NULL", BTHandler.CLASSID, "016");
@@ -561,16 +1088,19 @@ public class BTHandler implements Runnable {
      * @param CtrlKey Llave de control del BTHandler
      */
     public final void Clear(String CtrlKey) {
+        ArrayList<BTMessage> Descartados = null;
 
         if (Ejecutor != null) {
             if ((this.ControlKey == null) || (this.ControlKey.equals(CtrlKey))) {
                 rwl.writeLock().lock();
                 try {
-                    this.queue.clear();
+                    Descartados = this.discardQueue();
                     this.BTLogF.LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, false, null, "Message Queue Cleaned", BTHandler.CLASSID, "019");
                 } finally {
                     rwl.writeLock().unlock();
                 }
+                this.signalCapacity();
+                this.notifyDiscarded(Descartados);
             } else {
                 this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "Message Queue Clean Failed due Control Key MISMATCH", BTHandler.CLASSID, "020");
             }
@@ -633,21 +1163,70 @@ public class BTHandler implements Runnable {
         }
     }
 
+    /**
+     * Despacha el lote de mensajes extraidos de la cola, los BTTask se envian
+     * al pool de ejecucion y los demas mensajes se entregan al manejador de
+     * mensajes, en una sola llamada si este es un BTBatchMessageHandler.
+     *
+     * @param Lote Mensajes extraidos de la cola
+     * @param Batch Arreglo reutilizable para entregar el lote
+     * @param Handler Manejador de mensajes
+     */
+    private void dispatchMessages(ArrayList<BTMessage> Lote, BTMessage[] Batch, BTMessageHandler Handler) {
+        int Count = 0;
+
+        for (BTMessage Mensaje : Lote) {
+            if (Mensaje.Ejecutable != null) {
+                this.executorPool.execute(Mensaje.Ejecutable);
+            } else if (BTBatchMessageHandler.class.isInstance(Handler)) {
+                Batch[Count] = Mensaje;
+                Count++;
+            } else {
+                // Un mensaje con error no descarta el resto del lote
+                try {
+                    this.handleMessage(Mensaje);
+                } catch (RuntimeException ex) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "Message handling failed at BTHandler[" + Long.toHexString(this.HandlerID) + "]", BTHandler.CLASSID, "043");
+                }
+            }
+        }
+        if (Count > 0) {
+            try {
+                ((BTBatchMessageHandler) Handler).handleMessages(Batch, Count);
+            } catch (RuntimeException ex) {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "Batch handling failed at BTHandler[" + Long.toHexString(this.HandlerID) + "]", BTHandler.CLASSID, "044");
+            } finally {
+                Arrays.fill(Batch, 0, Count, null);
+            }
+        }
+    }
+
     // Inicializa el Pool de Threads de ejecucion
     private void InitThreadPool() {
         //RejectedExecutionHandler implementation
         RejectedExecutionHandlerImpl rejectionHandler;
         //the ThreadFactory implementation to use
         ThreadFactory threadFactory;
+        // Pool de ejecucion
+        BTAdaptiveThreadPool Pool;
 
         //Get the ThreadFactory implementation to use
         threadFactory = Executors.defaultThreadFactory();
         //RejectedExecutionHandler implementation
         rejectionHandler = new RejectedExecutionHandlerImpl();
         //creating the ThreadPoolExecutor
-        this.executorPool = new ThreadPoolExecutor(this.ThreadCorePoolSize, this.MaxThreadCorePoolSize, DEFMAXIMUMPOOLSIZEKEEPALIVETIME, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(10 * this.MaxThreadCorePoolSize), threadFactory, rejectionHandler);
+        Pool = new BTAdaptiveThreadPool(this.ThreadCorePoolSize, this.MaxThreadCorePoolSize, DEFMAXIMUMPOOLSIZEKEEPALIVETIME, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(10 * this.MaxThreadCorePoolSize), threadFactory, rejectionHandler);
         // Permite que las hebras del Core tambien tengan timeout
-        this.executorPool.allowCoreThreadTimeOut(true);
+        Pool.allowCoreThreadTimeOut(true);
+        rwl.writeLock().lock();
+        try {
+            if (this.AdaptivePool) {
+                Pool.setAdaptive(true, this.AdaptiveMinThreads, this.AdaptiveMaxThreads);
+            }
+            this.executorPool = Pool;
+        } finally {
+            rwl.writeLock().unlock();
+        }
     }
 
     // Finaliza el pool de Thread de ejecucion
@@ -678,55 +1257,78 @@ public class BTHandler implements Runnable {
     public final void run() {
         // Copia del mensaje de la cola
         BTMessage Mensaje = null;
+        // Lote de mensajes extraidos de la cola
+        ArrayList<BTMessage> Lote;
+        // Arreglo reutilizable para entregar el lote al BTBatchMessageHandler
+        BTMessage[] Batch;
+        // Copia local del tamano del lote
+        int LBatchSize = DEFBATCHSIZE;
+        // Copia local del manejador de mensajes
+        BTMessageHandler LMsgHandler = null;
         // Numero de mensaje que quedan en la cola
         int RemainMsg = 0;
         // Copia local de la bandera de ejecucion
         boolean LEjecutar = false;
         // Contadores de tiempo
         long StartTime, DiffTime;
+        // Mensajes descartados de la cola al finalizar
+        ArrayList<BTMessage> Descartados = null;
 
         // Genera el log del inicio del handler
         if (this.Ejecutor != null) {
             StartTime = System.currentTimeMillis();
             // Inicializa el Pool de Ejecucion del Handler
             this.InitThreadPool();
+            Lote = new ArrayList<BTMessage>(DEFBATCHSIZE);
+            Batch = new BTMessage[DEFBATCHSIZE];
             do {
                 rwl.readLock().lock();
                 try {
-                    Mensaje = this.queue.poll(QUEUEREADTIMEOUT, TimeUnit.MILLISECONDS);
-                    RemainMsg = this.queue.size();
+                    LBatchSize = this.BatchSize;
                     LEjecutar = this.Ejecutar;
-                } catch (InterruptedException ex) {
-                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "029");
+                    LMsgHandler = this.MsgHandler;
                 } finally {
                     rwl.readLock().unlock();
                 }
-                if (Mensaje != null) {
-                    if (Mensaje.Ejecutable == null) {
-                        this.handleMessage(Mensaje);
-                    } else {
-                        this.executorPool.execute(Mensaje.Ejecutable);
+                // La cola no requiere del lock, si esta vacia se espera a que
+                // llegue un mensaje en lugar de dormir la hebra
+                try {
+                    Mensaje = this.queue.poll((RemainMsg > 0 ? QUEUEREADTIMEOUT : THREADSLEEP), TimeUnit.MILLISECONDS);
+                    if (Mensaje != null) {
+                        Lote.add(Mensaje);
+                        if (LBatchSize > 1) {
+                            this.queue.drainTo(Lote, LBatchSize - 1);
+                        }
                     }
-                    Mensaje = null;
+                    RemainMsg = this.queue.size();
+                } catch (InterruptedException ex) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "029");
                 }
-                if (RemainMsg <= 0) {
+                // Ajusta el tamano del pool si el controlador esta habilitado
+                this.executorPool.adjustPoolSize();
+                if (!Lote.isEmpty()) {
+                    this.signalCapacity();
+                    if (Batch.length < Lote.size()) {
+                        Batch = new BTMessage[LBatchSize];
+                    }
                     try {
-                        EnvironmentUtils.randomSleep(THREADSLEEP);
-                    } catch (UtilsException ex) {
-                        this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "030");
+                        this.dispatchMessages(Lote, Batch, LMsgHandler);
+                    } finally {
+                        Lote.clear();
+                        Mensaje = null;
                     }
+                    StartTime = System.currentTimeMillis();
+                } else {
                     DiffTime = System.currentTimeMillis() - StartTime;
                     if (DiffTime > BTHandler.MAX_IDLE_TIME) {
                         LEjecutar = false;
                     }
-                } else {
-                    StartTime = System.currentTimeMillis();
                 }
             } while (LEjecutar);
             rwl.writeLock().lock();
             try {
                 // Limpia la cola de mensajes
-                this.queue.clear();
+                Descartados = this.discardQueue();
                 // Finaliza la ejecion del Pool de Hebras de forma controlada
                 this.ShutdownThreadPool();
             } finally {
@@ -734,6 +1336,62 @@ public class BTHandler implements Runnable {
                 this.Ejecutor = null;
                 rwl.writeLock().unlock();
             }
+            this.signalCapacity();
+            this.notifyDiscarded(Descartados);
+        }
+    }
+
+    /**
+     * Metodo privado que vacia la cola de mensajes, retornando los mensajes
+     * descartados si hay un manejador de descartes o NULL si no lo hay.
+     *
+     * NOTE: Debe llamarse con el write lock adquirido.
+     *
+     * @return Mensajes descartados o NULL
+     */
+    private ArrayList<BTMessage> discardQueue() {
+        ArrayList<BTMessage> Descartados = null;
+
+        if (this.DiscardHandler != null) {
+            Descartados = new ArrayList<BTMessage>(this.queue.size());
+            this.queue.drainTo(Descartados, Integer.MAX_VALUE);
+        } else {
+            this.queue.clear();
+        }
+        return Descartados;
+    }
+
+    /**
+     * Metodo privado que notifica al manejador de descartes los mensajes
+     * descartados de la cola.
+     *
+     * @param Descartados Mensajes descartados, puede ser NULL
+     */
+    private void notifyDiscarded(ArrayList<BTMessage> Descartados) {
+
+        if (Descartados != null) {
+            for (BTMessage Descartado : Descartados) {
+                this.notifyDiscarded(Descartado);
+            }
+        }
+    }
+
+    /**
+     * Metodo privado que notifica al manejador de descartes el mensaje
+     * descartado de la cola.
+     *
+     * @param Descartado Mensaje descartado
+     */
+    private void notifyDiscarded(BTMessage Descartado) {
+        BTMessageHandler Handler;
+
+        Handler = this.DiscardHandler;
+        if (Handler != null) {
+            try {
+                Handler.handleMessage(Descartado);
+            } catch (RuntimeException ex) {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "Discard handling failed at BTHandler[" + Long.toHexString(this.HandlerID) + "]", BTHandler.CLASSID, "045");
+            }
         }
     }
 
@@ -875,7 +1533,7 @@ public class BTHandler implements Runnable {
                     if (delay <= 0) {
                         delay = 1;
                     }
-                    queueEmptyPercent = 1 - (((double) queue.size() / (double) (queue.remainingCapacity() + queue.size())) * ((double) executorPool.getActiveCount() / (double) delay));
+                    queueEmptyPercent = 1 - (((double) queue.size() / (double) QueueCapacity) * ((double) executorPool.getActiveCount() / (double) delay));
                 } finally {
                     rwl.readLock().unlock();
                 }
@@ -891,11 +1549,9 @@ public class BTHandler implements Runnable {
                 // Se realiza el envio del manejador de delay a la cola para su proxima ejecucion
                 while (!Post(this)) {
                     BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, null, "Messaje Delay Manager CAN'T be send at time  " + Long.toString(currentTime) + " milliSeconds", BTHandler.CLASSID, "036");
-                    // Se esperan un valor aleatorio de milisegundos hasta un maximo de 50 para intentar enviar el mensaje otra vez
-                    try {
-                        EnvironmentUtils.randomSleep(50);
-                    } catch (UtilsException ex) {
-                        BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "037");
+                    // Se espera a que se libere espacio en la cola para intentar enviar el mensaje otra vez
+                    if (!waitForCapacity(QUEUEWRITETIMEOUT)) {
+                        BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "Message Queue still FULL after " + Long.toString(QUEUEWRITETIMEOUT) + " milliSeconds", BTHandler.CLASSID, "037");
                     }
                 }
             } else {
@@ -910,11 +1566,9 @@ public class BTHandler implements Runnable {
                 // Se realiza el envio del mensaje
                 while (!sendMessage(this.msg)) {
                     BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, null, "Messaje CAN'T be send at time  " + Long.toString(this.uptimeMillis) + " milliSeconds", BTHandler.CLASSID, "039");
-                    // Se esperan un valor aleatorio de milisegundos hasta un maximo de 50 para intentar enviar el mensaje otra vez
-                    try {
-                        EnvironmentUtils.randomSleep(50);
-                    } catch (UtilsException ex) {
-                        BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandler.CLASSID, "040");
+                    // Se espera a que se libere espacio en la cola para intentar enviar el mensaje otra vez
+                    if (!waitForCapacity(QUEUEWRITETIMEOUT)) {
+                        BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "Message Queue still FULL after " + Long.toString(QUEUEWRITETIMEOUT) + " milliSeconds", BTHandler.CLASSID, "040");
                     }
                 }
             }
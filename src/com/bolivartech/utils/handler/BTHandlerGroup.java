@@ -0,0 +1,662 @@
+package com.bolivartech.utils.handler;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.converters.Base64;
+import com.bolivartech.utils.kerneltasks.BTTask;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement a group of sharded
+ * BTHandlers to scale the message processing across cores.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa un grupo de N BTHandlers (shards), cada uno con su propia cola y
+ * hebra de despacho. Los mensajes se enrutan por su Target o por una llave
+ * del usuario hacia una ranura virtual, y cada ranura esta asignada a un
+ * shard, por lo que los mensajes de una misma llave se procesan en orden
+ * mientras que los de llaves distintas se procesan en paralelo.</p>
+ *
+ * <p>
+ * Cuando la cola de un shard supera en HOTSPOTFACTOR veces el promedio del
+ * grupo, la ranura con mas trafico de ese shard se migra al shard menos
+ * cargado. La ranura se reasigna de inmediato: los mensajes nuevos de la
+ * ranura se retienen en orden mientras el shard original procesa los que ya
+ * tiene, y al terminar este se entregan al shard destino antes que cualquier
+ * mensaje posterior, conservando el orden por llave. Si el shard original no
+ * termina en MIGRATIONINTERVALS verificaciones del balance, la migracion se
+ * abandona, los mensajes retenidos se entregan al shard original y se
+ * registra en la bitacora.</p>
+ *
+ * <p>
+ * NOTA: El BTMessageHandler es compartido por todos los shards y es llamado de
+ * forma concurrente para llaves distintas, por lo que debe ser seguro para
+ * las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHT"</li>
+ * <li>Loc: 000-006</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.4
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): Cada mensaje del lote se libera aunque el
+ * manejador falle con otro mensaje, y los mensajes descartados de la cola de
+ * un shard liberan su ranura, por lo que las migraciones siempre terminan;
+ * se soportan las politicas de descarte.</li>
+ * <li>v1.0.2 (2026-10-19): Cada envio se encola en un sobre con su ranura en
+ * lugar de escribir la ranura en el mensaje, el cual puede estar compartido
+ * con otros handlers.</li>
+ * <li>v1.0.3 (2026-10-19): La migracion de una ranura caliente no espera a
+ * que la ranura quede sin mensajes pendientes, los mensajes nuevos se
+ * retienen hasta que el shard original procesa los suyos; las migraciones
+ * que no terminan en MIGRATIONINTERVALS verificaciones se abandonan.</li>
+ * <li>v1.0.4 (2026-10-19): Las colas de los shards no tienen limite si el
+ * tamano es menor a 1 y se rechaza OVERFLOW_CALLER_RUNS, que rompe el orden
+ * por llave.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class BTHandlerGroup {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHT";
+
+    // Numero de ranuras virtuales por shard
+    private static final int SLOTSPERSHARD = 16;
+    // Intervalo de verificacion del balance de carga en milisegundos
+    private static final long REBALANCEINTERVAL = 250;
+    // Factor sobre el promedio de mensajes en cola para considerar un shard caliente
+    private static final double HOTSPOTFACTOR = 2.0;
+    // Numero minimo de mensajes en cola para considerar un shard caliente
+    private static final int MINHOTSPOTDEPTH = 64;
+    // Numero de verificaciones del balance antes de abandonar una migracion
+    private static final int MIGRATIONINTERVALS = 8;
+
+    // Manejador de Bitacoras
+    private final LoggerFormatter BTLogF;
+
+    // Shards del grupo
+    private final BTHandler[] Shards;
+    // Llaves de control de los shards
+    private final String[] ShardKeys;
+    // Ranuras virtuales de enrutamiento
+    private final Slot[] Slots;
+
+    // Manejador de mensajes del usuario
+    private volatile BTMessageHandler MsgHandler = null;
+    // LLave de control del grupo
+    private String ControlKey = null;
+
+    // Instante de la ultima verificacion del balance de carga
+    private final AtomicLong LastRebalance = new AtomicLong(0);
+    // Numero de ranuras migradas entre shards
+    private final AtomicLong Rebalances = new AtomicLong(0);
+    // Siguiente shard para los BTTask que no tienen llave
+    private final AtomicInteger NextShard = new AtomicInteger(0);
+
+    /**
+     * Clase privada que define una ranura virtual de enrutamiento
+     */
+    private static final class Slot {
+
+        // Shard asignado a la ranura
+        @GuardedBy("this")
+        private int Shard;
+        // Shard destino de una migracion en curso o -1 si no hay migracion
+        @GuardedBy("this")
+        private int MigrateTo = -1;
+        // Instante de inicio de la migracion en curso
+        @GuardedBy("this")
+        private long MigrateSince;
+        // Mensajes retenidos durante la migracion, en orden de envio
+        @GuardedBy("this")
+        private final ArrayDeque<BTMessage> Deferred = new ArrayDeque<BTMessage>();
+        // Bandera de entrega de los mensajes retenidos en curso
+        @GuardedBy("this")
+        private boolean HandingOff = false;
+        // Mensajes enviados a un shard y aun no procesados
+        private final AtomicInteger Pending = new AtomicInteger(0);
+        // Mensajes enviados en el intervalo de balance actual
+        private final AtomicLong Hits = new AtomicLong(0);
+
+        private Slot(int Shard) {
+            this.Shard = Shard;
+        }
+    }
+
+    /**
+     * Constructor con inicializacion del numero de shards, el tamano de la
+     * cola de cada shard y la bitacora.
+     *
+     * @param NumShards Numero de shards, si es menor a 1 se usa el numero de
+     * CPUs
+     * @param Size Tamano de la cola de cada shard, si es menor a 1 las colas
+     * no tienen limite
+     * @param vLog Apuntador a la Bitacora
+     */
+    public BTHandlerGroup(int NumShards, int Size, LoggerManager vLog) {
+        ShardMessageHandler Manejador;
+        DiscardMessageHandler Descartes;
+        int i;
+
+        this.BTLogF = LoggerFormatter.getInstance(vLog);
+        if (NumShards < 1) {
+            NumShards = Runtime.getRuntime().availableProcessors();
+        }
+        Manejador = new ShardMessageHandler();
+        Descartes = new DiscardMessageHandler();
+        this.Shards = new BTHandler[NumShards];
+        this.ShardKeys = new String[NumShards];
+        for (i = 0; i < NumShards; i++) {
+            this.Shards[i] = new BTHandler(Size, vLog);
+            this.ShardKeys[i] = this.Shards[i].getControlKey();
+            this.Shards[i].setMessageHandler(Manejador);
+            this.Shards[i].setDiscardHandler(Descartes);
+        }
+        this.Slots = new Slot[NumShards * SLOTSPERSHARD];
+        for (i = 0; i < this.Slots.length; i++) {
+            this.Slots[i] = new Slot(i % NumShards);
+        }
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna la llave aleatoria de control del grupo, la cual permite hacer
+     * shutdown de todos sus shards.
+     *
+     * La llave de control se establece LA PRIMERA VEZ que se llama este
+     * metodo, las subsecuentes llamadas entregan llaves dummies no validas.
+     *
+     * @return Llave aleatoria de control.
+     */
+    public final synchronized String getControlKey() {
+        String Llave = null;
+        MersenneTwisterPlus Random;
+        byte[] BinaryKey;
+
+        Random = new MersenneTwisterPlus();
+        BinaryKey = new byte[128];
+        Random.nextBytes(BinaryKey);
+        try {
+            Llave = Base64.encodeBytes(BinaryKey, Base64.URL_SAFE);
+        } catch (IOException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTHandlerGroup.CLASSID, "000");
+        }
+        if (this.ControlKey == null) {
+            this.ControlKey = Llave;
+        }
+        return Llave;
+    }
+
+    /**
+     * Establece el manejador de mensajes compartido por todos los shards.
+     *
+     * @param MsgHandler Manejador de mensajes
+     */
+    public final void setMessageHandler(BTMessageHandler MsgHandler) {
+
+        this.MsgHandler = MsgHandler;
+    }
+
+    /**
+     * Establece el numero maximo de mensajes por lote de cada shard.
+     *
+     * @param Size Numero maximo de mensajes por lote
+     */
+    public final void setBatchSize(int Size) {
+
+        for (BTHandler Shard : this.Shards) {
+            Shard.setBatchSize(Size);
+        }
+    }
+
+    /**
+     * Establece la politica de desbordamiento de la cola de cada shard.
+     *
+     * NOTE: Los mensajes descartados dentro del shard liberan su ranura, pero
+     * con las politicas de descarte se pierden mensajes de la llave.
+     * OVERFLOW_CALLER_RUNS se rechaza, ya que procesa el mensaje antes que los
+     * mensajes previos de la misma llave que estan en la cola del shard.
+     *
+     * @param Policy Politica de desbordamiento definida en BTHandler
+     * @param TimeoutMillis Tiempo maximo de espera de OVERFLOW_BLOCK
+     */
+    public final void setOverflowPolicy(int Policy, long TimeoutMillis) {
+
+        if (Policy != BTHandler.OVERFLOW_CALLER_RUNS) {
+            for (BTHandler Shard : this.Shards) {
+                Shard.setOverflowPolicy(Policy, TimeoutMillis);
+            }
+        } else {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "OVERFLOW_CALLER_RUNS Breaks the Order by Key and is Rejected at BTHandlerGroup", BTHandlerGroup.CLASSID, "006");
+        }
+    }
+
+    /**
+     * Retorna el numero de shards del grupo
+     *
+     * @return Numero de shards
+     */
+    public final int getShardCount() {
+
+        return this.Shards.length;
+    }
+
+    /**
+     * Retorna el numero de mensajes en la cola del shard "Shard"
+     *
+     * @param Shard Indice del shard
+     * @return Numero de mensajes en la cola del shard
+     */
+    public final int getShardQueueSize(int Shard) {
+
+        return this.Shards[Shard].getQueueSize();
+    }
+
+    /**
+     * Retorna el numero de ranuras que han sido migradas entre shards para
+     * balancear la carga.
+     *
+     * @return Numero de ranuras migradas
+     */
+    public final long getRebalanceCount() {
+
+        return this.Rebalances.get();
+    }
+
+    /**
+     * Envia el mensaje al shard asignado a su Target, retornando TRUE si lo
+     * logro agregar o FALSE si no.
+     *
+     * @param msg Mensaje a enviar
+     * @return TRUE si lo logro agregar o FALSE si no.
+     */
+    public final boolean sendMessage(BTMessage msg) {
+        boolean Salida = false;
+
+        if (msg != null) {
+            Salida = this.route(this.spread(Long.valueOf(msg.getTarget()).hashCode()), msg);
+        }
+        return Salida;
+    }
+
+    /**
+     * Envia el mensaje al shard asignado a la llave "Key", retornando TRUE si
+     * lo logro agregar o FALSE si no.
+     *
+     * @param Key Llave de enrutamiento del mensaje
+     * @param msg Mensaje a enviar
+     * @return TRUE si lo logro agregar o FALSE si no.
+     */
+    public final boolean sendMessage(Object Key, BTMessage msg) {
+        boolean Salida = false;
+
+        if ((Key != null) && (msg != null)) {
+            Salida = this.route(this.spread(Key.hashCode()), msg);
+        } else if (msg != null) {
+            Salida = this.sendMessage(msg);
+        }
+        return Salida;
+    }
+
+    /**
+     * Envia el BTTask a uno de los shards del grupo, retornando TRUE si lo
+     * logro agregar o FALSE si no.
+     *
+     * @param r BTTask a ejecutar
+     * @return TRUE si lo logro agregar o FALSE si no.
+     */
+    public final boolean Post(BTTask r) {
+        int Shard;
+
+        Shard = (this.NextShard.getAndIncrement() & 0x7FFFFFFF) % this.Shards.length;
+        return this.Shards[Shard].Post(r);
+    }
+
+    /**
+     * Finaliza la Ejecucion de todos los shards de forma controlada
+     *
+     * @param CtrlKey Llave de control del grupo
+     */
+    public final void Shutdown(String CtrlKey) {
+        int i;
+
+        if ((this.ControlKey == null) || (this.ControlKey.equals(CtrlKey))) {
+            for (i = 0; i < this.Shards.length; i++) {
+                this.Shards[i].Shutdown(this.ShardKeys[i]);
+            }
+        } else {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "Shutdown Failed due Control Key MISMATCH", BTHandlerGroup.CLASSID, "001");
+        }
+    }
+
+    /**
+     * Dispersa los bits del hash para distribuir las llaves en las ranuras
+     *
+     * @param Hash Hash de la llave
+     * @return Indice de la ranura
+     */
+    private int spread(int Hash) {
+
+        Hash ^= (Hash >>> 16);
+        Hash *= 0x85EBCA6B;
+        Hash ^= (Hash >>> 13);
+        return (Hash & 0x7FFFFFFF) % this.Slots.length;
+    }
+
+    /**
+     * Envia el mensaje al shard asignado a la ranura "SlotIndex"
+     *
+     * @param SlotIndex Indice de la ranura
+     * @param msg Mensaje a enviar
+     * @return TRUE si lo logro agregar o FALSE si no.
+     */
+    private boolean route(int SlotIndex, BTMessage msg) {
+        Slot Ranura;
+        BTMessage Sobre;
+        int Shard;
+        boolean Salida;
+
+        Ranura = this.Slots[SlotIndex];
+        Sobre = new BTMessage(msg, SlotIndex);
+        synchronized (Ranura) {
+            if (Ranura.MigrateTo >= 0) {
+                // Se retiene hasta que el shard original procese los mensajes de la ranura
+                Ranura.Deferred.addLast(Sobre);
+                Shard = -1;
+            } else {
+                Shard = Ranura.Shard;
+                Ranura.Pending.incrementAndGet();
+            }
+        }
+        Ranura.Hits.incrementAndGet();
+        if (Shard >= 0) {
+            Salida = this.Shards[Shard].sendMessage(Sobre);
+            if (!Salida) {
+                this.release(Sobre);
+            }
+        } else {
+            this.handOff(SlotIndex, true);
+            Salida = true;
+        }
+        this.checkBalance();
+        return Salida;
+    }
+
+    /**
+     * Entrega en orden los mensajes retenidos de la ranura "SlotIndex" al
+     * shard destino de su migracion y completa la migracion cuando no quedan
+     * retenidos, siempre que el shard original no tenga mensajes pendientes
+     * de la ranura o que el destino sea el mismo shard original.
+     *
+     * Con "Wait" en TRUE los mensajes se envian con la politica de
+     * desbordamiento del shard, como lo haria el productor. Con "Wait" en
+     * FALSE, usado desde la hebra de un shard, la entrega se detiene sin
+     * bloquear al llenarse la cola del destino y continua cuando este procese
+     * los mensajes entregados o en el siguiente envio a la ranura.
+     *
+     * @param SlotIndex Indice de la ranura
+     * @param Wait TRUE para aplicar la politica de desbordamiento del destino
+     */
+    private void handOff(int SlotIndex, boolean Wait) {
+        Slot Ranura;
+        BTMessage Sobre;
+        int Shard, Origen;
+        boolean Entregar, Entregado;
+
+        Ranura = this.Slots[SlotIndex];
+        synchronized (Ranura) {
+            Entregar = (Ranura.MigrateTo >= 0) && !Ranura.HandingOff && ((Ranura.Pending.get() == 0) || (Ranura.MigrateTo == Ranura.Shard));
+            if (Entregar) {
+                Ranura.HandingOff = true;
+            }
+        }
+        while (Entregar) {
+            Shard = -1;
+            synchronized (Ranura) {
+                Sobre = Ranura.Deferred.poll();
+                if (Sobre != null) {
+                    Shard = Ranura.MigrateTo;
+                    Ranura.Pending.incrementAndGet();
+                } else {
+                    Origen = Ranura.Shard;
+                    Ranura.Shard = Ranura.MigrateTo;
+                    Ranura.MigrateTo = -1;
+                    Ranura.HandingOff = false;
+                    if (Ranura.Shard != Origen) {
+                        this.Rebalances.incrementAndGet();
+                    }
+                    Entregar = false;
+                }
+            }
+            if (Sobre != null) {
+                Entregado = (Wait ? this.Shards[Shard].sendMessage(Sobre) : this.Shards[Shard].offerMessage(Sobre));
+                if (!Entregado) {
+                    // Vuelve a la cabeza de los retenidos para conservar el orden
+                    synchronized (Ranura) {
+                        Ranura.Deferred.addFirst(Sobre);
+                        Ranura.Pending.decrementAndGet();
+                        Ranura.HandingOff = false;
+                    }
+                    Entregar = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica cada REBALANCEINTERVAL milisegundos si algun shard es un punto
+     * caliente y de ser asi inicia la migracion de su ranura con mas trafico
+     * hacia el shard menos cargado.
+     */
+    private void checkBalance() {
+        long Ahora, Ultimo, MaxHits;
+        int i, Size, Total, Hot, Cold, HotSize, ColdSize, Candidata;
+
+        Ahora = System.currentTimeMillis();
+        Ultimo = this.LastRebalance.get();
+        if (((Ahora - Ultimo) >= REBALANCEINTERVAL) && this.LastRebalance.compareAndSet(Ultimo, Ahora) && (this.Shards.length > 1)) {
+            Total = 0;
+            Hot = 0;
+            Cold = 0;
+            HotSize = -1;
+            ColdSize = Integer.MAX_VALUE;
+            for (i = 0; i < this.Shards.length; i++) {
+                Size = this.Shards[i].getQueueSize();
+                Total += Size;
+                if (Size > HotSize) {
+                    HotSize = Size;
+                    Hot = i;
+                }
+                if (Size < ColdSize) {
+                    ColdSize = Size;
+                    Cold = i;
+                }
+            }
+            Candidata = -1;
+            if ((HotSize >= MINHOTSPOTDEPTH) && (HotSize > (HOTSPOTFACTOR * ((double) Total / (double) this.Shards.length)))) {
+                // Busca la ranura con mas trafico del shard caliente
+                MaxHits = 0;
+                for (i = 0; i < this.Slots.length; i++) {
+                    synchronized (this.Slots[i]) {
+                        if ((this.Slots[i].Shard == Hot) && (this.Slots[i].MigrateTo < 0) && (this.Slots[i].Hits.get() > MaxHits)) {
+                            MaxHits = this.Slots[i].Hits.get();
+                            Candidata = i;
+                        }
+                    }
+                }
+            }
+            for (i = 0; i < this.Slots.length; i++) {
+                this.Slots[i].Hits.set(0);
+                this.expireMigration(i, Ahora);
+            }
+            if (Candidata >= 0) {
+                synchronized (this.Slots[Candidata]) {
+                    this.Slots[Candidata].MigrateTo = Cold;
+                    this.Slots[Candidata].MigrateSince = Ahora;
+                }
+                this.BTLogF.LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_DEBUG, false, null, "Slot " + Integer.toString(Candidata) + " Migrating from Shard " + Integer.toString(Hot) + " to " + Integer.toString(Cold), BTHandlerGroup.CLASSID, "002");
+                this.handOff(Candidata, true);
+            }
+        }
+    }
+
+    /**
+     * Abandona la migracion de la ranura "SlotIndex" si el shard original no
+     * ha procesado sus mensajes pendientes en MIGRATIONINTERVALS
+     * verificaciones del balance; los mensajes retenidos se entregan al shard
+     * original despues de los que ya tiene. Si la migracion sigue en curso se
+     * reintenta la entrega de los retenidos detenida por una cola llena.
+     *
+     * @param SlotIndex Indice de la ranura
+     * @param Ahora Instante actual en milisegundos
+     */
+    private void expireMigration(int SlotIndex, long Ahora) {
+        Slot Ranura;
+        boolean Abandonar;
+        int Destino = -1;
+
+        Ranura = this.Slots[SlotIndex];
+        synchronized (Ranura) {
+            Abandonar = (Ranura.MigrateTo >= 0) && (Ranura.MigrateTo != Ranura.Shard) && !Ranura.HandingOff
+                    && ((Ahora - Ranura.MigrateSince) >= (MIGRATIONINTERVALS * REBALANCEINTERVAL));
+            if (Abandonar) {
+                Destino = Ranura.MigrateTo;
+                Ranura.MigrateTo = Ranura.Shard;
+            }
+        }
+        if (Abandonar) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_WARNING, false, null, "Slot " + Integer.toString(SlotIndex) + " Migration to Shard " + Integer.toString(Destino) + " Abandoned after " + Long.toString(MIGRATIONINTERVALS * REBALANCEINTERVAL) + " milliSeconds", BTHandlerGroup.CLASSID, "005");
+        }
+        this.handOff(SlotIndex, true);
+    }
+
+    /**
+     * Clase privada que recibe los mensajes de cada shard, los entrega al
+     * manejador de mensajes del usuario y libera los pendientes de la ranura.
+     */
+    private final class ShardMessageHandler implements BTBatchMessageHandler {
+
+        @Override
+        public void handleMessage(BTMessage msg) {
+            BTMessageHandler Handler;
+
+            Handler = MsgHandler;
+            try {
+                if (Handler != null) {
+                    Handler.handleMessage(unwrap(msg));
+                } else {
+                    throw new UnsupportedOperationException("BTMessageHandler NEED to be defined to handel incoming messages at BTHandlerGroup");
+                }
+            } finally {
+                release(msg);
+            }
+        }
+
+        @Override
+        public void handleMessages(BTMessage[] batch, int count) {
+            BTMessageHandler Handler;
+            BTMessage[] Sobres;
+            int i;
+
+            Handler = MsgHandler;
+            if (BTBatchMessageHandler.class.isInstance(Handler)) {
+                Sobres = Arrays.copyOf(batch, count);
+                for (i = 0; i < count; i++) {
+                    batch[i] = unwrap(Sobres[i]);
+                }
+                try {
+                    ((BTBatchMessageHandler) Handler).handleMessages(batch, count);
+                } finally {
+                    for (i = 0; i < count; i++) {
+                        release(Sobres[i]);
+                    }
+                }
+            } else {
+                for (i = 0; i < count; i++) {
+                    try {
+                        this.handleMessage(batch[i]);
+                    } catch (RuntimeException ex) {
+                        // El mensaje ya fue liberado, se continua con el resto del lote
+                        BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, "Message handling failed at BTHandlerGroup", BTHandlerGroup.CLASSID, "004");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Clase privada que recibe los mensajes descartados de la cola de cada
+     * shard sin procesar y libera los pendientes de la ranura.
+     */
+    private final class DiscardMessageHandler implements BTMessageHandler {
+
+        @Override
+        public void handleMessage(BTMessage msg) {
+
+            release(msg);
+        }
+    }
+
+    /**
+     * Retorna el mensaje original contenido en el sobre "msg" o el mismo
+     * mensaje si no es un sobre
+     *
+     * @param msg Sobre recibido por el shard
+     * @return Mensaje original
+     */
+    private static BTMessage unwrap(BTMessage msg) {
+
+        return (msg.Enveloped != null ? msg.Enveloped : msg);
+    }
+
+    /**
+     * Libera el mensaje pendiente de la ranura por la que fue enrutado y, si
+     * era el ultimo de una ranura en migracion, entrega los mensajes
+     * retenidos al shard destino.
+     *
+     * @param msg Sobre procesado o descartado
+     */
+    private void release(BTMessage msg) {
+
+        if ((msg.GroupSlot >= 0) && (msg.GroupSlot < this.Slots.length)) {
+            if (this.Slots[msg.GroupSlot].Pending.decrementAndGet() == 0) {
+                this.handOff(msg.GroupSlot, false);
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.bolivartech.utils.handler;
 
+import com.bolivartech.utils.data.containers.BTDLList;
 import com.bolivartech.utils.data.containers.BTRBTree;
 import com.bolivartech.utils.kerneltasks.BTTask;
 import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * <p>
@@ -25,8 +30,8 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
  * hebras.</p>
  *
  * @author Julian Bolivar
- * @since 2014 - October 14, 2015.
- * @version 1.7.2
+ * @since 2014 - October 19, 2026.
+ * @version 1.8.2
  *
  * <p>
  * Change Logs:</p>
@@ -46,6 +51,19 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
  * en el handler.</li>
  * <li>v1.7.2 (2015-10-14): Se sustituyo el tipo HashMap de Java por el BTRBTree
  * como contenedor de los datos del mensaje.</li>
+ * <li>v1.7.3 (2026-10-19): Se agrego el instante de encolado usado por el
+ * envejecimiento de la cola de multiples niveles del handler.</li>
+ * <li>v1.7.4 (2026-10-19): Se agrego la ranura de enrutamiento usada por el
+ * BTHandlerGroup.</li>
+ * <li>v1.8.0 (2026-10-19): Se agrego la serializacion binaria del mensaje
+ * usada por el BTRemoteHandler, los apuntadores a objetos, el BTTask y el
+ * BTHandler de respuesta son locales al proceso y no se serializan.</li>
+ * <li>v1.8.1 (2026-10-19): El instante de encolado se movio al nodo de la
+ * cola y la ranura del BTHandlerGroup a un sobre por envio, por lo que el
+ * mensaje compartido por varios handlers ya no es modificado al encolarse.</li>
+ * <li>v1.8.2 (2026-10-19): La lectura binaria valida las longitudes y los
+ * numeros de entradas contra los bytes restantes de la trama antes de
+ * reservar memoria.</li>
  *
  */
 public final class BTMessage implements Comparable {
@@ -107,12 +125,18 @@ public final class BTMessage implements Comparable {
     private BTRBTree<String, byte[]> BinaryData = null;
     private BTRBTree<String, Object> ObjectPointer = null;
     protected BTTask Ejecutable = null;
+    // Mensaje original si este es un sobre de enrutamiento del BTHandlerGroup
+    final BTMessage Enveloped;
+    // Ranura de enrutamiento del BTHandlerGroup o -1 si no es un sobre
+    final int GroupSlot;
 
     /**
      * Constructor port defecto
      */
     public BTMessage() {
         super();
+        this.Enveloped = null;
+        this.GroupSlot = -1;
         MersenneTwisterPlus Random = new MersenneTwisterPlus();
         this.MessageID = Random.nextLong63();
         this.Encryption = NOENCRYPTION;
@@ -140,6 +164,8 @@ public final class BTMessage implements Comparable {
      */
     public BTMessage(BTMessage Other) {
         super();
+        this.Enveloped = null;
+        this.GroupSlot = -1;
         this.MessageID = Other.MessageID;
         this.Encryption = Other.Encryption;
         this.Target = Other.Target;
@@ -167,6 +193,8 @@ public final class BTMessage implements Comparable {
      */
     public BTMessage(BTHandler replyTo) {
         super();
+        this.Enveloped = null;
+        this.GroupSlot = -1;
         MersenneTwisterPlus Random = new MersenneTwisterPlus();
         this.MessageID = Random.nextLong63();
         this.Encryption = NOENCRYPTION;
@@ -196,6 +224,8 @@ public final class BTMessage implements Comparable {
      */
     public BTMessage(long target, long origen) {
         super();
+        this.Enveloped = null;
+        this.GroupSlot = -1;
         MersenneTwisterPlus Random = new MersenneTwisterPlus();
         this.MessageID = Random.nextLong63();
         this.Encryption = NOENCRYPTION;
@@ -226,6 +256,8 @@ public final class BTMessage implements Comparable {
      */
     public BTMessage(long target, long origen, BTHandler replyTo) {
         super();
+        this.Enveloped = null;
+        this.GroupSlot = -1;
         MersenneTwisterPlus Random = new MersenneTwisterPlus();
         this.MessageID = Random.nextLong63();
         this.Encryption = NOENCRYPTION;
@@ -246,6 +278,30 @@ public final class BTMessage implements Comparable {
         this.Priority = PRIORITY_NORMAL;
     }
 
+    /**
+     * Constructor del sobre con el que el BTHandlerGroup encola el mensaje
+     * "Original" en uno de sus shards. El sobre solo copia los datos usados
+     * por la cola y no contiene los datos del mensaje, por lo que el mismo
+     * mensaje puede ser enviado a varios handlers sin ser modificado.
+     *
+     * @param Original Mensaje enrutado
+     * @param GroupSlot Ranura de enrutamiento del grupo
+     */
+    BTMessage(BTMessage Original, int GroupSlot) {
+        super();
+        this.Enveloped = Original;
+        this.GroupSlot = GroupSlot;
+        this.MessageID = Original.MessageID;
+        this.Encryption = Original.Encryption;
+        this.Target = Original.Target;
+        this.Origen = Original.Origen;
+        this.replyTo = Original.replyTo;
+        this.Ejecutable = null;
+        this.TimeStamp = Original.TimeStamp;
+        this.NanoTimeStamp = Original.NanoTimeStamp;
+        this.Priority = Original.Priority;
+    }
+
     /**
      * Clear all the data saved in the message and set a new random MessageID
      */
@@ -690,4 +746,222 @@ public final class BTMessage implements Comparable {
         }
         return Result;
     }
+
+    /**
+     * Escribe el mensaje en formato binario en "out". Solo se escriben los
+     * identificadores, la prioridad, el TimeStamp y los datos String, Integer,
+     * Long, Double, Float, Boolean y Binary, los apuntadores a objetos, el
+     * BTTask y el BTHandler de respuesta son locales al proceso.
+     *
+     * @param out Flujo de salida
+     * @throws IOException Si ocurre un error de escritura
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        BTDLList<String> Llaves;
+        byte[] Dato;
+
+        out.writeLong(this.MessageID);
+        out.writeInt(this.Encryption);
+        out.writeLong(this.Target);
+        out.writeLong(this.Origen);
+        out.writeInt(this.Priority);
+        out.writeLong(this.TimeStamp);
+        Llaves = this.StringData.getKeys();
+        out.writeInt((int) Llaves.size());
+        for (String Key : Llaves) {
+            writeString(out, Key);
+            writeString(out, this.StringData.get(Key));
+        }
+        Llaves = this.IntegerData.getKeys();
+        out.writeInt((int) Llaves.size());
+        for (String Key : Llaves) {
+            writeString(out, Key);
+            out.writeInt(this.IntegerData.get(Key));
+        }
+        Llaves = this.LongData.getKeys();
+        out.writeInt((int) Llaves.size());
+        for (String Key : Llaves) {
+            writeString(out, Key);
+            out.writeLong(this.LongData.get(Key));
+        }
+        Llaves = this.DoubleData.getKeys();
+        out.writeInt((int) Llaves.size());
+        for (String Key : Llaves) {
+            writeString(out, Key);
+            out.writeDouble(this.DoubleData.get(Key));
+        }
+        Llaves = this.FloatData.getKeys();
+        out.writeInt((int) Llaves.size());
+        for (String Key : Llaves) {
+            writeString(out, Key);
+            out.writeFloat(this.FloatData.get(Key));
+        }
+        Llaves = this.BooleanData.getKeys();
+        out.writeInt((int) Llaves.size());
+        for (String Key : Llaves) {
+            writeString(out, Key);
+            out.writeBoolean(this.BooleanData.get(Key));
+        }
+        Llaves = this.BinaryData.getKeys();
+        out.writeInt((int) Llaves.size());
+        for (String Key : Llaves) {
+            writeString(out, Key);
+            Dato = this.BinaryData.get(Key);
+            if (Dato != null) {
+                out.writeInt(Dato.length);
+                out.write(Dato);
+            } else {
+                out.writeInt(-1);
+            }
+        }
+    }
+
+    /**
+     * Lee un mensaje en el formato binario escrito por writeTo
+     *
+     * NOTE: "in" debe reportar con available() los bytes restantes de la
+     * trama, como lo hace un ByteArrayInputStream, ya que las longitudes y los
+     * numeros de entradas recibidos se validan contra ese valor antes de
+     * reservar memoria.
+     *
+     * @param in Flujo de entrada
+     * @return Mensaje leido
+     * @throws IOException Si ocurre un error de lectura o el formato es invalido
+     */
+    static BTMessage readFrom(DataInputStream in) throws IOException {
+        BTMessage Result;
+        byte[] Dato;
+        String Key;
+        int i, n, Largo;
+
+        Result = new BTMessage();
+        Result.MessageID = in.readLong();
+        Result.Encryption = in.readInt();
+        Result.Target = in.readLong();
+        Result.Origen = in.readLong();
+        Result.Priority = in.readInt();
+        if ((Result.Priority < PRIORITY_LOW) || (Result.Priority > PRIORITY_HIGH)) {
+            throw new IOException("Invalid BTMessage Priority " + Result.Priority);
+        }
+        Result.TimeStamp = in.readLong();
+        n = readCount(in);
+        for (i = 0; i < n; i++) {
+            Key = readString(in);
+            Result.StringData.put(Key, readString(in));
+        }
+        n = readCount(in);
+        for (i = 0; i < n; i++) {
+            Key = readString(in);
+            Result.IntegerData.put(Key, in.readInt());
+        }
+        n = readCount(in);
+        for (i = 0; i < n; i++) {
+            Key = readString(in);
+            Result.LongData.put(Key, in.readLong());
+        }
+        n = readCount(in);
+        for (i = 0; i < n; i++) {
+            Key = readString(in);
+            Result.DoubleData.put(Key, in.readDouble());
+        }
+        n = readCount(in);
+        for (i = 0; i < n; i++) {
+            Key = readString(in);
+            Result.FloatData.put(Key, in.readFloat());
+        }
+        n = readCount(in);
+        for (i = 0; i < n; i++) {
+            Key = readString(in);
+            Result.BooleanData.put(Key, in.readBoolean());
+        }
+        n = readCount(in);
+        for (i = 0; i < n; i++) {
+            Key = readString(in);
+            Largo = readLength(in);
+            Dato = null;
+            if (Largo >= 0) {
+                Dato = new byte[Largo];
+                in.readFully(Dato);
+            }
+            Result.BinaryData.put(Key, Dato);
+        }
+        return Result;
+    }
+
+    /**
+     * Escribe un String en UTF-8 precedido de su longitud, -1 si es NULL
+     *
+     * @param out Flujo de salida
+     * @param Texto String a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    private static void writeString(DataOutputStream out, String Texto) throws IOException {
+        byte[] Bytes;
+
+        if (Texto != null) {
+            Bytes = Texto.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(Bytes.length);
+            out.write(Bytes);
+        } else {
+            out.writeInt(-1);
+        }
+    }
+
+    /**
+     * Lee un String escrito por writeString
+     *
+     * @param in Flujo de entrada
+     * @return String leido o NULL
+     * @throws IOException Si ocurre un error de lectura
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] Bytes;
+        String Result = null;
+        int Largo;
+
+        Largo = readLength(in);
+        if (Largo >= 0) {
+            Bytes = new byte[Largo];
+            in.readFully(Bytes);
+            Result = new String(Bytes, StandardCharsets.UTF_8);
+        }
+        return Result;
+    }
+
+    /**
+     * Lee el numero de entradas de un tipo de dato, el cual no puede ser
+     * negativo ni mayor a los bytes restantes de la trama
+     *
+     * @param in Flujo de entrada
+     * @return Numero de entradas
+     * @throws IOException Si ocurre un error de lectura o el numero es invalido
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int n;
+
+        n = in.readInt();
+        if ((n < 0) || (n > in.available())) {
+            throw new IOException("Invalid BTMessage Entry Count " + n);
+        }
+        return n;
+    }
+
+    /**
+     * Lee la longitud de un dato, la cual debe ser -1 para NULL o no mayor a
+     * los bytes restantes de la trama
+     *
+     * @param in Flujo de entrada
+     * @return Longitud del dato o -1 si es NULL
+     * @throws IOException Si ocurre un error de lectura o la longitud es
+     * invalida
+     */
+    private static int readLength(DataInputStream in) throws IOException {
+        int Largo;
+
+        Largo = in.readInt();
+        if ((Largo < -1) || (Largo > in.available())) {
+            throw new IOException("Invalid BTMessage Data Length " + Largo);
+        }
+        return Largo;
+    }
 }
@@ -0,0 +1,376 @@
+package com.bolivartech.utils.handler;
+
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement an in-process Message
+ * Bus that routes BTMessages by its Target ID or by topic.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa un bus de mensajes dentro del proceso. Los BTHandlers se
+ * registran bajo su HandlerID y se pueden suscribir a topicos. Los mensajes
+ * unicast se enrutan por su Target con costo O(1), y los mensajes BROADCAST o
+ * publicados en un topico se entregan a todos los suscriptores.</p>
+ *
+ * <p>
+ * El registro no usa locks en el envio: los handlers se guardan en mapas
+ * concurrentes y cada topico guarda un arreglo inmutable de suscriptores que
+ * se reemplaza completo al suscribir o desuscribir.</p>
+ *
+ * <p>
+ * En el fan-out cada suscriptor recibe su propia copia del mensaje, hecha
+ * con el constructor de copiado de BTMessage, por lo que un manejador puede
+ * modificar sus datos o responderlo sin afectar a los demas suscriptores. El
+ * ultimo suscriptor recibe la instancia original, como en el envio unicast.</p>
+ *
+ * <p>
+ * NOTA: La copia duplica los arboles de datos del mensaje pero no los
+ * arreglos binarios ni los objetos referenciados, los cuales siguen siendo
+ * compartidos entre los suscriptores.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHU"</li>
+ * <li>Loc: 000-001</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.1
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): En el fan-out cada suscriptor recibe una copia del
+ * mensaje en lugar de la misma instancia.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class BTMessageBus {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHU";
+
+    // Arreglo vacio de suscriptores
+    private static final BTHandler[] EMPTY = new BTHandler[0];
+
+    // Manejador de Bitacoras
+    private final LoggerFormatter BTLogF;
+
+    // Handlers registrados indexados por HandlerID
+    private final ConcurrentHashMap<Long, BTHandler> Handlers = new ConcurrentHashMap<Long, BTHandler>();
+    // Arreglo inmutable de todos los handlers registrados para los BROADCAST
+    private volatile BTHandler[] AllHandlers = EMPTY;
+    // Suscriptores por topico, cada arreglo es inmutable
+    private final ConcurrentHashMap<String, BTHandler[]> Topics = new ConcurrentHashMap<String, BTHandler[]>();
+
+    // Contador de mensajes entregados
+    private final AtomicLong Delivered = new AtomicLong(0);
+    // Contador de mensajes no entregados
+    private final AtomicLong Undelivered = new AtomicLong(0);
+
+    /**
+     * Constructor con inicializacion de la bitacora
+     *
+     * @param vLog Apuntador a la Bitacora
+     */
+    public BTMessageBus(LoggerManager vLog) {
+
+        this.BTLogF = LoggerFormatter.getInstance(vLog);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Registra el handler en el bus bajo su HandlerID, retornando TRUE si lo
+     * registro o FALSE si ya estaba registrado.
+     *
+     * @param Handler Handler a registrar
+     * @return TRUE si lo registro o FALSE si no
+     */
+    public boolean register(BTHandler Handler) {
+        boolean Result = false;
+
+        if (Handler != null) {
+            if (this.Handlers.putIfAbsent(Long.valueOf(Handler.getHandlerID()), Handler) == null) {
+                this.rebuildAllHandlers();
+                Result = true;
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Elimina el registro del handler en el bus y lo desuscribe de todos los
+     * topicos, retornando TRUE si estaba registrado o FALSE si no.
+     *
+     * @param Handler Handler a eliminar
+     * @return TRUE si estaba registrado o FALSE si no
+     */
+    public boolean unregister(BTHandler Handler) {
+        boolean Result = false;
+
+        if (Handler != null) {
+            if (this.Handlers.remove(Long.valueOf(Handler.getHandlerID()), Handler)) {
+                this.rebuildAllHandlers();
+                Result = true;
+            }
+            for (String Topic : this.Topics.keySet()) {
+                this.unsubscribe(Topic, Handler);
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Suscribe el handler al topico "Topic", retornando TRUE si lo suscribio o
+     * FALSE si ya estaba suscrito.
+     *
+     * @param Topic Topico
+     * @param Handler Handler a suscribir
+     * @return TRUE si lo suscribio o FALSE si no
+     */
+    public boolean subscribe(String Topic, BTHandler Handler) {
+        BTHandler[] Actual, Nuevo;
+        boolean Agregado;
+
+        if ((Topic == null) || (Handler == null)) {
+            return false;
+        }
+        do {
+            Actual = this.Topics.get(Topic);
+            if (Actual == null) {
+                Nuevo = new BTHandler[]{Handler};
+                Agregado = (this.Topics.putIfAbsent(Topic, Nuevo) == null);
+            } else {
+                if (indexOf(Actual, Handler) >= 0) {
+                    return false;
+                }
+                Nuevo = new BTHandler[Actual.length + 1];
+                System.arraycopy(Actual, 0, Nuevo, 0, Actual.length);
+                Nuevo[Actual.length] = Handler;
+                Agregado = this.Topics.replace(Topic, Actual, Nuevo);
+            }
+        } while (!Agregado);
+        return true;
+    }
+
+    /**
+     * Desuscribe el handler del topico "Topic", retornando TRUE si estaba
+     * suscrito o FALSE si no.
+     *
+     * @param Topic Topico
+     * @param Handler Handler a desuscribir
+     * @return TRUE si estaba suscrito o FALSE si no
+     */
+    public boolean unsubscribe(String Topic, BTHandler Handler) {
+        BTHandler[] Actual, Nuevo;
+        boolean Eliminado;
+        int Pos;
+
+        if ((Topic == null) || (Handler == null)) {
+            return false;
+        }
+        do {
+            Actual = this.Topics.get(Topic);
+            if (Actual == null) {
+                return false;
+            }
+            Pos = indexOf(Actual, Handler);
+            if (Pos < 0) {
+                return false;
+            }
+            if (Actual.length == 1) {
+                Eliminado = this.Topics.remove(Topic, Actual);
+            } else {
+                Nuevo = new BTHandler[Actual.length - 1];
+                System.arraycopy(Actual, 0, Nuevo, 0, Pos);
+                System.arraycopy(Actual, Pos + 1, Nuevo, Pos, Actual.length - Pos - 1);
+                Eliminado = this.Topics.replace(Topic, Actual, Nuevo);
+            }
+        } while (!Eliminado);
+        return true;
+    }
+
+    /**
+     * Enruta el mensaje por su Target, si el Target es BROADCAST se entrega a
+     * todos los handlers registrados. Retorna el numero de handlers que
+     * aceptaron el mensaje.
+     *
+     * @param msg Mensaje a enviar
+     * @return Numero de handlers que aceptaron el mensaje
+     */
+    public int send(BTMessage msg) {
+        BTHandler Handler;
+        int Result = 0;
+
+        if (msg != null) {
+            if (msg.getTarget() == BTMessage.BROADCAST) {
+                Result = this.fanOut(this.AllHandlers, msg);
+            } else {
+                Handler = this.Handlers.get(Long.valueOf(msg.getTarget()));
+                if ((Handler != null) && Handler.sendMessage(msg)) {
+                    this.Delivered.incrementAndGet();
+                    Result = 1;
+                } else {
+                    this.Undelivered.incrementAndGet();
+                    if (Handler == null) {
+                        this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_DEBUG, false, null, "Target " + Long.toHexString(msg.getTarget()) + " is NOT Registered", BTMessageBus.CLASSID, "000");
+                    }
+                }
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Publica el mensaje en el topico "Topic" entregandolo a todos sus
+     * suscriptores. Retorna el numero de handlers que aceptaron el mensaje.
+     *
+     * @param Topic Topico
+     * @param msg Mensaje a publicar
+     * @return Numero de handlers que aceptaron el mensaje
+     */
+    public int publish(String Topic, BTMessage msg) {
+        BTHandler[] Suscriptores;
+        int Result = 0;
+
+        if ((Topic != null) && (msg != null)) {
+            Suscriptores = this.Topics.get(Topic);
+            if (Suscriptores != null) {
+                Result = this.fanOut(Suscriptores, msg);
+            } else {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_DEBUG, false, null, "Topic " + Topic + " has NOT Subscribers", BTMessageBus.CLASSID, "001");
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna el handler registrado con el ID "HandlerID" o NULL si no existe
+     *
+     * @param HandlerID ID del handler
+     * @return Handler registrado o NULL
+     */
+    public BTHandler getHandler(long HandlerID) {
+
+        return this.Handlers.get(Long.valueOf(HandlerID));
+    }
+
+    /**
+     * Retorna el numero de handlers registrados
+     *
+     * @return Numero de handlers registrados
+     */
+    public int getHandlerCount() {
+
+        return this.Handlers.size();
+    }
+
+    /**
+     * Retorna el numero de suscriptores del topico "Topic"
+     *
+     * @param Topic Topico
+     * @return Numero de suscriptores
+     */
+    public int getSubscriberCount(String Topic) {
+        BTHandler[] Suscriptores;
+
+        Suscriptores = (Topic != null ? this.Topics.get(Topic) : null);
+        return (Suscriptores != null ? Suscriptores.length : 0);
+    }
+
+    /**
+     * Retorna el numero de entregas realizadas por el bus
+     *
+     * @return Numero de entregas
+     */
+    public long getDeliveredCount() {
+
+        return this.Delivered.get();
+    }
+
+    /**
+     * Retorna el numero de entregas que no pudieron ser realizadas
+     *
+     * @return Numero de entregas fallidas
+     */
+    public long getUndeliveredCount() {
+
+        return this.Undelivered.get();
+    }
+
+    /**
+     * Entrega una copia del mensaje a cada uno de los handlers, el ultimo
+     * handler recibe el mensaje original.
+     *
+     * @param Destinos Handlers destino
+     * @param msg Mensaje a entregar
+     * @return Numero de handlers que aceptaron el mensaje
+     */
+    private int fanOut(BTHandler[] Destinos, BTMessage msg) {
+        int Entregados = 0;
+        int i;
+
+        for (i = 0; i < Destinos.length; i++) {
+            if (Destinos[i].sendMessage(i < (Destinos.length - 1) ? new BTMessage(msg) : msg)) {
+                Entregados++;
+            }
+        }
+        this.Delivered.addAndGet(Entregados);
+        this.Undelivered.addAndGet(Destinos.length - Entregados);
+        return Entregados;
+    }
+
+    /**
+     * Reconstruye el arreglo inmutable de todos los handlers registrados
+     */
+    private synchronized void rebuildAllHandlers() {
+
+        this.AllHandlers = this.Handlers.values().toArray(EMPTY);
+    }
+
+    /**
+     * Retorna la posicion del handler en el arreglo o -1 si no esta
+     *
+     * @param Arreglo Arreglo de handlers
+     * @param Handler Handler a buscar
+     * @return Posicion del handler o -1
+     */
+    private static int indexOf(BTHandler[] Arreglo, BTHandler Handler) {
+        int i;
+
+        for (i = 0; i < Arreglo.length; i++) {
+            if (Arreglo[i] == Handler) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
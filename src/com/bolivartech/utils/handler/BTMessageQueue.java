@@ -0,0 +1,386 @@
+package com.bolivartech.utils.handler;
+
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement a bounded multi-level
+ * priority queue of BTMessages.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa una cola de mensajes acotada de multiples niveles, con una cola
+ * FIFO sin bloqueo por cada nivel de prioridad de BTMessage (1 a 20), por lo
+ * que agregar y extraer un mensaje tiene un costo constante y se mantiene el
+ * orden FIFO entre los mensajes de igual prioridad.</p>
+ *
+ * <p>
+ * Opcionalmente se puede establecer un tiempo de envejecimiento, los mensajes
+ * que superen ese tiempo en la cola son extraidos antes que los de mayor
+ * prioridad para evitar que los mensajes de baja prioridad nunca se
+ * procesen.</p>
+ *
+ * <p>
+ * El instante de encolado se guarda en un nodo propio de la cola y no en el
+ * mensaje, por lo que la misma instancia de un mensaje puede estar en las
+ * colas de varios handlers a la vez.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHS"</li>
+ * <li>Loc: none</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.2
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): El instante de encolado se guarda en el nodo de la
+ * cola en lugar de escribirse en el mensaje compartido.</li>
+ * <li>v1.0.2 (2026-10-19): La capacidad de la cola se puede cambiar despues
+ * de creada.</li>
+ * </ul>
+ */
+@ThreadSafe
+public final class BTMessageQueue {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHS";
+
+    // Niveles de prioridad de la cola
+    private static final int MINLEVEL = BTMessage.PRIORITY_LOW;
+    private static final int MAXLEVEL = BTMessage.PRIORITY_HIGH;
+
+    // Colas FIFO por nivel de prioridad
+    private final ConcurrentLinkedQueue<Node>[] Levels;
+    // Numero de mensajes en la cola
+    private final AtomicInteger Count = new AtomicInteger(0);
+    // Capacidad maxima de la cola
+    private volatile int Capacity;
+    // Tiempo de envejecimiento en nanosegundos, 0 si esta deshabilitado
+    private volatile long AgingNanos = 0;
+
+    // Lock y condicion para notificar a los consumidores que hay mensajes en la cola
+    private final ReentrantLock emptyLock = new ReentrantLock();
+    private final Condition notEmpty = emptyLock.newCondition();
+    // Numero de consumidores esperando mensajes
+    private final AtomicInteger WaitingConsumers = new AtomicInteger(0);
+
+    /**
+     * Clase privada que define el nodo de la cola con el mensaje y el
+     * instante en nanosegundos en que fue agregado a la cola
+     */
+    private static final class Node {
+
+        private final BTMessage Mensaje;
+        private final long QueuedAt;
+
+        private Node(BTMessage Mensaje, long QueuedAt) {
+            this.Mensaje = Mensaje;
+            this.QueuedAt = QueuedAt;
+        }
+    }
+
+    /**
+     * Constructor con inicializacion de la capacidad maxima de la cola
+     *
+     * @param Capacity Capacidad maxima de la cola
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BTMessageQueue(int Capacity) {
+        int i;
+
+        this.Capacity = (Capacity > 0 ? Capacity : 1);
+        this.Levels = new ConcurrentLinkedQueue[MAXLEVEL + 1];
+        for (i = MINLEVEL; i <= MAXLEVEL; i++) {
+            this.Levels[i] = new ConcurrentLinkedQueue<Node>();
+        }
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Establece el tiempo de envejecimiento en milisegundos, los mensajes que
+     * lleven en la cola mas de este tiempo se extraen antes que los de mayor
+     * prioridad. Un valor menor o igual a 0 deshabilita el envejecimiento.
+     *
+     * @param AgingMillis Tiempo de envejecimiento en milisegundos
+     */
+    public void setAging(long AgingMillis) {
+
+        this.AgingNanos = (AgingMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(AgingMillis) : 0);
+    }
+
+    /**
+     * Retorna el tiempo de envejecimiento en milisegundos o 0 si esta
+     * deshabilitado.
+     *
+     * @return Tiempo de envejecimiento en milisegundos
+     */
+    public long getAging() {
+
+        return TimeUnit.NANOSECONDS.toMillis(this.AgingNanos);
+    }
+
+    /**
+     * Establece la capacidad maxima de la cola, los mensajes que ya estan en
+     * la cola se conservan aunque excedan la nueva capacidad.
+     *
+     * @param Capacity Capacidad maxima de la cola
+     */
+    public void setCapacity(int Capacity) {
+
+        this.Capacity = (Capacity > 0 ? Capacity : 1);
+    }
+
+    /**
+     * Retorna la capacidad maxima de la cola
+     *
+     * @return Capacidad maxima de la cola
+     */
+    public int getCapacity() {
+
+        return this.Capacity;
+    }
+
+    /**
+     * Retorna el numero (aproximado) de mensajes en la cola
+     *
+     * @return Numero de mensajes en la cola
+     */
+    public int size() {
+
+        return this.Count.get();
+    }
+
+    /**
+     * Retorna TRUE si la cola esta vacia o FALSE si no
+     *
+     * @return TRUE si la cola esta vacia o FALSE si no
+     */
+    public boolean isEmpty() {
+
+        return (this.Count.get() <= 0);
+    }
+
+    /**
+     * Agrega el mensaje al final de la cola de su nivel de prioridad,
+     * retornando TRUE si lo logro agregar o FALSE si la cola esta llena.
+     *
+     * @param msg Mensaje a agregar
+     * @return TRUE si lo logro agregar o FALSE si la cola esta llena
+     */
+    public boolean offer(BTMessage msg) {
+        int Actual;
+
+        if (msg == null) {
+            throw new NullPointerException("BTMessage is NULL");
+        }
+        // Reserva el espacio en la cola
+        do {
+            Actual = this.Count.get();
+            if (Actual >= this.Capacity) {
+                return false;
+            }
+        } while (!this.Count.compareAndSet(Actual, Actual + 1));
+        this.Levels[msg.getPriority()].offer(new Node(msg, System.nanoTime()));
+        if (this.WaitingConsumers.get() > 0) {
+            this.emptyLock.lock();
+            try {
+                this.notEmpty.signal();
+            } finally {
+                this.emptyLock.unlock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extrae el mensaje de mayor prioridad de la cola, o el mensaje envejecido
+     * mas antiguo si el envejecimiento esta habilitado, retornando NULL si la
+     * cola esta vacia.
+     *
+     * @return Mensaje extraido o NULL si la cola esta vacia
+     */
+    public BTMessage poll() {
+        Node Result = null;
+        Node Head;
+        long Aging, Limite, Oldest;
+        int Nivel, Envejecido;
+
+        if (this.Count.get() > 0) {
+            Aging = this.AgingNanos;
+            if (Aging > 0) {
+                // Busca el mensaje envejecido que mas tiempo lleve en la cola
+                Envejecido = 0;
+                Limite = System.nanoTime() - Aging;
+                Oldest = Limite;
+                for (Nivel = MINLEVEL; Nivel <= MAXLEVEL; Nivel++) {
+                    Head = this.Levels[Nivel].peek();
+                    if ((Head != null) && ((Head.QueuedAt - Oldest) < 0)) {
+                        Oldest = Head.QueuedAt;
+                        Envejecido = Nivel;
+                    }
+                }
+                if (Envejecido > 0) {
+                    Result = this.Levels[Envejecido].poll();
+                }
+            }
+            for (Nivel = MAXLEVEL; (Result == null) && (Nivel >= MINLEVEL); Nivel--) {
+                Result = this.Levels[Nivel].poll();
+            }
+            if (Result != null) {
+                this.Count.decrementAndGet();
+            }
+        }
+        return (Result != null ? Result.Mensaje : null);
+    }
+
+    /**
+     * Extrae el siguiente mensaje de la cola esperando hasta "timeout" a que
+     * llegue un mensaje si la cola esta vacia.
+     *
+     * @param timeout Tiempo maximo de espera
+     * @param unit Unidad del tiempo de espera
+     * @return Mensaje extraido o NULL si se agoto el tiempo de espera
+     * @throws InterruptedException Si la hebra fue interrumpida
+     */
+    public BTMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        BTMessage Result;
+        long Nanos;
+
+        Result = this.poll();
+        if (Result == null) {
+            Nanos = unit.toNanos(timeout);
+            this.emptyLock.lockInterruptibly();
+            try {
+                this.WaitingConsumers.incrementAndGet();
+                try {
+                    Result = this.poll();
+                    while ((Result == null) && (Nanos > 0)) {
+                        Nanos = this.notEmpty.awaitNanos(Nanos);
+                        Result = this.poll();
+                    }
+                } finally {
+                    this.WaitingConsumers.decrementAndGet();
+                }
+            } finally {
+                this.emptyLock.unlock();
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Extrae hasta "maxElements" mensajes de la cola y los agrega a la
+     * coleccion "c" en el orden en que serian extraidos por poll().
+     *
+     * @param c Coleccion donde agregar los mensajes
+     * @param maxElements Numero maximo de mensajes a extraer
+     * @return Numero de mensajes extraidos
+     */
+    public int drainTo(Collection<? super BTMessage> c, int maxElements) {
+        BTMessage Mensaje;
+        int n = 0;
+
+        while (n < maxElements) {
+            Mensaje = this.poll();
+            if (Mensaje == null) {
+                break;
+            }
+            c.add(Mensaje);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Extrae el mensaje que mas tiempo lleva en la cola sin importar su
+     * prioridad, retornando NULL si la cola esta vacia.
+     *
+     * @return Mensaje mas antiguo de la cola o NULL si esta vacia
+     */
+    public BTMessage pollOldest() {
+        Node Result = null;
+        Node Head, Oldest = null;
+        int Nivel, Seleccionado = 0;
+
+        for (Nivel = MINLEVEL; Nivel <= MAXLEVEL; Nivel++) {
+            Head = this.Levels[Nivel].peek();
+            if ((Head != null) && ((Oldest == null) || ((Head.QueuedAt - Oldest.QueuedAt) < 0))) {
+                Oldest = Head;
+                Seleccionado = Nivel;
+            }
+        }
+        if (Seleccionado > 0) {
+            Result = this.Levels[Seleccionado].poll();
+            if (Result != null) {
+                this.Count.decrementAndGet();
+            }
+        }
+        return (Result != null ? Result.Mensaje : null);
+    }
+
+    /**
+     * Extrae el mensaje mas antiguo del nivel de menor prioridad que sea
+     * estrictamente menor a "Priority", retornando NULL si no existe ningun
+     * mensaje con prioridad menor.
+     *
+     * @param Priority Prioridad de referencia
+     * @return Mensaje de menor prioridad o NULL si no existe
+     */
+    public BTMessage pollLowest(int Priority) {
+        Node Result = null;
+        int Nivel;
+
+        for (Nivel = MINLEVEL; (Result == null) && (Nivel < Priority) && (Nivel <= MAXLEVEL); Nivel++) {
+            Result = this.Levels[Nivel].poll();
+        }
+        if (Result != null) {
+            this.Count.decrementAndGet();
+        }
+        return (Result != null ? Result.Mensaje : null);
+    }
+
+    /**
+     * Elimina todos los mensajes de la cola
+     */
+    public void clear() {
+        int Nivel;
+
+        for (Nivel = MINLEVEL; Nivel <= MAXLEVEL; Nivel++) {
+            while (this.Levels[Nivel].poll() != null) {
+                this.Count.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,705 @@
+package com.bolivartech.utils.handler;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement a proxy of a BTHandler
+ * running in other process, the messages are sent over TCP/IP to a
+ * BTRemoteHandlerServer.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa un proxy de un BTHandler remoto. Los mensajes enviados con
+ * sendMessage se encolan localmente y una hebra de envio los serializa y los
+ * agrupa en tramas de hasta BatchSize mensajes y MAXFRAMESIZE bytes, escribiendo
+ * cada trama con una sola llamada al socket. Un mensaje que por si solo excede
+ * MAXFRAMESIZE bytes es descartado y contado como rechazado, ya que el
+ * servidor cerraria la conexion al recibirlo.</p>
+ *
+ * <p>
+ * El control de flujo es por creditos: el BTRemoteHandlerServer otorga un
+ * credito por cada mensaje que puede recibir y el proxy nunca envia mas
+ * mensajes que los creditos disponibles. Si la conexion se pierde, el proxy se
+ * reconecta automaticamente con un tiempo de espera exponencial y reenvia los
+ * mensajes cuya trama no se termino de escribir.</p>
+ *
+ * <p>
+ * Cada proxy abre una sesion con un identificador aleatorio y numera sus
+ * mensajes en orden; la trama lleva el numero de secuencia de su primer
+ * mensaje y el servidor descarta los mensajes de la sesion que ya entrego, por
+ * lo que una trama que llego al servidor pero se reenvia tras la reconexion no
+ * se entrega dos veces. La entrega es "exactamente una vez" mientras el
+ * BTRemoteHandlerServer conserve la sesion; si el servidor se reinicia o la
+ * sesion expira, la trama reenviada se entrega de nuevo ("al menos una vez"),
+ * y los mensajes en la cola local se pierden si el proceso del proxy
+ * termina.</p>
+ *
+ * <p>
+ * NOTA: Solo se transmiten los datos String, Integer, Long, Double, Float,
+ * Boolean y Binary del mensaje, los apuntadores a objetos, el BTTask y el
+ * BTHandler de respuesta son locales al proceso y se descartan.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHV"</li>
+ * <li>Loc: 000-006</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.2
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): Las tramas se limitan tambien por su tamano en
+ * bytes a MAXFRAMESIZE y los mensajes que lo exceden se descartan, en lugar
+ * de reenviar la misma trama rechazada por el servidor en cada
+ * reconexion.</li>
+ * <li>v1.0.2 (2026-10-19): Los mensajes se numeran por sesion y el servidor
+ * descarta los duplicados de las tramas reenviadas al reconectar.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class BTRemoteHandler implements Runnable {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHV";
+
+    /**
+     * Identificador del protocolo enviado al establecer la conexion
+     */
+    static final int PROTOCOL = 0x42544D32; // "BTM2"
+    /**
+     * Longitud de la cabecera de la trama (longitud + numero de mensajes +
+     * secuencia del primer mensaje)
+     */
+    static final int FRAMEHEADER = 16;
+    /**
+     * Tamano maximo en bytes de los datos de una trama aceptado por el
+     * BTRemoteHandlerServer
+     */
+    static final int MAXFRAMESIZE = 64 * 1024 * 1024;
+
+    private static final int QUEUESIZE = 8192;       // Numero de Mensajes
+    private static final int DEFBATCHSIZE = 256;     // Numero de Mensajes por trama
+    private static final int MAXBATCHSIZE = 4096;    // Numero maximo de Mensajes por trama
+    private static final long QUEUEREADTIMEOUT = 100;  // Milisegundos
+    private static final long CONNECTTIMEOUT = 5000;   // Milisegundos
+    private static final long MINRECONNECTDELAY = 100;    // Milisegundos
+    private static final long MAXRECONNECTDELAY = 10000;  // Milisegundos
+
+    // Manejador de Bitacoras
+    private final LoggerFormatter BTLogF;
+
+    // Direccion del BTRemoteHandlerServer
+    private final String Host;
+    private final int Port;
+    // Identificador de la sesion con el servidor
+    private final long SessionID;
+
+    // Cola local de mensajes por enviar
+    private final BTMessageQueue queue;
+    // Mensajes extraidos de la cola que aun no han sido escritos en el socket
+    private final ArrayDeque<BTMessage> Outbox = new ArrayDeque<BTMessage>();
+    // Numero de secuencia del primer mensaje del Outbox
+    @GuardedBy("Outbox")
+    private long NextSequence = 1;
+    // Buffer de serializacion de la trama
+    private final FrameBuffer Frame = new FrameBuffer();
+    private final DataOutputStream FrameOut = new DataOutputStream(Frame);
+
+    // Numero maximo de mensajes por trama
+    private volatile int BatchSize = DEFBATCHSIZE;
+    // Bandera de ejecucion de la hebra de envio
+    private volatile boolean Running = false;
+    // Hebra de envio
+    private Thread Ejecutor = null;
+    // Conexion actual con el servidor
+    private volatile Connection Actual = null;
+
+    // Contadores
+    private final AtomicLong SentMessages = new AtomicLong(0);
+    private final AtomicLong SentFrames = new AtomicLong(0);
+    private final AtomicLong Reconnects = new AtomicLong(0);
+    private final AtomicLong Rejected = new AtomicLong(0);
+
+    /**
+     * Constructor con inicializacion de la direccion del BTRemoteHandlerServer
+     * y de la bitacora
+     *
+     * @param Host Direccion del servidor
+     * @param Port Puerto del servidor
+     * @param vLog Apuntador a la Bitacora
+     */
+    public BTRemoteHandler(String Host, int Port, LoggerManager vLog) {
+        this(Host, Port, QUEUESIZE, vLog);
+    }
+
+    /**
+     * Constructor con inicializacion de la direccion del BTRemoteHandlerServer,
+     * la capacidad de la cola local y la bitacora
+     *
+     * @param Host Direccion del servidor
+     * @param Port Puerto del servidor
+     * @param Size Capacidad de la cola local de mensajes
+     * @param vLog Apuntador a la Bitacora
+     */
+    public BTRemoteHandler(String Host, int Port, int Size, LoggerManager vLog) {
+
+        this.BTLogF = LoggerFormatter.getInstance(vLog);
+        this.Host = Host;
+        this.Port = Port;
+        this.SessionID = new MersenneTwisterPlus().nextLong63();
+        this.queue = new BTMessageQueue(Size > 0 ? Size : QUEUESIZE);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Establece el numero maximo de mensajes por trama
+     *
+     * @param Size Numero maximo de mensajes por trama
+     */
+    public void setBatchSize(int Size) {
+
+        if (Size < 1) {
+            Size = 1;
+        } else if (Size > MAXBATCHSIZE) {
+            Size = MAXBATCHSIZE;
+        }
+        this.BatchSize = Size;
+    }
+
+    /**
+     * Retorna el numero maximo de mensajes por trama
+     *
+     * @return Numero maximo de mensajes por trama
+     */
+    public int getBatchSize() {
+
+        return this.BatchSize;
+    }
+
+    /**
+     * Inicia la hebra de envio, la cual establece y mantiene la conexion con el
+     * servidor.
+     */
+    public synchronized void Start() {
+
+        if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
+            this.Running = true;
+            this.Ejecutor = new Thread(this);
+            this.Ejecutor.setName(CLASSID + "[" + this.Host + ":" + Integer.toString(this.Port) + "]");
+            this.Ejecutor.setDaemon(true);
+            this.Ejecutor.start();
+        }
+    }
+
+    /**
+     * Detiene la hebra de envio esperando hasta "TimeoutMillis" a que se
+     * envien los mensajes pendientes y cierra la conexion.
+     *
+     * @param TimeoutMillis Tiempo maximo de espera por los mensajes pendientes
+     */
+    public void Stop(long TimeoutMillis) {
+        Thread t;
+        long Limite;
+
+        Limite = System.currentTimeMillis() + TimeoutMillis;
+        while ((this.getPendingCount() > 0) && (System.currentTimeMillis() < Limite)) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        synchronized (this) {
+            this.Running = false;
+            t = this.Ejecutor;
+            this.Ejecutor = null;
+        }
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join(CONNECTTIMEOUT);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.disconnect(this.Actual);
+    }
+
+    /**
+     * Encola el mensaje para ser enviado al handler remoto, retornando TRUE si
+     * lo logro encolar o FALSE si la cola local esta llena.
+     *
+     * @param msg Mensaje a enviar
+     * @return TRUE si lo logro encolar o FALSE si no
+     */
+    public boolean sendMessage(BTMessage msg) {
+        boolean Result = false;
+
+        if (msg != null) {
+            Result = this.queue.offer(msg);
+            if (!Result) {
+                this.Rejected.incrementAndGet();
+            } else if (!this.Running) {
+                this.Start();
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna TRUE si existe una conexion activa con el servidor
+     *
+     * @return TRUE si esta conectado o FALSE si no
+     */
+    public boolean isConnected() {
+        Connection c;
+
+        c = this.Actual;
+        return ((c != null) && c.Alive);
+    }
+
+    /**
+     * Retorna el numero de mensajes que aun no han sido enviados
+     *
+     * @return Numero de mensajes pendientes
+     */
+    public int getPendingCount() {
+        int Result;
+
+        synchronized (this.Outbox) {
+            Result = this.Outbox.size();
+        }
+        return Result + this.queue.size();
+    }
+
+    /**
+     * Retorna el numero de mensajes enviados
+     *
+     * @return Numero de mensajes enviados
+     */
+    public long getSentCount() {
+
+        return this.SentMessages.get();
+    }
+
+    /**
+     * Retorna el numero de tramas enviadas
+     *
+     * @return Numero de tramas enviadas
+     */
+    public long getFrameCount() {
+
+        return this.SentFrames.get();
+    }
+
+    /**
+     * Retorna el numero de reconexiones realizadas
+     *
+     * @return Numero de reconexiones
+     */
+    public long getReconnectCount() {
+
+        return this.Reconnects.get();
+    }
+
+    /**
+     * Retorna el numero de mensajes rechazados por estar la cola local llena o
+     * por exceder el tamano maximo de la trama
+     *
+     * @return Numero de mensajes rechazados
+     */
+    public long getRejectedCount() {
+
+        return this.Rejected.get();
+    }
+
+    /**
+     * Hebra de envio de los mensajes
+     */
+    @Override
+    public void run() {
+        Connection c;
+        BTMessage msg;
+        long Espera = MINRECONNECTDELAY;
+        boolean Conectado = false;
+        int Creditos, n;
+
+        while (this.Running) {
+            try {
+                c = this.Actual;
+                if ((c == null) || !c.Alive) {
+                    c = this.connect();
+                    if (c == null) {
+                        Thread.sleep(Espera);
+                        Espera = Math.min(Espera * 2, MAXRECONNECTDELAY);
+                        continue;
+                    }
+                    if (Conectado) {
+                        this.Reconnects.incrementAndGet();
+                    }
+                    Espera = MINRECONNECTDELAY;
+                    Conectado = true;
+                }
+                // Completa el lote con los mensajes de la cola local
+                synchronized (this.Outbox) {
+                    n = this.Outbox.size();
+                }
+                if (n == 0) {
+                    msg = this.queue.poll(QUEUEREADTIMEOUT, TimeUnit.MILLISECONDS);
+                    if (msg == null) {
+                        continue;
+                    }
+                    synchronized (this.Outbox) {
+                        this.Outbox.addLast(msg);
+                        n = 1;
+                    }
+                }
+                synchronized (this.Outbox) {
+                    while ((n < this.BatchSize) && ((msg = this.queue.poll()) != null)) {
+                        this.Outbox.addLast(msg);
+                        n++;
+                    }
+                }
+                Creditos = c.awaitCredits(QUEUEREADTIMEOUT);
+                if (Creditos > 0) {
+                    this.sendFrame(c, Math.min(n, Creditos));
+                }
+            } catch (InterruptedException ex) {
+                if (this.Running) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, ex, null, BTRemoteHandler.CLASSID, "000");
+                }
+            } catch (IOException ex) {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, ex, "Connection to " + this.Host + ":" + Integer.toString(this.Port) + " Lost", BTRemoteHandler.CLASSID, "001");
+                this.disconnect(this.Actual);
+            }
+        }
+    }
+
+    /**
+     * Serializa hasta los primeros "n" mensajes del Outbox en una trama de no
+     * mas de MAXFRAMESIZE bytes de datos y la escribe en el socket con una
+     * sola llamada, los mensajes solo se retiran del Outbox si la escritura fue
+     * exitosa. La trama lleva el numero de secuencia de su primer mensaje para
+     * que el servidor descarte los mensajes que ya entrego si la trama se
+     * reenvia. Si el primer mensaje excede por si solo MAXFRAMESIZE bytes se
+     * descarta sin enviar la trama.
+     *
+     * @param c Conexion
+     * @param n Numero maximo de mensajes a enviar
+     * @throws IOException Si ocurre un error de escritura
+     */
+    private void sendFrame(Connection c, int n) throws IOException {
+        Iterator<BTMessage> It;
+        long Secuencia;
+        int i, Anterior;
+
+        this.Frame.reset();
+        this.FrameOut.writeLong(0);
+        this.FrameOut.writeLong(0);
+        synchronized (this.Outbox) {
+            Secuencia = this.NextSequence;
+            It = this.Outbox.iterator();
+            for (i = 0; i < n; i++) {
+                Anterior = this.Frame.size();
+                It.next().writeTo(this.FrameOut);
+                this.FrameOut.flush();
+                if ((this.Frame.size() - FRAMEHEADER) > MAXFRAMESIZE) {
+                    // El mensaje no cabe en la trama, se envia en la siguiente
+                    this.Frame.truncate(Anterior);
+                    n = i;
+                }
+            }
+            if (n == 0) {
+                // El mensaje excede por si solo el tamano maximo de la trama
+                this.Outbox.pollFirst();
+                this.NextSequence++;
+            }
+        }
+        if (n == 0) {
+            this.Frame.release();
+            this.Rejected.incrementAndGet();
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "Message exceeds the Maximum Frame Size of " + Integer.toString(MAXFRAMESIZE) + " Bytes, Discarded", BTRemoteHandler.CLASSID, "006");
+        } else {
+            this.Frame.setInt(0, this.Frame.size() - FRAMEHEADER);
+            this.Frame.setInt(4, n);
+            this.Frame.setLong(8, Secuencia);
+            this.Frame.writeTo(c.Out);
+            c.Out.flush();
+            c.consumeCredits(n);
+            synchronized (this.Outbox) {
+                for (i = 0; i < n; i++) {
+                    this.Outbox.pollFirst();
+                }
+                this.NextSequence += n;
+            }
+            this.SentMessages.addAndGet(n);
+            this.SentFrames.incrementAndGet();
+        }
+    }
+
+    /**
+     * Establece la conexion con el servidor y arranca la hebra de recepcion de
+     * creditos, retornando NULL si no se pudo conectar.
+     *
+     * @return Conexion establecida o NULL
+     */
+    private Connection connect() {
+        Connection Result = null;
+        DataOutputStream Out;
+        Socket s;
+
+        s = new Socket();
+        try {
+            s.setTcpNoDelay(true);
+            s.connect(new InetSocketAddress(this.Host, this.Port), (int) CONNECTTIMEOUT);
+            Out = new DataOutputStream(s.getOutputStream());
+            Out.writeInt(PROTOCOL);
+            Out.writeLong(this.SessionID);
+            Out.flush();
+            Result = new Connection(s);
+            this.Actual = Result;
+            Result.start();
+            this.BTLogF.LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, false, null, "Connected to " + this.Host + ":" + Integer.toString(this.Port), BTRemoteHandler.CLASSID, "002");
+        } catch (IOException ex) {
+            this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_DEBUG, false, ex, "Can't connect to " + this.Host + ":" + Integer.toString(this.Port), BTRemoteHandler.CLASSID, "003");
+            try {
+                s.close();
+            } catch (IOException e) {
+                // Ignorado, el socket no se pudo abrir
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Cierra la conexion "c"
+     *
+     * @param c Conexion a cerrar
+     */
+    private void disconnect(Connection c) {
+
+        if (c != null) {
+            c.close();
+        }
+    }
+
+    /**
+     * Buffer de la trama que permite escribir la cabecera al final sin copiar
+     * los datos.
+     */
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+
+        private FrameBuffer() {
+            super(64 * 1024);
+        }
+
+        /**
+         * Descarta los datos escritos a partir de la posicion "Pos"
+         *
+         * @param Pos Nuevo tamano del buffer
+         */
+        private void truncate(int Pos) {
+
+            this.count = Pos;
+        }
+
+        /**
+         * Vacia el buffer y libera la memoria reservada por encima de su
+         * tamano inicial
+         */
+        private void release() {
+
+            this.count = 0;
+            if (this.buf.length > (64 * 1024)) {
+                this.buf = new byte[64 * 1024];
+            }
+        }
+
+        /**
+         * Escribe el entero "Value" en la posicion "Pos" del buffer
+         *
+         * @param Pos Posicion en el buffer
+         * @param Value Valor a escribir
+         */
+        private void setInt(int Pos, int Value) {
+
+            this.buf[Pos] = (byte) (Value >>> 24);
+            this.buf[Pos + 1] = (byte) (Value >>> 16);
+            this.buf[Pos + 2] = (byte) (Value >>> 8);
+            this.buf[Pos + 3] = (byte) Value;
+        }
+
+        /**
+         * Escribe el entero largo "Value" en la posicion "Pos" del buffer
+         *
+         * @param Pos Posicion en el buffer
+         * @param Value Valor a escribir
+         */
+        private void setLong(int Pos, long Value) {
+
+            this.setInt(Pos, (int) (Value >>> 32));
+            this.setInt(Pos + 4, (int) Value);
+        }
+    }
+
+    /**
+     * Conexion con el servidor, su hebra recibe los creditos otorgados por el
+     * servidor.
+     */
+    private final class Connection extends Thread {
+
+        private final Socket s;
+        private final OutputStream Out;
+        private final DataInputStream In;
+        private volatile boolean Alive = true;
+
+        // Creditos disponibles para enviar mensajes
+        private final ReentrantLock creditLock = new ReentrantLock();
+        private final Condition hasCredits = creditLock.newCondition();
+        @GuardedBy("creditLock")
+        private int Credits = 0;
+
+        private Connection(Socket s) throws IOException {
+
+            this.s = s;
+            this.Out = s.getOutputStream();
+            this.In = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            this.setName(CLASSID + "[Credits " + Host + ":" + Integer.toString(Port) + "]");
+            this.setDaemon(true);
+        }
+
+        /**
+         * Espera hasta "TimeoutMillis" a que existan creditos disponibles,
+         * retornando el numero de creditos o 0 si no hay creditos o la conexion
+         * se cerro.
+         *
+         * @param TimeoutMillis Tiempo maximo de espera
+         * @return Numero de creditos disponibles
+         * @throws InterruptedException Si la hebra fue interrumpida
+         */
+        private int awaitCredits(long TimeoutMillis) throws InterruptedException {
+            long Nanos;
+            int Result;
+
+            Nanos = TimeUnit.MILLISECONDS.toNanos(TimeoutMillis);
+            this.creditLock.lockInterruptibly();
+            try {
+                while ((this.Credits <= 0) && this.Alive && (Nanos > 0)) {
+                    Nanos = this.hasCredits.awaitNanos(Nanos);
+                }
+                Result = (this.Alive ? this.Credits : 0);
+            } finally {
+                this.creditLock.unlock();
+            }
+            return Result;
+        }
+
+        /**
+         * Consume "n" creditos
+         *
+         * @param n Numero de creditos a consumir
+         */
+        private void consumeCredits(int n) {
+
+            this.creditLock.lock();
+            try {
+                this.Credits -= n;
+            } finally {
+                this.creditLock.unlock();
+            }
+        }
+
+        /**
+         * Cierra la conexion y despierta a la hebra de envio
+         */
+        private void close() {
+
+            this.Alive = false;
+            try {
+                this.s.close();
+            } catch (IOException ex) {
+                BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_DEBUG, false, ex, null, BTRemoteHandler.CLASSID, "004");
+            }
+            this.creditLock.lock();
+            try {
+                this.hasCredits.signalAll();
+            } finally {
+                this.creditLock.unlock();
+            }
+        }
+
+        /**
+         * Recibe los creditos otorgados por el servidor
+         */
+        @Override
+        public void run() {
+            int n;
+
+            try {
+                while (this.Alive) {
+                    n = this.In.readInt();
+                    if (n > 0) {
+                        this.creditLock.lock();
+                        try {
+                            this.Credits += n;
+                            this.hasCredits.signal();
+                        } finally {
+                            this.creditLock.unlock();
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                if (this.Alive && Running) {
+                    BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, ex, "Connection to " + Host + ":" + Integer.toString(Port) + " Closed", BTRemoteHandler.CLASSID, "005");
+                }
+            } finally {
+                this.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.bolivartech.utils.handler;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.log.LoggerFormatter;
+import com.bolivartech.utils.log.LoggerManager;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement the receiving side of
+ * the BTRemoteHandler, it delivers the messages received over TCP/IP to a local
+ * BTHandler.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa el lado receptor del BTRemoteHandler. Escucha en el puerto
+ * especificado, recibe las tramas de mensajes de cada BTRemoteHandler conectado
+ * y entrega los mensajes al BTHandler local.</p>
+ *
+ * <p>
+ * El control de flujo es por creditos: al conectarse un BTRemoteHandler se le
+ * otorga una ventana de CreditWindow mensajes y los creditos de cada trama solo
+ * se devuelven cuando la cola del BTHandler local tiene espacio para ellos, por
+ * lo que un handler local saturado detiene al remitente en lugar de descartar
+ * mensajes.</p>
+ *
+ * <p>
+ * Cada BTRemoteHandler se identifica con su sesion y numera sus mensajes. El
+ * servidor guarda el ultimo numero de secuencia entregado de cada sesion y
+ * descarta los mensajes de una trama reenviada tras una reconexion que ya
+ * habian sido entregados. Las sesiones sin conexiones se eliminan despues de
+ * SESSIONEXPIRE milisegundos.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHW"</li>
+ * <li>Loc: 000-005</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.2
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): La devolucion de creditos espera la senal de
+ * espacio del BTHandler local en lugar de sondear su cola, y el tamano maximo
+ * de la trama es compartido con el BTRemoteHandler.</li>
+ * <li>v1.0.2 (2026-10-19): Se descartan los mensajes duplicados de las tramas
+ * reenviadas por sesion y numero de secuencia.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class BTRemoteHandlerServer implements Runnable {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHW";
+
+    private static final int DEFCREDITWINDOW = 1024;    // Numero de Mensajes
+    private static final long CREDITWAIT = 100;         // Milisegundos
+    private static final long SESSIONEXPIRE = 600000;   // Milisegundos que se conserva una sesion sin conexiones
+
+    /**
+     * **** Seleccion de Causas de Error del servidor ******
+     */
+    /**
+     * Error NO se pudo abrir el puerto de escucha
+     */
+    public final static int ERROR_CANTOPENPORT = 1;
+    /**
+     * Error al tratar de cerrar el puerto
+     */
+    public final static int ERROR_CANTCLOSEPORT = 2;
+
+    // Manejador de Bitacoras
+    private final LoggerFormatter BTLogF;
+
+    // Puerto de escucha
+    private final int Port;
+    // Handler local al que se entregan los mensajes
+    private final BTHandler Local;
+    // Ventana de creditos otorgada a cada conexion
+    private volatile int CreditWindow = DEFCREDITWINDOW;
+
+    // Socket de escucha y hebra de aceptacion de conexiones
+    @GuardedBy("this")
+    private ServerSocket Listener = null;
+    @GuardedBy("this")
+    private Thread Ejecutor = null;
+    private volatile boolean Running = false;
+    // Conexiones activas
+    @GuardedBy("Conexiones")
+    private final ArrayList<Socket> Conexiones = new ArrayList<Socket>();
+    // Sesiones de los BTRemoteHandler indexadas por su identificador
+    private final ConcurrentHashMap<Long, Session> Sesiones = new ConcurrentHashMap<Long, Session>();
+
+    // Contadores
+    private final AtomicLong ReceivedMessages = new AtomicLong(0);
+    private final AtomicLong ReceivedFrames = new AtomicLong(0);
+    private final AtomicLong Dropped = new AtomicLong(0);
+    private final AtomicLong Duplicated = new AtomicLong(0);
+
+    /**
+     * Clase privada que define la sesion de un BTRemoteHandler
+     */
+    private static final class Session {
+
+        // Numero de secuencia del ultimo mensaje entregado
+        @GuardedBy("this")
+        private long Delivered = 0;
+        // Numero de conexiones activas de la sesion
+        @GuardedBy("this")
+        private int Connections = 0;
+        // Instante en que se cerro la ultima conexion
+        @GuardedBy("this")
+        private long LastSeen;
+        // Bandera de sesion eliminada del registro
+        @GuardedBy("this")
+        private boolean Expired = false;
+    }
+
+    /**
+     * Constructor con inicializacion del puerto de escucha, el handler local y
+     * la bitacora
+     *
+     * @param Port Puerto de escucha
+     * @param Local Handler local al que se entregan los mensajes
+     * @param vLog Apuntador a la Bitacora
+     */
+    public BTRemoteHandlerServer(int Port, BTHandler Local, LoggerManager vLog) {
+
+        this.BTLogF = LoggerFormatter.getInstance(vLog);
+        this.Port = Port;
+        this.Local = Local;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Establece la ventana de creditos otorgada a cada BTRemoteHandler
+     * conectado, se aplica a las nuevas conexiones.
+     *
+     * @param Window Numero de mensajes de la ventana
+     */
+    public void setCreditWindow(int Window) {
+
+        this.CreditWindow = (Window > 0 ? Window : 1);
+    }
+
+    /**
+     * Retorna la ventana de creditos otorgada a cada BTRemoteHandler
+     *
+     * @return Numero de mensajes de la ventana
+     */
+    public int getCreditWindow() {
+
+        return this.CreditWindow;
+    }
+
+    /**
+     * Retorna el puerto de escucha, si se especifico el puerto 0 retorna el
+     * puerto asignado al iniciar el servidor.
+     *
+     * @return Puerto de escucha
+     */
+    public synchronized int getPort() {
+
+        return (this.Listener != null ? this.Listener.getLocalPort() : this.Port);
+    }
+
+    /**
+     * Inicia el servidor
+     *
+     * @throws UtilsException Si no se pudo abrir el puerto de escucha
+     */
+    public synchronized void Start() throws UtilsException {
+
+        if (this.Listener == null) {
+            try {
+                this.Listener = new ServerSocket(this.Port);
+            } catch (IOException ex) {
+                throw new UtilsException("ERROR: Could not open listener on port: " + this.Port, ERROR_CANTOPENPORT, BTRemoteHandlerServer.CLASSID + "000");
+            }
+            this.Running = true;
+            this.Ejecutor = new Thread(this);
+            this.Ejecutor.setName(CLASSID + "[" + Integer.toString(this.Listener.getLocalPort()) + "]");
+            this.Ejecutor.setDaemon(true);
+            this.Ejecutor.start();
+        }
+    }
+
+    /**
+     * Detiene el servidor y cierra todas las conexiones
+     *
+     * @throws UtilsException Si no se pudo cerrar el puerto de escucha
+     */
+    public synchronized void Stop() throws UtilsException {
+
+        this.Running = false;
+        synchronized (this.Conexiones) {
+            for (Socket s : this.Conexiones) {
+                closeSocket(s);
+            }
+            this.Conexiones.clear();
+        }
+        if (this.Listener != null) {
+            try {
+                this.Listener.close();
+            } catch (IOException ex) {
+                throw new UtilsException("ERROR: Could not close listen on port: " + this.Port, ERROR_CANTCLOSEPORT, BTRemoteHandlerServer.CLASSID + "001");
+            } finally {
+                this.Listener = null;
+                this.Ejecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Retorna el numero de conexiones activas
+     *
+     * @return Numero de conexiones activas
+     */
+    public int getConnectionCount() {
+        int Result;
+
+        synchronized (this.Conexiones) {
+            Result = this.Conexiones.size();
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna el numero de mensajes recibidos
+     *
+     * @return Numero de mensajes recibidos
+     */
+    public long getReceivedCount() {
+
+        return this.ReceivedMessages.get();
+    }
+
+    /**
+     * Retorna el numero de tramas recibidas
+     *
+     * @return Numero de tramas recibidas
+     */
+    public long getFrameCount() {
+
+        return this.ReceivedFrames.get();
+    }
+
+    /**
+     * Retorna el numero de mensajes que el handler local no acepto
+     *
+     * @return Numero de mensajes descartados
+     */
+    public long getDroppedCount() {
+
+        return this.Dropped.get();
+    }
+
+    /**
+     * Retorna el numero de mensajes duplicados descartados, recibidos de nuevo
+     * en una trama reenviada por el BTRemoteHandler
+     *
+     * @return Numero de mensajes duplicados
+     */
+    public long getDuplicatedCount() {
+
+        return this.Duplicated.get();
+    }
+
+    /**
+     * Hebra de aceptacion de conexiones
+     */
+    @Override
+    public void run() {
+        ServerSocket Escucha;
+        Socket s;
+        Thread Receptor;
+
+        synchronized (this) {
+            Escucha = this.Listener;
+        }
+        while (this.Running && (Escucha != null)) {
+            try {
+                s = Escucha.accept();
+                s.setTcpNoDelay(true);
+                this.expireSessions();
+                synchronized (this.Conexiones) {
+                    this.Conexiones.add(s);
+                }
+                Receptor = new Thread(new Receiver(s));
+                Receptor.setName(CLASSID + "[" + s.getRemoteSocketAddress().toString() + "]");
+                Receptor.setDaemon(true);
+                Receptor.start();
+            } catch (SocketException ex) {
+                if (this.Running) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, BTRemoteHandlerServer.CLASSID, "002");
+                }
+                break;
+            } catch (IOException ex) {
+                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, ex, null, BTRemoteHandlerServer.CLASSID, "003");
+            }
+        }
+    }
+
+    /**
+     * Registra una conexion de la sesion "ID", creandola si no existe
+     *
+     * @param ID Identificador de la sesion
+     * @return Sesion
+     */
+    private Session openSession(long ID) {
+        Session Result = null;
+        Session Nueva;
+
+        while (Result == null) {
+            Result = this.Sesiones.get(ID);
+            if (Result == null) {
+                Nueva = new Session();
+                Result = this.Sesiones.putIfAbsent(ID, Nueva);
+                if (Result == null) {
+                    Result = Nueva;
+                }
+            }
+            synchronized (Result) {
+                if (Result.Expired) {
+                    // Se elimino mientras se buscaba, se crea de nuevo
+                    Result = null;
+                } else {
+                    Result.Connections++;
+                }
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Registra el cierre de una conexion de la sesion
+     *
+     * @param Sesion Sesion
+     */
+    private static void closeSession(Session Sesion) {
+
+        synchronized (Sesion) {
+            Sesion.Connections--;
+            Sesion.LastSeen = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Elimina las sesiones que llevan mas de SESSIONEXPIRE milisegundos sin
+     * conexiones
+     */
+    private void expireSessions() {
+        long Ahora;
+
+        Ahora = System.currentTimeMillis();
+        for (Map.Entry<Long, Session> Entrada : this.Sesiones.entrySet()) {
+            synchronized (Entrada.getValue()) {
+                if ((Entrada.getValue().Connections == 0) && ((Ahora - Entrada.getValue().LastSeen) > SESSIONEXPIRE)) {
+                    Entrada.getValue().Expired = true;
+                    this.Sesiones.remove(Entrada.getKey(), Entrada.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Cierra el socket ignorando los errores
+     *
+     * @param s Socket a cerrar
+     */
+    private static void closeSocket(Socket s) {
+
+        try {
+            s.close();
+        } catch (IOException ex) {
+            // Ignorado, el socket se esta descartando
+        }
+    }
+
+    /**
+     * Espera a que la cola del handler local tenga espacio para "n" mensajes
+     * antes de devolver sus creditos al remitente, bloqueandose en la senal de
+     * espacio del handler y verificando cada CREDITWAIT milisegundos si el
+     * servidor sigue en ejecucion.
+     *
+     * @param n Numero de creditos a devolver
+     * @throws InterruptedException Si la hebra fue interrumpida
+     */
+    private void awaitLocalCapacity(int n) throws InterruptedException {
+
+        while (this.Running && !this.Local.awaitCapacity(n, CREDITWAIT)) {
+            // Sigue esperando a que el handler local libere espacio
+        }
+    }
+
+    /**
+     * Receptor de las tramas de una conexion
+     */
+    private final class Receiver implements Runnable {
+
+        private final Socket s;
+
+        private Receiver(Socket s) {
+            this.s = s;
+        }
+
+        @Override
+        public void run() {
+            DataInputStream In, Trama;
+            DataOutputStream Out;
+            byte[] Buffer = new byte[64 * 1024];
+            BTMessage msg;
+            Session Sesion = null;
+            long Primera;
+            int Largo, n, i;
+
+            try {
+                In = new DataInputStream(new BufferedInputStream(this.s.getInputStream(), 64 * 1024));
+                Out = new DataOutputStream(this.s.getOutputStream());
+                if (In.readInt() != BTRemoteHandler.PROTOCOL) {
+                    throw new IOException("Invalid Protocol from " + this.s.getRemoteSocketAddress().toString());
+                }
+                Sesion = openSession(In.readLong());
+                Out.writeInt(CreditWindow);
+                Out.flush();
+                while (Running) {
+                    Largo = In.readInt();
+                    n = In.readInt();
+                    Primera = In.readLong();
+                    if ((Largo < 0) || (Largo > BTRemoteHandler.MAXFRAMESIZE) || (n < 0)) {
+                        throw new IOException("Invalid Frame Header from " + this.s.getRemoteSocketAddress().toString());
+                    }
+                    if (Largo > Buffer.length) {
+                        Buffer = new byte[Largo];
+                    }
+                    In.readFully(Buffer, 0, Largo);
+                    Trama = new DataInputStream(new ByteArrayInputStream(Buffer, 0, Largo));
+                    // La trama se entrega completa con la sesion tomada para
+                    // conservar el orden si otra conexion de la sesion sigue viva
+                    synchronized (Sesion) {
+                        for (i = 0; i < n; i++) {
+                            msg = BTMessage.readFrom(Trama);
+                            if ((Primera + i) <= Sesion.Delivered) {
+                                Duplicated.incrementAndGet();
+                            } else {
+                                Sesion.Delivered = Primera + i;
+                                if (!Local.sendMessage(msg)) {
+                                    Dropped.incrementAndGet();
+                                }
+                            }
+                        }
+                    }
+                    ReceivedMessages.addAndGet(n);
+                    ReceivedFrames.incrementAndGet();
+                    awaitLocalCapacity(n);
+                    Out.writeInt(n);
+                    Out.flush();
+                }
+            } catch (IOException ex) {
+                if (Running) {
+                    BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, ex, "Connection from " + this.s.getRemoteSocketAddress().toString() + " Closed", BTRemoteHandlerServer.CLASSID, "004");
+                }
+            } catch (InterruptedException ex) {
+                BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, ex, null, BTRemoteHandlerServer.CLASSID, "005");
+                Thread.currentThread().interrupt();
+            } finally {
+                if (Sesion != null) {
+                    closeSession(Sesion);
+                }
+                closeSocket(this.s);
+                synchronized (Conexiones) {
+                    Conexiones.remove(this.s);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package com.bolivartech.utils.kerneltasks;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement a Thread Pool with an
+ * optional feedback controller of its size.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa un pool de hebras con un controlador opcional de su tamano. El
+ * controlador muestrea periodicamente el rendimiento (tareas completadas por
+ * segundo), el tiempo de espera de las tareas en la cola y el numero de hebras
+ * activas, y hace crecer o reducir el pool dentro de los limites configurados
+ * buscando el tamano de mayor rendimiento por escalada (hill-climbing): si el
+ * ultimo cambio mejoro el rendimiento se continua en la misma direccion, si lo
+ * empeoro se invierte la direccion y si no hubo cambio significativo se crece
+ * solo cuando las tareas esperan en la cola mas de lo tolerado.</p>
+ *
+ * <p>
+ * El controlador no tiene hebra propia, el dueno del pool debe llamar
+ * periodicamente a adjustPoolSize() desde su ciclo de despacho, la llamada es
+ * barata mientras no haya transcurrido el intervalo de muestreo.</p>
+ *
+ * <p>
+ * Si el dueno del pool mantiene su propia cola de tareas, debe marcar el
+ * instante de encolado del BTTask al recibirlo para que el controlador mida
+ * la espera total de la tarea y no solo la espera dentro del pool.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHX"</li>
+ * <li>Loc: none</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.1
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): Se conserva el instante de encolado marcado por el
+ * dueno del pool para medir tambien la espera en su cola.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class BTAdaptiveThreadPool extends ThreadPoolExecutor {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHX";
+
+    /**
+     * Decisiones del controlador
+     */
+    public static final int DECISION_HOLD = 0;
+    public static final int DECISION_GROW = 1;
+    public static final int DECISION_SHRINK = 2;
+
+    // Intervalo de muestreo del controlador
+    private static final long SAMPLEINTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+    // Tiempo de espera en la cola tolerado antes de crecer el pool
+    private static final long WAITTARGET = TimeUnit.MILLISECONDS.toNanos(10);
+    // Variacion minima del rendimiento considerada significativa
+    private static final double THRESHOLD = 0.05;
+
+    // Tamano original del pool
+    private final int BaseCorePoolSize;
+    private final int BaseMaximumPoolSize;
+
+    // Configuracion del controlador
+    private volatile boolean Adaptive = false;
+    private volatile int MinThreads;
+    private volatile int MaxThreads;
+
+    // Acumuladores del tiempo de espera en la cola
+    private final AtomicLong WaitNanos = new AtomicLong(0);
+    private final AtomicLong WaitCount = new AtomicLong(0);
+
+    // Estado del controlador
+    private final ReentrantLock ctrlLock = new ReentrantLock();
+    @GuardedBy("ctrlLock")
+    private long LastSample;
+    @GuardedBy("ctrlLock")
+    private long LastCompleted = 0;
+    @GuardedBy("ctrlLock")
+    private double LastThroughput = -1;
+    @GuardedBy("ctrlLock")
+    private int Direction = 1;
+
+    // Metricas del controlador
+    private volatile double Throughput = 0;
+    private volatile double AverageWait = 0;
+    private volatile int LastDecision = DECISION_HOLD;
+    private final AtomicLong Grows = new AtomicLong(0);
+    private final AtomicLong Shrinks = new AtomicLong(0);
+    private final AtomicLong Samples = new AtomicLong(0);
+
+    /**
+     * Constructor con los mismos parametros del ThreadPoolExecutor, el
+     * controlador esta inicialmente deshabilitado.
+     *
+     * @param corePoolSize Numero de hebras del nucleo
+     * @param maximumPoolSize Numero maximo de hebras
+     * @param keepAliveTime Tiempo maximo que una hebra puede estar sin uso
+     * @param unit Unidad del keepAliveTime
+     * @param workQueue Cola de tareas
+     * @param threadFactory Fabrica de hebras
+     * @param handler Manejador de tareas rechazadas
+     */
+    public BTAdaptiveThreadPool(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+
+        this.BaseCorePoolSize = corePoolSize;
+        this.BaseMaximumPoolSize = maximumPoolSize;
+        this.MinThreads = corePoolSize;
+        this.MaxThreads = maximumPoolSize;
+        this.LastSample = System.nanoTime();
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Habilita o deshabilita el controlador del tamano del pool. Al habilitarlo
+     * el pool se mantiene entre "MinThreads" y "MaxThreads" hebras, al
+     * deshabilitarlo se restaura el tamano original del pool.
+     *
+     * @param Enable TRUE para habilitar el controlador o FALSE para
+     * deshabilitarlo
+     * @param MinThreads Numero minimo de hebras
+     * @param MaxThreads Numero maximo de hebras
+     */
+    public void setAdaptive(boolean Enable, int MinThreads, int MaxThreads) {
+        int Size;
+
+        MinThreads = (MinThreads > 0 ? MinThreads : 1);
+        MaxThreads = (MaxThreads >= MinThreads ? MaxThreads : MinThreads);
+        this.ctrlLock.lock();
+        try {
+            this.MinThreads = MinThreads;
+            this.MaxThreads = MaxThreads;
+            this.Adaptive = Enable;
+            this.LastThroughput = -1;
+            this.Direction = 1;
+            this.LastSample = System.nanoTime();
+            this.LastCompleted = this.getCompletedTaskCount();
+            if (Enable) {
+                Size = Math.min(Math.max(this.getCorePoolSize(), MinThreads), MaxThreads);
+                this.setPoolSize(Size, Size);
+            } else {
+                this.setPoolSize(this.BaseCorePoolSize, this.BaseMaximumPoolSize);
+            }
+        } finally {
+            this.ctrlLock.unlock();
+        }
+    }
+
+    /**
+     * Retorna TRUE si el controlador del tamano del pool esta habilitado
+     *
+     * @return TRUE si el controlador esta habilitado o FALSE si no
+     */
+    public boolean isAdaptive() {
+
+        return this.Adaptive;
+    }
+
+    /**
+     * Ejecuta un ciclo del controlador si el controlador esta habilitado y ha
+     * transcurrido el intervalo de muestreo, retornando la decision tomada.
+     *
+     * @return DECISION_HOLD, DECISION_GROW o DECISION_SHRINK
+     */
+    public int adjustPoolSize() {
+        long Now, Elapsed, Completed, Waits, WaitSum;
+        double Rendimiento;
+        int Decision = DECISION_HOLD;
+        int Size, Nuevo, Active, Queued;
+
+        if (!this.Adaptive) {
+            return DECISION_HOLD;
+        }
+        Now = System.nanoTime();
+        if (((Now - this.LastSample) < SAMPLEINTERVAL) || !this.ctrlLock.tryLock()) {
+            return DECISION_HOLD;
+        }
+        try {
+            Elapsed = Now - this.LastSample;
+            if ((Elapsed >= SAMPLEINTERVAL) && this.Adaptive) {
+                this.LastSample = Now;
+                Completed = this.getCompletedTaskCount();
+                Rendimiento = ((double) (Completed - this.LastCompleted) * 1.0e9) / (double) Elapsed;
+                this.LastCompleted = Completed;
+                Waits = this.WaitCount.getAndSet(0);
+                WaitSum = this.WaitNanos.getAndSet(0);
+                WaitSum = (Waits > 0 ? WaitSum / Waits : 0);
+                Active = this.getActiveCount();
+                Queued = this.getQueue().size();
+                Size = this.getCorePoolSize();
+                if ((Queued == 0) && (Active < Size) && (WaitSum < WAITTARGET)) {
+                    // Sin demanda, se reduce el pool y se reinicia la escalada
+                    this.Direction = -1;
+                    this.LastThroughput = -1;
+                } else if (this.LastThroughput < 0) {
+                    // Primera muestra con demanda
+                    this.Direction = (WaitSum >= WAITTARGET ? 1 : 0);
+                    this.LastThroughput = Rendimiento;
+                } else {
+                    if (Rendimiento < (this.LastThroughput * (1.0 - THRESHOLD))) {
+                        // El ultimo cambio empeoro el rendimiento, se invierte la direccion
+                        this.Direction = (this.Direction != 0 ? -this.Direction : -1);
+                    } else if (Rendimiento <= (this.LastThroughput * (1.0 + THRESHOLD))) {
+                        // Sin cambio significativo, se crece si las tareas esperan en la cola
+                        this.Direction = (((WaitSum >= WAITTARGET) && (Queued > 0)) ? 1 : 0);
+                    }
+                    this.LastThroughput = Rendimiento;
+                }
+                Nuevo = Math.min(Math.max(Size + this.Direction, this.MinThreads), this.MaxThreads);
+                if (Nuevo > Size) {
+                    Decision = DECISION_GROW;
+                    this.Grows.incrementAndGet();
+                } else if (Nuevo < Size) {
+                    Decision = DECISION_SHRINK;
+                    this.Shrinks.incrementAndGet();
+                } else {
+                    // Se alcanzo un limite, la siguiente escalada debe explorar en la otra direccion
+                    this.Direction = 0;
+                }
+                this.setPoolSize(Nuevo, Nuevo);
+                this.Throughput = Rendimiento;
+                this.AverageWait = ((double) WaitSum) / 1.0e6;
+                this.LastDecision = Decision;
+                this.Samples.incrementAndGet();
+            }
+        } finally {
+            this.ctrlLock.unlock();
+        }
+        return Decision;
+    }
+
+    /**
+     * Retorna una instantanea de las metricas del pool y de su controlador
+     *
+     * @return Metricas del pool
+     */
+    public PoolMetrics getMetrics() {
+
+        return new PoolMetrics(this.getCorePoolSize(), this.getActiveCount(), this.getQueue().size(), this.Throughput, this.AverageWait, this.LastDecision, this.Grows.get(), this.Shrinks.get(), this.Samples.get(), this.Adaptive);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+
+        // Se conserva el instante de encolado marcado por el dueno del pool
+        if ((command instanceof BTTask) && (((BTTask) command).QueuedAt == 0)) {
+            ((BTTask) command).QueuedAt = System.nanoTime();
+        }
+        super.execute(command);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        long Queued;
+
+        super.beforeExecute(t, r);
+        if (r instanceof BTTask) {
+            Queued = ((BTTask) r).QueuedAt;
+            ((BTTask) r).QueuedAt = 0;
+            if (this.Adaptive && (Queued != 0)) {
+                this.WaitNanos.addAndGet(System.nanoTime() - Queued);
+                this.WaitCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Establece el numero de hebras del nucleo y el maximo en el orden
+     * requerido para que el nucleo nunca supere al maximo.
+     *
+     * @param Core Numero de hebras del nucleo
+     * @param Max Numero maximo de hebras
+     */
+    private void setPoolSize(int Core, int Max) {
+
+        if (Max >= this.getMaximumPoolSize()) {
+            this.setMaximumPoolSize(Max);
+            this.setCorePoolSize(Core);
+        } else {
+            this.setCorePoolSize(Core);
+            this.setMaximumPoolSize(Max);
+        }
+    }
+
+    /**
+     * Instantanea inmutable de las metricas del pool y de su controlador
+     */
+    public static final class PoolMetrics {
+
+        private final int PoolSize;
+        private final int ActiveThreads;
+        private final int QueuedTasks;
+        private final double Throughput;
+        private final double AverageWait;
+        private final int LastDecision;
+        private final long Grows;
+        private final long Shrinks;
+        private final long Samples;
+        private final boolean Adaptive;
+
+        private PoolMetrics(int PoolSize, int ActiveThreads, int QueuedTasks, double Throughput, double AverageWait, int LastDecision, long Grows, long Shrinks, long Samples, boolean Adaptive) {
+            this.PoolSize = PoolSize;
+            this.ActiveThreads = ActiveThreads;
+            this.QueuedTasks = QueuedTasks;
+            this.Throughput = Throughput;
+            this.AverageWait = AverageWait;
+            this.LastDecision = LastDecision;
+            this.Grows = Grows;
+            this.Shrinks = Shrinks;
+            this.Samples = Samples;
+            this.Adaptive = Adaptive;
+        }
+
+        /**
+         * Retorna el numero de hebras del nucleo del pool
+         *
+         * @return Numero de hebras del nucleo
+         */
+        public int getPoolSize() {
+            return this.PoolSize;
+        }
+
+        /**
+         * Retorna el numero de hebras ejecutando tareas
+         *
+         * @return Numero de hebras activas
+         */
+        public int getActiveThreads() {
+            return this.ActiveThreads;
+        }
+
+        /**
+         * Retorna el numero de tareas esperando en la cola del pool
+         *
+         * @return Numero de tareas en cola
+         */
+        public int getQueuedTasks() {
+            return this.QueuedTasks;
+        }
+
+        /**
+         * Retorna el rendimiento de la ultima muestra en tareas por segundo
+         *
+         * @return Tareas completadas por segundo
+         */
+        public double getThroughput() {
+            return this.Throughput;
+        }
+
+        /**
+         * Retorna el tiempo promedio de espera en la cola de la ultima muestra
+         * en milisegundos
+         *
+         * @return Tiempo promedio de espera en milisegundos
+         */
+        public double getAverageWait() {
+            return this.AverageWait;
+        }
+
+        /**
+         * Retorna la ultima decision del controlador
+         *
+         * @return DECISION_HOLD, DECISION_GROW o DECISION_SHRINK
+         */
+        public int getLastDecision() {
+            return this.LastDecision;
+        }
+
+        /**
+         * Retorna el numero de veces que el controlador hizo crecer el pool
+         *
+         * @return Numero de crecimientos
+         */
+        public long getGrows() {
+            return this.Grows;
+        }
+
+        /**
+         * Retorna el numero de veces que el controlador redujo el pool
+         *
+         * @return Numero de reducciones
+         */
+        public long getShrinks() {
+            return this.Shrinks;
+        }
+
+        /**
+         * Retorna el numero de muestras tomadas por el controlador
+         *
+         * @return Numero de muestras
+         */
+        public long getSamples() {
+            return this.Samples;
+        }
+
+        /**
+         * Retorna TRUE si el controlador esta habilitado
+         *
+         * @return TRUE si el controlador esta habilitado o FALSE si no
+         */
+        public boolean isAdaptive() {
+            return this.Adaptive;
+        }
+
+        @Override
+        public String toString() {
+            return "PoolSize=" + this.PoolSize + ", Active=" + this.ActiveThreads + ", Queued=" + this.QueuedTasks + ", Throughput=" + String.format("%.1f", this.Throughput) + "/s, Wait=" + String.format("%.3f", this.AverageWait) + "ms, Grows=" + this.Grows + ", Shrinks=" + this.Shrinks;
+        }
+    }
+}
@@ -33,8 +33,8 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
  * </ul>
  *
  * @author Julian Bolivar
- * @since 2015 - April 01, 2016.
- * @version 1.0.5
+ * @since 2015 - October 19, 2026.
+ * @version 1.0.6
  *
  * <p>
  * Change Logs:</p>
@@ -50,6 +50,8 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
  * bitacora.</li>
  * <li>v1.0.5 (2016-04-01) Se implemento el uso del metodo abstracto Execute()
  * como lugar donde se implementa el codigo de tarea a ejecutar.</li>
+ * <li>v1.0.6 (2026-10-19) Se agrego el instante de encolado usado por el
+ * BTAdaptiveThreadPool para medir el tiempo de espera en la cola.</li>
  * </ul>
  */
 public abstract class BTTask implements Comparable, Runnable {
@@ -76,6 +78,9 @@ public abstract class BTTask implements Comparable, Runnable {
      */
     private long TaskID;
 
+    // Instante en nanosegundos en que la tarea fue encolada para su ejecucion
+    long QueuedAt = 0;
+
     /**
      * BolivarTech Log Manager
      */
@@ -10,6 +10,8 @@ import com.bolivartech.utils.log.LoggerFormatter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
@@ -36,12 +38,12 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  *
  * <ul>
  * <li>Class ID: "35DGFHP"</li>
- * <li>Loc: 000-039</li>
+ * <li>Loc: 000-041</li>
  * </ul>
  *
  * @author Julian Bolivar
- * @since 2015 - April 20, 2016.
- * @version 1.9.0
+ * @since 2015 - October 19, 2026.
+ * @version 1.11.2
  *
  * <p>
  * Change Logs:</p>
@@ -65,6 +67,22 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * <li>v1.9.0 (2016-04-20) Se implemento el uso de hebra de monitoreo dinamica
  * para optimizar los recursos de memoria y procesador cuando el KernelTask
  * excede un TIMEOUT sin recibir mensajes a procesar.</li>
+ * <li>v1.10.0 (2026-10-19) Se implementaron los carriles seriales por llave,
+ * donde las tareas con la misma llave se ejecutan en orden y las de llaves
+ * distintas en paralelo sobre el pool de ejecucion.</li>
+ * <li>v1.11.0 (2026-10-19) Se agrego el controlador opcional del tamano del
+ * pool de ejecucion por escalada (BTAdaptiveThreadPool) y se corrigio la espera
+ * activa de la hebra de despacho cuando el pool esta saturado.</li>
+ * <li>v1.11.1 (2026-10-19) Si el carril serial no se logra programar, las
+ * tareas que otros llamadores agregaron al carril se ejecutan en la hebra del
+ * llamador en lugar de quedar detenidas hasta la siguiente tarea; la hebra de
+ * despacho inactiva espera la siguiente tarea en la cola en lugar de dormir
+ * hasta 500 ms, lo que retrasaba cada reprogramacion de un carril.</li>
+ * <li>v1.11.2 (2026-10-19) Con el controlador del tamano del pool habilitado,
+ * las tareas se entregan al pool aunque todas sus hebras esten activas, con
+ * un maximo de tareas en espera igual al tamano del pool, y se marca su
+ * instante de encolado al agregarlas, por lo que el controlador ve la espera
+ * de las tareas y puede hacer crecer el pool.</li>
  * </ul>
  */
 public class KernelTasks implements Runnable {
@@ -92,6 +110,8 @@ public class KernelTasks implements Runnable {
     private static final long QUEUEWRITETIMEOUT = 100;  // Milisegundos
     // Tiempo maximo de espera para obtener una tarea de la cola
     private static final long QUEUEREADTIMEOUT = 50;  // Milisegundos
+    // Maximo numero de tareas que ejecuta un carril antes de ceder la hebra
+    private static final int MAXLANETASKS = 64;
 
     // Manejador de Bitacoras
     private LoggerFormatter BTLogF;
@@ -130,10 +150,20 @@ public class KernelTasks implements Runnable {
     private boolean isStarted;
 
     // Pool de Thread que van a ejecutar las tareas
-    private ThreadPoolExecutor executorPool;
+    private BTAdaptiveThreadPool executorPool;
+    // Configuracion del controlador del tamano del pool
+    @GuardedBy("rwl")
+    private boolean AdaptivePool = false;
+    @GuardedBy("rwl")
+    private int AdaptiveMinThreads;
+    @GuardedBy("rwl")
+    private int AdaptiveMaxThreads;
     // LLave de contro del KernelTask
     private String ControlKey = null;
 
+    // Carriles seriales de ejecucion indexados por llave
+    private final ConcurrentHashMap<Object, KeyedLane> Lanes = new ConcurrentHashMap<Object, KeyedLane>();
+
     public KernelTasks(LoggerManager vLog) {
 
         // Inicializador de Numeros Aleatorios
@@ -143,6 +173,7 @@ public class KernelTasks implements Runnable {
         this.MaximumPoolSize = 2 * (this.NumCPUs);
         this.ThreadCorePoolSize = this.NumCPUs + 2;
         this.ThreadCorePoolSize = (this.ThreadCorePoolSize > 0 ? this.ThreadCorePoolSize : 1);
+        this.MaximumPoolSize = (this.MaximumPoolSize >= this.ThreadCorePoolSize ? this.MaximumPoolSize : this.ThreadCorePoolSize);
         this.MaximumPoolSizekeepAliveTime = DEFMAXIMUMPOOLSIZEKEEPALIVETIME;
         this.FIFOSize = (int) (((double) Runtime.getRuntime().freeMemory()) * 0.0001);
         this.FIFOSize = (this.FIFOSize > MAXQUEUESIZE ? MAXQUEUESIZE : this.FIFOSize);
@@ -163,7 +194,7 @@ public class KernelTasks implements Runnable {
         //RejectedExecutionHandler implementation
         rejectionHandler = new RejectedExecutionHandlerImpl();
         //creating the ThreadPoolExecutor
-        this.executorPool = new ThreadPoolExecutor(ThreadCorePoolSize, MaximumPoolSize, MaximumPoolSizekeepAliveTime, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(4 * MaximumPoolSize), threadFactory, rejectionHandler);
+        this.executorPool = new BTAdaptiveThreadPool(ThreadCorePoolSize, MaximumPoolSize, MaximumPoolSizekeepAliveTime, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(4 * MaximumPoolSize), threadFactory, rejectionHandler);
         // Permite que las hebras del Core tambien tengan timeout
         this.executorPool.allowCoreThreadTimeOut(true);
     }
@@ -420,6 +451,8 @@ public class KernelTasks implements Runnable {
                     // Inicia la hebra de monitoreo
                     this.StartThread();
                 }
+                // El controlador del pool mide la espera desde este instante
+                task.QueuedAt = System.nanoTime();
                 Salida = this.FIFO.offer(task, QUEUEWRITETIMEOUT, TimeUnit.MILLISECONDS);
             } catch (ClassCastException ex) {
                 this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, KernelTasks.CLASSID, "017");
@@ -432,6 +465,138 @@ public class KernelTasks implements Runnable {
         return Salida;
     }
 
+    /**
+     * Agrega la tarea al carril serial de la llave "Key" retornando TRUE si lo
+     * logro agregar o FALSE si no.
+     *
+     * Las tareas con la misma llave (ej. el mismo ID de conexion o de cuenta)
+     * se ejecutan una a la vez en el orden en que fueron agregadas, mientras
+     * que las tareas de llaves distintas se ejecutan en paralelo en el pool de
+     * ejecucion. Los carriles que quedan sin tareas son liberados.
+     *
+     * Si el kernel no acepta el carril se retorna FALSE, y las tareas que
+     * otros llamadores ya habian agregado al carril se ejecutan en la hebra
+     * del llamador para no dejarlas detenidas.
+     *
+     * NOTE: La llave debe implementar equals y hashCode de forma consistente.
+     *
+     * @param Key Llave del carril serial
+     * @param task Tarea a agregar al carril
+     * @return TRUE si lo logro agregar o FALSE si no.
+     */
+    public final boolean addTask(Object Key, BTTask task) {
+        KeyedLane Lane, NewLane;
+        boolean Salida = false;
+        boolean Agregada = false;
+        boolean Programar = false;
+        boolean Pendientes;
+
+        if ((Key != null) && (task != null)) {
+            do {
+                Lane = this.Lanes.get(Key);
+                if (Lane == null) {
+                    NewLane = new KeyedLane(Key, task.getPriority(), this.BTLogF.getBTLoggerManager());
+                    Lane = this.Lanes.putIfAbsent(Key, NewLane);
+                    if (Lane == null) {
+                        Lane = NewLane;
+                    }
+                }
+                synchronized (Lane) {
+                    if (!Lane.Retired) {
+                        Lane.Tasks.addLast(task);
+                        Agregada = true;
+                        if (!Lane.Scheduled) {
+                            Lane.Scheduled = true;
+                            Programar = true;
+                        }
+                    }
+                }
+            } while (!Agregada);
+            if (Programar) {
+                Salida = this.addTask(Lane);
+                if (!Salida) {
+                    // El kernel no acepto el carril por lo que se retira la tarea
+                    synchronized (Lane) {
+                        Lane.Tasks.removeLastOccurrence(task);
+                        Pendientes = !Lane.Tasks.isEmpty();
+                        if (!Pendientes) {
+                            Lane.Scheduled = false;
+                            Lane.Retired = true;
+                            this.Lanes.remove(Key, Lane);
+                        }
+                    }
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, false, null, "Keyed Lane CAN'T be scheduled", KernelTasks.CLASSID, "040");
+                    if (Pendientes) {
+                        // Las tareas que otros llamadores agregaron mientras tanto ya
+                        // fueron aceptadas, el carril sigue programado y se ejecuta en
+                        // esta hebra hasta vaciarse o lograr volver a programarse
+                        Lane.run();
+                    }
+                }
+            } else {
+                Salida = true;
+            }
+        }
+        return Salida;
+    }
+
+    /**
+     * Habilita o deshabilita el controlador del tamano del pool de ejecucion, el
+     * cual ajusta el numero de hebras entre "MinThreads" y "MaxThreads"
+     * buscando el mayor rendimiento. Al deshabilitarlo se restaura el tamano
+     * por defecto del pool.
+     *
+     * @param Enable TRUE para habilitar el controlador o FALSE para
+     * deshabilitarlo
+     * @param MinThreads Numero minimo de hebras
+     * @param MaxThreads Numero maximo de hebras
+     */
+    public void setAdaptivePoolSize(boolean Enable, int MinThreads, int MaxThreads) {
+
+        rwl.writeLock().lock();
+        try {
+            this.AdaptivePool = Enable;
+            this.AdaptiveMinThreads = MinThreads;
+            this.AdaptiveMaxThreads = MaxThreads;
+            if (this.executorPool != null) {
+                this.executorPool.setAdaptive(Enable, MinThreads, MaxThreads);
+            }
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna las metricas del pool de ejecucion y de su controlador o NULL si
+     * el kernel no esta corriendo.
+     *
+     * @return Metricas del pool o NULL
+     */
+    public BTAdaptiveThreadPool.PoolMetrics getPoolMetrics() {
+        BTAdaptiveThreadPool.PoolMetrics Result = null;
+
+        rwl.readLock().lock();
+        try {
+            if (this.executorPool != null) {
+                Result = this.executorPool.getMetrics();
+            }
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna el numero de carriles seriales activos, es decir con tareas
+     * pendientes o en ejecucion.
+     *
+     * @return Numero de carriles seriales activos
+     */
+    public int activeLanes() {
+
+        return this.Lanes.size();
+    }
+
     /**
      * Elimina todas las tareas que esten en cola de ejecucion, pero no afecta
      * las que ya se estan ejecutando.
@@ -445,6 +610,7 @@ public class KernelTasks implements Runnable {
             try {
                 this.FIFO.clear();
                 this.executorPool.getQueue().clear();
+                this.clearLanes();
                 this.BTLogF.LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, false, null, "Tasks Queue Cleaned", KernelTasks.CLASSID, "020");
             } finally {
                 rwl.writeLock().unlock();
@@ -454,6 +620,25 @@ public class KernelTasks implements Runnable {
         }
     }
 
+    /**
+     * Elimina las tareas pendientes de los carriles seriales, los carriles que
+     * estaban esperando en las colas son liberados y los que se estan
+     * ejecutando terminan con la tarea en curso.
+     */
+    private void clearLanes() {
+
+        for (KeyedLane Lane : this.Lanes.values()) {
+            synchronized (Lane) {
+                Lane.Tasks.clear();
+                if (!Lane.Running) {
+                    Lane.Scheduled = false;
+                    Lane.Retired = true;
+                    this.Lanes.remove(Lane.Key, Lane);
+                }
+            }
+        }
+    }
+
     // Finaliza el pool de Thread de ejecucion
     private void ShutdownThreadPool() {
 
@@ -483,7 +668,7 @@ public class KernelTasks implements Runnable {
         // Copia locar la de bandera de ejecucion
         boolean lEjecutar;
         // Copia local del Pool de Execicion
-        ThreadPoolExecutor lexecutorPool;
+        BTAdaptiveThreadPool lexecutorPool;
         // Tarea a ser agregada a la cola de ejecucion
         Runnable Tarea = null;
         // Numero de Tareas que quedan en la cola
@@ -491,25 +676,33 @@ public class KernelTasks implements Runnable {
         // Contadores de tiempo
         long StartTime, DiffTime;
         // Variables de entorno del pool
-        int MaximumPoolSize, CorePoolSize, ActiveThreadCount;
+        int MaximumPoolSize, ActiveThreadCount;
 
         this.InitThreadPool();
         rwl.writeLock().lock();
         try {
             lexecutorPool = this.executorPool;
+            if (this.AdaptivePool) {
+                lexecutorPool.setAdaptive(true, this.AdaptiveMinThreads, this.AdaptiveMaxThreads);
+            }
             lEjecutar = this.Ejecutar;
             this.isStarted = true;
         } finally {
             rwl.writeLock().unlock();
         }
-        MaximumPoolSize = lexecutorPool.getMaximumPoolSize();
-        CorePoolSize = lexecutorPool.getCorePoolSize();
         StartTime = System.currentTimeMillis();
         do {
+            // Ajusta el tamano del pool si el controlador esta habilitado
+            lexecutorPool.adjustPoolSize();
+            MaximumPoolSize = lexecutorPool.getMaximumPoolSize();
             ActiveThreadCount = lexecutorPool.getActiveCount();
-            if (ActiveThreadCount < MaximumPoolSize) {
+            // Con el controlador habilitado las tareas deben esperar en la cola del
+            // pool, donde el controlador mide su espera para decidir si crece
+            if ((ActiveThreadCount < MaximumPoolSize) || (lexecutorPool.isAdaptive() && (lexecutorPool.getQueue().size() < MaximumPoolSize))) {
                 try {
-                    Tarea = this.FIFO.poll(QUEUEREADTIMEOUT, TimeUnit.MILLISECONDS);
+                    // Si el kernel esta inactivo se espera a que llegue una tarea en
+                    // lugar de dormir la hebra, para no retrasar la siguiente tarea
+                    Tarea = this.FIFO.poll(((RemainTasks > 0) || (ActiveThreadCount > 0) ? QUEUEREADTIMEOUT : THREADSLEEP), TimeUnit.MILLISECONDS);
                     RemainTasks = this.FIFO.size();
                 } catch (InterruptedException ex) {
                     this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, KernelTasks.CLASSID, "027");
@@ -545,12 +738,10 @@ public class KernelTasks implements Runnable {
                 }
             } else {
                 // Reduce la introduccion de proceso en la cola de ejecusion para no sobrecargar el procesador
-                while (ActiveThreadCount > CorePoolSize) {
-                    try {
-                        EnvironmentUtils.randomSleep(MAINTHREADSLEEP);
-                    } catch (UtilsException ex) {
-                        this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, KernelTasks.CLASSID, "036");
-                    }
+                try {
+                    EnvironmentUtils.randomSleep(MAINTHREADSLEEP);
+                } catch (UtilsException ex) {
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, KernelTasks.CLASSID, "036");
                 }
             }
             rwl.readLock().lock();
@@ -560,11 +751,6 @@ public class KernelTasks implements Runnable {
                 rwl.readLock().unlock();
             }
             if ((RemainTasks <= 0) && (ActiveThreadCount <= 0)) {
-                try {
-                    EnvironmentUtils.randomSleep(THREADSLEEP);
-                } catch (UtilsException ex) {
-                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, KernelTasks.CLASSID, "037");
-                }
                 DiffTime = System.currentTimeMillis() - StartTime;
                 if (DiffTime > KernelTasks.MAX_IDLE_TIME) {
                     lEjecutar = false;
@@ -587,6 +773,91 @@ public class KernelTasks implements Runnable {
         }
     }
 
+    /**
+     * Clase privada que implementa un carril serial de ejecucion, el cual
+     * ejecuta en orden las tareas agregadas con la misma llave y es programado
+     * en el kernel como una tarea mas mientras tenga tareas pendientes.
+     */
+    private final class KeyedLane extends BTTask {
+
+        // Llave del carril
+        private final Object Key;
+        // Tareas pendientes del carril
+        @GuardedBy("this")
+        private final ArrayDeque<BTTask> Tasks = new ArrayDeque<BTTask>();
+        // Bandera para indicar que el carril esta en las colas del kernel o ejecutandose
+        @GuardedBy("this")
+        private boolean Scheduled = false;
+        // Bandera para indicar que el carril se esta ejecutando
+        @GuardedBy("this")
+        private boolean Running = false;
+        // Bandera para indicar que el carril fue liberado y no acepta tareas
+        @GuardedBy("this")
+        private boolean Retired = false;
+
+        /**
+         * Constructor de inicializacion
+         *
+         * @param Key Llave del carril
+         * @param Priority Prioridad del carril
+         * @param vLog Manejador de bitacoras
+         */
+        public KeyedLane(Object Key, int Priority, LoggerManager vLog) {
+            super(vLog);
+
+            this.Key = Key;
+            this.setPriority(Priority);
+        }
+
+        /**
+         * Ejecuta hasta MAXLANETASKS tareas del carril y vuelve a programar el
+         * carril en el kernel si le quedan tareas pendientes.
+         */
+        @Override
+        public void Execute(LoggerManager BTLogM) {
+            BTTask Tarea;
+            int Ejecutadas;
+            boolean Reprogramar;
+
+            do {
+                Ejecutadas = 0;
+                Reprogramar = false;
+                synchronized (this) {
+                    this.Running = true;
+                }
+                do {
+                    synchronized (this) {
+                        Tarea = this.Tasks.pollFirst();
+                    }
+                    if (Tarea != null) {
+                        try {
+                            Tarea.run();
+                        } catch (RuntimeException ex) {
+                            BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, true, ex, null, KernelTasks.CLASSID, "041");
+                        }
+                        Ejecutadas++;
+                    }
+                } while ((Tarea != null) && (Ejecutadas < MAXLANETASKS));
+                synchronized (this) {
+                    this.Running = false;
+                    if (this.Tasks.isEmpty()) {
+                        // Libera el carril inactivo
+                        this.Scheduled = false;
+                        this.Retired = true;
+                        Lanes.remove(this.Key, this);
+                    } else {
+                        Reprogramar = true;
+                    }
+                }
+                // Cede la hebra al resto de las tareas, si no se logra volver a
+                // programar el carril se continua ejecutando en esta hebra
+                if (Reprogramar && addTask(this)) {
+                    Reprogramar = false;
+                }
+            } while (Reprogramar);
+        }
+    }
+
     /**
      * Clase privada que maneja los ejecutores que fueron rechazados del pool de
      * ejecucion.
@@ -0,0 +1,540 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.NotThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that read the segments written by
+ * FileLogger in the compact binary log format.</p>
+ *
+ * <p>
+ * NOTE: This class is NOT Thread Safe.</p>
+ *
+ * <p>
+ * Lee los segmentos .blog que escribe FileLogger en el formato binario
+ * compacto (ver BinaryLogWriter). El segmento se mapea en memoria de solo
+ * lectura y los registros se recorren en orden con next(), que retorna solo
+ * los que estan en el rango de tiempo y cumplen con las mascaras de tipos y
+ * niveles establecidas.</p>
+ *
+ * <p>
+ * Si el segmento se cerro normalmente, su indice disperso permite saltar
+ * directamente al primer bloque del rango de tiempo y saltar los bloques que no
+ * tienen ningun registro con los tipos o niveles buscados. Dentro de un bloque
+ * los registros que no cumplen el filtro se saltan por su longitud sin
+ * decodificar su unidad ni su mensaje. Si el segmento no tiene indice (el
+ * segmento activo o uno que no se cerro) se recorre desde el inicio hasta el
+ * ultimo registro completo.</p>
+ *
+ * <p>
+ * Los segmentos comprimidos (.blog.lzma) se deben descomprimir con BTLZMA antes
+ * de leerlos.</p>
+ *
+ * <p>
+ * NOTA: Esta clase NO es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI2"</li>
+ * <li>Loc: 000-003</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.1
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): rewind reinicia la tabla de unidades de un
+ * segmento sin indice, que se vuelve a llenar al recorrerlo.</li>
+ * </ul>
+ */
+@NotThreadSafe
+public class BinaryLogReader {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI2";
+
+    /**
+     * Error de IO al abrir, mapear o cerrar el segmento
+     */
+    public final static int ERROR_IO = -1;
+    /**
+     * El archivo no es un segmento binario o esta corrupto
+     */
+    public final static int ERROR_FORMAT = -2;
+
+    // Define la mascara del tipo de Evento que se va a leer
+    public final static int TYPE_ALL = 0xFFFFFFFF;
+    // Define la mascara del nivel de registro que se va a leer
+    public final static int LEVEL_ALL = 0xFFFFFFFF;
+
+    // Nombre del segmento
+    private final String Name;
+    private final RandomAccessFile Archivo;
+    // Segmento mapeado en memoria de solo lectura
+    private final ByteBuffer Datos;
+    // Fin de la zona de registros (inicio del indice o fin del archivo)
+    private final int FinRegistros;
+    // Tabla de unidades
+    private final ArrayList<String> Unidades = new ArrayList<>();
+    // Entradas del indice disperso
+    private long[] Offsets = new long[0];
+    private long[] Bases = new long[0];
+    private byte[] Types = new byte[0];
+    private byte[] Levels = new byte[0];
+    private boolean Indexado = false;
+    // Rango de tiempo y mascaras del filtro
+    private long Desde = Long.MIN_VALUE;
+    private long Hasta = Long.MAX_VALUE;
+    private int TypeMask = TYPE_ALL;
+    private int LevelMask = LEVEL_ALL;
+    // Bloque actual, instante del ultimo registro leido y fin de la lectura
+    private int Bloque = 0;
+    private long Previo = 0;
+    private boolean Terminado = false;
+
+    /**
+     * Constructor con inicializacion del segmento a leer, valida el encabezado
+     * y carga el indice si el segmento se cerro normalmente.
+     *
+     * @param Name Nombre y ruta del segmento
+     * @throws UtilsException Si no se pudo mapear el archivo o no es un
+     * segmento binario
+     */
+    public BinaryLogReader(String Name) throws UtilsException {
+        FileChannel Canal;
+        long Largo;
+        int Fin;
+
+        this.Name = Name;
+        try {
+            this.Archivo = new RandomAccessFile(Name, "r");
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Can't open " + Name + " (" + ex.getMessage() + ")", ERROR_IO, BinaryLogReader.CLASSID + "000");
+        }
+        try {
+            Largo = this.Archivo.length();
+            if (Largo > Integer.MAX_VALUE) {
+                throw new UtilsException("ERROR: " + Name + " is larger than 2 GB", ERROR_FORMAT, BinaryLogReader.CLASSID + "001");
+            }
+            Canal = this.Archivo.getChannel();
+            this.Datos = Canal.map(FileChannel.MapMode.READ_ONLY, 0, Largo);
+            if (!this.hasMagic(0, BinaryLogWriter.HEADERMAGIC) || (this.Datos.get(BinaryLogWriter.HEADERMAGIC.length) != BinaryLogWriter.VERSION)) {
+                throw new UtilsException("ERROR: " + Name + " is not a binary log segment", ERROR_FORMAT, BinaryLogReader.CLASSID + "002");
+            }
+            Fin = (int) Largo;
+            if ((Largo >= (BinaryLogWriter.HEADERSIZE + BinaryLogWriter.FOOTERSIZE)) && this.hasMagic((int) Largo - BinaryLogWriter.FOOTERMAGIC.length, BinaryLogWriter.FOOTERMAGIC)) {
+                Fin = this.loadIndex((int) Largo);
+            }
+            this.FinRegistros = Fin;
+        } catch (IOException ex) {
+            this.closeQuietly();
+            throw new UtilsException("ERROR: Can't map " + Name + " (" + ex.getMessage() + ")", ERROR_IO, BinaryLogReader.CLASSID + "000");
+        } catch (UtilsException ex) {
+            this.closeQuietly();
+            throw ex;
+        }
+        this.Datos.position(BinaryLogWriter.HEADERSIZE);
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el nombre y ruta del segmento
+     *
+     * @return Nombre y ruta del segmento
+     */
+    public String getName() {
+
+        return this.Name;
+    }
+
+    /**
+     * Retorna TRUE si el segmento tiene indice, es decir si se cerro
+     * normalmente
+     *
+     * @return TRUE si el segmento tiene indice
+     */
+    public boolean isIndexed() {
+
+        return this.Indexado;
+    }
+
+    /**
+     * Establece el rango de tiempo de los registros a leer y reinicia la
+     * lectura, posicionandose en el primer bloque que puede contener registros
+     * del rango.
+     *
+     * @param FromMillis Instante inicial en milisegundos desde la epoca
+     * (inclusivo)
+     * @param ToMillis Instante final en milisegundos desde la epoca
+     * (inclusivo)
+     */
+    public void setRange(long FromMillis, long ToMillis) {
+
+        this.Desde = FromMillis;
+        this.Hasta = ToMillis;
+        this.rewind();
+    }
+
+    /**
+     * Establece las mascaras de tipos y niveles de los registros a leer
+     *
+     * Ejemplo: setFilter(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR |
+     * LoggerManager.LEVEL_FATAL).
+     *
+     * @param TypeMask Mascara de tipos de eventos
+     * @param LevelMask Mascara de niveles de eventos
+     */
+    public void setFilter(int TypeMask, int LevelMask) {
+
+        this.TypeMask = TypeMask;
+        this.LevelMask = LevelMask;
+    }
+
+    /**
+     * Reinicia la lectura al primer bloque que puede contener registros del
+     * rango de tiempo.
+     */
+    public void rewind() {
+        int Inicio, Fin, Medio;
+
+        this.Terminado = false;
+        this.Bloque = 0;
+        if (this.Indexado && (this.Offsets.length > 0)) {
+            // Busca el ultimo bloque cuyo instante base es menor que el inicio
+            // del rango, los bloques anteriores terminan antes del rango
+            Inicio = 0;
+            Fin = this.Offsets.length - 1;
+            while (Inicio < Fin) {
+                Medio = (Inicio + Fin + 1) >>> 1;
+                if (this.Bases[Medio] < this.Desde) {
+                    Inicio = Medio;
+                } else {
+                    Fin = Medio - 1;
+                }
+            }
+            this.seekBlock(Inicio);
+        } else {
+            // Sin indice las unidades se vuelven a definir al recorrer el segmento
+            this.Unidades.clear();
+            this.Datos.position(BinaryLogWriter.HEADERSIZE);
+            this.Previo = 0;
+        }
+    }
+
+    /**
+     * Retorna el siguiente registro del rango de tiempo que cumple con el
+     * filtro de tipos y niveles o NULL si no hay mas registros.
+     *
+     * @return Siguiente registro o NULL
+     * @throws UtilsException Si el segmento esta corrupto
+     */
+    public Record next() throws UtilsException {
+        Record Result = null;
+        String Unidad;
+        long Tiempo;
+        int Inicio, Cuerpo, Fin, Referencia, Largo;
+        byte Type, Level;
+
+        try {
+            while (!this.Terminado && (Result == null)) {
+                this.skipBlocks();
+                Inicio = this.Datos.position();
+                if (Inicio >= this.FinRegistros) {
+                    this.Terminado = true;
+                } else {
+                    Cuerpo = (int) this.getVarint();
+                    Fin = this.Datos.position() + Cuerpo;
+                    if ((Cuerpo <= 0) || (Fin > this.FinRegistros)) {
+                        // Registro incompleto al final de un segmento que no se cerro
+                        this.Terminado = true;
+                    } else {
+                        Tiempo = this.Previo + this.getVarint();
+                        Type = this.Datos.get();
+                        Level = this.Datos.get();
+                        Referencia = (int) this.getVarint();
+                        Unidad = null;
+                        if (Referencia == 0) {
+                            // Definicion de una unidad nueva
+                            Largo = (int) this.getVarint();
+                            Unidad = this.getString(Largo);
+                            if (!this.Indexado) {
+                                this.Unidades.add(Unidad);
+                            }
+                        }
+                        this.Previo = Tiempo;
+                        if (Tiempo > this.Hasta) {
+                            this.Terminado = true;
+                        } else if ((Tiempo >= this.Desde) && ((this.TypeMask & Type) != 0) && ((this.LevelMask & Level) != 0)) {
+                            if (Unidad == null) {
+                                if ((Referencia - 1) >= this.Unidades.size()) {
+                                    throw new UtilsException("ERROR: Unknown unit in " + this.Name + " at " + Integer.toString(Inicio), ERROR_FORMAT, BinaryLogReader.CLASSID + "003");
+                                }
+                                Unidad = this.Unidades.get(Referencia - 1);
+                            }
+                            Result = new Record(Tiempo, Type & 0xFF, Level & 0xFF, Unidad, this.getString(Fin - this.Datos.position()));
+                        }
+                        this.Datos.position(Fin);
+                    }
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new UtilsException("ERROR: Corrupted record in " + this.Name, ERROR_FORMAT, BinaryLogReader.CLASSID + "003");
+        }
+        return Result;
+    }
+
+    /**
+     * Cierra el segmento
+     *
+     * @throws UtilsException Si no se pudo cerrar el archivo
+     */
+    public void close() throws UtilsException {
+
+        try {
+            this.Archivo.close();
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Can't close " + this.Name + " (" + ex.getMessage() + ")", ERROR_IO, BinaryLogReader.CLASSID + "000");
+        }
+    }
+
+    /**
+     * Cierra el archivo ignorando los errores, despues de un error al abrir
+     */
+    private void closeQuietly() {
+
+        try {
+            this.Archivo.close();
+        } catch (IOException ex) {
+            // Ignorado, se reporta el error original
+        }
+    }
+
+    /**
+     * Carga la tabla de unidades y el indice disperso del segmento de
+     * "Largo" bytes, retornando el desplazamiento del indice.
+     *
+     * @param Largo Longitud del segmento
+     * @return Desplazamiento del inicio del indice
+     * @throws UtilsException Si el indice esta corrupto
+     */
+    private int loadIndex(int Largo) throws UtilsException {
+        long Indice;
+        int Numero, i;
+
+        try {
+            Indice = this.Datos.getLong(Largo - BinaryLogWriter.FOOTERMAGIC.length - 8);
+            if ((Indice < BinaryLogWriter.HEADERSIZE) || (Indice > (Largo - BinaryLogWriter.FOOTERSIZE)) || !this.hasMagic((int) Indice, BinaryLogWriter.INDEXMAGIC)) {
+                throw new UtilsException("ERROR: Corrupted index in " + this.Name, ERROR_FORMAT, BinaryLogReader.CLASSID + "003");
+            }
+            this.Datos.position((int) Indice + BinaryLogWriter.INDEXMAGIC.length);
+            Numero = (int) this.getVarint();
+            for (i = 0; i < Numero; i++) {
+                this.Unidades.add(this.getString((int) this.getVarint()));
+            }
+            Numero = (int) this.getVarint();
+            this.Offsets = new long[Numero];
+            this.Bases = new long[Numero];
+            this.Types = new byte[Numero];
+            this.Levels = new byte[Numero];
+            for (i = 0; i < Numero; i++) {
+                this.Offsets[i] = this.Datos.getLong();
+                this.Bases[i] = this.Datos.getLong();
+                this.Types[i] = this.Datos.get();
+                this.Levels[i] = this.Datos.get();
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new UtilsException("ERROR: Corrupted index in " + this.Name, ERROR_FORMAT, BinaryLogReader.CLASSID + "003");
+        }
+        this.Indexado = true;
+        return (int) Indice;
+    }
+
+    /**
+     * Salta los bloques del indice que no tienen registros con los tipos o
+     * niveles del filtro, a partir de la posicion actual.
+     */
+    private void skipBlocks() {
+        int Siguiente;
+
+        if (this.Indexado) {
+            // Avanza el bloque actual si la posicion ya esta en el siguiente
+            while (((this.Bloque + 1) < this.Offsets.length) && (this.Datos.position() >= this.Offsets[this.Bloque + 1])) {
+                this.Bloque++;
+            }
+            if ((this.Bloque < this.Offsets.length) && (this.Datos.position() == this.Offsets[this.Bloque])) {
+                Siguiente = this.Bloque;
+                while ((Siguiente < this.Offsets.length) && (((this.TypeMask & this.Types[Siguiente]) == 0) || ((this.LevelMask & this.Levels[Siguiente]) == 0))) {
+                    Siguiente++;
+                }
+                if (Siguiente >= this.Offsets.length) {
+                    this.Datos.position(this.FinRegistros);
+                } else if (Siguiente != this.Bloque) {
+                    this.seekBlock(Siguiente);
+                }
+            }
+        }
+    }
+
+    /**
+     * Posiciona la lectura en el inicio del bloque "Indice" del indice
+     *
+     * @param Indice Numero del bloque
+     */
+    private void seekBlock(int Indice) {
+
+        this.Bloque = Indice;
+        this.Datos.position((int) this.Offsets[Indice]);
+        this.Previo = this.Bases[Indice];
+    }
+
+    /**
+     * Retorna TRUE si los bytes en "Posicion" son la marca "Magic"
+     *
+     * @param Posicion Posicion en el segmento
+     * @param Magic Marca esperada
+     * @return TRUE si coincide la marca
+     */
+    private boolean hasMagic(int Posicion, byte[] Magic) {
+        boolean Result;
+        int i;
+
+        Result = (Posicion >= 0) && ((Posicion + Magic.length) <= this.Datos.limit());
+        for (i = 0; Result && (i < Magic.length); i++) {
+            Result = (this.Datos.get(Posicion + i) == Magic[i]);
+        }
+        return Result;
+    }
+
+    /**
+     * Lee un varint sin signo en la posicion actual
+     *
+     * @return Valor leido
+     */
+    private long getVarint() {
+        long Result = 0;
+        int Desplazamiento = 0;
+        byte Valor;
+
+        do {
+            Valor = this.Datos.get();
+            Result |= ((long) (Valor & 0x7F)) << Desplazamiento;
+            Desplazamiento += 7;
+        } while (((Valor & 0x80) != 0) && (Desplazamiento < 64));
+        return Result;
+    }
+
+    /**
+     * Lee "Largo" bytes en la posicion actual como texto UTF-8
+     *
+     * @param Largo Numero de bytes
+     * @return Texto leido
+     */
+    private String getString(int Largo) {
+        byte[] Bytes;
+
+        Bytes = new byte[Largo];
+        this.Datos.get(Bytes);
+        return new String(Bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Registro de bitacora leido del segmento
+     */
+    public static final class Record {
+
+        private final long TimeMillis;
+        private final int Type;
+        private final int Level;
+        private final String Unit;
+        private final String Messaje;
+
+        /**
+         * Constructor con inicializacion de los campos del registro
+         *
+         * @param TimeMillis Instante del evento en milisegundos
+         * @param Type Tipo de evento
+         * @param Level Nivel del evento
+         * @param Unit Unidad donde se genero el evento
+         * @param Messaje Mensaje del evento
+         */
+        private Record(long TimeMillis, int Type, int Level, String Unit, String Messaje) {
+            this.TimeMillis = TimeMillis;
+            this.Type = Type;
+            this.Level = Level;
+            this.Unit = Unit;
+            this.Messaje = Messaje;
+        }
+
+        /**
+         * Retorna el instante del evento en milisegundos desde la epoca
+         *
+         * @return Instante del evento en milisegundos
+         */
+        public long getTimeMillis() {
+            return TimeMillis;
+        }
+
+        /**
+         * Retorna el tipo de evento.
+         *
+         * @return Tipo de evento
+         */
+        public int getType() {
+            return Type;
+        }
+
+        /**
+         * Retorna el nivel del evento
+         *
+         * @return Nivel del evento
+         */
+        public int getLevel() {
+            return Level;
+        }
+
+        /**
+         * Retorna la unidad donde se produjo el evento
+         *
+         * @return Unidad donde se produjo el evento
+         */
+        public String getUnit() {
+            return Unit;
+        }
+
+        /**
+         * Retorna el mensaje del evento
+         *
+         * @return Mensaje del evento
+         */
+        public String getMessaje() {
+            return Messaje;
+        }
+    }
+}
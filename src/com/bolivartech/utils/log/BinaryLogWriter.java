@@ -0,0 +1,349 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.NotThreadSafe;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that encode the log events of a segment
+ * in the compact binary log format.</p>
+ *
+ * <p>
+ * NOTE: This class is NOT Thread Safe.</p>
+ *
+ * <p>
+ * Codifica los eventos de un segmento de bitacora en el formato binario
+ * compacto que lee BinaryLogReader. El segmento tiene la estructura:</p>
+ *
+ * <ul>
+ * <li>Encabezado: "BTLB" y la version del formato (1 byte).</li>
+ * <li>Registros: varint con la longitud del resto del registro, varint con la
+ * diferencia de tiempo en milisegundos con el registro anterior, byte del tipo,
+ * byte del nivel, varint con la referencia de la unidad y el mensaje en UTF-8
+ * hasta el final del registro. La referencia 0 indica que a continuacion se
+ * define una unidad nueva (varint con su longitud y su nombre en UTF-8), la
+ * referencia N &gt; 0 usa la unidad N-1 definida anteriormente.</li>
+ * <li>Indice: "BTLI", la tabla de unidades (varint con el numero de unidades y
+ * cada una con su longitud y nombre) y las entradas del indice disperso
+ * (varint con su numero y cada una con el desplazamiento del bloque, el
+ * instante base del bloque y las mascaras de tipos y niveles del bloque).</li>
+ * <li>Pie: instante del ultimo registro, desplazamiento del indice y
+ * "BTLX".</li>
+ * </ul>
+ *
+ * <p>
+ * Los instantes se guardan no decrecientes: si un productor publico un evento
+ * con un instante anterior al del evento previo se guarda el del previo, por
+ * lo que las diferencias nunca son negativas y el indice se puede buscar por
+ * tiempo. El instante base de un bloque es el del ultimo registro antes del
+ * bloque, desde el cual se acumulan las diferencias del bloque.</p>
+ *
+ * <p>
+ * NOTA: Esta clase NO es segura para las concurrencias, la usa solo la hebra
+ * del logger.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI1"</li>
+ * <li>Loc: none</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+@NotThreadSafe
+final class BinaryLogWriter {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI1";
+
+    // Marcas y version del formato
+    static final byte[] HEADERMAGIC = {'B', 'T', 'L', 'B'};
+    static final byte[] INDEXMAGIC = {'B', 'T', 'L', 'I'};
+    static final byte[] FOOTERMAGIC = {'B', 'T', 'L', 'X'};
+    static final byte VERSION = 1;
+    // Bytes del encabezado y del pie
+    static final int HEADERSIZE = 5;
+    static final int FOOTERSIZE = 20;
+    // Bytes de cada entrada del indice
+    static final int ENTRYSIZE = 18;
+
+    private static final int INDEXINTERVAL = 65536;  // Bytes de registros por bloque del indice
+
+    // Buffer de salida reutilizable con el ultimo bloque codificado
+    private byte[] Salida = new byte[1024];
+    private int Largo = 0;
+    // Tabla de unidades definidas en el segmento
+    private final HashMap<String, Integer> Unidades = new HashMap<>();
+    private final ArrayList<byte[]> Nombres = new ArrayList<>();
+    // Entradas del indice disperso: desplazamiento, instante base y mascaras
+    private long[] Offsets = new long[64];
+    private long[] Bases = new long[64];
+    private byte[] Types = new byte[64];
+    private byte[] Levels = new byte[64];
+    private int Entradas = 0;
+    // Desplazamiento en el segmento del siguiente byte a codificar
+    private long Offset = 0;
+    // Desplazamiento del inicio del bloque actual
+    private long InicioBloque = 0;
+    // Instante del ultimo registro
+    private long Previo = 0;
+
+    /**
+     * Constructor por defecto
+     */
+    BinaryLogWriter() {
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el buffer con los bytes del ultimo bloque codificado, son validos
+     * los primeros getLength() bytes hasta la siguiente codificacion.
+     *
+     * @return Bytes codificados
+     */
+    byte[] getBytes() {
+
+        return this.Salida;
+    }
+
+    /**
+     * Retorna el numero de bytes del ultimo bloque codificado
+     *
+     * @return Numero de bytes codificados
+     */
+    int getLength() {
+
+        return this.Largo;
+    }
+
+    /**
+     * Codifica el encabezado de un segmento nuevo, reiniciando la tabla de
+     * unidades y el indice.
+     *
+     * @return Numero de bytes codificados
+     */
+    int header() {
+
+        this.Unidades.clear();
+        this.Nombres.clear();
+        this.Entradas = 0;
+        this.Offset = 0;
+        this.Previo = 0;
+        this.Largo = 0;
+        this.putBytes(HEADERMAGIC, 0, HEADERMAGIC.length);
+        this.putByte(VERSION);
+        this.Offset += this.Largo;
+        this.InicioBloque = this.Offset;
+        return this.Largo;
+    }
+
+    /**
+     * Codifica el evento "msg" como un registro del segmento
+     *
+     * @param msg Evento de bitacora
+     * @return Numero de bytes codificados
+     */
+    int encode(LogRingBuffer.LogEvent msg) {
+        byte[] Unidad, Mensaje;
+        Integer Id;
+        String Nombre;
+        long Tiempo;
+        int Cuerpo, Referencia, i;
+
+        Tiempo = Math.max(this.Previo, msg.getTimeMillis());
+        if ((this.Entradas == 0) || ((this.Offset - this.InicioBloque) >= INDEXINTERVAL)) {
+            this.newEntry();
+        }
+        i = this.Entradas - 1;
+        this.Types[i] |= (byte) msg.getType();
+        this.Levels[i] |= (byte) msg.getLevel();
+        Nombre = String.valueOf(msg.getUnit());
+        Id = this.Unidades.get(Nombre);
+        Unidad = null;
+        if (Id == null) {
+            Unidad = Nombre.getBytes(StandardCharsets.UTF_8);
+            this.Unidades.put(Nombre, this.Nombres.size());
+            this.Nombres.add(Unidad);
+            Referencia = 0;
+        } else {
+            Referencia = Id + 1;
+        }
+        Mensaje = String.valueOf(msg.getMessaje()).getBytes(StandardCharsets.UTF_8);
+        Cuerpo = varintSize(Tiempo - this.Previo) + 2 + varintSize(Referencia) + Mensaje.length;
+        if (Unidad != null) {
+            Cuerpo += varintSize(Unidad.length) + Unidad.length;
+        }
+        this.Largo = 0;
+        this.putVarint(Cuerpo);
+        this.putVarint(Tiempo - this.Previo);
+        this.putByte((byte) msg.getType());
+        this.putByte((byte) msg.getLevel());
+        this.putVarint(Referencia);
+        if (Unidad != null) {
+            this.putVarint(Unidad.length);
+            this.putBytes(Unidad, 0, Unidad.length);
+        }
+        this.putBytes(Mensaje, 0, Mensaje.length);
+        this.Previo = Tiempo;
+        this.Offset += this.Largo;
+        return this.Largo;
+    }
+
+    /**
+     * Codifica el indice y el pie que cierran el segmento
+     *
+     * @return Numero de bytes codificados
+     */
+    int trailer() {
+        long Indice;
+        int i;
+
+        Indice = this.Offset;
+        this.Largo = 0;
+        this.putBytes(INDEXMAGIC, 0, INDEXMAGIC.length);
+        this.putVarint(this.Nombres.size());
+        for (byte[] Nombre : this.Nombres) {
+            this.putVarint(Nombre.length);
+            this.putBytes(Nombre, 0, Nombre.length);
+        }
+        this.putVarint(this.Entradas);
+        for (i = 0; i < this.Entradas; i++) {
+            this.putLong(this.Offsets[i]);
+            this.putLong(this.Bases[i]);
+            this.putByte(this.Types[i]);
+            this.putByte(this.Levels[i]);
+        }
+        this.putLong(this.Previo);
+        this.putLong(Indice);
+        this.putBytes(FOOTERMAGIC, 0, FOOTERMAGIC.length);
+        this.Offset += this.Largo;
+        return this.Largo;
+    }
+
+    /**
+     * Inicia un nuevo bloque del indice en el desplazamiento actual
+     */
+    private void newEntry() {
+
+        if (this.Entradas == this.Offsets.length) {
+            this.Offsets = Arrays.copyOf(this.Offsets, 2 * this.Entradas);
+            this.Bases = Arrays.copyOf(this.Bases, 2 * this.Entradas);
+            this.Types = Arrays.copyOf(this.Types, 2 * this.Entradas);
+            this.Levels = Arrays.copyOf(this.Levels, 2 * this.Entradas);
+        }
+        this.Offsets[this.Entradas] = this.Offset;
+        this.Bases[this.Entradas] = this.Previo;
+        this.Types[this.Entradas] = 0;
+        this.Levels[this.Entradas] = 0;
+        this.Entradas++;
+        this.InicioBloque = this.Offset;
+    }
+
+    /**
+     * Asegura que el buffer de salida tenga espacio para "Extra" bytes mas
+     *
+     * @param Extra Bytes adicionales requeridos
+     */
+    private void ensure(int Extra) {
+
+        if ((this.Largo + Extra) > this.Salida.length) {
+            this.Salida = Arrays.copyOf(this.Salida, Math.max(this.Largo + Extra, 2 * this.Salida.length));
+        }
+    }
+
+    /**
+     * Agrega el byte "Valor" al buffer de salida
+     *
+     * @param Valor Byte a agregar
+     */
+    private void putByte(byte Valor) {
+
+        this.ensure(1);
+        this.Salida[this.Largo++] = Valor;
+    }
+
+    /**
+     * Agrega "Cantidad" bytes de "Valor" desde "Inicio" al buffer de salida
+     *
+     * @param Valor Bytes a agregar
+     * @param Inicio Posicion del primer byte
+     * @param Cantidad Numero de bytes
+     */
+    private void putBytes(byte[] Valor, int Inicio, int Cantidad) {
+
+        this.ensure(Cantidad);
+        System.arraycopy(Valor, Inicio, this.Salida, this.Largo, Cantidad);
+        this.Largo += Cantidad;
+    }
+
+    /**
+     * Agrega "Valor" al buffer de salida en 8 bytes big-endian
+     *
+     * @param Valor Valor a agregar
+     */
+    private void putLong(long Valor) {
+        int i;
+
+        this.ensure(8);
+        for (i = 56; i >= 0; i -= 8) {
+            this.Salida[this.Largo++] = (byte) (Valor >>> i);
+        }
+    }
+
+    /**
+     * Agrega "Valor" al buffer de salida como varint sin signo
+     *
+     * @param Valor Valor a agregar
+     */
+    private void putVarint(long Valor) {
+
+        this.ensure(10);
+        while ((Valor & ~0x7FL) != 0) {
+            this.Salida[this.Largo++] = (byte) ((Valor & 0x7F) | 0x80);
+            Valor >>>= 7;
+        }
+        this.Salida[this.Largo++] = (byte) Valor;
+    }
+
+    /**
+     * Retorna el numero de bytes del varint sin signo de "Valor"
+     *
+     * @param Valor Valor a codificar
+     * @return Numero de bytes del varint
+     */
+    static int varintSize(long Valor) {
+        int Result = 1;
+
+        while ((Valor & ~0x7FL) != 0) {
+            Valor >>>= 7;
+            Result++;
+        }
+        return Result;
+    }
+}
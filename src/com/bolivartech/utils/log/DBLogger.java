@@ -11,12 +11,10 @@ import java.io.StringWriter;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
 import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -71,12 +69,12 @@ import java.util.logging.Logger;
  * </br></br>
  * <ul>
  * <li>Class ID: "35DBLMN"</li>
- * <li>Loc: 000-018</li>
+ * <li>Loc: 000-027</li>
  * </ul>
  *
  * @author Julian Bolivar
- * @since 2016 - April 22, 2016.
- * @version 1.0.1
+ * @since 2016 - October 19, 2026.
+ * @version 1.3.2
  *
  * <p>
  * Change Logs:</p>
@@ -84,6 +82,28 @@ import java.util.logging.Logger;
  * <li>v1.0.0 (2016-04-20): Version Inicial.</li>
  * <li>v1.0.1 (2016-04-22): Se implemento el uso de PreparedStatement para
  * evitar ataques de SQL Injection.</li>
+ * <li>v1.1.0 (2026-10-19): La cola de mensajes se reemplazo por un buffer
+ * circular de eventos mutables reservados (LogRingBuffer) donde los productores
+ * reclaman la posicion con un CAS, por lo que LogMessage no crea objetos ni
+ * toma locks. El instante se captura en milisegundos y se guarda directamente
+ * como Timestamp, la hebra del logger despierta al publicarse un evento en
+ * lugar de dormir THREADSLEEP cuando la cola esta vacia.</li>
+ * <li>v1.2.0 (2026-10-19): Los mensajes se guardan por lotes de hasta
+ * BATCHSIZE registros con un unico PreparedStatement reutilizado mientras se
+ * mantiene la conexion (addBatch/executeBatch) y un solo commit por lote. Si
+ * el lote falla se reintenta una vez y luego se inserta registro por registro
+ * para aislar el registro defectuoso.</li>
+ * <li>v1.3.0 (2026-10-19): Se agrego isEnabled, que verifica el filtro de tipos
+ * y niveles sin lock, y LogMessage con un DeferredLogMessage que se publica
+ * sin formatear en el buffer circular y se formatea en la hebra del logger.</li>
+ * <li>v1.3.1 (2026-10-19): Si el lote falla por una conexion caida
+ * (SQLTransientConnectionException, SQLState 08 o isValid falso) la conexion
+ * se cierra, se retorna al pool y se obtiene una nueva antes de reintentar, en
+ * lugar de reintentar e insertar registro por registro sobre la conexion
+ * caida.</li>
+ * <li>v1.3.2 (2026-10-19): Se agrego LogMessage con el instante del evento,
+ * que usa LoggerRouter para guardar el instante en que se registro el evento
+ * y no el de su entrega al logger.</li>
  * </ul>
  */
 public class DBLogger implements LoggerManager, Runnable {
@@ -103,10 +123,14 @@ public class DBLogger implements LoggerManager, Runnable {
     // Nombre de la tabla donde almacenar la bitacora
     private static final String TABLE_NAME = "DBLogger";
 
-    private static final int QUEUESIZE = 1024;     // Numero de Mensajes
-    private static final long QUEUEWRITETIMEOUT = 100;  // Milisegundos
-    private static final long QUEUEREADTIMEOUT = 10;  // Milisegundos
+    // Sentencia de insercion de un registro de la bitacora
+    private static final String INSERTSTATEMENT = "INSERT INTO " + TABLE_NAME + " (`when`,`where`,`type`,`level`,`message`) VALUES (?,?,?,?,?);";
+
+    private static final int QUEUESIZE = 4096;     // Numero de Mensajes
+    private static final long QUEUEFULLWAIT = 50000;  // Nanosegundos
     private static final int THREADSLEEP = 500;     // Milisegundos que duerme la hebra
+    private static final int BATCHSIZE = 256;      // Numero de Mensajes extraidos y guardados por lote
+    private static final int VALIDTIMEOUT = 2;     // Segundos de espera de isValid
 
     // Define la mascara del tipo de Evento que se va a Guardar
     public final static int TYPE_ALL = 0xFFFFFFFF;
@@ -118,15 +142,25 @@ public class DBLogger implements LoggerManager, Runnable {
 
     // Generador de numeros aleatorios
     private MersenneTwisterPlus Random;
-    // Formateador de datos de tiempo
-    private DateFormat dateFormat;
 
-    // Cola FIFO de mensajes
-    @GuardedBy("rwl")
-    private ArrayBlockingQueue<MessageLog> queue = null;
+    // Buffer circular FIFO de mensajes, no requiere del lock
+    private final LogRingBuffer queue;
+
+    // Lote de mensajes extraidos de la cola, solo lo usa la hebra del logger
+    private final long[] LoteWhen;
+    private final String[] LoteUnit;
+    private final int[] LoteType;
+    private final int[] LoteLevel;
+    private final String[] LoteMessaje;
+    // Sentencia de insercion reutilizada mientras se mantiene la conexion
+    private PreparedStatement Sentencia = null;
+    // Valor original del autocommit de la conexion, solo lo usa la hebra del logger
+    private boolean AutoCommit = true;
+    // Indica si el ultimo error fue por una conexion caida, solo lo usa la hebra del logger
+    private boolean ConexionCaida = false;
 
     // Hebra de Ejecucion
-    private Thread Ejecutor = null;
+    private volatile Thread Ejecutor = null;
     // Bandera de Ejecucion del Handler
     @GuardedBy("rwl")
     private boolean Ejecutar;
@@ -140,12 +174,10 @@ public class DBLogger implements LoggerManager, Runnable {
     // Instancia de la clase
     @GuardedBy("rwl")
     private static DBLogger instance = null;
-    // Define el tipo de Evento que se va a guardar
-    @GuardedBy("rwl")
-    private int SaveEventType;
-    // Define la mascara del nivel de registro que se va a guardar
-    @GuardedBy("rwl")
-    private int SaveRegLevel;
+    // Define el tipo de Evento que se va a guardar, se lee sin lock en LogMessage
+    private volatile int SaveEventType;
+    // Define la mascara del nivel de registro que se va a guardar, se lee sin lock en LogMessage
+    private volatile int SaveRegLevel;
 
     /**
      * Constructor privado
@@ -155,8 +187,12 @@ public class DBLogger implements LoggerManager, Runnable {
         this.Random = new MersenneTwisterPlus();
         this.SaveEventType = TYPE_ALL;
         this.SaveRegLevel = LEVEL_ALL;
-        this.queue = new ArrayBlockingQueue<>(QUEUESIZE);
-        this.dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SS");
+        this.queue = new LogRingBuffer(QUEUESIZE);
+        this.LoteWhen = new long[BATCHSIZE];
+        this.LoteUnit = new String[BATCHSIZE];
+        this.LoteType = new int[BATCHSIZE];
+        this.LoteLevel = new int[BATCHSIZE];
+        this.LoteMessaje = new String[BATCHSIZE];
     }
 
     /**
@@ -358,8 +394,9 @@ public class DBLogger implements LoggerManager, Runnable {
     /**
      * Envia el mensaje de registro al manejador de bitacoras.
      *
-     * NOTE: Cuando se implemente esta funcion debe ser "synchronized" para
-     * asegurar que sea thread safe.
+     * El mensaje se copia en una posicion reservada del buffer circular sin
+     * crear objetos ni tomar locks, si el buffer esta lleno se espera a que la
+     * hebra del logger libere posiciones.
      *
      * @param Type Tipo de Evento
      * @param level Nivel del Evento
@@ -368,45 +405,111 @@ public class DBLogger implements LoggerManager, Runnable {
      */
     @Override
     public void LogMessage(int Type, int level, String Unit, String Messaje) {
-        boolean Agregado = false;
-        MessageLog msg = null;
-        int LType, Llevel;
-        // Instante cuando se genero el mensaje
-        String dateNow;
-        Calendar rightNow;
 
-        rwl.readLock().lock();
-        try {
-            LType = this.SaveEventType & Type;
-            Llevel = this.SaveRegLevel & level;
-        } finally {
-            rwl.readLock().unlock();
+        this.Publish(Type, level, Unit, Messaje);
+    }
+
+    /**
+     * Envia el mensaje diferido al manejador de bitacoras, el texto del
+     * mensaje y el stack de su excepcion se generan en la hebra del logger
+     * solo si el evento pasa el filtro de tipos y niveles.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje diferido referente al evento
+     */
+    @Override
+    public void LogMessage(int Type, int level, String Unit, DeferredLogMessage Messaje) {
+
+        this.Publish(Type, level, Unit, Messaje);
+    }
+
+    /**
+     * Retorna TRUE si se guardan los eventos del tipo "Type" y nivel "level",
+     * se lee sin lock.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @return TRUE si se guardan los eventos de ese tipo y nivel
+     */
+    @Override
+    public boolean isEnabled(int Type, int level) {
+
+        return (((this.SaveEventType & Type) != 0) && ((this.SaveRegLevel & level) != 0));
+    }
+
+    /**
+     * Envia al manejador de bitacoras un evento con el instante en que se
+     * genero, lo usa LoggerRouter para que el instante guardado no sea el de
+     * la entrega desde su buffer.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     * @param TimeMillis Instante del evento
+     */
+    void LogMessage(int Type, int level, String Unit, Object Messaje, long TimeMillis) {
+
+        if (this.isEnabled(Type, level)) {
+            this.Enqueue(Type, level, Unit, Messaje, TimeMillis);
         }
-        if ((LType != 0) && (Llevel != 0)) {
-            rightNow = Calendar.getInstance();
-            dateNow = this.dateFormat.format(rightNow.getTime());
-            msg = new MessageLog(Type, level, Unit, dateNow, Messaje);
-            do {
-                rwl.writeLock().lock();
-                try {
-                    Agregado = this.queue.offer(msg, QUEUEWRITETIMEOUT, TimeUnit.MILLISECONDS);
-                    if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
-                        // Inicia la hebra de monitoreo
-                        this.StartThread();
-                    }
-                } catch (InterruptedException ex) {
-                    Logger.getLogger(this.CLASSID + "007").log(Level.SEVERE, ex.getMessage());
-                } finally {
-                    rwl.writeLock().unlock();
-                }
-                if (!Agregado) {
-                    try {
-                        EnvironmentUtils.randomSleep(3 * THREADSLEEP);
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "008").log(Level.SEVERE, ex.getMessage());
-                    }
+    }
+
+    /**
+     * Publica el mensaje en el buffer circular con el instante actual si el
+     * evento pasa el filtro de tipos y niveles.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     */
+    private void Publish(int Type, int level, String Unit, Object Messaje) {
+
+        if (this.isEnabled(Type, level)) {
+            this.Enqueue(Type, level, Unit, Messaje, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Copia el evento al buffer circular, si esta lleno espera a que la hebra
+     * del logger libere posiciones.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     * @param TimeMillis Instante del evento
+     */
+    private void Enqueue(int Type, int level, String Unit, Object Messaje, long TimeMillis) {
+
+        while (!this.queue.tryPublish(Type, level, Unit, Messaje, TimeMillis)) {
+            this.VerifyThread();
+            LockSupport.parkNanos(QUEUEFULLWAIT);
+        }
+        this.VerifyThread();
+    }
+
+    /**
+     * Inicia la hebra del logger si no se esta ejecutando, el lock solo se toma
+     * cuando hay que iniciarla.
+     */
+    private void VerifyThread() {
+        Thread Local;
+
+        Local = this.Ejecutor;
+        if ((Local == null) || (Local.getState() == Thread.State.TERMINATED)) {
+            rwl.writeLock().lock();
+            try {
+                if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
+                    // Inicia la hebra de monitoreo
+                    this.StartThread();
                 }
-            } while (!Agregado);
+            } finally {
+                rwl.writeLock().unlock();
+            }
         }
     }
 
@@ -416,12 +519,7 @@ public class DBLogger implements LoggerManager, Runnable {
     public final void Clear() {
 
         Logger.getLogger(this.CLASSID + "009").log(Level.INFO, "Message Queue Cleaned");
-        rwl.writeLock().lock();
-        try {
-            this.queue.clear();
-        } finally {
-            rwl.writeLock().unlock();
-        }
+        this.queue.clear();
     }
 
     /**
@@ -464,144 +562,384 @@ public class DBLogger implements LoggerManager, Runnable {
     }
 
     /**
-     * Realiza el formateo del mensaje y lo guarda en la base de datos.
+     * Asigna los parametros de la sentencia de insercion con el mensaje
+     * "Indice" del lote.
+     *
+     * @param Indice Posicion del mensaje en el lote
+     * @throws SQLException Si no se pudo asignar algun parametro
      */
-    private void LogMessage(Connection connection, MessageLog msg) {
-        int Type, Nivel;
-        String dateNow;
-        String Unit, Messaje, insertStatement;
-        PreparedStatement statement = null;
+    private void BindMessage(int Indice) throws SQLException {
+
+        this.Sentencia.setTimestamp(1, new Timestamp(this.LoteWhen[Indice]));
+        this.Sentencia.setString(2, this.LoteUnit[Indice]);
+        this.Sentencia.setString(5, this.LoteMessaje[Indice]);
+        switch (this.LoteType[Indice]) {
+            case LoggerManager.TYPE_EVENT:
+                this.Sentencia.setString(3, "Event");
+                break;
+            case LoggerManager.TYPE_ERROR:
+                this.Sentencia.setString(3, "Error");
+                break;
+            default:
+                this.Sentencia.setString(3, "Unknown");
+        }
+        switch (this.LoteLevel[Indice]) {
+            case LoggerManager.LEVEL_ERROR:
+                this.Sentencia.setString(4, "Error");
+                break;
+            case LoggerManager.LEVEL_DEBUG:
+                this.Sentencia.setString(4, "Debug");
+                break;
+            case LoggerManager.LEVEL_INFO:
+                this.Sentencia.setString(4, "Info");
+                break;
+            case LoggerManager.LEVEL_TRACE:
+                this.Sentencia.setString(4, "Trace");
+                break;
+            case LoggerManager.LEVEL_WARNING:
+                this.Sentencia.setString(4, "Warning");
+                break;
+            case LoggerManager.LEVEL_FATAL:
+                this.Sentencia.setString(4, "Fatal");
+                break;
+            default:
+                this.Sentencia.setString(4, "Unknown");
+        }
+    }
+
+    /**
+     * Deshace la transaccion en curso despues de un error
+     *
+     * @param connection Conexion a la base de datos
+     */
+    private void Rollback(Connection connection) {
 
         try {
-            insertStatement = "INSERT INTO " + TABLE_NAME + " (`when`,`where`,`type`,`level`,`message`) VALUES (?,?,?,?,?);";
-            statement = connection.prepareStatement(insertStatement);
-            dateNow = msg.getTimeStamp();
-            if (dateNow.contains("/")) {
-                dateNow = dateNow.replace('/', '-');
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
             }
-            Unit = msg.getUnit();
-            Type = msg.getType();
-            Nivel = msg.getLevel();
-            Messaje = msg.getMessaje();
-            statement.setTimestamp(1, Timestamp.valueOf(dateNow));
-            statement.setString(2, Unit);
-            statement.setString(5, Messaje);
-            switch (Type) {
-                case LoggerManager.TYPE_EVENT:
-                    statement.setString(3, "Event");
-                    break;
-                case LoggerManager.TYPE_ERROR:
-                    statement.setString(3, "Error");
-                    break;
-                default:
-                    statement.setString(3, "Unknown");
+        } catch (SQLException exx) {
+            Logger.getLogger(this.CLASSID + "012").log(Level.SEVERE, null, exx);
+        }
+    }
+
+    /**
+     * Cierra la sentencia de insercion reutilizada, despues de un error o antes
+     * de retornar la conexion al pool.
+     */
+    private void CloseStatement() {
+
+        if (this.Sentencia != null) {
+            try {
+                this.Sentencia.close();
+            } catch (SQLException ex) {
+                Logger.getLogger(this.CLASSID + "013").log(Level.SEVERE, null, ex);
+            } finally {
+                this.Sentencia = null;
+            }
+        }
+    }
+
+    /**
+     * Guarda los primeros "Count" mensajes del lote con una sola ejecucion por
+     * lotes y un solo commit, retorna TRUE si se guardaron.
+     *
+     * Si el lote falla se deshace la transaccion y se cierra la sentencia, por
+     * lo que ningun mensaje del lote queda guardado.
+     *
+     * @param connection Conexion a la base de datos
+     * @param Count Numero de mensajes en el lote
+     * @return TRUE si el lote se guardo
+     */
+    private boolean SaveBatch(Connection connection, int Count) {
+        boolean Result = false;
+        int i;
+
+        this.ConexionCaida = false;
+        try {
+            if (this.Sentencia == null) {
+                this.Sentencia = connection.prepareStatement(INSERTSTATEMENT);
             }
-            switch (Nivel) {
-                case LoggerManager.LEVEL_ERROR:
-                    statement.setString(4, "Error");
-                    break;
-                case LoggerManager.LEVEL_DEBUG:
-                    statement.setString(4, "Debug");
-                    break;
-                case LoggerManager.LEVEL_INFO:
-                    statement.setString(4, "Info");
-                    break;
-                case LoggerManager.LEVEL_TRACE:
-                    statement.setString(4, "Trace");
-                    break;
-                case LoggerManager.LEVEL_WARNING:
-                    statement.setString(4, "Warning");
-                    break;
-                case LoggerManager.LEVEL_FATAL:
-                    statement.setString(4, "Fatal");
-                    break;
-                default:
-                    statement.setString(4, "Unknown");
+            for (i = 0; i < Count; i++) {
+                this.BindMessage(i);
+                this.Sentencia.addBatch();
             }
-            statement.execute();
+            this.Sentencia.executeBatch();
             if (!connection.getAutoCommit()) {
                 connection.commit();
             }
-        } catch (SQLException | IllegalArgumentException ex) {
+            Result = true;
+        } catch (SQLException ex) {
             Logger.getLogger(this.CLASSID + "011").log(Level.SEVERE, null, ex);
+            this.ConexionCaida = this.isConnectionFailure(connection, ex);
+            this.Rollback(connection);
+            this.CloseStatement();
+        } catch (IllegalArgumentException ex) {
+            Logger.getLogger(this.CLASSID + "011").log(Level.SEVERE, null, ex);
+            this.Rollback(connection);
+            this.CloseStatement();
+        }
+        return Result;
+    }
+
+    /**
+     * Guarda el mensaje "Indice" del lote en su propia transaccion, retorna
+     * TRUE si se guardo.
+     *
+     * @param connection Conexion a la base de datos
+     * @param Indice Posicion del mensaje en el lote
+     * @return TRUE si el mensaje se guardo
+     */
+    private boolean SaveMessage(Connection connection, int Indice) {
+        boolean Result = false;
+
+        this.ConexionCaida = false;
+        try {
+            if (this.Sentencia == null) {
+                this.Sentencia = connection.prepareStatement(INSERTSTATEMENT);
+            }
+            this.BindMessage(Indice);
+            this.Sentencia.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            Result = true;
+        } catch (SQLException ex) {
+            Logger.getLogger(this.CLASSID + "019").log(Level.SEVERE, "Message from " + this.LoteUnit[Indice] + " rejected: " + ex.getMessage());
+            this.ConexionCaida = this.isConnectionFailure(connection, ex);
+            this.Rollback(connection);
+            this.CloseStatement();
+        } catch (IllegalArgumentException ex) {
+            Logger.getLogger(this.CLASSID + "019").log(Level.SEVERE, "Message from " + this.LoteUnit[Indice] + " rejected: " + ex.getMessage());
+            this.Rollback(connection);
+            this.CloseStatement();
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna TRUE si el error "ex" se debe a que la conexion esta caida, ya
+     * sea por el tipo de la excepcion, por su SQLState de la clase 08 o porque
+     * la conexion ya no es valida.
+     *
+     * @param connection Conexion a la base de datos
+     * @param ex Error de la sentencia
+     * @return TRUE si la conexion esta caida
+     */
+    private boolean isConnectionFailure(Connection connection, SQLException ex) {
+        boolean Result;
+
+        Result = ((ex instanceof SQLTransientConnectionException) || (ex instanceof SQLNonTransientConnectionException) || ((ex.getSQLState() != null) && ex.getSQLState().startsWith("08")));
+        if (!Result) {
             try {
-                if (!connection.getAutoCommit()) {
-                    connection.rollback();
-                }
+                Result = !connection.isValid(VALIDTIMEOUT);
             } catch (SQLException exx) {
-                Logger.getLogger(this.CLASSID + "012").log(Level.SEVERE, null, exx);
+                Result = true;
             }
-        } finally {
-            if (statement != null) {
-                try {
-                    statement.close();
-                } catch (SQLException ex) {
-                    Logger.getLogger(this.CLASSID + "013").log(Level.SEVERE, null, ex);
+        }
+        return Result;
+    }
+
+    /**
+     * Descarta la conexion caida "connection" cerrandola y retornandola al
+     * pool, y obtiene una nueva conexion del pool, retorna NULL si no se pudo
+     * obtener.
+     *
+     * @param pool Pool de conexiones
+     * @param connection Conexion caida
+     * @return Nueva conexion o NULL
+     */
+    private Connection ReplaceConnection(ConnectionsPoolManager pool, Connection connection) {
+        Connection Result = null;
+
+        this.CloseStatement();
+        try {
+            // Al estar cerrada el pool la elimina en lugar de reutilizarla
+            connection.close();
+        } catch (SQLException ex) {
+            Logger.getLogger(this.CLASSID + "024").log(Level.WARNING, null, ex);
+        }
+        try {
+            pool.checkIn(connection);
+        } catch (UtilsException ex) {
+            Logger.getLogger(this.CLASSID + "025").log(Level.SEVERE, null, ex);
+        }
+        try {
+            Result = pool.checkOut(this.getDBDescriptor());
+            this.AutoCommit = this.BeginBatches(Result);
+        } catch (UtilsException ex) {
+            Logger.getLogger(this.CLASSID + "026").log(Level.SEVERE, null, ex);
+            Result = null;
+        }
+        return Result;
+    }
+
+    /**
+     * Guarda en la base de datos los primeros "Count" mensajes del lote,
+     * retornando la conexion que debe usarse para los siguientes lotes o NULL
+     * si no se logro obtener una conexion.
+     *
+     * El lote se envia con executeBatch y un solo commit. Si falla porque la
+     * conexion esta caida, la conexion se reemplaza por una nueva del pool y
+     * se reintenta sobre ella; si falla por otra causa se reintenta una vez y
+     * si vuelve a fallar se inserta mensaje por mensaje, de forma que solo se
+     * pierden los mensajes que la base de datos rechaza. Si la conexion vuelve
+     * a caer los mensajes restantes del lote se descartan.
+     *
+     * @param pool Pool de conexiones
+     * @param connection Conexion a la base de datos
+     * @param Count Numero de mensajes en el lote
+     * @return Conexion a usar en los siguientes lotes o NULL
+     */
+    private Connection LogMessages(ConnectionsPoolManager pool, Connection connection, int Count) {
+        boolean Guardado;
+        int i, Rechazados;
+
+        Guardado = this.SaveBatch(connection, Count);
+        if (!Guardado && this.ConexionCaida) {
+            Logger.getLogger(this.CLASSID + "027").log(Level.WARNING, "Database connection lost, replacing it");
+            connection = this.ReplaceConnection(pool, connection);
+            Guardado = ((connection != null) && this.SaveBatch(connection, Count));
+        } else if (!Guardado) {
+            Guardado = this.SaveBatch(connection, Count);
+        }
+        if (!Guardado) {
+            Rechazados = Count;
+            if ((connection != null) && !this.ConexionCaida) {
+                Logger.getLogger(this.CLASSID + "022").log(Level.WARNING, "Batch of " + Integer.toString(Count) + " messages failed twice, saving one by one");
+                Rechazados = 0;
+                for (i = 0; (i < Count) && !this.ConexionCaida; i++) {
+                    if (!this.SaveMessage(connection, i)) {
+                        Rechazados++;
+                    }
                 }
+                // Si la conexion cayo se descartan los mensajes que faltan
+                Rechazados += Count - i;
+            }
+            if (Rechazados > 0) {
+                Logger.getLogger(this.CLASSID + "023").log(Level.WARNING, Integer.toString(Rechazados) + " of " + Integer.toString(Count) + " messages were lost");
+            }
+        }
+        if ((connection != null) && this.ConexionCaida) {
+            // La conexion quedo caida, la siguiente conexion se obtiene del pool
+            connection = this.ReplaceConnection(pool, connection);
+        }
+        return connection;
+    }
+
+    /**
+     * Desactiva el autocommit de la conexion para que cada lote se confirme
+     * con un solo commit, retorna el valor original del autocommit.
+     *
+     * @param connection Conexion recien obtenida del pool
+     * @return Valor original del autocommit de la conexion
+     */
+    private boolean BeginBatches(Connection connection) {
+        boolean Result = true;
+
+        try {
+            Result = connection.getAutoCommit();
+            if (Result) {
+                connection.setAutoCommit(false);
+            }
+        } catch (SQLException ex) {
+            Logger.getLogger(this.CLASSID + "020").log(Level.SEVERE, null, ex);
+        }
+        return Result;
+    }
+
+    /**
+     * Cierra la sentencia reutilizada, restablece el autocommit original de la
+     * conexion y la retorna al pool.
+     *
+     * @param pool Pool de conexiones
+     * @param connection Conexion a retornar
+     * @param Loc Localizacion del error al retornar la conexion
+     */
+    private void EndBatches(ConnectionsPoolManager pool, Connection connection, String Loc) {
+
+        this.CloseStatement();
+        try {
+            if (this.AutoCommit && !connection.getAutoCommit()) {
+                connection.setAutoCommit(true);
             }
+        } catch (SQLException ex) {
+            Logger.getLogger(this.CLASSID + "021").log(Level.SEVERE, null, ex);
+        }
+        try {
+            pool.checkIn(connection);
+        } catch (UtilsException ex) {
+            Logger.getLogger(this.CLASSID + Loc).log(Level.SEVERE, null, ex);
         }
     }
 
     @Override
     public void run() {
-        // Copia del mensaje de la cola
-        MessageLog Mensaje = null;
+        // Mensaje en el buffer circular
+        LogRingBuffer.LogEvent Mensaje = null;
         // Copia local de la bandera de ejecucion
         boolean LEjecutar = false;
-        // Numero de mensaje que quedan en la cola
-        int RemainMsg = 0;
+        // Numero de mensajes extraidos en el lote
+        int Extraidos;
         // Contadores de tiempo
         long StartTime, DiffTime;
         // Pool de conexiones a base de datos
         ConnectionsPoolManager pool;
         // Conexion a la base de datos
         Connection connection = null;
+        int i;
 
         pool = ConnectionsPoolManager.getInstance();
         StartTime = System.currentTimeMillis();
         do {
-            // Recupera los mensajes de la cola
             rwl.readLock().lock();
             try {
-                Mensaje = this.queue.poll(QUEUEREADTIMEOUT, TimeUnit.MILLISECONDS);
-                RemainMsg = this.queue.size();
                 LEjecutar = this.Ejecutar;
-            } catch (InterruptedException ex) {
-                Logger.getLogger(this.CLASSID + "014").log(Level.SEVERE, ex.getMessage());
             } finally {
                 rwl.readLock().unlock();
             }
-            // Envia el mensaje para su implesion
-            if (Mensaje != null) {
+            // La cola no requiere del lock, la hebra despierta al publicarse un mensaje
+            try {
+                this.queue.await(LEjecutar ? THREADSLEEP : 0);
+            } catch (InterruptedException ex) {
+                Logger.getLogger(this.CLASSID + "014").log(Level.SEVERE, ex.getMessage());
+            }
+            // Copia el lote de mensajes y libera sus posiciones en la cola
+            Extraidos = 0;
+            while ((Extraidos < BATCHSIZE) && ((Mensaje = this.queue.peek()) != null)) {
+                this.LoteWhen[Extraidos] = Mensaje.getTimeMillis();
+                this.LoteUnit[Extraidos] = Mensaje.getUnit();
+                this.LoteType[Extraidos] = Mensaje.getType();
+                this.LoteLevel[Extraidos] = Mensaje.getLevel();
+                this.LoteMessaje[Extraidos] = Mensaje.getMessaje();
+                this.queue.release();
+                Mensaje = null;
+                Extraidos++;
+            }
+            // Envia el lote a la base de datos
+            if (Extraidos > 0) {
                 try {
                     if (connection == null) {
                         // Recupera una conexion a la base de datos del pool
                         connection = pool.checkOut(this.getDBDescriptor());
+                        this.AutoCommit = this.BeginBatches(connection);
                     }
-                    // Escribe el evento
-                    this.LogMessage(connection, Mensaje);
+                    connection = this.LogMessages(pool, connection, Extraidos);
                 } catch (UtilsException ex) {
                     Logger.getLogger(this.CLASSID + "015").log(Level.SEVERE, null, ex);
                 } finally {
-                    if ((RemainMsg == 0) && (connection != null)) {
-                        // Si no hay mas mensajes se retorna la conexion al pool
-                        try {
-                            pool.checkIn(connection);
-                        } catch (UtilsException ex) {
-                            Logger.getLogger(this.CLASSID + "016").log(Level.SEVERE, null, ex);
-                        } finally {
-                            connection = null;
-                        }
+                    for (i = 0; i < Extraidos; i++) {
+                        this.LoteUnit[i] = null;
+                        this.LoteMessaje[i] = null;
                     }
-                    Mensaje = null;
                 }
             }
-            if (RemainMsg <= 0) {
-                try {
-                    EnvironmentUtils.randomSleep(THREADSLEEP);
-                } catch (UtilsException ex) {
-                    Logger.getLogger(this.CLASSID + "017").log(Level.SEVERE, null, ex);
-                }
+            if ((connection != null) && this.queue.isEmpty()) {
+                // Si no hay mas mensajes se retorna la conexion al pool
+                this.EndBatches(pool, connection, "016");
+                connection = null;
+            }
+            if (Extraidos == 0) {
                 DiffTime = System.currentTimeMillis() - StartTime;
                 if (DiffTime > DBLogger.MAX_IDLE_TIME) {
                     LEjecutar = false;
@@ -609,98 +947,23 @@ public class DBLogger implements LoggerManager, Runnable {
             } else {
                 StartTime = System.currentTimeMillis();
             }
-        } while (LEjecutar);
+        } while (LEjecutar || !this.queue.isEmpty());
         rwl.writeLock().lock();
         try {
             if (connection != null) {
                 // Se retorna la conexion al pool
-                try {
-                    pool.checkIn(connection);
-                } catch (UtilsException ex) {
-                    Logger.getLogger(this.CLASSID + "018").log(Level.SEVERE, null, ex);
-                } finally {
-                    connection = null;
-                }
+                this.EndBatches(pool, connection, "018");
+                connection = null;
             }
         } finally {
             this.Ejecutor = null;
             this.Finalizado = true;
+            // Un productor pudo publicar despues de la ultima verificacion sin
+            // ver que la hebra estaba terminando
+            if (this.Ejecutar && !this.queue.isEmpty()) {
+                this.StartThread();
+            }
             rwl.writeLock().unlock();
         }
     }
-
-    /**
-     * Clase privada que encapsula el mansaje que se va a guardar en la bitacora
-     */
-    private class MessageLog {
-
-        private int Type;
-        private int Level;
-        private String Unit;
-        private String Messaje;
-        private String TimeStamp;
-
-        /**
-         * Constructor por defecto.
-         *
-         * @param Type Tipo de evento
-         * @param Level Nivel del evento
-         * @param Unit Unidad donde se genero el error
-         * @param TimeStamp Fecha y hora cuando se produjo el evento
-         * @param Messaje Mensaje de error
-         */
-        public MessageLog(int Type, int Level, String Unit, String TimeStamp, String Messaje) {
-            this.Type = Type;
-            this.Level = Level;
-            this.Unit = Unit;
-            this.TimeStamp = TimeStamp;
-            this.Messaje = Messaje;
-        }
-
-        /**
-         * Retorna el tipo de evento.
-         *
-         * @return Tipo de evento
-         */
-        public int getType() {
-            return Type;
-        }
-
-        /**
-         * Retorna el nivel del evento
-         *
-         * @return Nivel del evento
-         */
-        public int getLevel() {
-            return Level;
-        }
-
-        /**
-         * Retorna la unidad donde se produjo el evento
-         *
-         * @return Unidad donde se produjo el evento
-         */
-        public String getUnit() {
-            return Unit;
-        }
-
-        /**
-         * Retorna el mensaje de error
-         *
-         * @return Mensaje de error
-         */
-        public String getMessaje() {
-            return Messaje;
-        }
-
-        /**
-         * Retorna la Fecha y hora en la que se produjo el evento
-         *
-         * @return
-         */
-        public String getTimeStamp() {
-            return TimeStamp;
-        }
-
-    }
 }
@@ -0,0 +1,172 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that hold a log message whose text and
+ * stack trace are rendered only when the logger consumes it.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Guarda la plantilla, los argumentos y la excepcion de un mensaje de
+ * bitacora sin formatearlo. El texto se genera en toString(), que llama la
+ * hebra del manejador de bitacoras solo para los mensajes que pasaron su
+ * filtro de tipos y niveles, por lo que el productor no paga el formateo ni la
+ * impresion del stack.</p>
+ *
+ * <p>
+ * Los argumentos y la excepcion se guardan por referencia y se convierten a
+ * texto despues, en la hebra del manejador: si un argumento mutable cambia
+ * antes de que el manejador consuma el mensaje, el texto muestra el valor que
+ * tenga en ese momento y su toString() se ejecuta en la hebra del manejador.
+ * Los argumentos que pueden cambiar se deben pasar como copias o como valores
+ * inmutables.</p>
+ *
+ * <p>
+ * En la plantilla cada "{}" se reemplaza en orden por el siguiente argumento,
+ * los "{}" sin argumento se dejan tal cual. El texto generado tiene el mismo
+ * formato que LoggerFormatter.LogMsg: "(LocationID) Mensaje" seguido del stack
+ * de la excepcion si se solicito.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias, el texto es inmutable una
+ * vez generado y si varias hebras lo generan a la vez (LoggerRouter entrega el
+ * mismo mensaje a varios sinks) todas obtienen el mismo texto.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI3"</li>
+ * <li>Loc: none</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.1.1
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.1.0 (2026-10-19): El texto generado es volatil para compartir el
+ * mensaje entre los sinks de LoggerRouter.</li>
+ * <li>v1.1.1 (2026-10-19): Se documenta que los argumentos se guardan por
+ * referencia y se formatean en la hebra del manejador.</li>
+ * </ul>
+ */
+@ThreadSafe
+public final class DeferredLogMessage {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI3";
+
+    // Marca de los argumentos en la plantilla
+    private static final String PLACEHOLDER = "{}";
+
+    // Identificador de ubicacion del mensaje
+    private final String LocationID;
+    // Plantilla y argumentos del mensaje
+    private final String Template;
+    private final Object[] Args;
+    // Excepcion del mensaje y si se imprime su stack
+    private final Throwable Ex;
+    private final boolean printStack;
+    // Texto generado en el primer toString()
+    private volatile String Texto = null;
+
+    /**
+     * Constructor con inicializacion del mensaje diferido
+     *
+     * Si la plantilla es NULL se usa el mensaje de la excepcion.
+     *
+     * @param LocationID Identificador de ubicacion del evento
+     * @param Template Plantilla del mensaje con "{}" por cada argumento
+     * @param Args Argumentos de la plantilla, se guardan por referencia
+     * @param Ex Excepcion asociada al mensaje o NULL
+     * @param printStack TRUE para agregar el stack de la excepcion
+     */
+    public DeferredLogMessage(String LocationID, String Template, Object[] Args, Throwable Ex, boolean printStack) {
+        this.LocationID = LocationID;
+        this.Template = Template;
+        this.Args = Args;
+        this.Ex = Ex;
+        this.printStack = printStack;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna el identificador de ubicacion del mensaje
+     *
+     * @return Identificador de ubicacion
+     */
+    public String getLocationID() {
+        return LocationID;
+    }
+
+    /**
+     * Genera el texto del mensaje reemplazando los argumentos de la plantilla
+     * y agregando el stack de la excepcion si se solicito.
+     *
+     * @return Texto del mensaje
+     */
+    @Override
+    public String toString() {
+        StringBuilder Salida;
+        StringWriter StackTrace;
+        String Mensaje;
+        int Inicio, Marca, i;
+
+        if (this.Texto == null) {
+            Mensaje = this.Template;
+            if ((Mensaje == null) && (this.Ex != null)) {
+                Mensaje = this.Ex.getMessage();
+            } else if (Mensaje == null) {
+                Mensaje = "UNKNOWN";
+            }
+            Salida = new StringBuilder(Mensaje.length() + 64);
+            Salida.append('(').append(this.LocationID).append(") ");
+            Inicio = 0;
+            if (this.Args != null) {
+                for (i = 0; i < this.Args.length; i++) {
+                    Marca = Mensaje.indexOf(PLACEHOLDER, Inicio);
+                    if (Marca < 0) {
+                        break;
+                    }
+                    Salida.append(Mensaje, Inicio, Marca).append(this.Args[i]);
+                    Inicio = Marca + PLACEHOLDER.length();
+                }
+            }
+            Salida.append(Mensaje, Inicio, Mensaje.length());
+            if (this.printStack) {
+                if (this.Ex != null) {
+                    StackTrace = new StringWriter();
+                    this.Ex.printStackTrace(new PrintWriter(StackTrace));
+                    Salida.append("\nSTACK TRACE(").append(this.LocationID).append("):\n").append(StackTrace.toString());
+                } else {
+                    Salida.append("Can't Print Stack(").append(this.LocationID).append(") Due Exception is NULL");
+                }
+            }
+            this.Texto = Salida.toString();
+        }
+        return this.Texto;
+    }
+}
@@ -3,19 +3,30 @@ package com.bolivartech.utils.log;
 import com.bolivartech.utils.environment.EnvironmentUtils;
 import com.bolivartech.utils.exception.UtilsException;
 import com.bolivartech.utils.files.FileManager;
+import com.bolivartech.utils.lzma.BTLZMA;
 import com.bolivartech.utils.random.MersenneTwisterPlus;
 import com.bolivartech.utils.sort.Sorter;
 import com.bolivartech.utils.btthreads.annotations.GuardedBy;
 import java.io.FilenameFilter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.Locale;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -42,12 +53,12 @@ import java.util.logging.Logger;
  *
  * <ul>
  * <li>Class ID: "35DFLMN"</li>
- * <li>Loc: 000-026</li>
+ * <li>Loc: 000-037</li>
  * </ul>
  *
  * @author Julian Bolivar
- * @since 2014 - April 20, 2016.
- * @version 1.2.0
+ * @since 2014 - October 19, 2026.
+ * @version 1.8.1
  *
  * <p>
  * Change Logs:</p>
@@ -62,6 +73,39 @@ import java.util.logging.Logger;
  * <li>v1.2.0 (2016-04-20) Se implemento el uso de hebra de monitoreo dinamica
  * para optimizar los recursos de memoria y procesador cuando el logger excede
  * un TIMEOUT sin recibir mensajes a procesar.</li>
+ * <li>v1.3.0 (2026-10-19) Se implemento la escritura por lotes: los mensajes se
+ * extraen de la cola en lotes, se codifican en un ByteBuffer directo
+ * reutilizable y se escriben con una sola llamada al canal del archivo segun
+ * una politica de volcado por tamano o por tiempo, con sincronizacion opcional
+ * al disco en cada volcado.</li>
+ * <li>v1.4.0 (2026-10-19) La cola de mensajes se reemplazo por un buffer
+ * circular de eventos mutables reservados (LogRingBuffer) donde los productores
+ * reclaman la posicion con un CAS, por lo que LogMessage no crea objetos ni
+ * toma locks. El instante se captura en milisegundos y se formatea en la hebra
+ * del logger con un prefijo por segundo almacenado (LogTimeFormatter).</li>
+ * <li>v1.5.0 (2026-10-19) La rotacion ya no bloquea la hebra del logger: los
+ * archivos se nombran con un numero de secuencia por segundo en lugar de
+ * esperar a que cambie el segundo, y los segmentos cerrados se entregan a una
+ * hebra de archivado que los comprime con BTLZMA en archivos .lzma y aplica el
+ * numero de archivos a mantener.</li>
+ * <li>v1.6.0 (2026-10-19) Se agrego el modo de escritura mapeada en memoria:
+ * cada segmento se crea con el tamano de RotateFileSizeThreshold y los
+ * registros se codifican directamente en un MappedByteBuffer
+ * (MappedLogSegment), al llenarse el segmento se rota al siguiente. Al cerrar
+ * el segmento se recorta a la longitud confirmada y al iniciar se recuperan los
+ * segmentos que no se cerraron.</li>
+ * <li>v1.7.0 (2026-10-19) Se agrego el formato binario compacto (.blog): los
+ * registros se guardan con el instante como diferencia varint, el tipo y el
+ * nivel en un byte, la unidad como referencia a una tabla de unidades del
+ * segmento y el mensaje en UTF-8 (BinaryLogWriter). Cada segmento termina con
+ * un indice disperso por tiempo que usa BinaryLogReader para leer rangos de
+ * tiempo filtrando por tipo y nivel.</li>
+ * <li>v1.8.0 (2026-10-19) Se agrego isEnabled, que verifica el filtro de tipos
+ * y niveles sin lock, y LogMessage con un DeferredLogMessage que se publica
+ * sin formatear en el buffer circular y se formatea en la hebra del logger.</li>
+ * <li>v1.8.1 (2026-10-19) Se agrego LogMessage con el instante del evento,
+ * que usa LoggerRouter para guardar el instante en que se registro el evento
+ * y no el de su entrega al logger.</li>
  * </ul>
  */
 public class FileLogger implements LoggerManager, Runnable {
@@ -75,10 +119,20 @@ public class FileLogger implements LoggerManager, Runnable {
     // Tiempo maximo en milisegundos que una conecion puede estar sin usarse antes de ser eliminada
     private static final long MAX_IDLE_TIME = 60000; // 1 minutos
 
-    private static final int QUEUESIZE = 1024;     // Numero de Mensajes
-    private static final long QUEUEWRITETIMEOUT = 100;  // Milisegundos
-    private static final long QUEUEREADTIMEOUT = 10;  // Milisegundos
+    private static final int QUEUESIZE = 4096;     // Numero de Mensajes
+    private static final long QUEUEFULLWAIT = 50000;  // Nanosegundos
     private static final int THREADSLEEP = 500;     // Milisegundos que duerme la hebra
+    private static final int BATCHSIZE = 256;      // Numero de Mensajes extraidos por lote
+    private static final int WRITEBUFFERSIZE = 262144;  // Bytes del buffer de escritura
+    private static final int DEFFLUSHSIZE = 65536;  // Bytes acumulados antes de volcar el buffer
+    private static final long DEFFLUSHINTERVAL = 200;  // Milisegundos maximos antes de volcar el buffer
+    private static final long ARCHIVERIDLE = 1000;  // Milisegundos que la hebra de archivado espera tareas
+    private static final long ARCHIVEPOLL = 100;  // Milisegundos entre verificaciones de la compresion
+    private static final String LOGEXT = ".log";  // Extension de los archivos de bitacora
+    private static final String BINEXT = ".blog";  // Extension de los archivos de bitacora binarios
+    private static final String LZMAEXT = ".lzma";  // Extension de los archivos comprimidos
+    private static final int MINMAPPEDSIZE = 65536;  // Bytes minimos de un segmento mapeado
+    private static final int MAXMAPPEDSIZE = 1073741824;  // Bytes maximos de un segmento mapeado
 
     // Define la mascara del tipo de Evento que se va a Guardar
     public final static int TYPE_ALL = 0xFFFFFFFF;
@@ -93,12 +147,11 @@ public class FileLogger implements LoggerManager, Runnable {
     // Formateador de datos de tiempo
     private DateFormat dateFormat;
 
-    // Cola FIFO de mensajes
-    @GuardedBy("rwl")
-    private ArrayBlockingQueue<MessageLog> queue = null;
+    // Buffer circular FIFO de mensajes, no requiere del lock
+    private final LogRingBuffer queue;
 
     // Hebra de Ejecucion
-    private Thread Ejecutor = null;
+    private volatile Thread Ejecutor = null;
     // Bandera de Ejecucion del Handler
     @GuardedBy("rwl")
     private boolean Ejecutar;
@@ -122,12 +175,10 @@ public class FileLogger implements LoggerManager, Runnable {
     // Define la bandera donde se indica que se cambuio la ruta o el nombre base del archivo
     @GuardedBy("rwl")
     private boolean ChangedFileBaseName;
-    // Define el tipo de Evento que se va a guardar
-    @GuardedBy("rwl")
-    private int SaveEventType;
-    // Define la mascara del nivel de registro que se va a guardar
-    @GuardedBy("rwl")
-    private int SaveRegLevel;
+    // Define el tipo de Evento que se va a guardar, se lee sin lock en LogMessage
+    private volatile int SaveEventType;
+    // Define la mascara del nivel de registro que se va a guardar, se lee sin lock en LogMessage
+    private volatile int SaveRegLevel;
     // Timestamp de la creadion del ultimo archivo
     @GuardedBy("rwl")
     private long LastCreateFileTime;
@@ -140,6 +191,43 @@ public class FileLogger implements LoggerManager, Runnable {
     // El numero de archivos a mantener en la bitacora, menor o igual 0 no realiza la limpieza
     @GuardedBy("rwl")
     private int NumFileToKeep;
+    // Bytes acumulados en el buffer de escritura antes de volcarlo al archivo
+    @GuardedBy("rwl")
+    private int FlushSize;
+    // Tiempo maximo en milisegundos que un mensaje puede estar en el buffer de escritura
+    @GuardedBy("rwl")
+    private long FlushInterval;
+    // Indica si se sincroniza el archivo con el disco en cada volcado
+    @GuardedBy("rwl")
+    private boolean SyncOnFlush;
+    // Indica si los archivos rotados se comprimen con BTLZMA
+    @GuardedBy("rwl")
+    private boolean CompressRotated;
+    // Indica si los segmentos se escriben mapeados en memoria
+    @GuardedBy("rwl")
+    private boolean MappedMode;
+    // Indica si los segmentos se escriben en el formato binario compacto
+    @GuardedBy("rwl")
+    private boolean BinaryFormat;
+
+    // Hebra de archivado de los segmentos rotados y numero de tareas pendientes
+    private final ThreadPoolExecutor Archivador;
+    private final AtomicInteger PendingArchives = new AtomicInteger(0);
+
+    // Buffer de escritura y codificador de los mensajes, usados solo por la hebra del logger
+    private ByteBuffer WriteBuffer = null;
+    private final CharsetEncoder Encoder;
+    private final StringBuilder Formato = new StringBuilder(512);
+    private CharBuffer Caracteres = CharBuffer.allocate(512);
+    private final LogTimeFormatter timeFormat = new LogTimeFormatter();
+    // Segmento mapeado actual en el modo de escritura mapeada
+    private MappedLogSegment Mapeado = null;
+    // Codificador del segmento actual en el formato binario o NULL si es de texto
+    private BinaryLogWriter Binario = null;
+    // Nombre del segmento actual, instante de su nombre y secuencia dentro del mismo segundo
+    private String SegmentName = null;
+    private String SegmentStamp = "";
+    private int SegmentSequence = 0;
 
     /**
      * Constructor privado con los
@@ -158,12 +246,29 @@ public class FileLogger implements LoggerManager, Runnable {
         this.ChangedFileBaseName = false;
         this.SaveEventType = TYPE_ALL;
         this.SaveRegLevel = LEVEL_ALL;
-        this.queue = new ArrayBlockingQueue<>(QUEUESIZE);
+        this.queue = new LogRingBuffer(QUEUESIZE);
         this.dateFormat = new SimpleDateFormat("yyyyMMdd-HHmmss");
         this.LastCreateFileTime = 0;
         this.RotateFileTimeThreshold = 3600000; // 60 minutos 
         this.RotateFileSizeThreshold = 10485760; // 10 Megabytes
         this.NumFileToKeep = 10;
+        this.FlushSize = DEFFLUSHSIZE;
+        this.FlushInterval = DEFFLUSHINTERVAL;
+        this.SyncOnFlush = false;
+        this.CompressRotated = true;
+        this.MappedMode = false;
+        this.BinaryFormat = false;
+        this.Archivador = new ThreadPoolExecutor(1, 1, ARCHIVERIDLE, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), (Runnable r) -> {
+            Thread Hebra;
+
+            Hebra = new Thread(r);
+            Hebra.setName(CLASSID + "[Archiver]");
+            return Hebra;
+        });
+        this.Archivador.allowCoreThreadTimeOut(true);
+        this.Encoder = StandardCharsets.UTF_8.newEncoder();
+        this.Encoder.onMalformedInput(CodingErrorAction.REPLACE);
+        this.Encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
     }
 
     /**
@@ -523,9 +628,214 @@ public class FileLogger implements LoggerManager, Runnable {
         }
     }
 
+    /**
+     * Establece la politica de volcado del buffer de escritura, el buffer se
+     * escribe en el archivo cuando acumula "FlushSize" bytes o cuando su
+     * mensaje mas antiguo lleva "FlushIntervalMillis" milisegundos en el.
+     *
+     * @param FlushSize Bytes acumulados antes de volcar el buffer
+     * @param FlushIntervalMillis Tiempo maximo en milisegundos antes de volcar
+     * el buffer
+     */
+    public void setFlushPolicy(int FlushSize, long FlushIntervalMillis) {
+
+        FlushSize = (FlushSize > 0 ? FlushSize : 1);
+        FlushSize = (FlushSize < WRITEBUFFERSIZE ? FlushSize : WRITEBUFFERSIZE);
+        rwl.writeLock().lock();
+        try {
+            this.FlushSize = FlushSize;
+            this.FlushInterval = (FlushIntervalMillis > 0 ? FlushIntervalMillis : 0);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna los bytes acumulados en el buffer de escritura antes de volcarlo
+     *
+     * @return Bytes acumulados antes de volcar el buffer
+     */
+    public int getFlushSize() {
+        int Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.FlushSize;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
+    /**
+     * Retorna el tiempo maximo en milisegundos antes de volcar el buffer de
+     * escritura
+     *
+     * @return Tiempo maximo en milisegundos antes de volcar el buffer
+     */
+    public long getFlushInterval() {
+        long Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.FlushInterval;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
+    /**
+     * Establece si el archivo se sincroniza con el disco (fsync) en cada
+     * volcado del buffer de escritura, lo que garantiza la durabilidad de cada
+     * lote a cambio de rendimiento.
+     *
+     * @param SyncOnFlush TRUE para sincronizar en cada volcado o FALSE para no
+     */
+    public void setSyncOnFlush(boolean SyncOnFlush) {
+
+        rwl.writeLock().lock();
+        try {
+            this.SyncOnFlush = SyncOnFlush;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna TRUE si el archivo se sincroniza con el disco en cada volcado
+     *
+     * @return TRUE si se sincroniza en cada volcado o FALSE si no
+     */
+    public boolean isSyncOnFlush() {
+        boolean Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.SyncOnFlush;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
+    /**
+     * Establece si los archivos rotados se comprimen con BTLZMA en archivos
+     * .lzma, la compresion se realiza en una hebra de archivado sin bloquear la
+     * escritura de la bitacora.
+     *
+     * @param CompressRotated TRUE para comprimir los archivos rotados o FALSE
+     * para no
+     */
+    public void setCompressRotated(boolean CompressRotated) {
+
+        rwl.writeLock().lock();
+        try {
+            this.CompressRotated = CompressRotated;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna TRUE si los archivos rotados se comprimen con BTLZMA
+     *
+     * @return TRUE si se comprimen los archivos rotados o FALSE si no
+     */
+    public boolean isCompressRotated() {
+        boolean Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.CompressRotated;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
+    /**
+     * Establece el modo de escritura mapeada en memoria, cada segmento se crea
+     * con el tamano del umbral de rotacion por tamano y los registros se copian
+     * en el archivo mapeado sin llamadas al sistema por cada lote. El cambio se
+     * aplica a partir del siguiente segmento.
+     *
+     * NOTA: El tamano de los segmentos mapeados esta limitado a 1 GB.
+     *
+     * @param MappedMode TRUE para escribir los segmentos mapeados en memoria o
+     * FALSE para escribirlos a traves del canal del archivo
+     */
+    public void setMappedMode(boolean MappedMode) {
+
+        rwl.writeLock().lock();
+        try {
+            this.MappedMode = MappedMode;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna TRUE si los segmentos se escriben mapeados en memoria
+     *
+     * @return TRUE si esta en modo de escritura mapeada o FALSE si no
+     */
+    public boolean isMappedMode() {
+        boolean Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.MappedMode;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
+    /**
+     * Establece si los segmentos se escriben en el formato binario compacto
+     * (.blog), que se leen con BinaryLogReader. El cambio se aplica a partir
+     * del siguiente segmento.
+     *
+     * NOTA: Los segmentos binarios siempre se escriben a traves del canal del
+     * archivo, aunque este activo el modo de escritura mapeada.
+     *
+     * @param BinaryFormat TRUE para escribir en formato binario o FALSE para
+     * escribir en texto
+     */
+    public void setBinaryFormat(boolean BinaryFormat) {
+
+        rwl.writeLock().lock();
+        try {
+            this.BinaryFormat = BinaryFormat;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna TRUE si los segmentos se escriben en el formato binario compacto
+     *
+     * @return TRUE si se escribe en formato binario o FALSE si en texto
+     */
+    public boolean isBinaryFormat() {
+        boolean Local;
+
+        rwl.readLock().lock();
+        try {
+            Local = this.BinaryFormat;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        return Local;
+    }
+
     /**
      * Envia el mensaje de registro al manejador de bitacoras.
      *
+     * El mensaje se copia en una posicion reservada del buffer circular sin
+     * crear objetos ni tomar locks, si el buffer esta lleno se espera a que la
+     * hebra del logger libere posiciones.
      *
      * @param Type Tipo de Evento
      * @param level Nivel del Evento
@@ -534,50 +844,111 @@ public class FileLogger implements LoggerManager, Runnable {
      */
     @Override
     public void LogMessage(int Type, int level, String Unit, String Messaje) {
-        boolean Agregado = false;
-        MessageLog msg = null;
-        int LType, Llevel;
-        // Copia local de la bandera de ejecucion
-        boolean LEjecutar;
-        // Instante cuando se genero el mensaje
-        String dateNow;
-        DateFormat formatter;
-        Calendar rightNow;
 
-        rwl.readLock().lock();
-        try {
-            LType = this.SaveEventType & Type;
-            Llevel = this.SaveRegLevel & level;
-            LEjecutar = this.Ejecutar;
-        } finally {
-            rwl.readLock().unlock();
+        this.Publish(Type, level, Unit, Messaje);
+    }
+
+    /**
+     * Envia el mensaje diferido al manejador de bitacoras, el texto del
+     * mensaje y el stack de su excepcion se generan en la hebra del logger
+     * solo si el evento pasa el filtro de tipos y niveles.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje diferido referente al evento
+     */
+    @Override
+    public void LogMessage(int Type, int level, String Unit, DeferredLogMessage Messaje) {
+
+        this.Publish(Type, level, Unit, Messaje);
+    }
+
+    /**
+     * Retorna TRUE si se guardan los eventos del tipo "Type" y nivel "level",
+     * se lee sin lock.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @return TRUE si se guardan los eventos de ese tipo y nivel
+     */
+    @Override
+    public boolean isEnabled(int Type, int level) {
+
+        return (((this.SaveEventType & Type) != 0) && ((this.SaveRegLevel & level) != 0));
+    }
+
+    /**
+     * Envia al manejador de bitacoras un evento con el instante en que se
+     * genero, lo usa LoggerRouter para que el instante guardado no sea el de
+     * la entrega desde su buffer.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     * @param TimeMillis Instante del evento
+     */
+    void LogMessage(int Type, int level, String Unit, Object Messaje, long TimeMillis) {
+
+        if (this.isEnabled(Type, level)) {
+            this.Enqueue(Type, level, Unit, Messaje, TimeMillis);
         }
-        if ((LType != 0) && (Llevel != 0)) {
-            formatter = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SS");
-            rightNow = Calendar.getInstance();
-            dateNow = formatter.format(rightNow.getTime());
-            msg = new MessageLog(Type, level, Unit, dateNow, Messaje);
-            do {
-                rwl.writeLock().lock();
-                try {
-                    Agregado = this.queue.offer(msg, QUEUEWRITETIMEOUT, TimeUnit.MILLISECONDS);
-                    if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
-                        // Inicia la hebra de monitoreo
-                        this.StartThread();
-                    }
-                } catch (InterruptedException ex) {
-                    Logger.getLogger(this.CLASSID + "007").log(Level.SEVERE, ex.getMessage());
-                } finally {
-                    rwl.writeLock().unlock();
-                }
-                if (!Agregado) {
-                    try {
-                        EnvironmentUtils.randomSleep(3 * THREADSLEEP);
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "008").log(Level.SEVERE, ex.getMessage());
-                    }
+    }
+
+    /**
+     * Publica el mensaje en el buffer circular con el instante actual si el
+     * evento pasa el filtro de tipos y niveles.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     */
+    private void Publish(int Type, int level, String Unit, Object Messaje) {
+
+        if (this.isEnabled(Type, level)) {
+            this.Enqueue(Type, level, Unit, Messaje, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Copia el evento al buffer circular, si esta lleno espera a que la hebra
+     * del logger libere posiciones.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     * @param TimeMillis Instante del evento
+     */
+    private void Enqueue(int Type, int level, String Unit, Object Messaje, long TimeMillis) {
+
+        while (!this.queue.tryPublish(Type, level, Unit, Messaje, TimeMillis)) {
+            this.VerifyThread();
+            LockSupport.parkNanos(QUEUEFULLWAIT);
+        }
+        this.VerifyThread();
+    }
+
+    /**
+     * Inicia la hebra del logger si no se esta ejecutando, el lock solo se toma
+     * cuando hay que iniciarla.
+     */
+    private void VerifyThread() {
+        Thread Local;
+
+        Local = this.Ejecutor;
+        if ((Local == null) || (Local.getState() == Thread.State.TERMINATED)) {
+            rwl.writeLock().lock();
+            try {
+                if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
+                    // Inicia la hebra de monitoreo
+                    this.StartThread();
                 }
-            } while (!Agregado);
+            } finally {
+                rwl.writeLock().unlock();
+            }
         }
     }
 
@@ -587,12 +958,7 @@ public class FileLogger implements LoggerManager, Runnable {
     public final void Clear() {
 
         Logger.getLogger(this.CLASSID + "009").log(Level.INFO, "Message Queue Cleaned");
-        rwl.writeLock().lock();
-        try {
-            this.queue.clear();
-        } finally {
-            rwl.writeLock().unlock();
-        }
+        this.queue.clear();
     }
 
     /**
@@ -622,6 +988,14 @@ public class FileLogger implements LoggerManager, Runnable {
                 }
             }
         } while (!lFin);
+        // Espera a que terminen las compresiones de los segmentos rotados
+        while (this.PendingArchives.get() > 0) {
+            try {
+                EnvironmentUtils.randomSleep(THREADSLEEP);
+            } catch (UtilsException ex) {
+                Logger.getLogger(this.CLASSID + "027").log(Level.SEVERE, ex.getMessage());
+            }
+        }
     }
 
     /**
@@ -637,44 +1011,141 @@ public class FileLogger implements LoggerManager, Runnable {
     }
 
     /**
-     * Verifica para mantener el numero de archivo a convervar
+     * Entrega el segmento cerrado "Segmento" a la hebra de archivado, la cual
+     * lo comprime si esta habilitado y aplica el numero de archivos a mantener.
+     * Si "Segmento" es NULL solo se aplica el numero de archivos a mantener.
+     *
+     * Si "Activo" no es NULL, antes se recuperan los segmentos que no se
+     * cerraron en una ejecucion anterior, excepto el segmento activo.
+     *
+     * @param Segmento Nombre y ruta del segmento cerrado o NULL
+     * @param Activo Nombre y ruta del segmento activo o NULL para no recuperar
+     */
+    private void ArchiveSegment(String Segmento, String Activo) {
+        String LPath, LBaseName;
+        int LNumFileToKeep;
+        boolean LCompress;
+
+        rwl.readLock().lock();
+        try {
+            LPath = this.FilePath;
+            LBaseName = this.FileBaseName;
+            LNumFileToKeep = this.NumFileToKeep;
+            LCompress = this.CompressRotated;
+        } finally {
+            rwl.readLock().unlock();
+        }
+        this.PendingArchives.incrementAndGet();
+        try {
+            this.Archivador.execute(new ArchiveTask((LCompress ? Segmento : null), Activo, LPath, LBaseName, LNumFileToKeep));
+        } catch (RejectedExecutionException ex) {
+            this.PendingArchives.decrementAndGet();
+            Logger.getLogger(this.CLASSID + "028").log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Comprime el segmento "Segmento" con BTLZMA en un archivo .lzma y elimina
+     * el original, si la compresion falla se conserva el original.
+     *
+     * NOTA: Se ejecuta en la hebra de archivado.
+     *
+     * @param Segmento Nombre y ruta del segmento a comprimir
      */
-    private void VerifyFilesToKeep() {
+    private void CompressSegment(String Segmento) {
+        FileManager Origen, Destino;
+        BTLZMA Compresor;
+
+        Origen = new FileManager(Segmento);
+        if (Origen.Exists()) {
+            Compresor = new BTLZMA();
+            try {
+                Compresor.Compress(Origen, null);
+                while (!Compresor.isDone()) {
+                    Thread.sleep(ARCHIVEPOLL);
+                }
+                if (Compresor.getProgress() >= 0) {
+                    Origen.Delete();
+                } else {
+                    Destino = new FileManager(Segmento + LZMAEXT);
+                    if (Destino.Exists()) {
+                        Destino.Delete();
+                    }
+                    Logger.getLogger(this.CLASSID + "029").log(Level.WARNING, "Can't compress " + Segmento);
+                }
+            } catch (UtilsException ex) {
+                Logger.getLogger(this.CLASSID + "030").log(Level.SEVERE, null, ex);
+            } catch (InterruptedException ex) {
+                Compresor.Interrupt();
+                Logger.getLogger(this.CLASSID + "031").log(Level.SEVERE, ex.getMessage());
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Recupera los segmentos de la bitacora que no se cerraron, recortando el
+     * relleno de bytes 0 que dejan los segmentos mapeados en memoria.
+     *
+     * NOTA: Se ejecuta en la hebra de archivado.
+     *
+     * @param ArchPath Ruta de los archivos de la bitacora
+     * @param LBaseName Nombre base de los archivos de la bitacora
+     * @param Activo Nombre y ruta del segmento activo, que no se modifica
+     */
+    private void RecoverSegments(String ArchPath, String LBaseName, String Activo) {
+        FileManager Directorio;
+        FileManager[] Archivos;
+        String Nombre;
+
+        // Filtro del Archivo
+        FilenameFilter LogFilter = (Dir, Name) -> {
+            return (Name.contains(LBaseName) && Name.endsWith(LOGEXT));
+        };
+        Directorio = new FileManager(ArchPath);
+        if (Directorio.isDirectory()) {
+            try {
+                Archivos = Directorio.ListDirectory(LogFilter);
+                for (FileManager Archivo : Archivos) {
+                    Nombre = Archivo.getAbsoluteFilePath();
+                    if (!Nombre.equals(new FileManager(Activo).getAbsoluteFilePath())) {
+                        MappedLogSegment.recover(Nombre);
+                    }
+                }
+            } catch (UtilsException ex) {
+                Logger.getLogger(this.CLASSID + "034").log(Level.SEVERE, null, ex);
+            }
+        }
+    }
+
+    /**
+     * Verifica para mantener el numero de archivo a convervar, un segmento y
+     * su version comprimida cuentan como un solo archivo.
+     *
+     * NOTA: Se ejecuta en la hebra de archivado.
+     *
+     * @param ArchPath Ruta de los archivos de la bitacora
+     * @param LBaseName Nombre base de los archivos de la bitacora
+     * @param LNumFileToKeep Numero de archivos a mantener
+     */
+    private void VerifyFilesToKeep(String ArchPath, String LBaseName, int LNumFileToKeep) {
         // Manejador de archivo
         FileManager Directorio = null;
         FileManager[] Archivos = null;
-        // Nombre base y ruta del archivo
-        String ArchPath = null;
-        // Copia local del numero de archivos a mantener
-        int LNumFileToKeep;
+        // Segmentos que se mantienen
+        HashSet<String> Segmentos;
+        String Nombre;
         // Contador generico
         int i;
 
         // Filtro del Archivo
         FilenameFilter LogFilter = (Dir, Name) -> {
-            if (Name.contains(FileBaseName.subSequence(0, FileBaseName.length()))) {
-                return true;
-            } else {
-                return false;
-            }
+            return (Name.contains(LBaseName) && (Name.endsWith(LOGEXT) || Name.endsWith(LOGEXT + LZMAEXT) || Name.endsWith(BINEXT) || Name.endsWith(BINEXT + LZMAEXT)));
         };
-        // Recupera los archivos locales
-        rwl.readLock().lock();
-        try {
-            ArchPath = this.FilePath;
-            LNumFileToKeep = this.NumFileToKeep;
-        } finally {
-            rwl.readLock().unlock();
-        }
         if (LNumFileToKeep > 0) {
             // Verifica si el Path apunta al directorio
             if (ArchPath.substring(ArchPath.length() - 1, ArchPath.length()).equalsIgnoreCase(this.FileSeparador)) {
-                rwl.writeLock().lock();
-                try {
-                    ArchPath = ArchPath.substring(0, ArchPath.length() - 1);
-                } finally {
-                    rwl.writeLock().unlock();
-                }
+                ArchPath = ArchPath.substring(0, ArchPath.length() - 1);
             }
             Directorio = new FileManager(ArchPath);
             if (Directorio.isDirectory()) {
@@ -682,9 +1153,16 @@ public class FileLogger implements LoggerManager, Runnable {
                 try {
                     Archivos = Directorio.ListDirectory(LogFilter);
                     Sorter.RelativeSort(Archivos, Sorter.DESCENDING);
-                    if (Archivos.length > LNumFileToKeep) {
-                        for (i = LNumFileToKeep; i < Archivos.length; i++) {
-                            if (Archivos[i].Exists()) {
+                    Segmentos = new HashSet<>();
+                    for (i = 0; i < Archivos.length; i++) {
+                        Nombre = Archivos[i].getFileName();
+                        if (Nombre != null) {
+                            if (Nombre.endsWith(LZMAEXT)) {
+                                Nombre = Nombre.substring(0, Nombre.length() - LZMAEXT.length());
+                            }
+                            if (Segmentos.size() < LNumFileToKeep) {
+                                Segmentos.add(Nombre);
+                            } else if (!Segmentos.contains(Nombre) && Archivos[i].Exists()) {
                                 Archivos[i].Delete();
                             }
                         }
@@ -734,56 +1212,337 @@ public class FileLogger implements LoggerManager, Runnable {
     }
 
     /**
-     * Realiza el formateo del mensaje a guardar en el archivo
+     * Realiza el formateo del mensaje a guardar en el archivo en "Salida"
      */
-    private String FormatMessage(MessageLog msg) {
-        StringBuffer Salida;
+    private void FormatMessage(LogRingBuffer.LogEvent msg, StringBuilder Salida) {
         int Type, Level;
-        String dateNow;
 
         Type = msg.getType();
         Level = msg.getLevel();
-        dateNow = msg.getTimeStamp();
-        Salida = new StringBuffer("++++++++++++++++++++++++++++++++++++++++++++++++++++++\n");
-        Salida = Salida.append("When: " + dateNow + "\n");
-        Salida = Salida.append("Where: " + msg.getUnit() + "\n");
-        Salida = Salida.append("Type: ");
+        Salida.append("++++++++++++++++++++++++++++++++++++++++++++++++++++++\n");
+        Salida.append("When: ");
+        this.timeFormat.format(msg.getTimeMillis(), Salida);
+        Salida.append('\n');
+        Salida.append("Where: ").append(msg.getUnit()).append('\n');
+        Salida.append("Type: ");
         switch (Type) {
             case LoggerManager.TYPE_EVENT:
-                Salida = Salida.append("Event\n");
+                Salida.append("Event\n");
                 break;
             case LoggerManager.TYPE_ERROR:
-                Salida = Salida.append("Error\n");
+                Salida.append("Error\n");
                 break;
             default:
-                Salida = Salida.append("Unknow\n");
+                Salida.append("Unknow\n");
         }
-        Salida = Salida.append("Level: ");
+        Salida.append("Level: ");
         switch (Level) {
             case LoggerManager.LEVEL_TRACE:
-                Salida = Salida.append("Trace\n");
+                Salida.append("Trace\n");
                 break;
             case LoggerManager.LEVEL_DEBUG:
-                Salida = Salida.append("Debug\n");
+                Salida.append("Debug\n");
                 break;
             case LoggerManager.LEVEL_INFO:
-                Salida = Salida.append("Info\n");
+                Salida.append("Info\n");
                 break;
             case LoggerManager.LEVEL_WARNING:
-                Salida = Salida.append("Warning\n");
+                Salida.append("Warning\n");
                 break;
             case LoggerManager.LEVEL_ERROR:
-                Salida = Salida.append("Error\n");
+                Salida.append("Error\n");
                 break;
             case LoggerManager.LEVEL_FATAL:
-                Salida = Salida.append("Fatal\n");
+                Salida.append("Fatal\n");
                 break;
             default:
-                Salida = Salida.append("Unknow\n");
+                Salida.append("Unknow\n");
+        }
+        Salida.append("Message: ").append(msg.getMessaje()).append('\n');
+        Salida.append("------------------------------------------------------\n");
+    }
+
+    /**
+     * Copia el texto de "Texto" en el buffer de caracteres reutilizable,
+     * dejandolo listo para ser codificado.
+     *
+     * @param Texto Texto a copiar
+     */
+    private void PrepareChars(StringBuilder Texto) {
+        int Largo;
+
+        Largo = Texto.length();
+        if (this.Caracteres.capacity() < Largo) {
+            this.Caracteres = CharBuffer.allocate(Math.max(Largo, 2 * this.Caracteres.capacity()));
+        }
+        this.Caracteres.clear();
+        Texto.getChars(0, Largo, this.Caracteres.array(), 0);
+        this.Caracteres.limit(Largo);
+    }
+
+    /**
+     * Codifica en UTF-8 el texto de "Texto" en el buffer de escritura,
+     * volcando el buffer en el archivo cada vez que se llena.
+     *
+     * @param Texto Texto a codificar
+     * @param Archivo Archivo donde se vuelca el buffer
+     * @param Sync TRUE para sincronizar con el disco en cada volcado
+     * @return Numero de bytes volcados en el archivo
+     */
+    private long EncodeMessage(StringBuilder Texto, FileManager Archivo, boolean Sync) {
+        CoderResult Resultado;
+        long Volcados = 0;
+
+        this.PrepareChars(Texto);
+        this.Encoder.reset();
+        do {
+            Resultado = this.Encoder.encode(this.Caracteres, this.WriteBuffer, true);
+            if (Resultado.isOverflow()) {
+                Volcados += this.FlushBuffer(Archivo, Sync);
+            }
+        } while (Resultado.isOverflow());
+        this.Encoder.flush(this.WriteBuffer);
+        return Volcados;
+    }
+
+    /**
+     * Escribe el contenido del buffer de escritura en el archivo con una sola
+     * llamada al canal y lo vacia, retornando el numero de bytes escritos.
+     *
+     * @param Archivo Archivo donde se escribe el buffer
+     * @param Sync TRUE para sincronizar el archivo con el disco
+     * @return Numero de bytes escritos
+     */
+    private long FlushBuffer(FileManager Archivo, boolean Sync) {
+        long Escritos = 0;
+
+        if ((this.WriteBuffer != null) && (this.WriteBuffer.position() > 0)) {
+            this.WriteBuffer.flip();
+            try {
+                if (Archivo != null) {
+                    Escritos = Archivo.Write(this.WriteBuffer);
+                    if (Sync) {
+                        Archivo.Sync();
+                    }
+                }
+            } catch (UtilsException ex) {
+                Logger.getLogger(this.CLASSID + "024").log(Level.SEVERE, null, ex);
+            } finally {
+                this.WriteBuffer.clear();
+            }
+        }
+        return Escritos;
+    }
+
+    /**
+     * Copia los primeros "Largo" bytes de "Bytes" en el buffer de escritura,
+     * volcando el buffer en el archivo cada vez que se llena.
+     *
+     * @param Bytes Bytes a copiar
+     * @param Largo Numero de bytes a copiar
+     * @param Archivo Archivo donde se vuelca el buffer
+     * @param Sync TRUE para sincronizar con el disco en cada volcado
+     * @return Numero de bytes volcados en el archivo
+     */
+    private long WriteBytes(byte[] Bytes, int Largo, FileManager Archivo, boolean Sync) {
+        long Volcados = 0;
+        int Copiados, Parte;
+
+        Copiados = 0;
+        while (Copiados < Largo) {
+            if (!this.WriteBuffer.hasRemaining()) {
+                Volcados += this.FlushBuffer(Archivo, Sync);
+            }
+            Parte = Math.min(Largo - Copiados, this.WriteBuffer.remaining());
+            this.WriteBuffer.put(Bytes, Copiados, Parte);
+            Copiados += Parte;
+        }
+        return Volcados;
+    }
+
+    /**
+     * Codifica el indice que cierra el segmento binario actual en el buffer
+     * de escritura, si el segmento actual es binario.
+     *
+     * @param Archivo Archivo donde se vuelca el buffer
+     * @param Sync TRUE para sincronizar con el disco en cada volcado
+     */
+    private void CloseBinary(FileManager Archivo, boolean Sync) {
+
+        if (this.Binario != null) {
+            if (Archivo != null) {
+                this.WriteBytes(this.Binario.getBytes(), this.Binario.trailer(), Archivo, Sync);
+            }
+            this.Binario = null;
+        }
+    }
+
+    /**
+     * Genera el nombre del siguiente segmento con el nombre base "ArchName",
+     * actualizando el instante de creacion del ultimo archivo.
+     *
+     * El nombre lleva el instante de creacion y un numero de secuencia dentro
+     * del mismo segundo, que se incrementa si el archivo o su version
+     * comprimida ya existen, por lo que nunca se espera por un nombre libre.
+     *
+     * @param ArchName Nombre base y ruta del archivo
+     * @param Ext Extension del segmento
+     * @return Nombre y ruta del nuevo segmento
+     */
+    private String NewSegmentName(String ArchName, String Ext) {
+        Calendar rightNow;
+        String Stamp, Nombre;
+
+        rightNow = Calendar.getInstance();
+        Stamp = this.dateFormat.format(rightNow.getTime());
+        if (Stamp.equals(this.SegmentStamp)) {
+            this.SegmentSequence++;
+        } else {
+            this.SegmentStamp = Stamp;
+            this.SegmentSequence = 0;
+        }
+        do {
+            Nombre = ArchName + "-" + Stamp + "-" + String.format("%03d", this.SegmentSequence) + Ext;
+            if (new FileManager(Nombre).Exists() || new FileManager(Nombre + LZMAEXT).Exists()) {
+                this.SegmentSequence++;
+                Nombre = null;
+            }
+        } while (Nombre == null);
+        this.SegmentName = Nombre;
+        rwl.writeLock().lock();
+        try {
+            this.LastCreateFileTime = rightNow.getTimeInMillis();
+        } finally {
+            rwl.writeLock().unlock();
+        }
+        return Nombre;
+    }
+
+    /**
+     * Crea un nuevo archivo de bitacora con el nombre base "ArchName" y lo abre
+     * para escritura.
+     *
+     * @param ArchName Nombre base y ruta del archivo
+     * @param Ext Extension del segmento
+     * @return Archivo abierto para escritura
+     */
+    private FileManager OpenNewFile(String ArchName, String Ext) {
+        FileManager Archivo;
+
+        Archivo = new FileManager(this.NewSegmentName(ArchName, Ext));
+        try {
+            Archivo.Open(FileManager.WRITE, false);
+        } catch (UtilsException ex) {
+            Logger.getLogger(this.CLASSID + "017").log(Level.SEVERE, null, ex);
+        }
+        return Archivo;
+    }
+
+    /**
+     * Crea un nuevo segmento mapeado en memoria de "Size" bytes con el nombre
+     * base "ArchName", retornando NULL si no se pudo mapear.
+     *
+     * @param ArchName Nombre base y ruta del archivo
+     * @param Size Tamano del segmento en bytes
+     * @return Segmento mapeado o NULL
+     */
+    private MappedLogSegment OpenNewMapped(String ArchName, long Size) {
+        MappedLogSegment Segmento = null;
+        String Nombre;
+
+        Size = Math.max(MINMAPPEDSIZE, Math.min(MAXMAPPEDSIZE, Size));
+        Nombre = this.NewSegmentName(ArchName, LOGEXT);
+        try {
+            Segmento = MappedLogSegment.create(Nombre, (int) Size);
+        } catch (UtilsException ex) {
+            Logger.getLogger(this.CLASSID + "032").log(Level.SEVERE, null, ex);
+            new FileManager(Nombre).Delete();
+        }
+        return Segmento;
+    }
+
+    /**
+     * Cierra el segmento mapeado actual recortandolo a su longitud confirmada
+     *
+     * @param Loc Codigo de localizacion del error
+     */
+    private void CloseMapped(String Loc) {
+
+        if (this.Mapeado != null) {
+            try {
+                this.Mapeado.close();
+            } catch (UtilsException ex) {
+                Logger.getLogger(this.CLASSID + Loc).log(Level.SEVERE, null, ex);
+            } finally {
+                this.Mapeado = null;
+            }
+        }
+    }
+
+    /**
+     * Codifica en UTF-8 el texto de "Texto" directamente en el segmento
+     * mapeado. Si el registro no cabe se descarta lo escrito de el, se rota a
+     * un nuevo segmento y se codifica completo en el; solo un registro mayor
+     * que un segmento se divide entre segmentos.
+     *
+     * Retorna FALSE si no se pudo crear el nuevo segmento mapeado, en cuyo caso
+     * el registro no se escribio completo.
+     *
+     * @param Texto Texto a codificar
+     * @param ArchName Nombre base y ruta del archivo
+     * @param Size Tamano de los segmentos en bytes
+     * @return TRUE si el registro se escribio o FALSE si no
+     */
+    private boolean EncodeMapped(StringBuilder Texto, String ArchName, long Size) {
+        CoderResult Resultado;
+        ByteBuffer Destino;
+        String Segmento;
+        boolean Dividido = false;
+        int Inicio;
+
+        this.PrepareChars(Texto);
+        this.Encoder.reset();
+        do {
+            Destino = this.Mapeado.getBuffer();
+            Inicio = Destino.position();
+            Resultado = this.Encoder.encode(this.Caracteres, Destino, true);
+            if (Resultado.isOverflow()) {
+                if ((Inicio > 0) && !Dividido) {
+                    // Descarta la parte escrita para rotar en el limite del registro
+                    Destino.position(Inicio);
+                    this.Caracteres.rewind();
+                    this.Encoder.reset();
+                } else {
+                    Dividido = true;
+                }
+                this.CloseMapped("033");
+                Segmento = this.SegmentName;
+                this.Mapeado = this.OpenNewMapped(ArchName, Size);
+                this.ArchiveSegment(Segmento, null);
+                if (this.Mapeado == null) {
+                    return false;
+                }
+            }
+        } while (Resultado.isOverflow());
+        this.Encoder.flush(this.Mapeado.getBuffer());
+        return true;
+    }
+
+    /**
+     * Cierra el archivo de bitacora "Archivo"
+     *
+     * @param Archivo Archivo a cerrar
+     * @param Loc Codigo de localizacion del error
+     */
+    private void CloseFile(FileManager Archivo, String Loc) {
+
+        if (Archivo != null) {
+            try {
+                Archivo.Close();
+            } catch (UtilsException ex) {
+                Logger.getLogger(this.CLASSID + Loc).log(Level.SEVERE, null, ex);
+            }
         }
-        Salida = Salida.append("Message: " + msg.getMessaje() + "\n");
-        Salida = Salida.append("------------------------------------------------------\n");
-        return Salida.toString();
     }
 
     @Override
@@ -792,279 +1551,242 @@ public class FileLogger implements LoggerManager, Runnable {
         FileManager Archivo = null;
         // Nombre base y ruta del archivo
         String ArchName = null;
-        // Copia del mensaje de la cola
-        MessageLog Mensaje = null;
+        // Nombre del segmento cerrado al rotar
+        String Segmento;
+        // Indica si al abrir el primer segmento se recuperan los segmentos no cerrados
+        boolean Recuperar = true;
+        // Mensaje en el buffer circular
+        LogRingBuffer.LogEvent Mensaje = null;
+        // Indica si hay mensajes disponibles y cuantos se extrajeron en el lote
+        boolean Disponible;
+        int Extraidos;
         // Copia local de la bandera de ejecucion
         boolean LEjecutar = false;
         // Copia local de la bandera de cambio de archivo
         boolean LChangedFileBaseName = false;
-        // Tiempo Actual
-        Calendar rightNow;
         // Copia local de los Thresholds
         long RotFTThr, RotFSThr;
         // Copia local del tiempo de creacion del archivo actual
         long LocLastCreateFileTime;
-        // Mensaje Formateado para ser guardado en el archivo
-        String MsgFrmtd;
-        // Numero de mensaje que quedan en la cola
-        int RemainMsg;
+        // Copia local de la politica de volcado
+        int LFlushSize;
+        long LFlushInterval;
+        boolean LSyncOnFlush;
+        // Copia local del modo de escritura mapeada y del formato binario
+        boolean LMappedMode, LBinaryFormat;
+        // Longitud del archivo actual incluyendo los bytes en el buffer de escritura
+        long FileLength, Volcados;
+        int Antes;
         // Contadores de tiempo
-        long StartTime, DiffTime;
+        long StartTime, DiffTime, LastFlush, Now, Espera;
 
         // Crea el archivo base
         ArchName = this.getCanonicalFileBase();
-        RotFTThr = 0;
-        RotFSThr = 0;
-        LocLastCreateFileTime = 0;
-        RemainMsg = 0;
+        if (this.WriteBuffer == null) {
+            this.WriteBuffer = ByteBuffer.allocateDirect(WRITEBUFFERSIZE);
+        }
+        this.WriteBuffer.clear();
+        FileLength = 0;
         StartTime = System.currentTimeMillis();
+        LastFlush = StartTime;
         // Inicializa el Loop de Ejecucion del Handler
         do {
             rwl.readLock().lock();
             try {
-                Mensaje = this.queue.poll(QUEUEREADTIMEOUT, TimeUnit.MILLISECONDS);
-                RemainMsg = this.queue.size();
                 LEjecutar = this.Ejecutar;
                 RotFTThr = this.RotateFileTimeThreshold;
                 RotFSThr = this.RotateFileSizeThreshold;
                 LocLastCreateFileTime = this.LastCreateFileTime;
                 LChangedFileBaseName = this.ChangedFileBaseName;
-            } catch (InterruptedException ex) {
-                Logger.getLogger(this.CLASSID + "013").log(Level.SEVERE, ex.getLocalizedMessage());
+                LFlushSize = this.FlushSize;
+                LFlushInterval = this.FlushInterval;
+                LSyncOnFlush = this.SyncOnFlush;
+                LMappedMode = this.MappedMode;
+                LBinaryFormat = this.BinaryFormat;
             } finally {
                 rwl.readLock().unlock();
             }
+            // La cola no requiere del lock, si el buffer tiene datos se espera
+            // a lo sumo hasta que se cumpla el tiempo de volcado
+            Now = System.currentTimeMillis();
+            if ((this.WriteBuffer.position() > 0) || (LSyncOnFlush && (this.Mapeado != null) && this.Mapeado.isDirty())) {
+                Espera = Math.max(0, LFlushInterval - (Now - LastFlush));
+            } else {
+                Espera = (LEjecutar ? THREADSLEEP : 0);
+            }
+            Disponible = false;
+            try {
+                Disponible = this.queue.await(Espera);
+            } catch (InterruptedException ex) {
+                Logger.getLogger(this.CLASSID + "013").log(Level.SEVERE, ex.getLocalizedMessage());
+            }
             if (LChangedFileBaseName) {
                 ArchName = this.getCanonicalFileBase();
                 if (Archivo != null) {
-                    try {
-                        Archivo.Close();
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "014").log(Level.SEVERE, null, ex);
-                    } finally {
-                        Archivo.Delete();
-                        Archivo = null;
-                    }
+                    this.FlushBuffer(Archivo, LSyncOnFlush);
+                    this.CloseFile(Archivo, "014");
+                    Archivo.Delete();
+                    Archivo = null;
+                }
+                this.Binario = null;
+                if (this.Mapeado != null) {
+                    this.CloseMapped("035");
+                    new FileManager(this.SegmentName).Delete();
                 }
                 rwl.writeLock().lock();
                 try {
                     this.ChangedFileBaseName = false;
-                    LChangedFileBaseName = this.ChangedFileBaseName;
                 } finally {
                     rwl.writeLock().unlock();
                 }
             }
-            if (Mensaje != null) {
-                rightNow = Calendar.getInstance();
-                // Verifica si el archivo se debe rotar por tiempo
-                if ((Archivo != null) && (Math.abs(rightNow.getTimeInMillis() - LocLastCreateFileTime) > RotFTThr)) {
-                    // Se rota el archivo por tiempo
-                    try {
-                        Archivo.Close();
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "015").log(Level.SEVERE, null, ex);
-                    }
-                    do {
-                        Archivo = new FileManager(ArchName + "-" + this.dateFormat.format(rightNow.getTime()) + ".log");
-                        if (Archivo.Exists()) {
-                            // Espera por un segundo para crear un archivo que NO exista
-                            try {
-                                Thread.sleep(1100);
-                            } catch (InterruptedException ex) {
-                                Logger.getLogger(this.CLASSID + "016").log(Level.SEVERE, ex.getMessage());
-                            }
-                            rightNow = Calendar.getInstance();
-                        }
-                    } while (Archivo.Exists());
-                    rwl.writeLock().lock();
-                    try {
-                        this.LastCreateFileTime = rightNow.getTimeInMillis();
-                        LocLastCreateFileTime = this.LastCreateFileTime;
-                    } finally {
-                        rwl.writeLock().unlock();
-                    }
-                    try {
-                        Archivo.Open(FileManager.WRITE, false);
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "017").log(Level.SEVERE, null, ex);
+            if (Disponible) {
+                Now = System.currentTimeMillis();
+                // Verifica si el archivo se debe rotar por tiempo o por tamaño
+                if (((Archivo == null) && (this.Mapeado == null)) || (Math.abs(Now - LocLastCreateFileTime) > RotFTThr) || (FileLength > RotFSThr)) {
+                    Segmento = null;
+                    if (Archivo != null) {
+                        this.CloseBinary(Archivo, LSyncOnFlush);
+                        this.FlushBuffer(Archivo, LSyncOnFlush);
+                        this.CloseFile(Archivo, "015");
+                        Archivo = null;
+                        Segmento = this.SegmentName;
                     }
-                    // Verifica el numero de archivos a mantener
-                    this.VerifyFilesToKeep();
-                } else if ((Archivo != null) && (Archivo.getFileLength() > RotFSThr)) {
-                    // Se rota el archivo por tamaño
-                    try {
-                        Archivo.Close();
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "018").log(Level.SEVERE, null, ex);
+                    if (this.Mapeado != null) {
+                        this.CloseMapped("036");
+                        Segmento = this.SegmentName;
                     }
-                    do {
-                        Archivo = new FileManager(ArchName + "-" + this.dateFormat.format(rightNow.getTime()) + ".log");
-                        if (Archivo.Exists()) {
-                            // Espera por un segundo para crear un archivo que NO exista
-                            try {
-                                Thread.sleep(1100);
-                            } catch (InterruptedException ex) {
-                                Logger.getLogger(this.CLASSID + "019").log(Level.SEVERE, ex.getMessage());
-                            }
-                        }
-                    } while (Archivo.Exists());
-                    rwl.writeLock().lock();
-                    try {
-                        this.LastCreateFileTime = rightNow.getTimeInMillis();
-                        LocLastCreateFileTime = this.LastCreateFileTime;
-                    } finally {
-                        rwl.writeLock().unlock();
+                    FileLength = 0;
+                    if (LBinaryFormat) {
+                        // Los segmentos binarios se escriben a traves del canal
+                        Archivo = this.OpenNewFile(ArchName, BINEXT);
+                        this.Binario = new BinaryLogWriter();
+                        FileLength = this.Binario.header();
+                        this.WriteBytes(this.Binario.getBytes(), (int) FileLength, Archivo, LSyncOnFlush);
+                    } else if (LMappedMode) {
+                        this.Mapeado = this.OpenNewMapped(ArchName, RotFSThr);
                     }
-                    try {
-                        Archivo.Open(FileManager.WRITE, false);
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "020").log(Level.SEVERE, null, ex);
+                    if ((this.Mapeado == null) && (Archivo == null)) {
+                        Archivo = this.OpenNewFile(ArchName, LOGEXT);
                     }
-                    // Verifica el numero de archivos a mantener
-                    this.VerifyFilesToKeep();
-                } else if (Archivo == null) {
-                    // Por algun motivo el archivo es NULL, se corrige la situacion
-                    do {
-                        Archivo = new FileManager(ArchName + "-" + this.dateFormat.format(rightNow.getTime()) + ".log");
-                        if (Archivo.Exists()) {
-                            // Espera por un segundo para crear un archivo que NO exista
-                            try {
-                                Thread.sleep(1100);
-                            } catch (InterruptedException ex) {
-                                Logger.getLogger(this.CLASSID + "021").log(Level.SEVERE, ex.getMessage());
+                    // Comprime el segmento cerrado y verifica el numero de
+                    // archivos a mantener en la hebra de archivado
+                    this.ArchiveSegment(Segmento, (Recuperar ? this.SegmentName : null));
+                    Recuperar = false;
+                    LastFlush = Now;
+                }
+                // Codifica el lote de eventos en el buffer de escritura, la
+                // posicion se libera apenas el evento se formatea
+                Extraidos = 0;
+                while ((Extraidos < BATCHSIZE) && ((Mensaje = this.queue.peek()) != null)) {
+                    Extraidos++;
+                    Antes = this.WriteBuffer.position();
+                    if (this.Binario != null) {
+                        // El registro binario se codifica directamente del evento
+                        Volcados = this.WriteBytes(this.Binario.getBytes(), this.Binario.encode(Mensaje), Archivo, LSyncOnFlush);
+                        this.queue.release();
+                        Mensaje = null;
+                    } else {
+                        this.Formato.setLength(0);
+                        this.FormatMessage(Mensaje, this.Formato);
+                        this.queue.release();
+                        Mensaje = null;
+                        if (this.Mapeado != null) {
+                            // El registro se copia en el segmento mapeado, que rota al llenarse
+                            if (this.EncodeMapped(this.Formato, ArchName, RotFSThr)) {
+                                continue;
                             }
-                            rightNow = Calendar.getInstance();
+                            Archivo = this.OpenNewFile(ArchName, LOGEXT);
                         }
-                    } while (Archivo.Exists());
-                    rwl.writeLock().lock();
-                    try {
-                        this.LastCreateFileTime = rightNow.getTimeInMillis();
-                        LocLastCreateFileTime = this.LastCreateFileTime;
-                    } finally {
-                        rwl.writeLock().unlock();
+                        Volcados = this.EncodeMessage(this.Formato, Archivo, LSyncOnFlush);
                     }
-                    try {
-                        Archivo.Open(FileManager.WRITE, false);
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "022").log(Level.SEVERE, null, ex);
+                    if (Volcados > 0) {
+                        LastFlush = Now;
                     }
-                    // Verifica el numero de archivos a mantener
-                    this.VerifyFilesToKeep();
-                }
-                // Escribe en el archivo el evento
-                MsgFrmtd = this.FormatMessage(Mensaje);
-                try {
-                    Archivo.Write(MsgFrmtd.getBytes("UTF-8"));
-                } catch (UnsupportedEncodingException ex) {
-                    Logger.getLogger(this.CLASSID + "023").log(Level.SEVERE, null, ex);
-                } catch (UtilsException ex) {
-                    Logger.getLogger(this.CLASSID + "024").log(Level.SEVERE, null, ex);
+                    FileLength += Volcados + this.WriteBuffer.position() - Antes;
                 }
-                Mensaje = null;
+                StartTime = Now;
             }
-            if (RemainMsg <= 0) {
-                try {
-                    EnvironmentUtils.randomSleep(THREADSLEEP);
-                } catch (UtilsException ex) {
-                    Logger.getLogger(this.CLASSID + "025").log(Level.SEVERE, null, ex);
-                }
-                DiffTime = System.currentTimeMillis() - StartTime;
+            // Vuelca el buffer segun la politica de tamaño o de tiempo
+            Now = System.currentTimeMillis();
+            if ((this.WriteBuffer.position() >= LFlushSize) || ((this.WriteBuffer.position() > 0) && ((Now - LastFlush) >= LFlushInterval))) {
+                this.FlushBuffer(Archivo, LSyncOnFlush);
+                LastFlush = Now;
+            }
+            // El segmento mapeado solo se sincroniza con el disco si se solicita
+            if (LSyncOnFlush && (this.Mapeado != null) && this.Mapeado.isDirty() && ((Now - LastFlush) >= LFlushInterval)) {
+                this.Mapeado.force();
+                LastFlush = Now;
+            }
+            if ((this.WriteBuffer.position() == 0) && this.queue.isEmpty()) {
+                DiffTime = Now - StartTime;
                 if (DiffTime > FileLogger.MAX_IDLE_TIME) {
                     LEjecutar = false;
                 }
-            } else {
-                StartTime = System.currentTimeMillis();
             }
-        } while (LEjecutar);
+        } while (LEjecutar || !this.queue.isEmpty());
         rwl.writeLock().lock();
         try {
-            if (Archivo != null) {
-                try {
-                    Archivo.Close();
-                } catch (UtilsException ex) {
-                    Logger.getLogger(this.CLASSID + "026").log(Level.SEVERE, null, ex);
-                }
-            }
+            this.CloseBinary(Archivo, LSyncOnFlush);
+            this.FlushBuffer(Archivo, LSyncOnFlush);
+            this.CloseFile(Archivo, "026");
+            this.CloseMapped("037");
         } finally {
             this.Ejecutor = null;
             this.Finalizado = true;
+            // Un productor pudo publicar despues de la ultima verificacion sin
+            // ver que la hebra estaba terminando
+            if (this.Ejecutar && !this.queue.isEmpty()) {
+                this.StartThread();
+            }
             rwl.writeLock().unlock();
         }
     }
 
     /**
-     * Clase privada que encapsula el mansaje que se va a guardar en la bitacora
+     * Tarea de la hebra de archivado que comprime un segmento rotado y aplica
+     * el numero de archivos a mantener
      */
-    private class MessageLog {
+    private final class ArchiveTask implements Runnable {
 
-        private int Type;
-        private int Level;
-        private String Unit;
-        private String Messaje;
-        private String TimeStamp;
+        private final String Segmento;
+        private final String Activo;
+        private final String ArchPath;
+        private final String BaseName;
+        private final int NumFiles;
 
         /**
-         * Constructor por defecto.
+         * Constructor con inicializacion del segmento y de la configuracion de
+         * la bitacora al momento de la rotacion.
          *
-         * @param Type Tipo de evento
-         * @param Level Nivel del evento
-         * @param Unit Unidad donde se genero el error
-         * @param TimeStamp Fecha y hora cuando se produjo el evento
-         * @param Messaje Mensaje de error
+         * @param Segmento Segmento a comprimir o NULL para no comprimir
+         * @param Activo Segmento activo o NULL para no recuperar segmentos
+         * @param ArchPath Ruta de los archivos de la bitacora
+         * @param BaseName Nombre base de los archivos de la bitacora
+         * @param NumFiles Numero de archivos a mantener
          */
-        public MessageLog(int Type, int Level, String Unit, String TimeStamp, String Messaje) {
-            this.Type = Type;
-            this.Level = Level;
-            this.Unit = Unit;
-            this.TimeStamp = TimeStamp;
-            this.Messaje = Messaje;
+        private ArchiveTask(String Segmento, String Activo, String ArchPath, String BaseName, int NumFiles) {
+            this.Segmento = Segmento;
+            this.Activo = Activo;
+            this.ArchPath = ArchPath;
+            this.BaseName = BaseName;
+            this.NumFiles = NumFiles;
         }
 
-        /**
-         * Retorna el tipo de evento.
-         *
-         * @return Tipo de evento
-         */
-        public int getType() {
-            return Type;
-        }
+        @Override
+        public void run() {
 
-        /**
-         * Retorna el nivel del evento
-         *
-         * @return Nivel del evento
-         */
-        public int getLevel() {
-            return Level;
-        }
-
-        /**
-         * Retorna la unidad donde se produjo el evento
-         *
-         * @return Unidad donde se produjo el evento
-         */
-        public String getUnit() {
-            return Unit;
-        }
-
-        /**
-         * Retorna el mensaje de error
-         *
-         * @return Mensaje de error
-         */
-        public String getMessaje() {
-            return Messaje;
-        }
-
-        /**
-         * Retorna la Fecha y hora en la que se produjo el evento
-         *
-         * @return
-         */
-        public String getTimeStamp() {
-            return TimeStamp;
+            try {
+                if (this.Activo != null) {
+                    RecoverSegments(this.ArchPath, this.BaseName, this.Activo);
+                }
+                if (this.Segmento != null) {
+                    CompressSegment(this.Segmento);
+                }
+                VerifyFilesToKeep(this.ArchPath, this.BaseName, this.NumFiles);
+            } finally {
+                PendingArchives.decrementAndGet();
+            }
         }
-
     }
-
 }
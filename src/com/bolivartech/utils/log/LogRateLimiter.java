@@ -0,0 +1,383 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that limit the rate of the log
+ * messages of each location ID with token buckets.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Limita la tasa de mensajes de bitacora por identificador de ubicacion
+ * (ClassID + LocCode) con un balde de fichas por ubicacion: cada mensaje
+ * consume una ficha, el balde se rellena a "Rate" fichas por segundo hasta
+ * "Burst" fichas, y los mensajes sin ficha se suprimen y solo se cuentan.</p>
+ *
+ * <p>
+ * Los baldes se buscan por ClassID y LocCode sin concatenarlos, por lo que
+ * un mensaje suprimido no crea ningun objeto.</p>
+ *
+ * <p>
+ * Los mensajes suprimidos se reportan como un resumen "repetido N veces"
+ * cuando la ubicacion vuelve a tener ficha (acquire retorna el numero de
+ * suprimidos) o, si la ubicacion dejo de registrar, con flush, que llama un
+ * temporizador cada "SummaryInterval" milisegundos de forma que la cuenta
+ * final de una tormenta se reporta aunque no lleguen mas mensajes. La decision se toma
+ * antes de formar el mensaje, por lo que una tormenta de mensajes repetidos no
+ * consume CPU en formateo ni E/S en el manejador de bitacoras.</p>
+ *
+ * <p>
+ * El numero de ubicaciones esta acotado por los LocCode del codigo, por lo que
+ * los baldes no se eliminan.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI5"</li>
+ * <li>Loc: 000-001</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.2
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): Los baldes se buscan por ClassID y LocCode sin
+ * concatenarlos y se agrego flush para reportar los resumenes desde un
+ * temporizador.</li>
+ * <li>v1.0.2 (2026-10-19): Se elimino sweep, los resumenes solo se reportan
+ * con flush desde el temporizador.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class LogRateLimiter {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI5";
+
+    /**
+     * La tasa o la rafaga no son validas
+     */
+    public final static int ERROR_INVALIDRATE = -1;
+    /**
+     * El intervalo de resumen no es valido
+     */
+    public final static int ERROR_INVALIDINTERVAL = -2;
+
+    /**
+     * Valor retornado por acquire cuando el mensaje se suprime
+     */
+    public final static long SUPPRESSED = -1;
+
+    // Fichas por milisegundo y maximo de fichas por balde
+    private final double Rate;
+    private final int Burst;
+    // Milisegundos entre resumenes
+    private final long SummaryInterval;
+    // Llave usada cuando el ClassID o el LocCode son NULL
+    private static final String UNKNOWN = "";
+
+    // Baldes por ClassID y LocCode
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Bucket>> Buckets = new ConcurrentHashMap<String, ConcurrentHashMap<String, Bucket>>();
+    // Total de mensajes suprimidos
+    private final AtomicLong Suppressed = new AtomicLong(0);
+
+    /**
+     * Constructor con inicializacion de la tasa por ubicacion
+     *
+     * @param Rate Mensajes por segundo permitidos por ubicacion
+     * @param Burst Mensajes consecutivos permitidos por ubicacion antes de
+     * aplicar la tasa
+     * @param SummaryInterval Milisegundos entre resumenes de los mensajes
+     * suprimidos
+     * @throws UtilsException Si algun parametro no es valido
+     */
+    public LogRateLimiter(double Rate, int Burst, long SummaryInterval) throws UtilsException {
+
+        if (!(Rate > 0) || (Burst < 1)) {
+            throw new UtilsException("ERROR: Rate and Burst must be greater than zero", ERROR_INVALIDRATE, LogRateLimiter.CLASSID + "000");
+        }
+        if (SummaryInterval < 1) {
+            throw new UtilsException("ERROR: Summary Interval must be greater than zero", ERROR_INVALIDINTERVAL, LogRateLimiter.CLASSID + "001");
+        }
+        this.Rate = Rate / 1000.0;
+        this.Burst = Burst;
+        this.SummaryInterval = SummaryInterval;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna los milisegundos entre resumenes de los mensajes suprimidos
+     *
+     * @return Intervalo de resumen en milisegundos
+     */
+    public long getSummaryInterval() {
+
+        return this.SummaryInterval;
+    }
+
+    /**
+     * Retorna el total de mensajes suprimidos desde la creacion del limitador
+     *
+     * @return Numero de mensajes suprimidos
+     */
+    public long getSuppressedCount() {
+
+        return this.Suppressed.get();
+    }
+
+    /**
+     * Consume una ficha del balde de la ubicacion "ClassID" + "LocCode".
+     *
+     * Si no hay ficha el mensaje se cuenta como suprimido y se retorna
+     * SUPPRESSED. Si hay ficha se retorna el numero de mensajes de la
+     * ubicacion suprimidos desde el ultimo resumen, que el llamador debe
+     * reportar antes del mensaje si es mayor a cero.
+     *
+     * @param ClassID Identificador de la clase o NULL
+     * @param LocCode Identificador de ubicacion del evento o NULL
+     * @param Type Tipo de Evento
+     * @param Level Nivel del Evento
+     * @param Template Mensaje o plantilla sin formatear, se usa en el resumen
+     * @return SUPPRESSED o el numero de mensajes suprimidos a reportar
+     */
+    public long acquire(String ClassID, String LocCode, int Type, int Level, String Template) {
+        ConcurrentHashMap<String, Bucket> Clase, PrevioClase;
+        Bucket Local, Previo;
+        long Result;
+
+        if (ClassID == null) {
+            ClassID = UNKNOWN;
+        }
+        if (LocCode == null) {
+            LocCode = UNKNOWN;
+        }
+        Clase = this.Buckets.get(ClassID);
+        if (Clase == null) {
+            Clase = new ConcurrentHashMap<String, Bucket>();
+            PrevioClase = this.Buckets.putIfAbsent(ClassID, Clase);
+            if (PrevioClase != null) {
+                Clase = PrevioClase;
+            }
+        }
+        Local = Clase.get(LocCode);
+        if (Local == null) {
+            Local = new Bucket(this.Burst);
+            Previo = Clase.putIfAbsent(LocCode, Local);
+            if (Previo != null) {
+                Local = Previo;
+            }
+        }
+        Result = Local.acquire(System.currentTimeMillis(), Type, Level, Template);
+        if (Result == SUPPRESSED) {
+            this.Suppressed.incrementAndGet();
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna los resumenes de todas las ubicaciones con mensajes suprimidos
+     * y reinicia sus cuentas, lo llama el temporizador que reporta cada
+     * intervalo de resumen la cuenta final de las ubicaciones que dejaron de
+     * registrar.
+     *
+     * @return Resumenes pendientes, vacia si no hay mensajes suprimidos
+     */
+    public List<Summary> flush() {
+        List<Summary> Result;
+        Summary Resumen;
+
+        Result = new ArrayList<Summary>();
+        for (Map.Entry<String, ConcurrentHashMap<String, Bucket>> Clase : this.Buckets.entrySet()) {
+            for (Map.Entry<String, Bucket> Entrada : Clase.getValue().entrySet()) {
+                Resumen = Entrada.getValue().drain(Clase.getKey(), Entrada.getKey());
+                if (Resumen != null) {
+                    Result.add(Resumen);
+                }
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Resumen de los mensajes suprimidos de una ubicacion
+     */
+    public static final class Summary {
+
+        private final String LocationID;
+        private final int Type;
+        private final int Level;
+        private final String Template;
+        private final long Count;
+
+        /**
+         * Constructor con inicializacion del resumen
+         *
+         * @param LocationID Identificador de ubicacion
+         * @param Type Tipo del ultimo mensaje suprimido
+         * @param Level Nivel del ultimo mensaje suprimido
+         * @param Template Plantilla del ultimo mensaje suprimido
+         * @param Count Numero de mensajes suprimidos
+         */
+        private Summary(String LocationID, int Type, int Level, String Template, long Count) {
+            this.LocationID = LocationID;
+            this.Type = Type;
+            this.Level = Level;
+            this.Template = Template;
+            this.Count = Count;
+        }
+
+        /**
+         * Retorna el identificador de ubicacion
+         *
+         * @return Identificador de ubicacion
+         */
+        public String getLocationID() {
+            return LocationID;
+        }
+
+        /**
+         * Retorna el tipo del ultimo mensaje suprimido
+         *
+         * @return Tipo de Evento
+         */
+        public int getType() {
+            return Type;
+        }
+
+        /**
+         * Retorna el nivel del ultimo mensaje suprimido
+         *
+         * @return Nivel del Evento
+         */
+        public int getLevel() {
+            return Level;
+        }
+
+        /**
+         * Retorna la plantilla sin formatear del ultimo mensaje suprimido
+         *
+         * @return Plantilla del mensaje
+         */
+        public String getTemplate() {
+            return Template;
+        }
+
+        /**
+         * Retorna el numero de mensajes suprimidos
+         *
+         * @return Numero de mensajes suprimidos
+         */
+        public long getCount() {
+            return Count;
+        }
+    }
+
+    /**
+     * Balde de fichas de una ubicacion
+     */
+    private final class Bucket {
+
+        // Fichas disponibles e instante del ultimo relleno
+        @GuardedBy("this")
+        private double Tokens;
+        @GuardedBy("this")
+        private long LastRefill;
+        // Mensajes suprimidos desde el ultimo resumen y datos del ultimo
+        @GuardedBy("this")
+        private long Pending = 0;
+        @GuardedBy("this")
+        private int Type;
+        @GuardedBy("this")
+        private int Level;
+        @GuardedBy("this")
+        private String Template;
+
+        /**
+         * Constructor con el balde lleno
+         *
+         * @param Burst Fichas iniciales
+         */
+        private Bucket(int Burst) {
+            this.Tokens = Burst;
+            this.LastRefill = System.currentTimeMillis();
+        }
+
+        /**
+         * Consume una ficha o cuenta el mensaje como suprimido
+         *
+         * @param Now Instante actual
+         * @param Type Tipo de Evento
+         * @param Level Nivel del Evento
+         * @param Template Plantilla del mensaje
+         * @return SUPPRESSED o el numero de mensajes suprimidos a reportar
+         */
+        private synchronized long acquire(long Now, int Type, int Level, String Template) {
+            long Result;
+
+            if (Now > this.LastRefill) {
+                this.Tokens = Math.min(LogRateLimiter.this.Burst, this.Tokens + (Now - this.LastRefill) * LogRateLimiter.this.Rate);
+                this.LastRefill = Now;
+            }
+            if (this.Tokens >= 1.0) {
+                this.Tokens -= 1.0;
+                Result = this.Pending;
+                this.Pending = 0;
+            } else {
+                this.Pending++;
+                this.Type = Type;
+                this.Level = Level;
+                this.Template = Template;
+                Result = SUPPRESSED;
+            }
+            return Result;
+        }
+
+        /**
+         * Retorna el resumen de los mensajes suprimidos y reinicia la cuenta
+         *
+         * @param ClassID Identificador de la clase del balde
+         * @param LocCode Identificador de ubicacion del balde
+         * @return Resumen o NULL si no hay mensajes suprimidos
+         */
+        private synchronized Summary drain(String ClassID, String LocCode) {
+            Summary Result = null;
+
+            if (this.Pending > 0) {
+                Result = new Summary((ClassID.isEmpty() ? "???????" : ClassID) + (LocCode.isEmpty() ? "???" : LocCode), this.Type, this.Level, this.Template, this.Pending);
+                this.Pending = 0;
+            }
+            return Result;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement a preallocated ring
+ * buffer of mutable log events shared by the LoggerManager
+ * implementations.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe for multiple producers and ONE
+ * consumer.</p>
+ *
+ * <p>
+ * Implementa un buffer circular de eventos de bitacora mutables que se
+ * reservan al construirlo, por lo que registrar un evento no crea objetos.</p>
+ *
+ * <p>
+ * Los productores reclaman una posicion con un CAS sobre el cursor, copian el
+ * evento en ella y la publican escribiendo su numero de secuencia, sin tomar
+ * ningun lock. La unica hebra consumidora recorre las posiciones en orden con
+ * peek() y release(), y duerme en await() hasta que un productor publica un
+ * evento.</p>
+ *
+ * <p>
+ * El instante del evento se guarda en milisegundos desde la epoca y se formatea
+ * en la hebra consumidora con LogTimeFormatter.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias con multiples productores
+ * y UN solo consumidor.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHY"</li>
+ * <li>Loc: none</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.1.0
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.1.0 (2026-10-19): El mensaje del evento puede ser un
+ * DeferredLogMessage que se formatea en la hebra consumidora.</li>
+ * </ul>
+ */
+@ThreadSafe
+final class LogRingBuffer {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHY";
+
+    // Posiciones del buffer, su numero es potencia de 2
+    private final LogEvent[] Slots;
+    private final int Mask;
+    // Siguiente secuencia a reclamar por los productores
+    private final AtomicLong Cursor = new AtomicLong(0);
+    // Siguiente secuencia a consumir, solo la escribe el consumidor
+    private volatile long ReadSequence = 0;
+    // Las secuencias menores a esta se descartan sin entregarse (Clear)
+    private volatile long DiscardSequence = 0;
+    // Hebra consumidora esperando eventos en await()
+    private volatile Thread Waiter = null;
+
+    /**
+     * Constructor con inicializacion de la capacidad del buffer, la capacidad
+     * se redondea a la siguiente potencia de 2.
+     *
+     * @param Capacity Capacidad minima del buffer en eventos
+     */
+    LogRingBuffer(int Capacity) {
+        int Size, i;
+
+        Size = 1;
+        while ((Size < Capacity) && (Size < (1 << 30))) {
+            Size <<= 1;
+        }
+        this.Slots = new LogEvent[Size];
+        this.Mask = Size - 1;
+        for (i = 0; i < Size; i++) {
+            this.Slots[i] = new LogEvent(i - Size);
+        }
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Retorna la capacidad del buffer en eventos
+     *
+     * @return Capacidad del buffer
+     */
+    int getCapacity() {
+
+        return this.Slots.length;
+    }
+
+    /**
+     * Copia el evento en la siguiente posicion libre del buffer y lo publica,
+     * retornando FALSE sin bloquear si el buffer esta lleno.
+     *
+     * @param Type Tipo de evento
+     * @param Level Nivel del evento
+     * @param Unit Unidad donde se genero el evento
+     * @param Messaje Mensaje del evento, un String o un DeferredLogMessage que
+     * se formatea en la hebra consumidora
+     * @param TimeMillis Instante del evento en milisegundos desde la epoca
+     * @return TRUE si el evento se publico o FALSE si el buffer esta lleno
+     */
+    boolean tryPublish(int Type, int Level, String Unit, Object Messaje, long TimeMillis) {
+        LogEvent Evento;
+        Thread Consumidor;
+        long Seq;
+
+        do {
+            Seq = this.Cursor.get();
+            if ((Seq - this.ReadSequence) >= this.Slots.length) {
+                return false;
+            }
+        } while (!this.Cursor.compareAndSet(Seq, Seq + 1));
+        Evento = this.Slots[(int) (Seq & this.Mask)];
+        Evento.Type = Type;
+        Evento.Level = Level;
+        Evento.Unit = Unit;
+        Evento.Messaje = Messaje;
+        Evento.TimeMillis = TimeMillis;
+        // Publica el evento al consumidor
+        Evento.Sequence = Seq;
+        Consumidor = this.Waiter;
+        if (Consumidor != null) {
+            LockSupport.unpark(Consumidor);
+        }
+        return true;
+    }
+
+    /**
+     * Retorna el siguiente evento publicado sin extraerlo o NULL si no hay
+     * eventos publicados. El evento es valido hasta llamar a release().
+     *
+     * NOTA: Solo la debe llamar la hebra consumidora.
+     *
+     * @return Siguiente evento o NULL
+     */
+    LogEvent peek() {
+        LogEvent Evento;
+        long Seq;
+
+        Seq = this.ReadSequence;
+        Evento = this.Slots[(int) (Seq & this.Mask)];
+        while ((Evento.Sequence == Seq) && (Seq < this.DiscardSequence)) {
+            // Descarta los eventos anteriores a la ultima limpieza
+            this.release();
+            Seq = this.ReadSequence;
+            Evento = this.Slots[(int) (Seq & this.Mask)];
+        }
+        return (Evento.Sequence == Seq ? Evento : null);
+    }
+
+    /**
+     * Libera la posicion del evento retornado por peek() para que los
+     * productores la puedan reutilizar.
+     *
+     * NOTA: Solo la debe llamar la hebra consumidora.
+     */
+    void release() {
+        LogEvent Evento;
+        long Seq;
+
+        Seq = this.ReadSequence;
+        Evento = this.Slots[(int) (Seq & this.Mask)];
+        if (Evento.Sequence == Seq) {
+            Evento.Unit = null;
+            Evento.Messaje = null;
+            this.ReadSequence = Seq + 1;
+        }
+    }
+
+    /**
+     * Espera hasta "TimeoutMillis" milisegundos a que haya un evento
+     * publicado, retornando TRUE si hay un evento disponible.
+     *
+     * NOTA: Solo la debe llamar la hebra consumidora.
+     *
+     * @param TimeoutMillis Tiempo maximo de espera en milisegundos
+     * @return TRUE si hay un evento disponible o FALSE si se cumplio el tiempo
+     * @throws InterruptedException Si la hebra fue interrumpida
+     */
+    boolean await(long TimeoutMillis) throws InterruptedException {
+        long Restante, Limite;
+        boolean Result;
+
+        Result = (this.peek() != null);
+        if (!Result && (TimeoutMillis > 0)) {
+            Limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TimeoutMillis);
+            this.Waiter = Thread.currentThread();
+            try {
+                Result = (this.peek() != null);
+                Restante = Limite - System.nanoTime();
+                while (!Result && (Restante > 0)) {
+                    LockSupport.parkNanos(this, Restante);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    Result = (this.peek() != null);
+                    Restante = Limite - System.nanoTime();
+                }
+            } finally {
+                this.Waiter = null;
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Descarta todos los eventos reclamados hasta el momento, el consumidor
+     * los salta sin entregarlos.
+     */
+    void clear() {
+        long Seq;
+
+        Seq = this.Cursor.get();
+        if (Seq > this.DiscardSequence) {
+            this.DiscardSequence = Seq;
+        }
+    }
+
+    /**
+     * Retorna el numero de eventos reclamados que no se han consumido
+     *
+     * @return Numero de eventos en el buffer
+     */
+    int size() {
+
+        return (int) (this.Cursor.get() - this.ReadSequence);
+    }
+
+    /**
+     * Retorna TRUE si no hay eventos reclamados pendientes por consumir
+     *
+     * @return TRUE si el buffer esta vacio
+     */
+    boolean isEmpty() {
+
+        return (this.Cursor.get() == this.ReadSequence);
+    }
+
+    /**
+     * Evento de bitacora mutable que se reutiliza en cada vuelta del buffer
+     */
+    static final class LogEvent {
+
+        // Secuencia publicada en la posicion
+        private volatile long Sequence;
+        private int Type;
+        private int Level;
+        private String Unit;
+        // Mensaje como String o como DeferredLogMessage sin formatear
+        private Object Messaje;
+        private long TimeMillis;
+
+        /**
+         * Constructor con inicializacion de la secuencia no publicada
+         *
+         * @param Sequence Secuencia inicial de la posicion
+         */
+        private LogEvent(long Sequence) {
+            this.Sequence = Sequence;
+        }
+
+        /**
+         * Retorna el tipo de evento.
+         *
+         * @return Tipo de evento
+         */
+        int getType() {
+            return Type;
+        }
+
+        /**
+         * Retorna el nivel del evento
+         *
+         * @return Nivel del evento
+         */
+        int getLevel() {
+            return Level;
+        }
+
+        /**
+         * Retorna la unidad donde se produjo el evento
+         *
+         * @return Unidad donde se produjo el evento
+         */
+        String getUnit() {
+            return Unit;
+        }
+
+        /**
+         * Retorna el mensaje de error, si el mensaje es diferido se formatea
+         * en este momento.
+         *
+         * @return Mensaje de error
+         */
+        String getMessaje() {
+            return (Messaje == null ? null : Messaje.toString());
+        }
+
+        /**
+         * Retorna el mensaje sin formatear, un String o un DeferredLogMessage
+         *
+         * @return Mensaje sin formatear
+         */
+        Object getMessajeObject() {
+            return Messaje;
+        }
+
+        /**
+         * Retorna el instante del evento en milisegundos desde la epoca
+         *
+         * @return Instante del evento en milisegundos
+         */
+        long getTimeMillis() {
+            return TimeMillis;
+        }
+    }
+}
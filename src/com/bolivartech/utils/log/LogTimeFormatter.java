@@ -0,0 +1,105 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.NotThreadSafe;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that format the log events timestamps
+ * with a cached per-second prefix.</p>
+ *
+ * <p>
+ * NOTE: This class is NOT Thread Safe.</p>
+ *
+ * <p>
+ * Formatea los instantes de los eventos de bitacora en milisegundos desde la
+ * epoca con el formato "yyyy/MM/dd HH:mm:ss.SS". La parte hasta los segundos
+ * se formatea con SimpleDateFormat solo cuando cambia el segundo y se reutiliza
+ * para todos los eventos de ese segundo, los milisegundos se agregan
+ * directamente.</p>
+ *
+ * <p>
+ * NOTA: Esta clase NO es segura para las concurrencias, cada hebra consumidora
+ * debe usar su propia instancia.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFHZ"</li>
+ * <li>Loc: none</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+@NotThreadSafe
+final class LogTimeFormatter {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFHZ";
+
+    // Formateador de la parte del instante hasta los segundos
+    private final DateFormat dateFormat;
+    private final Date Fecha = new Date(0);
+    // Segundo del prefijo almacenado
+    private long Segundo = Long.MIN_VALUE;
+    // Prefijo "yyyy/MM/dd HH:mm:ss." del segundo almacenado
+    private String Prefijo = "";
+
+    /**
+     * Constructor por defecto
+     */
+    LogTimeFormatter() {
+
+        this.dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.");
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Agrega en "Salida" el instante "TimeMillis" formateado, los milisegundos
+     * se escriben con al menos 2 digitos igual que el patron "SS".
+     *
+     * @param TimeMillis Instante en milisegundos desde la epoca
+     * @param Salida Donde se agrega el instante formateado
+     */
+    void format(long TimeMillis, StringBuilder Salida) {
+        long Actual;
+        int Milis;
+
+        Actual = Math.floorDiv(TimeMillis, 1000L);
+        Milis = (int) Math.floorMod(TimeMillis, 1000L);
+        if (Actual != this.Segundo) {
+            this.Fecha.setTime(Actual * 1000L);
+            this.Prefijo = this.dateFormat.format(this.Fecha);
+            this.Segundo = Actual;
+        }
+        Salida.append(this.Prefijo);
+        if (Milis < 10) {
+            Salida.append('0');
+        }
+        Salida.append(Milis);
+    }
+}
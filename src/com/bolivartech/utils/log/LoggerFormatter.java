@@ -2,8 +2,9 @@ package com.bolivartech.utils.log;
 
 import com.bolivartech.utils.btthreads.annotations.GuardedBy;
 import com.bolivartech.utils.exception.UtilsException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -25,6 +26,12 @@ import java.util.logging.Logger;
  * 
  * <p>Clase del tipo Singleton</p>
  *
+ * <p>Opcionalmente limita la tasa de mensajes de cada identificador de
+ * ubicacion con un LogRateLimiter (setRateLimiter), la decision se toma antes
+ * de formar el mensaje y los mensajes suprimidos se reportan como "Message
+ * repeated N times". Un temporizador reporta cada intervalo de resumen los
+ * mensajes suprimidos de las ubicaciones que dejaron de registrar.</p>
+ *
  * <p>NOTA: Esta clase es segura para las concurrencias.</p>
  *
  * <ul>
@@ -33,18 +40,33 @@ import java.util.logging.Logger;
  * </ul>
  *
  * @author Julian Bolivar
- * @since 2016 - March 27, 2016.
- * @version 1.0.0
+ * @since 2016 - October 19, 2026.
+ * @version 1.2.1
  *
  * <p>Change Logs:</p>
  * <ul>
  * <li>v1.0.0 (2016-03-27): Version Inicial.</li>
+ * <li>v1.1.0 (2026-10-19): LogMsg verifica el filtro del manejador de
+ * bitacoras con isEnabled antes de formar el mensaje, y el texto y el stack de
+ * la excepcion se envian como DeferredLogMessage para que se generen en la
+ * hebra del manejador. Se agregaron las versiones de LogMsg con plantilla y
+ * argumentos.</li>
+ * <li>v1.2.0 (2026-10-19): Se agrego la limitacion de tasa por identificador
+ * de ubicacion con LogRateLimiter, los mensajes repetidos se suprimen antes de
+ * formarlos y se reportan con un resumen "repetido N veces".</li>
+ * <li>v1.2.1 (2026-10-19): Los resumenes pendientes se reportan desde un
+ * temporizador para que la cuenta final de una tormenta se registre aunque no
+ * lleguen mas mensajes, y el balde se busca por ClassID y LocCode antes de
+ * formar el identificador de ubicacion.</li>
  * </ul>
  */
 public class LoggerFormatter {
 
     // Codigo de identificacion de la clase
     private static final String CLASSID = "35DLFMN";
+
+    // Plantilla del resumen de mensajes suprimidos
+    private static final String REPEATED = "Message repeated {} times: {}";
     
     // Los lock para el manejo de concurrencia
     private final static ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
@@ -52,6 +74,14 @@ public class LoggerFormatter {
     // Manejador de Bitacora
     @GuardedBy("rwl")
     LoggerManager BTLogM;
+
+    // Limitador de tasa por ubicacion, NULL sin limite
+    @GuardedBy("rwl")
+    private volatile LogRateLimiter Limiter = null;
+
+    // Temporizador que reporta los resumenes del limitador
+    @GuardedBy("rwl")
+    private Timer Resumidor = null;
     
     // Instancia de la clase
     @GuardedBy("rwl")
@@ -114,7 +144,62 @@ public class LoggerFormatter {
     public static String getCLASSID() {
         return CLASSID;
     }
+
+    /**
+     * Establece el limitador de tasa por identificador de ubicacion, NULL para
+     * registrar todos los mensajes.
+     *
+     * @param Limiter Limitador de tasa o NULL
+     */
+    public void setRateLimiter(final LogRateLimiter Limiter) {
+
+        rwl.writeLock().lock();
+        try {
+            if (this.Resumidor != null) {
+                this.Resumidor.cancel();
+                this.Resumidor = null;
+            }
+            this.Limiter = Limiter;
+            if (Limiter != null) {
+                this.Resumidor = new Timer("LoggerFormatter-Summaries", true);
+                this.Resumidor.schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        Summarize(Limiter.flush());
+                    }
+                }, Limiter.getSummaryInterval(), Limiter.getSummaryInterval());
+            }
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna el limitador de tasa por identificador de ubicacion
+     *
+     * @return Limitador de tasa o NULL si no hay limite
+     */
+    public LogRateLimiter getRateLimiter() {
+
+        return this.Limiter;
+    }
     
+    /**
+     * Retorna TRUE si el manejador de bitacoras guarda los eventos del tipo
+     * "Tipo" y nivel "Nivel", permite evitar construir los argumentos de un
+     * mensaje que se va a descartar.
+     *
+     * @param Tipo Tipo de Evento
+     * @param Nivel Nivel del Evento
+     * @return TRUE si se guardan los eventos de ese tipo y nivel
+     */
+    public boolean isEnabled(int Tipo, int Nivel) {
+        LoggerManager Local;
+
+        Local = this.BTLogM;
+        return ((Local == null) || Local.isEnabled(Tipo, Nivel));
+    }
+
     /**
      * Metodo que se encarga de manejar y formatear el envio de mensajes hacia el
      * manejador de bitacoras.
@@ -137,7 +222,52 @@ public class LoggerFormatter {
      * @param LocCode Identificador de ubicacion del evento
      */
     public void LogMsg(int Tipo, int Nivel, boolean printStack, Exception ex, String Mensaje, String ClassID, String LocCode) {
-        this.Logger(this.BTLogM,Tipo,Nivel,printStack,ex,Mensaje,ClassID,LocCode);
+        this.Logger(this.BTLogM, Tipo, Nivel, printStack, ex, Mensaje, null, ClassID, LocCode);
+    }
+
+    /**
+     * Envia un mensaje con plantilla hacia el manejador de bitacoras, cada
+     * "{}" de la plantilla se reemplaza en orden por el siguiente argumento.
+     *
+     * Si el evento no pasa el filtro del manejador de bitacoras se retorna sin
+     * formar el mensaje, y si pasa el texto se genera en la hebra del
+     * manejador.
+     *
+     * Ejemplo: LogMsg(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_DEBUG,
+     * "Lane {} has {} tasks", CLASSID, "010", Key, Size).
+     *
+     * @param Tipo Tipo de Evento
+     * @param Nivel Nivel del Evento
+     * @param Template Plantilla del mensaje
+     * @param ClassID Identificador de la clase
+     * @param LocCode Identificador de ubicacion del evento
+     * @param Args Argumentos de la plantilla
+     */
+    public void LogMsg(int Tipo, int Nivel, String Template, String ClassID, String LocCode, Object... Args) {
+        this.Logger(this.BTLogM, Tipo, Nivel, false, null, Template, Args, ClassID, LocCode);
+    }
+
+    /**
+     * Envia un mensaje con plantilla y excepcion hacia el manejador de
+     * bitacoras, cada "{}" de la plantilla se reemplaza en orden por el
+     * siguiente argumento.
+     *
+     * Si el evento no pasa el filtro del manejador de bitacoras se retorna sin
+     * formar el mensaje, y si pasa el texto y el stack se generan en la hebra
+     * del manejador.
+     *
+     * @param Tipo Tipo de Evento
+     * @param Nivel Nivel del Evento
+     * @param printStack TRUE para imprimer el stack de la excepcion ex o FALSE
+     * para no.
+     * @param ex Excepcion de la cual imprimir el stack
+     * @param Template Plantilla del mensaje
+     * @param ClassID Identificador de la clase
+     * @param LocCode Identificador de ubicacion del evento
+     * @param Args Argumentos de la plantilla
+     */
+    public void LogMsg(int Tipo, int Nivel, boolean printStack, Exception ex, String Template, String ClassID, String LocCode, Object... Args) {
+        this.Logger(this.BTLogM, Tipo, Nivel, printStack, ex, Template, Args, ClassID, LocCode);
     }
     
     /**
@@ -158,62 +288,100 @@ public class LoggerFormatter {
      * @param printStack TRUE para imprimer el stack de la excepcion ex o FALSE
      * para no.
      * @param ex Excepcion de la cual imprimir el stack
-     * @param Mensaje Mensaje a enviar al manejador de bitacoras
+     * @param Mensaje Mensaje o plantilla a enviar al manejador de bitacoras
+     * @param Args Argumentos de la plantilla o NULL
      * @param ClassID Identificador de la clase
      * @param LocCode Identificador de ubicacion del evento
      */
-    private void Logger(LoggerManager BTLogM, int Tipo, int Nivel, boolean printStack, Exception ex, String Mensaje, String ClassID, String LocCode) {
-        // Impresion del Stack
-        StringWriter StackTrace;
+    private void Logger(LoggerManager BTLogM, int Tipo, int Nivel, boolean printStack, Exception ex, String Mensaje, Object[] Args, String ClassID, String LocCode) {
         // Identificador de ubicacion
         String LocationID;
+        // Mensaje sin formatear
+        DeferredLogMessage Diferido;
+        // Limitador de tasa y mensajes suprimidos a reportar
+        LogRateLimiter Limitador;
+        long Suprimidos;
 
-        // Forma el identificador de posicion
-        if ((ClassID != null) && (LocCode != null)) {
-            LocationID = ClassID + LocCode;
-        } else if (LocCode != null) {
-            if ((ex != null) && (UtilsException.class.isInstance(ex))) {
-                LocationID = "???????" + LocCode + " --> " + ((UtilsException) ex).getLocCode();
-                printStack = true;
-            } else {
-                LocationID = "???????" + LocCode;
+        // Los eventos que el manejador descarta no se forman
+        Suprimidos = LogRateLimiter.SUPPRESSED;
+        if ((BTLogM == null) || BTLogM.isEnabled(Tipo, Nivel)) {
+            // Los mensajes repetidos de la ubicacion se suprimen antes de formarlos
+            Limitador = this.Limiter;
+            Suprimidos = 0;
+            if (Limitador != null) {
+                Suprimidos = Limitador.acquire(ClassID, LocCode, Tipo, Nivel, Mensaje);
             }
-        } else if (ClassID != null) {
-            if ((ex != null) && (UtilsException.class.isInstance(ex))) {
-                LocationID = ClassID + "??? --> " + ((UtilsException) ex).getLocCode();
+        }
+        if (Suprimidos != LogRateLimiter.SUPPRESSED) {
+            // Forma el identificador de posicion
+            if ((ClassID != null) && (LocCode != null)) {
+                LocationID = ClassID + LocCode;
+            } else if (LocCode != null) {
+                if ((ex != null) && (UtilsException.class.isInstance(ex))) {
+                    LocationID = "???????" + LocCode + " --> " + ((UtilsException) ex).getLocCode();
+                    printStack = true;
+                } else {
+                    LocationID = "???????" + LocCode;
+                }
+            } else if (ClassID != null) {
+                if ((ex != null) && (UtilsException.class.isInstance(ex))) {
+                    LocationID = ClassID + "??? --> " + ((UtilsException) ex).getLocCode();
+                    printStack = true;
+                } else {
+                    LocationID = ClassID + "???";
+                }
+            } else if ((ex != null) && (UtilsException.class.isInstance(ex))) {
+                LocationID = "?????????? --> " + ((UtilsException) ex).getLocCode();
                 printStack = true;
             } else {
-                LocationID = ClassID + "???";
+                LocationID = "??????????";
+                printStack = true;
             }
-        } else if ((ex != null) && (UtilsException.class.isInstance(ex))) {
-            LocationID = "?????????? --> " + ((UtilsException) ex).getLocCode();
-            printStack = true;
-        } else {
-            LocationID = "??????????";
-            printStack = true;
-        }
-        // Si el mensaje no esta definido se trata de recuperar de la excepcion
-        if ((Mensaje == null) && (ex != null)) {
-            Mensaje = ex.getMessage();
-        } else if ((Mensaje == null) && (ex == null)) {
-            Mensaje = "UNKNOWN";
+            if (Suprimidos > 0) {
+                this.Send(BTLogM, Tipo, Nivel, LocationID, new DeferredLogMessage(LocationID, REPEATED, new Object[]{Suprimidos, Mensaje}, null, false));
+            }
+            // El mensaje, la plantilla y el stack se generan en la hebra del manejador
+            Diferido = new DeferredLogMessage(LocationID, Mensaje, Args, ex, printStack);
+            this.Send(BTLogM, Tipo, Nivel, LocationID, Diferido);
         }
-        // Agrega el identificador de ubicacion del mensaje
-        Mensaje = "(" + LocationID + ") " + Mensaje;
-        // Agrega el stack al mensaje
-        if (printStack) {
-            if (ex != null) {
-                StackTrace = new StringWriter();
-                ex.printStackTrace(new PrintWriter(StackTrace));
-                Mensaje += "\nSTACK TRACE(" + LocationID + "):\n" + StackTrace.toString();
-            } else {
-                Mensaje += "Can't Print Stack(" + LocationID + ") Due Exception is NULL";
+    }
+
+    /**
+     * Reporta los resumenes de las ubicaciones con mensajes suprimidos, lo
+     * llama el temporizador cada intervalo de resumen.
+     *
+     * @param Resumenes Resumenes pendientes del limitador
+     */
+    private void Summarize(List<LogRateLimiter.Summary> Resumenes) {
+        LoggerManager Local;
+
+        Local = this.BTLogM;
+        for (LogRateLimiter.Summary Resumen : Resumenes) {
+            if ((Local == null) || Local.isEnabled(Resumen.getType(), Resumen.getLevel())) {
+                this.Send(Local, Resumen.getType(), Resumen.getLevel(), Resumen.getLocationID(),
+                        new DeferredLogMessage(Resumen.getLocationID(), REPEATED, new Object[]{Resumen.getCount(), Resumen.getTemplate()}, null, false));
             }
         }
+    }
+
+    /**
+     * Envia el mensaje diferido al manejador de bitacoras o, si no hay
+     * manejador, al Logger de Java.
+     *
+     * @param BTLogM Manerador de bitacoras de BolivarTech
+     * @param Tipo Tipo de Evento
+     * @param Nivel Nivel del Evento
+     * @param LocationID Identificador de ubicacion
+     * @param Diferido Mensaje sin formatear
+     */
+    private void Send(LoggerManager BTLogM, int Tipo, int Nivel, String LocationID, DeferredLogMessage Diferido) {
+        String Mensaje;
+
         // Imprime el mensaje en el manejador de bitacora
         if (BTLogM != null) {
-            BTLogM.LogMessage(Tipo, Nivel, LocationID, Mensaje);
+            BTLogM.LogMessage(Tipo, Nivel, LocationID, Diferido);
         } else {
+            Mensaje = Diferido.toString();
             switch (Nivel) {
                 case LoggerManager.LEVEL_TRACE:
                     Logger.getLogger(LocationID).log(Level.INFO, Mensaje);
@@ -22,8 +22,8 @@ package com.bolivartech.utils.log;
  * Esta es una interface</p>
  *
  * @author Julian Bolivar
- * @since 2011 - February 05, 2015.
- * @version 1.1.0
+ * @since 2011 - October 19, 2026.
+ * @version 1.2.0
  *
  * <p>
  * Change Logs:</p>
@@ -31,6 +31,9 @@ package com.bolivartech.utils.log;
  * <li>v1.0.0 (05/23/2011): Version Inicial.</li>
  * <li>v1.1.0 (02/05/2015): El tipo y los niveles de registro se cambiaron para
  * que fueran una mascara de bits.</li>
+ * <li>v1.2.0 (2026-10-19): Se agrego isEnabled para verificar el filtro de
+ * tipos y niveles antes de formatear el mensaje, y LogMessage con un mensaje
+ * diferido (DeferredLogMessage) que se formatea solo si pasa el filtro.</li>
  * </ul>
  */
 public interface LoggerManager {
@@ -62,4 +65,39 @@ public interface LoggerManager {
      * @param Messaje Mensaje referente al evento
      */
     public void LogMessage(int Type, int Level, String Unit, String Messaje);
+
+    /**
+     * Retorna TRUE si el manejador de bitacoras guarda los eventos del tipo
+     * "Type" y nivel "Level", para evitar formatear mensajes que se descartan.
+     *
+     * La implementacion por defecto retorna siempre TRUE.
+     *
+     * @param Type Tipo de Evento
+     * @param Level Nivel del Evento
+     * @return TRUE si se guardan los eventos de ese tipo y nivel
+     */
+    public default boolean isEnabled(int Type, int Level) {
+
+        return true;
+    }
+
+    /**
+     * Envia un mensaje diferido al manejador de bitacoras, el texto del
+     * mensaje se genera solo si el evento pasa el filtro de tipos y niveles.
+     *
+     * La implementacion por defecto genera el texto en la hebra que llama y lo
+     * envia con LogMessage, los manejadores con hebra propia lo generan en su
+     * hebra.
+     *
+     * @param Type Tipo de Evento
+     * @param Level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje diferido referente al evento
+     */
+    public default void LogMessage(int Type, int Level, String Unit, DeferredLogMessage Messaje) {
+
+        if (this.isEnabled(Type, Level)) {
+            this.LogMessage(Type, Level, Unit, Messaje.toString());
+        }
+    }
 }
@@ -0,0 +1,608 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement a LoggerManager that
+ * route the log events to several LoggerManager sinks.</p>
+ *
+ * <p>
+ * NOTE: This class is Thread Safe.</p>
+ *
+ * <p>
+ * Implementa un manejador de bitacoras compuesto que envia cada evento a los
+ * manejadores (sinks) cuyas mascaras de tipos y niveles lo aceptan. Cada sink
+ * tiene su propio buffer circular acotado (LogRingBuffer) y su propia hebra
+ * que le entrega los eventos, por lo que un sink lento (por ejemplo DBLogger)
+ * no detiene a los demas ni a la hebra que registra el evento.</p>
+ *
+ * <p>
+ * Cuando el buffer de un sink se llena se aplica su politica de
+ * desbordamiento:</p>
+ * <ul>
+ * <li>POLICY_BLOCK: la hebra que registra el evento espera a que el sink
+ * libere espacio, no se pierden eventos.</li>
+ * <li>POLICY_DROPDEBUG: a partir de 3/4 de la capacidad se descartan los
+ * eventos de nivel Trace y Debug, y con el buffer lleno se descartan todos,
+ * la hebra que registra el evento nunca espera. Los eventos descartados se
+ * cuentan por sink.</li>
+ * </ul>
+ *
+ * <p>
+ * Los mensajes diferidos (DeferredLogMessage) se entregan sin formatear a los
+ * sinks. El instante del evento se toma al registrarlo en el router y se
+ * entrega con el evento a FileLogger, DBLogger y PrinterLogger, por lo que la
+ * espera en el buffer de un sink lento no retrasa el instante guardado; los
+ * demas sinks asignan el instante al recibir el evento.</p>
+ *
+ * <p>
+ * NOTA: Esta clase es segura para las concurrencias.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI4"</li>
+ * <li>Loc: 000-005</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.1
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * <li>v1.0.1 (2026-10-19): El instante tomado al registrar el evento se
+ * entrega a los sinks FileLogger, DBLogger y PrinterLogger.</li>
+ * </ul>
+ */
+@ThreadSafe
+public class LoggerRouter implements LoggerManager {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI4";
+
+    // Tiempo maximo en milisegundos que una hebra de sink puede estar sin eventos antes de terminar
+    private static final long MAX_IDLE_TIME = 60000; // 1 minutos
+
+    private static final long QUEUEFULLWAIT = 50000;  // Nanosegundos
+    private static final int THREADSLEEP = 500;     // Milisegundos que duerme la hebra
+    private static final int BATCHSIZE = 256;      // Numero de Mensajes entregados por lote
+    private static final int DEFQUEUESIZE = 4096;  // Numero de Mensajes por sink por defecto
+
+    /**
+     * Politica de desbordamiento que espera a que el sink libere espacio
+     */
+    public final static int POLICY_BLOCK = 0;
+    /**
+     * Politica de desbordamiento que descarta primero los eventos Trace y
+     * Debug y nunca espera
+     */
+    public final static int POLICY_DROPDEBUG = 1;
+
+    /**
+     * El sink es NULL
+     */
+    public final static int ERROR_NULLSINK = -1;
+    /**
+     * La politica de desbordamiento no es valida
+     */
+    public final static int ERROR_INVALIDPOLICY = -2;
+    /**
+     * El sink ya esta registrado en el router
+     */
+    public final static int ERROR_DUPLICATEDSINK = -3;
+
+    // Define la mascara del tipo de Evento que se va a enviar
+    public final static int TYPE_ALL = 0xFFFFFFFF;
+    // Define la mascara del nivel de registro que se va a enviar
+    public final static int LEVEL_ALL = 0xFFFFFFFF;
+
+    // Niveles descartados primero con POLICY_DROPDEBUG
+    private final static int DROPLEVELS = LoggerManager.LEVEL_TRACE | LoggerManager.LEVEL_DEBUG;
+
+    // Los lock para el manejo de concurrencia
+    private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
+
+    // Sinks registrados, el arreglo se reemplaza completo al modificarlo y se lee sin lock
+    @GuardedBy("rwl")
+    private volatile SinkQueue[] Sinks = new SinkQueue[0];
+
+    /**
+     * Constructor por defecto, sin sinks
+     */
+    public LoggerRouter() {
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Agrega el sink "Sink" con las mascaras de tipos y niveles que acepta, un
+     * buffer de DEFQUEUESIZE eventos y la politica POLICY_BLOCK.
+     *
+     * @param Sink Manejador de bitacoras al que se envian los eventos
+     * @param TypeMask Mascara de tipos de eventos que acepta
+     * @param LevelMask Mascara de niveles de eventos que acepta
+     * @throws UtilsException Si el sink es NULL o ya esta registrado
+     */
+    public void addSink(LoggerManager Sink, int TypeMask, int LevelMask) throws UtilsException {
+
+        this.addSink(Sink, TypeMask, LevelMask, DEFQUEUESIZE, POLICY_BLOCK);
+    }
+
+    /**
+     * Agrega el sink "Sink" con las mascaras de tipos y niveles que acepta, el
+     * tamano de su buffer y su politica de desbordamiento.
+     *
+     * Ejemplo: addSink(DBLogger.getInstance(), LoggerManager.TYPE_ERROR,
+     * LoggerRouter.LEVEL_ALL, 1024, LoggerRouter.POLICY_DROPDEBUG).
+     *
+     * @param Sink Manejador de bitacoras al que se envian los eventos
+     * @param TypeMask Mascara de tipos de eventos que acepta
+     * @param LevelMask Mascara de niveles de eventos que acepta
+     * @param QueueSize Numero de eventos del buffer, se redondea a la
+     * siguiente potencia de 2
+     * @param Policy POLICY_BLOCK o POLICY_DROPDEBUG
+     * @throws UtilsException Si el sink es NULL, ya esta registrado o la
+     * politica no es valida
+     */
+    public void addSink(LoggerManager Sink, int TypeMask, int LevelMask, int QueueSize, int Policy) throws UtilsException {
+        SinkQueue[] Nuevos;
+
+        if (Sink == null) {
+            throw new UtilsException("ERROR: Sink is NULL", ERROR_NULLSINK, LoggerRouter.CLASSID + "000");
+        }
+        if ((Policy != POLICY_BLOCK) && (Policy != POLICY_DROPDEBUG)) {
+            throw new UtilsException("ERROR: Invalid overflow policy " + Integer.toString(Policy), ERROR_INVALIDPOLICY, LoggerRouter.CLASSID + "004");
+        }
+        rwl.writeLock().lock();
+        try {
+            if (this.find(Sink) != null) {
+                throw new UtilsException("ERROR: Sink already registered", ERROR_DUPLICATEDSINK, LoggerRouter.CLASSID + "005");
+            }
+            Nuevos = Arrays.copyOf(this.Sinks, this.Sinks.length + 1);
+            Nuevos[Nuevos.length - 1] = new SinkQueue(Sink, TypeMask, LevelMask, Math.max(2, QueueSize), Policy);
+            this.Sinks = Nuevos;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira el sink "Sink" del router, los eventos en su buffer se le
+     * entregan antes de retornar.
+     *
+     * @param Sink Manejador de bitacoras a retirar
+     * @return TRUE si el sink estaba registrado
+     */
+    public boolean removeSink(LoggerManager Sink) {
+        SinkQueue Retirado;
+        SinkQueue[] Nuevos;
+        int i, j;
+
+        rwl.writeLock().lock();
+        try {
+            Retirado = this.find(Sink);
+            if (Retirado != null) {
+                Nuevos = new SinkQueue[this.Sinks.length - 1];
+                j = 0;
+                for (i = 0; i < this.Sinks.length; i++) {
+                    if (this.Sinks[i] != Retirado) {
+                        Nuevos[j++] = this.Sinks[i];
+                    }
+                }
+                this.Sinks = Nuevos;
+            }
+        } finally {
+            rwl.writeLock().unlock();
+        }
+        if (Retirado != null) {
+            Retirado.Shutdown();
+        }
+        return (Retirado != null);
+    }
+
+    /**
+     * Retorna el numero de eventos descartados por desbordamiento del buffer
+     * del sink "Sink", incluyendo los de nivel Trace y Debug.
+     *
+     * @param Sink Manejador de bitacoras
+     * @return Numero de eventos descartados o -1 si no esta registrado
+     */
+    public long getDroppedCount(LoggerManager Sink) {
+        SinkQueue Local;
+
+        Local = this.find(Sink);
+        return (Local != null ? Local.DroppedDebug.get() + Local.DroppedOther.get() : -1);
+    }
+
+    /**
+     * Retorna el numero de eventos de nivel Trace y Debug descartados por
+     * desbordamiento del buffer del sink "Sink".
+     *
+     * @param Sink Manejador de bitacoras
+     * @return Numero de eventos Trace y Debug descartados o -1 si no esta
+     * registrado
+     */
+    public long getDroppedDebugCount(LoggerManager Sink) {
+        SinkQueue Local;
+
+        Local = this.find(Sink);
+        return (Local != null ? Local.DroppedDebug.get() : -1);
+    }
+
+    /**
+     * Retorna el numero de eventos en espera en el buffer del sink "Sink"
+     *
+     * @param Sink Manejador de bitacoras
+     * @return Numero de eventos en espera o -1 si no esta registrado
+     */
+    public int getPendingCount(LoggerManager Sink) {
+        SinkQueue Local;
+
+        Local = this.find(Sink);
+        return (Local != null ? Local.queue.size() : -1);
+    }
+
+    /**
+     * Retorna TRUE si algun sink acepta y guarda los eventos del tipo "Type" y
+     * nivel "Level".
+     *
+     * @param Type Tipo de Evento
+     * @param Level Nivel del Evento
+     * @return TRUE si algun sink guarda los eventos de ese tipo y nivel
+     */
+    @Override
+    public boolean isEnabled(int Type, int Level) {
+        boolean Result = false;
+        SinkQueue[] Local;
+        int i;
+
+        Local = this.Sinks;
+        for (i = 0; !Result && (i < Local.length); i++) {
+            Result = Local[i].accepts(Type, Level) && Local[i].Target.isEnabled(Type, Level);
+        }
+        return Result;
+    }
+
+    /**
+     * Envia el mensaje de registro a los sinks que lo aceptan, sin tomar
+     * locks.
+     *
+     * @param Type Tipo de Evento
+     * @param Level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje referente al evento
+     */
+    @Override
+    public void LogMessage(int Type, int Level, String Unit, String Messaje) {
+
+        this.Route(Type, Level, Unit, Messaje);
+    }
+
+    /**
+     * Envia el mensaje diferido a los sinks que lo aceptan, el mensaje se
+     * entrega sin formatear.
+     *
+     * @param Type Tipo de Evento
+     * @param Level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje diferido referente al evento
+     */
+    @Override
+    public void LogMessage(int Type, int Level, String Unit, DeferredLogMessage Messaje) {
+
+        this.Route(Type, Level, Unit, Messaje);
+    }
+
+    /**
+     * Descarta los eventos en espera en los buffers de todos los sinks
+     */
+    public void Clear() {
+
+        for (SinkQueue Local : this.Sinks) {
+            Local.queue.clear();
+        }
+    }
+
+    /**
+     * Finaliza las hebras de los sinks de forma controlada, entregando antes
+     * los eventos en espera. Los sinks se mantienen registrados y sus hebras
+     * se reinician con el siguiente evento.
+     */
+    public void Shutdown() {
+
+        for (SinkQueue Local : this.Sinks) {
+            Local.Shutdown();
+        }
+    }
+
+    /**
+     * Publica el evento en el buffer de cada sink que lo acepta aplicando su
+     * politica de desbordamiento.
+     *
+     * @param Type Tipo de Evento
+     * @param Level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     */
+    private void Route(int Type, int Level, String Unit, Object Messaje) {
+        long TimeMillis;
+
+        TimeMillis = System.currentTimeMillis();
+        for (SinkQueue Local : this.Sinks) {
+            if (Local.accepts(Type, Level)) {
+                Local.Publish(Type, Level, Unit, Messaje, TimeMillis);
+            }
+        }
+    }
+
+    /**
+     * Busca el registro del sink "Target"
+     *
+     * @param Target Manejador de bitacoras
+     * @return Registro del sink o NULL si no esta registrado
+     */
+    private SinkQueue find(LoggerManager Target) {
+        SinkQueue Result = null;
+
+        for (SinkQueue Local : this.Sinks) {
+            if (Local.Target == Target) {
+                Result = Local;
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Sink registrado en el router con su buffer, su politica y su hebra de
+     * entrega
+     */
+    private static final class SinkQueue implements Runnable {
+
+        // Manejador de bitacoras que recibe los eventos
+        private final LoggerManager Target;
+        // Mascaras de tipos y niveles que acepta
+        private final int TypeMask;
+        private final int LevelMask;
+        // Buffer circular del sink y su politica de desbordamiento
+        private final LogRingBuffer queue;
+        private final int Policy;
+        // Numero de eventos en el buffer a partir del cual se descartan Trace y Debug
+        private final int HighWater;
+        // Contadores de eventos descartados
+        private final AtomicLong DroppedDebug = new AtomicLong(0);
+        private final AtomicLong DroppedOther = new AtomicLong(0);
+        // Lock para iniciar y finalizar la hebra
+        private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
+        // Hebra de entrega
+        private volatile Thread Ejecutor = null;
+        // Bandera de Ejecucion de la hebra
+        @GuardedBy("rwl")
+        private boolean Ejecutar = false;
+
+        /**
+         * Constructor con inicializacion del sink
+         *
+         * @param Target Manejador de bitacoras que recibe los eventos
+         * @param TypeMask Mascara de tipos de eventos que acepta
+         * @param LevelMask Mascara de niveles de eventos que acepta
+         * @param QueueSize Numero de eventos del buffer
+         * @param Policy Politica de desbordamiento
+         */
+        private SinkQueue(LoggerManager Target, int TypeMask, int LevelMask, int QueueSize, int Policy) {
+            this.Target = Target;
+            this.TypeMask = TypeMask;
+            this.LevelMask = LevelMask;
+            this.queue = new LogRingBuffer(QueueSize);
+            this.Policy = Policy;
+            this.HighWater = (3 * this.queue.getCapacity()) / 4;
+        }
+
+        /**
+         * Retorna TRUE si el sink acepta eventos del tipo "Type" y nivel
+         * "Level"
+         *
+         * @param Type Tipo de Evento
+         * @param Level Nivel del Evento
+         * @return TRUE si acepta el evento
+         */
+        private boolean accepts(int Type, int Level) {
+
+            return (((this.TypeMask & Type) != 0) && ((this.LevelMask & Level) != 0));
+        }
+
+        /**
+         * Publica el evento en el buffer del sink aplicando su politica de
+         * desbordamiento.
+         *
+         * @param Type Tipo de Evento
+         * @param Level Nivel del Evento
+         * @param Unit Unidad o clase donde se produce el evento
+         * @param Messaje Mensaje como String o DeferredLogMessage
+         * @param TimeMillis Instante del evento
+         */
+        private void Publish(int Type, int Level, String Unit, Object Messaje, long TimeMillis) {
+
+            if (this.Policy == POLICY_DROPDEBUG) {
+                if (((Level & DROPLEVELS) != 0) && (this.queue.size() >= this.HighWater)) {
+                    this.DroppedDebug.incrementAndGet();
+                } else if (!this.queue.tryPublish(Type, Level, Unit, Messaje, TimeMillis)) {
+                    if ((Level & DROPLEVELS) != 0) {
+                        this.DroppedDebug.incrementAndGet();
+                    } else {
+                        this.DroppedOther.incrementAndGet();
+                    }
+                }
+            } else {
+                while (!this.queue.tryPublish(Type, Level, Unit, Messaje, TimeMillis)) {
+                    this.VerifyThread();
+                    LockSupport.parkNanos(QUEUEFULLWAIT);
+                }
+            }
+            this.VerifyThread();
+        }
+
+        /**
+         * Inicia la hebra de entrega si no se esta ejecutando, el lock solo se
+         * toma cuando hay que iniciarla.
+         */
+        private void VerifyThread() {
+            Thread Local;
+
+            Local = this.Ejecutor;
+            if ((Local == null) || (Local.getState() == Thread.State.TERMINATED)) {
+                this.rwl.writeLock().lock();
+                try {
+                    if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
+                        this.StartThread();
+                    }
+                } finally {
+                    this.rwl.writeLock().unlock();
+                }
+            }
+        }
+
+        /**
+         * Inicia la hebra de entrega, se llama con el lock de escritura
+         */
+        private void StartThread() {
+
+            this.Ejecutor = new Thread(this);
+            this.Ejecutor.setName(CLASSID + "[" + this.Target.getClass().getSimpleName() + "]");
+            this.Ejecutor.setDaemon(true);
+            this.Ejecutar = true;
+            this.Ejecutor.start();
+        }
+
+        /**
+         * Finaliza la hebra de entrega despues de entregar los eventos en
+         * espera
+         */
+        private void Shutdown() {
+            Thread Local;
+
+            this.rwl.writeLock().lock();
+            try {
+                this.Ejecutar = false;
+                Local = this.Ejecutor;
+            } finally {
+                this.rwl.writeLock().unlock();
+            }
+            if (Local != null) {
+                LockSupport.unpark(Local);
+                try {
+                    Local.join();
+                } catch (InterruptedException ex) {
+                    Logger.getLogger(CLASSID + "001").log(Level.SEVERE, ex.getMessage());
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * Entrega el evento al sink, con el instante en que se registro si el
+         * sink lo acepta.
+         *
+         * @param Mensaje Evento del buffer circular
+         */
+        private void Deliver(LogRingBuffer.LogEvent Mensaje) {
+            Object Contenido;
+
+            Contenido = Mensaje.getMessajeObject();
+            if (this.Target instanceof FileLogger) {
+                ((FileLogger) this.Target).LogMessage(Mensaje.getType(), Mensaje.getLevel(), Mensaje.getUnit(), Contenido, Mensaje.getTimeMillis());
+            } else if (this.Target instanceof DBLogger) {
+                ((DBLogger) this.Target).LogMessage(Mensaje.getType(), Mensaje.getLevel(), Mensaje.getUnit(), Contenido, Mensaje.getTimeMillis());
+            } else if (this.Target instanceof PrinterLogger) {
+                ((PrinterLogger) this.Target).LogMessage(Mensaje.getType(), Mensaje.getLevel(), Mensaje.getUnit(), Contenido, Mensaje.getTimeMillis());
+            } else if (Contenido instanceof DeferredLogMessage) {
+                this.Target.LogMessage(Mensaje.getType(), Mensaje.getLevel(), Mensaje.getUnit(), (DeferredLogMessage) Contenido);
+            } else {
+                this.Target.LogMessage(Mensaje.getType(), Mensaje.getLevel(), Mensaje.getUnit(), (String) Contenido);
+            }
+        }
+
+        @Override
+        public void run() {
+            // Mensaje en el buffer circular
+            LogRingBuffer.LogEvent Mensaje = null;
+            // Copia local de la bandera de ejecucion
+            boolean LEjecutar = false;
+            // Numero de mensajes entregados en el lote
+            int Entregados;
+            // Contadores de tiempo
+            long StartTime;
+
+            StartTime = System.currentTimeMillis();
+            do {
+                this.rwl.readLock().lock();
+                try {
+                    LEjecutar = this.Ejecutar;
+                } finally {
+                    this.rwl.readLock().unlock();
+                }
+                // La cola no requiere del lock, la hebra despierta al publicarse un mensaje
+                try {
+                    this.queue.await(LEjecutar ? THREADSLEEP : 0);
+                } catch (InterruptedException ex) {
+                    Logger.getLogger(CLASSID + "002").log(Level.SEVERE, ex.getMessage());
+                }
+                Entregados = 0;
+                while ((Entregados < BATCHSIZE) && ((Mensaje = this.queue.peek()) != null)) {
+                    try {
+                        this.Deliver(Mensaje);
+                    } catch (RuntimeException ex) {
+                        // Un sink con error no detiene la entrega de los demas eventos
+                        Logger.getLogger(CLASSID + "003").log(Level.SEVERE, null, ex);
+                    } finally {
+                        this.queue.release();
+                        Mensaje = null;
+                    }
+                    Entregados++;
+                }
+                if (Entregados == 0) {
+                    if ((System.currentTimeMillis() - StartTime) > MAX_IDLE_TIME) {
+                        LEjecutar = false;
+                    }
+                } else {
+                    StartTime = System.currentTimeMillis();
+                }
+            } while (LEjecutar || !this.queue.isEmpty());
+            this.rwl.writeLock().lock();
+            try {
+                this.Ejecutor = null;
+                // Un productor pudo publicar despues de la ultima verificacion sin
+                // ver que la hebra estaba terminando
+                if (this.Ejecutar && !this.queue.isEmpty()) {
+                    this.StartThread();
+                }
+            } finally {
+                this.rwl.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.btthreads.annotations.NotThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Copyright 2026 BolivarTech INC</p>
+ *
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.
+ * </p>
+ *
+ * <p>
+ * This Class is the BolivarTech's util that implement a pre-sized log segment
+ * written through a MappedByteBuffer.</p>
+ *
+ * <p>
+ * NOTE: This class is NOT Thread Safe.</p>
+ *
+ * <p>
+ * Implementa un segmento de bitacora de tamano fijo que se crea con su tamano
+ * final y se mapea completo en memoria, los registros se agregan copiandolos
+ * en el MappedByteBuffer a partir del cursor de escritura (su posicion) sin
+ * llamadas al sistema operativo.</p>
+ *
+ * <p>
+ * La longitud confirmada es la posicion del cursor, que siempre queda al final
+ * de un registro completo. Al cerrar el segmento el archivo se recorta a esa
+ * longitud. Si el proceso termina sin cerrarlo, el archivo queda con relleno
+ * de bytes 0 al final, que recover() elimina al recortar el archivo hasta su
+ * ultimo byte distinto de 0.</p>
+ *
+ * <p>
+ * NOTA: Esta clase NO es segura para las concurrencias, la usa solo la hebra
+ * del logger.</p>
+ *
+ * <ul>
+ * <li>Class ID: "35DGFI0"</li>
+ * <li>Loc: 000-004</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026 - October 19, 2026.
+ * @version 1.0.0
+ *
+ * <p>
+ * Change Logs:</p>
+ * <ul>
+ * <li>v1.0.0 (2026-10-19): Version Inicial.</li>
+ * </ul>
+ */
+@NotThreadSafe
+final class MappedLogSegment {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "35DGFI0";
+
+    private static final int RECOVERBUFFERSIZE = 65536;  // Bytes leidos por bloque al recuperar
+
+    /**
+     * Error de IO al crear, mapear, recortar o cerrar el segmento
+     */
+    public final static int ERROR_IO = -1;
+
+    // Nombre y ruta del segmento
+    private final String Name;
+    private final RandomAccessFile Archivo;
+    private final FileChannel Canal;
+    // Buffer mapeado, su posicion es el cursor de escritura
+    private MappedByteBuffer Buffer;
+    // Posicion hasta donde se sincronizo el buffer con el disco
+    private int Forced = 0;
+
+    /**
+     * Constructor privado, los segmentos se crean con create()
+     */
+    private MappedLogSegment(String Name, RandomAccessFile Archivo, FileChannel Canal, MappedByteBuffer Buffer) {
+        this.Name = Name;
+        this.Archivo = Archivo;
+        this.Canal = Canal;
+        this.Buffer = Buffer;
+    }
+
+    /**
+     * Retorna el identificador de la Clase
+     *
+     * @return Identificador de la clase
+     */
+    public static String getCLASSID() {
+        return CLASSID;
+    }
+
+    /**
+     * Crea el archivo "Name" con "Size" bytes y lo mapea completo en memoria
+     * para escritura.
+     *
+     * @param Name Nombre y ruta del segmento
+     * @param Size Tamano del segmento en bytes
+     * @return Segmento mapeado con el cursor en 0
+     * @throws UtilsException Si no se pudo crear o mapear el archivo
+     */
+    static MappedLogSegment create(String Name, int Size) throws UtilsException {
+        RandomAccessFile Archivo = null;
+        FileChannel Canal;
+        MappedByteBuffer Buffer;
+
+        try {
+            Archivo = new RandomAccessFile(Name, "rw");
+            Archivo.setLength(Size);
+            Canal = Archivo.getChannel();
+            Buffer = Canal.map(FileChannel.MapMode.READ_WRITE, 0, Size);
+        } catch (IOException ex) {
+            if (Archivo != null) {
+                try {
+                    Archivo.close();
+                } catch (IOException exx) {
+                    // Ignorado, se reporta el error original
+                }
+            }
+            throw new UtilsException("ERROR: Can't map " + Name + " (" + ex.getMessage() + ")", ERROR_IO, MappedLogSegment.CLASSID + "000");
+        }
+        return new MappedLogSegment(Name, Archivo, Canal, Buffer);
+    }
+
+    /**
+     * Retorna el nombre y ruta del segmento
+     *
+     * @return Nombre y ruta del segmento
+     */
+    String getName() {
+
+        return this.Name;
+    }
+
+    /**
+     * Retorna el buffer mapeado, su posicion es el cursor de escritura
+     *
+     * @return Buffer mapeado
+     */
+    ByteBuffer getBuffer() {
+
+        return this.Buffer;
+    }
+
+    /**
+     * Retorna la longitud confirmada del segmento
+     *
+     * @return Longitud confirmada en bytes
+     */
+    int getCommitted() {
+
+        return this.Buffer.position();
+    }
+
+    /**
+     * Retorna TRUE si hay bytes escritos que no se han sincronizado con el
+     * disco
+     *
+     * @return TRUE si hay bytes sin sincronizar
+     */
+    boolean isDirty() {
+
+        return (this.Buffer.position() > this.Forced);
+    }
+
+    /**
+     * Sincroniza con el disco los bytes escritos del segmento
+     */
+    void force() {
+
+        if (this.isDirty()) {
+            this.Buffer.force();
+            this.Forced = this.Buffer.position();
+        }
+    }
+
+    /**
+     * Cierra el segmento recortando el archivo a la longitud confirmada
+     *
+     * @throws UtilsException Si no se pudo recortar o cerrar el archivo
+     */
+    void close() throws UtilsException {
+        int Committed;
+
+        Committed = this.Buffer.position();
+        this.Buffer = null;
+        try {
+            this.Canal.truncate(Committed);
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Can't truncate " + this.Name + " (" + ex.getMessage() + ")", ERROR_IO, MappedLogSegment.CLASSID + "001");
+        } finally {
+            try {
+                this.Archivo.close();
+            } catch (IOException ex) {
+                throw new UtilsException("ERROR: Can't close " + this.Name + " (" + ex.getMessage() + ")", ERROR_IO, MappedLogSegment.CLASSID + "002");
+            }
+        }
+    }
+
+    /**
+     * Recupera un segmento que no se cerro, recortando el archivo "Name" hasta
+     * su ultimo byte distinto de 0. Retorna la nueva longitud del archivo.
+     *
+     * @param Name Nombre y ruta del segmento
+     * @return Longitud del archivo recuperado
+     * @throws UtilsException Si no se pudo leer o recortar el archivo
+     */
+    static long recover(String Name) throws UtilsException {
+        RandomAccessFile Archivo = null;
+        byte[] Bloque;
+        long Largo, Fin, Inicio;
+        int Leidos, i;
+
+        try {
+            Archivo = new RandomAccessFile(Name, "rw");
+            Largo = Archivo.length();
+            Fin = Largo;
+            Bloque = new byte[RECOVERBUFFERSIZE];
+            // Busca el ultimo byte distinto de 0 leyendo bloques desde el final
+            while (Fin > 0) {
+                Inicio = Math.max(0, Fin - Bloque.length);
+                Leidos = (int) (Fin - Inicio);
+                Archivo.seek(Inicio);
+                Archivo.readFully(Bloque, 0, Leidos);
+                i = Leidos - 1;
+                while ((i >= 0) && (Bloque[i] == 0)) {
+                    i--;
+                }
+                if (i >= 0) {
+                    Fin = Inicio + i + 1;
+                    break;
+                }
+                Fin = Inicio;
+            }
+            if (Fin < Largo) {
+                Archivo.setLength(Fin);
+            }
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: Can't recover " + Name + " (" + ex.getMessage() + ")", ERROR_IO, MappedLogSegment.CLASSID + "003");
+        } finally {
+            if (Archivo != null) {
+                try {
+                    Archivo.close();
+                } catch (IOException ex) {
+                    throw new UtilsException("ERROR: Can't close " + Name + " (" + ex.getMessage() + ")", ERROR_IO, MappedLogSegment.CLASSID + "004");
+                }
+            }
+        }
+        return Fin;
+    }
+}
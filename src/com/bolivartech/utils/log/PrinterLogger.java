@@ -7,11 +7,7 @@ import com.bolivartech.utils.exception.UtilsException;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -43,12 +39,12 @@ import java.util.logging.Logger;
  *
  * <ul>
  * <li>Class ID: "35DPLMN"</li>
- * <li>Loc: 000-012</li>
+ * <li>Loc: 000-011</li>
  * </ul>
  *
  * @author Julian Bolivar
- * @since 2015 - April 20, 2016.
- * @version 1.2.0
+ * @since 2015 - October 19, 2026.
+ * @version 1.4.1
  *
  * <p>
  * Change Logs:</p>
@@ -59,6 +55,18 @@ import java.util.logging.Logger;
  * <li>v1.2.0 (2016-04-20) Se implemento el uso de hebra de monitoreo dinamica
  * para optimizar los recursos de memoria y procesador cuando el logger excede
  * un TIMEOUT sin recibir mensajes a procesar.</li>
+ * <li>v1.3.0 (2026-10-19) La cola de mensajes se reemplazo por un buffer
+ * circular de eventos mutables reservados (LogRingBuffer) donde los productores
+ * reclaman la posicion con un CAS, por lo que LogMessage no crea objetos ni
+ * toma locks. El instante se captura en milisegundos y se formatea en la hebra
+ * del logger, la cual despierta al publicarse un evento en lugar de dormir
+ * THREADSLEEP cuando la cola esta vacia.</li>
+ * <li>v1.4.0 (2026-10-19) Se agrego isEnabled, que verifica el filtro de tipos
+ * y niveles sin lock, y LogMessage con un DeferredLogMessage que se publica
+ * sin formatear en el buffer circular y se formatea en la hebra del logger.</li>
+ * <li>v1.4.1 (2026-10-19) Se agrego LogMessage con el instante del evento,
+ * que usa LoggerRouter para guardar el instante en que se registro el evento
+ * y no el de su entrega al logger.</li>
  * </ul>
  */
 public class PrinterLogger implements LoggerManager, Runnable {
@@ -72,10 +80,10 @@ public class PrinterLogger implements LoggerManager, Runnable {
     // Tiempo maximo en milisegundos que una conecion puede estar sin usarse antes de ser eliminada
     private static final long MAX_IDLE_TIME = 60000; // 1 minutos
 
-    private static final int QUEUESIZE = 1024;     // Numero de Mensajes
-    private static final long QUEUEWRITETIMEOUT = 100;  // Milisegundos
-    private static final long QUEUEREADTIMEOUT = 10;  // Milisegundos
+    private static final int QUEUESIZE = 4096;     // Numero de Mensajes
+    private static final long QUEUEFULLWAIT = 50000;  // Nanosegundos
     private static final int THREADSLEEP = 500;     // Milisegundos que duerme la hebra
+    private static final int BATCHSIZE = 256;      // Numero de Mensajes extraidos por lote
 
     // Define la mascara del tipo de Evento que se va a Guardar
     public final static int TYPE_ALL = 0xFFFFFFFF;
@@ -87,15 +95,15 @@ public class PrinterLogger implements LoggerManager, Runnable {
 
     // Generador de numeros aleatorios
     private MersenneTwisterPlus Random;
-    // Formateador de datos de tiempo
-    private DateFormat dateFormat;
+    // Formateador de datos de tiempo y texto del mensaje, usados solo por la hebra del logger
+    private final LogTimeFormatter dateFormat;
+    private final StringBuilder Salida = new StringBuilder(256);
 
-    // Cola FIFO de mensajes
-    @GuardedBy("rwl")
-    private ArrayBlockingQueue<MessageLog> queue = null;
+    // Buffer circular FIFO de mensajes, no requiere del lock
+    private final LogRingBuffer queue;
 
     // Hebra de Ejecucion
-    private Thread Ejecutor = null;
+    private volatile Thread Ejecutor = null;
     // Bandera de Ejecucion del Handler
     @GuardedBy("rwl")
     private boolean Ejecutar;
@@ -106,12 +114,10 @@ public class PrinterLogger implements LoggerManager, Runnable {
     // Instancia de la clase
     @GuardedBy("rwl")
     private static PrinterLogger instance = null;
-    // Define el tipo de Evento que se va a guardar
-    @GuardedBy("rwl")
-    private int SaveEventType;
-    // Define la mascara del nivel de registro que se va a guardar
-    @GuardedBy("rwl")
-    private int SaveRegLevel;
+    // Define el tipo de Evento que se va a guardar, se lee sin lock en LogMessage
+    private volatile int SaveEventType;
+    // Define la mascara del nivel de registro que se va a guardar, se lee sin lock en LogMessage
+    private volatile int SaveRegLevel;
 
     /**
      * Constructor privado con los
@@ -121,8 +127,8 @@ public class PrinterLogger implements LoggerManager, Runnable {
         this.Random = new MersenneTwisterPlus();
         this.SaveEventType = TYPE_ALL;
         this.SaveRegLevel = LEVEL_ALL;
-        this.queue = new ArrayBlockingQueue<>(QUEUESIZE);
-        this.dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SS");
+        this.queue = new LogRingBuffer(QUEUESIZE);
+        this.dateFormat = new LogTimeFormatter();
     }
 
     /**
@@ -290,6 +296,10 @@ public class PrinterLogger implements LoggerManager, Runnable {
     /**
      * Envia el mensaje de registro al manejador de bitacoras.
      *
+     * El mensaje se copia en una posicion reservada del buffer circular sin
+     * crear objetos ni tomar locks, si el buffer esta lleno se espera a que la
+     * hebra del logger libere posiciones.
+     *
      * @param Type Tipo de Evento
      * @param level Nivel del Evento
      * @param Unit Unidad o clase donde se produce el evento
@@ -297,48 +307,111 @@ public class PrinterLogger implements LoggerManager, Runnable {
      */
     @Override
     public void LogMessage(int Type, int level, String Unit, String Messaje) {
-        boolean Agregado = false;
-        MessageLog msg = null;
-        int LType, Llevel;
-        // Copia local de la bandera de ejecucion
-        boolean LEjecutar;
-        // Instante cuando se genero el mensaje
-        String dateNow;
-        Calendar rightNow;
 
-        rwl.readLock().lock();
-        try {
-            LType = this.SaveEventType & Type;
-            Llevel = this.SaveRegLevel & level;
-            LEjecutar = this.Ejecutar;
-        } finally {
-            rwl.readLock().unlock();
+        this.Publish(Type, level, Unit, Messaje);
+    }
+
+    /**
+     * Envia el mensaje diferido al manejador de bitacoras, el texto del
+     * mensaje y el stack de su excepcion se generan en la hebra del logger
+     * solo si el evento pasa el filtro de tipos y niveles.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje diferido referente al evento
+     */
+    @Override
+    public void LogMessage(int Type, int level, String Unit, DeferredLogMessage Messaje) {
+
+        this.Publish(Type, level, Unit, Messaje);
+    }
+
+    /**
+     * Retorna TRUE si se guardan los eventos del tipo "Type" y nivel "level",
+     * se lee sin lock.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @return TRUE si se guardan los eventos de ese tipo y nivel
+     */
+    @Override
+    public boolean isEnabled(int Type, int level) {
+
+        return (((this.SaveEventType & Type) != 0) && ((this.SaveRegLevel & level) != 0));
+    }
+
+    /**
+     * Envia al manejador de bitacoras un evento con el instante en que se
+     * genero, lo usa LoggerRouter para que el instante guardado no sea el de
+     * la entrega desde su buffer.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     * @param TimeMillis Instante del evento
+     */
+    void LogMessage(int Type, int level, String Unit, Object Messaje, long TimeMillis) {
+
+        if (this.isEnabled(Type, level)) {
+            this.Enqueue(Type, level, Unit, Messaje, TimeMillis);
         }
-        if ((LType != 0) && (Llevel != 0)) {
-            rightNow = Calendar.getInstance();
-            dateNow = this.dateFormat.format(rightNow.getTime());
-            msg = new MessageLog(Type, level, Unit, dateNow, Messaje);
-            do {
-                rwl.writeLock().lock();
-                try {
-                    Agregado = this.queue.offer(msg, QUEUEWRITETIMEOUT, TimeUnit.MILLISECONDS);
-                    if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
-                        // Inicia la hebra de monitoreo
-                        this.StartThread();
-                    }
-                } catch (InterruptedException ex) {
-                    Logger.getLogger(this.CLASSID + "007").log(Level.SEVERE, ex.getMessage());
-                } finally {
-                    rwl.writeLock().unlock();
-                }
-                if (!Agregado) {
-                    try {
-                        EnvironmentUtils.randomSleep(3 * THREADSLEEP);
-                    } catch (UtilsException ex) {
-                        Logger.getLogger(this.CLASSID + "008").log(Level.SEVERE, ex.getMessage());
-                    }
+    }
+
+    /**
+     * Publica el mensaje en el buffer circular con el instante actual si el
+     * evento pasa el filtro de tipos y niveles.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     */
+    private void Publish(int Type, int level, String Unit, Object Messaje) {
+
+        if (this.isEnabled(Type, level)) {
+            this.Enqueue(Type, level, Unit, Messaje, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Copia el evento al buffer circular, si esta lleno espera a que la hebra
+     * del logger libere posiciones.
+     *
+     * @param Type Tipo de Evento
+     * @param level Nivel del Evento
+     * @param Unit Unidad o clase donde se produce el evento
+     * @param Messaje Mensaje como String o DeferredLogMessage
+     * @param TimeMillis Instante del evento
+     */
+    private void Enqueue(int Type, int level, String Unit, Object Messaje, long TimeMillis) {
+
+        while (!this.queue.tryPublish(Type, level, Unit, Messaje, TimeMillis)) {
+            this.VerifyThread();
+            LockSupport.parkNanos(QUEUEFULLWAIT);
+        }
+        this.VerifyThread();
+    }
+
+    /**
+     * Inicia la hebra del logger si no se esta ejecutando, el lock solo se toma
+     * cuando hay que iniciarla.
+     */
+    private void VerifyThread() {
+        Thread Local;
+
+        Local = this.Ejecutor;
+        if ((Local == null) || (Local.getState() == Thread.State.TERMINATED)) {
+            rwl.writeLock().lock();
+            try {
+                if ((this.Ejecutor == null) || (this.Ejecutor.getState() == Thread.State.TERMINATED)) {
+                    // Inicia la hebra de monitoreo
+                    this.StartThread();
                 }
-            } while (!Agregado);
+            } finally {
+                rwl.writeLock().unlock();
+            }
         }
     }
 
@@ -348,12 +421,7 @@ public class PrinterLogger implements LoggerManager, Runnable {
     public final void Clear() {
 
         Logger.getLogger(this.CLASSID + "009").log(Level.INFO, "Message Queue Cleaned");
-        rwl.writeLock().lock();
-        try {
-            this.queue.clear();
-        } finally {
-            rwl.writeLock().unlock();
-        }
+        this.queue.clear();
     }
 
     /**
@@ -398,94 +466,94 @@ public class PrinterLogger implements LoggerManager, Runnable {
     }
 
     /**
-     * Realiza el formateo del mensaje a guardar en el archivo
+     * Realiza el formateo del mensaje y lo envia al Logger de la unidad
      */
-    private void ALogMessage(MessageLog msg) {
-        StringBuffer Salida;
+    private void ALogMessage(LogRingBuffer.LogEvent msg) {
         int Type, Nivel;
-        String dateNow;
-        String Unit, Messaje;
+        String Unit, Texto;
 
-        Salida = new StringBuffer();
         Type = msg.getType();
         Nivel = msg.getLevel();
-        dateNow = msg.getTimeStamp();
         Unit = msg.getUnit();
-        Messaje = msg.getMessaje();
+        this.Salida.setLength(0);
         switch (Type) {
             case LoggerManager.TYPE_EVENT:
-                Salida = Salida.append("(Event:" + dateNow + ")");
+                this.Salida.append("(Event:");
                 break;
             case LoggerManager.TYPE_ERROR:
-                Salida = Salida.append("(Error:" + dateNow + ")");
+                this.Salida.append("(Error:");
                 break;
             default:
-                Salida = Salida.append("(Unknow:" + dateNow + ")");
+                this.Salida.append("(Unknow:");
         }
-        Salida = Salida.append(Messaje);
+        this.dateFormat.format(msg.getTimeMillis(), this.Salida);
+        this.Salida.append(')').append(msg.getMessaje());
+        Texto = this.Salida.toString();
         switch (Nivel) {
             case LoggerManager.TYPE_ERROR:
-                Logger.getLogger(Unit).log(Level.SEVERE, Salida.toString());
+                Logger.getLogger(Unit).log(Level.SEVERE, Texto);
                 break;
             case LoggerManager.LEVEL_ERROR:
-                Logger.getLogger(Unit).log(Level.SEVERE, Salida.toString());
+                Logger.getLogger(Unit).log(Level.SEVERE, Texto);
                 break;
             case LoggerManager.LEVEL_DEBUG:
-                Logger.getLogger(Unit).log(Level.FINER, Salida.toString());
+                Logger.getLogger(Unit).log(Level.FINER, Texto);
                 break;
             case LoggerManager.LEVEL_INFO:
-                Logger.getLogger(Unit).log(Level.INFO, Salida.toString());
+                Logger.getLogger(Unit).log(Level.INFO, Texto);
                 break;
             case LoggerManager.LEVEL_TRACE:
-                Logger.getLogger(Unit).log(Level.FINE, Salida.toString());
+                Logger.getLogger(Unit).log(Level.FINE, Texto);
                 break;
             case LoggerManager.LEVEL_WARNING:
-                Logger.getLogger(Unit).log(Level.WARNING, Salida.toString());
+                Logger.getLogger(Unit).log(Level.WARNING, Texto);
                 break;
             case LoggerManager.LEVEL_FATAL:
-                Logger.getLogger(Unit).log(Level.SEVERE, Salida.toString());
+                Logger.getLogger(Unit).log(Level.SEVERE, Texto);
                 break;
             default:
-                Logger.getLogger(Unit).log(Level.INFO, Salida.toString());
+                Logger.getLogger(Unit).log(Level.INFO, Texto);
         }
     }
 
     @Override
     public void run() {
-        // Copia del mensaje de la cola
-        MessageLog Mensaje = null;
+        // Mensaje en el buffer circular
+        LogRingBuffer.LogEvent Mensaje = null;
         // Copia local de la bandera de ejecucion
         boolean LEjecutar = false;
-        // Numero de mensaje que quedan en la cola
-        int RemainMsg;
+        // Numero de mensajes extraidos en el lote
+        int Extraidos;
         // Contadores de tiempo
         long StartTime, DiffTime;
 
         // Inicializa el Loop de Ejecucion del Logger
-        RemainMsg = 0;
         StartTime = System.currentTimeMillis();
         do {
             rwl.readLock().lock();
             try {
-                Mensaje = this.queue.poll(QUEUEREADTIMEOUT, TimeUnit.MILLISECONDS);
-                RemainMsg = this.queue.size();
                 LEjecutar = this.Ejecutar;
-            } catch (InterruptedException ex) {
-                Logger.getLogger(this.CLASSID + "011").log(Level.SEVERE, ex.getMessage());
             } finally {
                 rwl.readLock().unlock();
             }
-            if (Mensaje != null) {
-                // Escribe el evento
-                this.ALogMessage(Mensaje);
-                Mensaje = null;
+            // La cola no requiere del lock, la hebra despierta al publicarse un mensaje
+            try {
+                this.queue.await(LEjecutar ? THREADSLEEP : 0);
+            } catch (InterruptedException ex) {
+                Logger.getLogger(this.CLASSID + "011").log(Level.SEVERE, ex.getMessage());
             }
-            if (RemainMsg <= 0) {
+            Extraidos = 0;
+            while ((Extraidos < BATCHSIZE) && ((Mensaje = this.queue.peek()) != null)) {
+                // Escribe el evento
                 try {
-                    EnvironmentUtils.randomSleep(THREADSLEEP);
-                } catch (UtilsException ex) {
-                    Logger.getLogger(this.CLASSID + "012").log(Level.SEVERE, null, ex);
+                    this.ALogMessage(Mensaje);
+                } finally {
+                    this.queue.release();
+                    Mensaje = null;
                 }
+                Extraidos++;
+            }
+            if (Extraidos == 0) {
                 DiffTime = System.currentTimeMillis() - StartTime;
                 if (DiffTime > PrinterLogger.MAX_IDLE_TIME) {
                     LEjecutar = false;
@@ -493,89 +561,18 @@ public class PrinterLogger implements LoggerManager, Runnable {
             } else {
                 StartTime = System.currentTimeMillis();
             }
-        } while (LEjecutar);
+        } while (LEjecutar || !this.queue.isEmpty());
         rwl.writeLock().lock();
         try {
             this.Ejecutor = null;
             this.Finalizado = true;
+            // Un productor pudo publicar despues de la ultima verificacion sin
+            // ver que la hebra estaba terminando
+            if (this.Ejecutar && !this.queue.isEmpty()) {
+                this.StartThread();
+            }
         } finally {
             rwl.writeLock().unlock();
         }
     }
-
-    /**
-     * Clase privada que encapsula el mansaje que se va a guardar en la bitacora
-     */
-    private class MessageLog {
-
-        private int Type;
-        private int Level;
-        private String Unit;
-        private String Messaje;
-        private String TimeStamp;
-
-        /**
-         * Constructor por defecto.
-         *
-         * @param Type Tipo de evento
-         * @param Level Nivel del evento
-         * @param Unit Unidad donde se genero el error
-         * @param TimeStamp Fecha y hora cuando se produjo el evento
-         * @param Messaje Mensaje de error
-         */
-        public MessageLog(int Type, int Level, String Unit, String TimeStamp, String Messaje) {
-            this.Type = Type;
-            this.Level = Level;
-            this.Unit = Unit;
-            this.TimeStamp = TimeStamp;
-            this.Messaje = Messaje;
-        }
-
-        /**
-         * Retorna el tipo de evento.
-         *
-         * @return Tipo de evento
-         */
-        public int getType() {
-            return Type;
-        }
-
-        /**
-         * Retorna el nivel del evento
-         *
-         * @return Nivel del evento
-         */
-        public int getLevel() {
-            return Level;
-        }
-
-        /**
-         * Retorna la unidad donde se produjo el evento
-         *
-         * @return Unidad donde se produjo el evento
-         */
-        public String getUnit() {
-            return Unit;
-        }
-
-        /**
-         * Retorna el mensaje de error
-         *
-         * @return Mensaje de error
-         */
-        public String getMessaje() {
-            return Messaje;
-        }
-
-        /**
-         * Retorna la Fecha y hora en la que se produjo el evento
-         *
-         * @return
-         */
-        public String getTimeStamp() {
-            return TimeStamp;
-        }
-
-    }
-
 }
@@ -44,11 +44,11 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  *
  * <ul>
  * <li>Class ID: "35DGFHB"</li>
- * <li>Loc: 000-036</li>
+ * <li>Loc: 000-046</li>
  * </ul>
  *
  * @author Julian Bolivar
- * @version 1.0.2 - March 25, 2016
+ * @version 1.1.0 - October 19, 2026
  * @since 2016
  *
  * <p>
@@ -60,6 +60,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * defecto.</li>
  * <li>v1.0.2 (2016-03-25) Se agrego el codigo de localizacion para la excepcion
  * y bitacoras.</li>
+ * <li>v1.1.0 (2026-10-19) Se agregaron CompressBlock y DecompressBlock que
+ * procesan un bloque en memoria en la hebra que los llama, sin la espera de la
+ * hebra de ejecucion, reutilizando el codificador entre llamadas.</li>
  * </ul>
  */
 public class BTLZMA implements Runnable {
@@ -174,6 +177,14 @@ public class BTLZMA implements Runnable {
     @GuardedBy("rwl")
     private boolean EoS;
 
+    // Codificador y decodificador reutilizados por CompressBlock y DecompressBlock
+    private final Object BlockEncoderLock = new Object();
+    @GuardedBy("BlockEncoderLock")
+    private Encoder BlockEncoder = null;
+    private final Object BlockDecoderLock = new Object();
+    @GuardedBy("BlockDecoderLock")
+    private Decoder BlockDecoder = null;
+
     /**
      * Constructor por defecto
      */
@@ -853,6 +864,137 @@ public class BTLZMA implements Runnable {
         return Result;
     }
 
+    /**
+     * Comprime los bytes Input[Offset..Offset+Length-1] segun los parametros del
+     * algoritmo LZMA y retorna el bloque comprimido con el mismo formato de
+     * Compress(byte[]): 5 bytes de propiedades, 8 bytes con la dimension
+     * original y los datos comprimidos.
+     *
+     * A diferencia de Compress(byte[]), el proceso se realiza en la hebra que
+     * llama al metodo y el codificador se reutiliza entre llamadas mientras no
+     * cambien el diccionario ni el Match Finder, por lo que sirve para comprimir
+     * mensajes cortos uno a uno. Las llamadas concurrentes se serializan.
+     *
+     * @param Input Array de bytes de entrada a comprimir
+     * @param Offset Posicion inicial en Input
+     * @param Length Numero de bytes a comprimir
+     * @return Array de bytes de salida comprimido
+     * @throws UtilsException si el arreglo de entrada es NULL o falla la
+     * compresion
+     */
+    public byte[] CompressBlock(byte[] Input, int Offset, int Length) throws UtilsException {
+        ByteArrayOutputStream OutputStream;
+        int i, lLc, lLp, lPb, lFb, lDicSize, lMatchFinder;
+
+        if (Input == null) {
+            throw new UtilsException("ERROR: Stream is NULL", BTLZMA.ERRORNULLSTREAM, BTLZMA.CLASSID + "037");
+        }
+        this.rwl.readLock().lock();
+        try {
+            lLc = this.Lc;
+            lLp = this.Lp;
+            lPb = this.Pb;
+            lFb = this.Fb;
+            lDicSize = this.DictionarySize;
+            lMatchFinder = this.MatchFinder;
+        } finally {
+            this.rwl.readLock().unlock();
+        }
+        OutputStream = new ByteArrayOutputStream(13 + (Length >>> 1));
+        synchronized (this.BlockEncoderLock) {
+            if (this.BlockEncoder == null) {
+                this.BlockEncoder = new Encoder();
+            }
+            if (!(this.BlockEncoder.SetMatchFinder(lMatchFinder) && this.BlockEncoder.SetDictionarySize(lDicSize)
+                    && this.BlockEncoder.SetLcLpPb(lLc, lLp, lPb) && this.BlockEncoder.SetNumFastBytes(lFb))) {
+                throw new UtilsException("ERROR: Invalid LZMA parameters", BTLZMA.ERRORCODINGFAIL, BTLZMA.CLASSID + "038");
+            }
+            try {
+                this.BlockEncoder.SetEndMarkerMode(false);
+                this.BlockEncoder.WriteCoderProperties(OutputStream);
+                for (i = 0; i < 8; i++) {
+                    OutputStream.write((int) (((long) Length) >>> (8 * i)) & 0xFF);
+                }
+                this.BlockEncoder.Code(new ByteArrayInputStream(Input, Offset, Length), OutputStream, Length, null);
+            } catch (IOException ex) {
+                // El codificador puede quedar en un estado inconsistente
+                this.BlockEncoder = null;
+                throw new UtilsException("ERROR: Compression Failed: " + ex.getMessage(), BTLZMA.ERRORCODINGFAIL, BTLZMA.CLASSID + "039");
+            }
+        }
+        return OutputStream.toByteArray();
+    }
+
+    /**
+     * Descomprime el bloque Input[Offset..Offset+Length-1] generado por
+     * CompressBlock o Compress(byte[]) y retorna los datos originales. El
+     * proceso se realiza en la hebra que llama al metodo.
+     *
+     * Como el bloque puede venir de una fuente no confiable, se rechaza si la
+     * dimension original declarada excede MaxLength y la ventana del
+     * decodificador se limita a esa dimension aunque el encabezado declare un
+     * diccionario mayor.
+     *
+     * @param Input Array de bytes de entrada comprimido con LZMA
+     * @param Offset Posicion inicial en Input
+     * @param Length Numero de bytes del bloque comprimido
+     * @param MaxLength Dimension maxima aceptada de los datos originales
+     * @return Array de bytes de salida descomprimido
+     * @throws UtilsException si el arreglo de entrada es NULL o el bloque es
+     * invalido
+     */
+    public byte[] DecompressBlock(byte[] Input, int Offset, int Length, int MaxLength) throws UtilsException {
+        ByteArrayOutputStream OutputStream;
+        byte[] Properties;
+        long StreamLength;
+        int i, Dictionary, Window;
+
+        if (Input == null) {
+            throw new UtilsException("ERROR: Stream is NULL", BTLZMA.ERRORNULLSTREAM, BTLZMA.CLASSID + "040");
+        }
+        if (Length < 13) {
+            throw new UtilsException("ERROR: CAN'T recover LZMA header", BTLZMA.ERRORLZMAHEADER, BTLZMA.CLASSID + "041");
+        }
+        StreamLength = 0;
+        for (i = 0; i < 8; i++) {
+            StreamLength |= ((long) (Input[Offset + 5 + i] & 0xFF)) << (8 * i);
+        }
+        if ((StreamLength < 0) || (StreamLength > MaxLength)) {
+            throw new UtilsException("ERROR: Invalid LZMA Content Size " + Long.toString(StreamLength), BTLZMA.ERRORINVALIDLZMASIZE, BTLZMA.CLASSID + "042");
+        }
+        Properties = new byte[5];
+        System.arraycopy(Input, Offset, Properties, 0, 5);
+        Dictionary = (Properties[1] & 0xFF) | ((Properties[2] & 0xFF) << 8) | ((Properties[3] & 0xFF) << 16) | ((Properties[4] & 0xFF) << 24);
+        // Ninguna distancia puede exceder los datos originales, basta una ventana de ese tamaño
+        Window = Math.max((int) StreamLength, 1 << 12);
+        Window = (Integer.bitCount(Window) == 1 ? Window : Integer.highestOneBit(Window) << 1);
+        if ((Dictionary < 0) || (Dictionary > Window)) {
+            for (i = 0; i < 4; i++) {
+                Properties[1 + i] = (byte) (Window >>> (8 * i));
+            }
+        }
+        OutputStream = new ByteArrayOutputStream((int) StreamLength);
+        synchronized (this.BlockDecoderLock) {
+            if (this.BlockDecoder == null) {
+                this.BlockDecoder = new Decoder();
+            }
+            if (!this.BlockDecoder.SetDecoderProperties(Properties)) {
+                throw new UtilsException("ERROR: CAN'T invalid LZMA properties", BTLZMA.ERRORINVALIDLZMAPROPERTIES, BTLZMA.CLASSID + "043");
+            }
+            try {
+                if (!this.BlockDecoder.Decode(new ByteArrayInputStream(Input, Offset + 13, Length - 13), OutputStream, StreamLength, null)) {
+                    throw new UtilsException("ERROR: CAN'T Uncompress LZMA", BTLZMA.ERRORCANTUNCOMPRESSLZMA, BTLZMA.CLASSID + "044");
+                }
+            } catch (IOException ex) {
+                throw new UtilsException("ERROR: CAN'T Uncompress LZMA: " + ex.getMessage(), BTLZMA.ERRORINPUTSTREAM, BTLZMA.CLASSID + "045");
+            }
+        }
+        if (OutputStream.size() != StreamLength) {
+            throw new UtilsException("ERROR: CAN'T Uncompress LZMA", BTLZMA.ERRORCANTUNCOMPRESSLZMA, BTLZMA.CLASSID + "046");
+        }
+        return OutputStream.toByteArray();
+    }
+
     /**
      * Realiza el proceso de decompresion de los archivos segun los parametros
      * del algoritmo LZMA y lo guarda en el OutputStream. Si Output es NULL se
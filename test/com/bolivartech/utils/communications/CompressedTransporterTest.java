@@ -0,0 +1,217 @@
+package com.bolivartech.utils.communications;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de CompressedTransporter sobre un transporter de mensajes en
+ * memoria: ida y vuelta de mensajes sin comprimir y comprimidos, omision de
+ * la compresion despues de una muestra incompresible, el corte por la
+ * velocidad del enlace y el descarte de mensajes con una marca invalida o un
+ * encabezado LZMA con un tamaño mayor al maximo.
+ *
+ * @author Julian Bolivar
+ */
+public class CompressedTransporterTest {
+
+    /**
+     * Transporter en memoria que respeta los limites de los mensajes, lo
+     * enviado se puede recibir en el mismo orden.
+     */
+    private static final class Memoria implements Transporter {
+
+        final ArrayDeque<byte[]> Mensajes = new ArrayDeque<byte[]>();
+
+        @Override
+        public void Open() {
+        }
+
+        @Override
+        public void Close() {
+        }
+
+        @Override
+        public void Send(byte[] Datos) {
+            this.Mensajes.add(Datos.clone());
+        }
+
+        @Override
+        public byte[] Recive() {
+            return this.Mensajes.poll();
+        }
+
+        @Override
+        public boolean DataAvailable() {
+            return !this.Mensajes.isEmpty();
+        }
+
+        @Override
+        public int TransporterTypeID() {
+            return 0;
+        }
+
+        @Override
+        public int getMTU() {
+            return -1;
+        }
+    }
+
+    private Memoria Interno;
+    private CompressedTransporter Compressed;
+
+    @Before
+    public void setUp() {
+        this.Interno = new Memoria();
+        this.Compressed = new CompressedTransporter(this.Interno);
+    }
+
+    /**
+     * Retorna "Size" bytes de texto repetitivo
+     */
+    private static byte[] text(int Size) {
+        byte[] Linea = "timestamp=1760000000 level=INFO unit=CompressedTransporterTest message=ok\n".getBytes();
+        byte[] Result = new byte[Size];
+        int i;
+
+        for (i = 0; i < Size; i++) {
+            Result[i] = Linea[i % Linea.length];
+        }
+        return Result;
+    }
+
+    /**
+     * Retorna "Size" bytes aleatorios, incompresibles
+     */
+    private static byte[] random(int Size, long Semilla) {
+        byte[] Result = new byte[Size];
+
+        new Random(Semilla).nextBytes(Result);
+        return Result;
+    }
+
+    /**
+     * Envia "Datos", verifica la marca con que se entrego al transporter
+     * interno y que se reciba igual
+     */
+    private void roundTrip(byte[] Datos, int Marca) throws Exception {
+        byte[] Enviado;
+
+        this.Compressed.Send(Datos);
+        Enviado = this.Interno.Mensajes.peek();
+        assertEquals(Marca, Enviado[0]);
+        assertArrayEquals(Datos, this.Compressed.Recive());
+    }
+
+    /**
+     * Los mensajes menores al umbral y los incompresibles van sin comprimir,
+     * el texto repetitivo va comprimido con LZMA; todos llegan iguales.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+
+        this.Compressed.setAdaptive(0.9, 0);
+        this.roundTrip(new byte[0], 0);
+        this.roundTrip(text(100), 0);
+        this.roundTrip(text(64 * 1024), 1);
+        this.roundTrip(random(8192, 1), 0);
+        this.roundTrip(text(300), 1);
+        assertEquals(2, this.Compressed.getCompressedCount());
+        assertEquals(0, this.Compressed.getSkippedCount());
+        assertTrue(this.Compressed.getCompressionRatio() < 0.5);
+        assertEquals(this.Compressed.getBytesSent(), this.Compressed.getBytesReceived());
+        assertEquals(this.Compressed.getWireBytesSent(), this.Compressed.getWireBytesReceived());
+        assertNull(this.Compressed.Recive());
+    }
+
+    /**
+     * Despues de una muestra incompresible los siguientes SkipFrames mensajes
+     * se envian sin intentar comprimirlos y el siguiente vuelve a ser muestra.
+     */
+    @Test
+    public void testSkipAfterIncompressibleSample() throws Exception {
+        int i;
+
+        this.Compressed.setAdaptive(0.9, 3);
+        this.roundTrip(random(4096, 2), 0);
+        for (i = 0; i < 3; i++) {
+            this.roundTrip(text(4096), 0);
+        }
+        assertEquals(3, this.Compressed.getSkippedCount());
+        this.roundTrip(text(4096), 1);
+        // Los mensajes menores al umbral no consumen la omision
+        this.roundTrip(random(4096, 3), 0);
+        this.roundTrip(text(10), 0);
+        this.roundTrip(text(4096), 0);
+        assertEquals(4, this.Compressed.getSkippedCount());
+        assertEquals(1, this.Compressed.getCompressedCount());
+    }
+
+    /**
+     * En un enlace lento la compresion siempre ahorra mas tiempo del que
+     * cuesta, en uno practicamente infinito nunca, y sin velocidad del enlace
+     * solo cuenta la razon de compresion.
+     */
+    @Test
+    public void testLinkRateCutoff() throws Exception {
+
+        this.Compressed.setAdaptive(0.9, 0);
+        this.Compressed.setLinkRate(1000);
+        this.roundTrip(text(16 * 1024), 1);
+        this.Compressed.setLinkRate(Long.MAX_VALUE);
+        this.roundTrip(text(16 * 1024), 0);
+        this.roundTrip(text(16 * 1024), 0);
+        this.Compressed.setLinkRate(0);
+        this.roundTrip(text(16 * 1024), 1);
+        assertEquals(2, this.Compressed.getCompressedCount());
+    }
+
+    /**
+     * Los mensajes vacios, con una marca distinta de 0 y 1, con un encabezado
+     * LZMA corto o que declara un tamaño mayor a MaxLength se descartan sin
+     * entregar datos.
+     */
+    @Test
+    public void testInvalidMessagesDropped() throws Exception {
+        byte[] Comprimido, Falso;
+        int i;
+
+        this.Interno.Send(new byte[0]);
+        assertNull(this.Compressed.Recive());
+        this.Interno.Send(new byte[]{2, 1, 2, 3});
+        assertNull(this.Compressed.Recive());
+        this.Interno.Send(new byte[]{(byte) 0xFF});
+        assertNull(this.Compressed.Recive());
+        this.Interno.Send(new byte[]{1, 0x5D, 0, 0});
+        assertNull(this.Compressed.Recive());
+
+        // Encabezado LZMA que declara 1 TB
+        Falso = new byte[64];
+        Falso[0] = 1;
+        Falso[1] = 0x5D;
+        for (i = 0; i < 8; i++) {
+            Falso[6 + i] = (byte) ((1L << 40) >>> (8 * i));
+        }
+        this.Interno.Send(Falso);
+        assertNull(this.Compressed.Recive());
+
+        // Un mensaje valido mayor al maximo del receptor
+        this.Compressed.Send(text(64 * 1024));
+        Comprimido = this.Interno.Mensajes.peek();
+        assertEquals(1, Comprimido[0]);
+        this.Compressed.setMaxLength(32 * 1024);
+        assertNull(this.Compressed.Recive());
+        assertEquals(0, this.Compressed.getBytesReceived());
+
+        // El mismo mensaje se acepta con el maximo suficiente
+        this.Interno.Send(Arrays.copyOf(Comprimido, Comprimido.length));
+        this.Compressed.setMaxLength(64 * 1024);
+        assertArrayEquals(text(64 * 1024), this.Compressed.Recive());
+    }
+}
@@ -0,0 +1,259 @@
+package com.bolivartech.utils.communications;
+
+import com.bolivartech.utils.communications.utils.FrameCodec;
+import com.bolivartech.utils.communications.utils.FrameListener;
+import com.bolivartech.utils.exception.UtilsException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de FramedTransporter sobre un transporter en memoria: las tramas
+ * llegan completas, una trama invalida cierra el transporter, y medicion del
+ * rendimiento de codificacion y decodificacion de FrameCodec.
+ *
+ * @author Julian Bolivar
+ */
+public class FramedTransporterTest {
+
+    /**
+     * Transporter en memoria, lo enviado se acumula y lo recibido se lee de
+     * un buffer que la prueba llena.
+     */
+    private static final class Memoria implements BufferTransporter {
+
+        final ByteBuffer Enviados = ByteBuffer.allocate(1 << 20);
+        ByteBuffer Recibidos = ByteBuffer.allocate(0);
+        boolean Cerrado = false;
+
+        /**
+         * Entrega como datos recibidos todo lo enviado hasta ahora
+         */
+        void loopback() {
+            this.Enviados.flip();
+            this.Recibidos = ByteBuffer.allocate(this.Enviados.remaining());
+            this.Recibidos.put(this.Enviados);
+            this.Recibidos.flip();
+            this.Enviados.clear();
+        }
+
+        @Override
+        public int send(ByteBuffer Datos) {
+            int Result = Datos.remaining();
+
+            this.Enviados.put(Datos);
+            return Result;
+        }
+
+        @Override
+        public long send(ByteBuffer[] Datos) {
+            long Result = 0;
+
+            for (ByteBuffer Dato : Datos) {
+                Result += this.send(Dato);
+            }
+            return Result;
+        }
+
+        @Override
+        public int receive(ByteBuffer Destino) {
+            int Result = Math.min(Destino.remaining(), this.Recibidos.remaining());
+            ByteBuffer Vista;
+
+            if (!this.Cerrado) {
+                Vista = this.Recibidos.duplicate();
+                Vista.limit(Vista.position() + Result);
+                Destino.put(Vista);
+                this.Recibidos.position(this.Recibidos.position() + Result);
+            } else {
+                Result = 0;
+            }
+            return Result;
+        }
+
+        @Override
+        public void Open() {
+            this.Cerrado = false;
+        }
+
+        @Override
+        public void Close() {
+            this.Cerrado = true;
+        }
+
+        @Override
+        public void Send(byte[] Datos) {
+            this.send(ByteBuffer.wrap(Datos));
+        }
+
+        @Override
+        public byte[] Recive() {
+            return null;
+        }
+
+        @Override
+        public boolean DataAvailable() {
+            return this.Recibidos.hasRemaining();
+        }
+
+        @Override
+        public int TransporterTypeID() {
+            return 0;
+        }
+
+        @Override
+        public int getMTU() {
+            return -1;
+        }
+    }
+
+    /**
+     * Retorna una trama de "Size" bytes con su numero en cada byte
+     */
+    private static byte[] frame(int Numero, int Size) {
+        byte[] Result = new byte[Size];
+
+        java.util.Arrays.fill(Result, (byte) Numero);
+        return Result;
+    }
+
+    /**
+     * Las tramas enviadas en un lote llegan completas y en orden por poll y
+     * por Recive.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        final List<byte[]> Tramas = new ArrayList<byte[]>();
+        Memoria Interno = new Memoria();
+        FramedTransporter Framed = new FramedTransporter(Interno, new FrameCodec(64 * 1024, true));
+        ByteBuffer[] Lote = new ByteBuffer[100];
+        int i;
+
+        for (i = 0; i < Lote.length; i++) {
+            Lote[i] = ByteBuffer.wrap(frame(i, 1 + (i * 397) % 20000));
+        }
+        Framed.sendFrames(Lote);
+        Interno.loopback();
+        assertEquals(Lote.length, Framed.poll(new FrameListener() {
+            @Override
+            public void handleFrame(ByteBuffer Frame) {
+                byte[] Datos = new byte[Frame.remaining()];
+
+                Frame.get(Datos);
+                Tramas.add(Datos);
+            }
+        }));
+        for (i = 0; i < Lote.length; i++) {
+            assertArrayEquals(frame(i, 1 + (i * 397) % 20000), Tramas.get(i));
+        }
+        Framed.Send(frame(7, 10));
+        Interno.loopback();
+        assertArrayEquals(frame(7, 10), Framed.Recive());
+        assertNull(Framed.Recive());
+        assertFalse(Interno.Cerrado);
+    }
+
+    /**
+     * Una trama con el CRC alterado cierra el transporter en poll y en Recive,
+     * en lugar de seguir leyendo el flujo desincronizado.
+     */
+    @Test
+    public void testCorruptFrameClosesTransporter() throws Exception {
+        Memoria Interno = new Memoria();
+        FramedTransporter Framed = new FramedTransporter(Interno, new FrameCodec(1024, true));
+
+        Framed.Send(frame(1, 100));
+        Framed.Send(frame(2, 100));
+        Interno.loopback();
+        // Altera un byte de datos de la primera trama
+        Interno.Recibidos.put(10, (byte) 0x55);
+        try {
+            Framed.poll(new FrameListener() {
+                @Override
+                public void handleFrame(ByteBuffer Frame) {
+                }
+            });
+            fail("Corrupt frame accepted");
+        } catch (UtilsException ex) {
+            assertEquals(FrameCodec.ERROR_CRC, ex.getErrorCode());
+        }
+        assertTrue("Transporter not closed after a CRC error", Interno.Cerrado);
+        assertFalse(Framed.DataAvailable());
+
+        // Un encabezado con un tamaño mayor al maximo por Recive
+        Interno.Open();
+        Interno.Recibidos = ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xFF, 0x7F, 1, 2, 3});
+        assertNull(Framed.Recive());
+        assertTrue("Transporter not closed after a length error", Interno.Cerrado);
+    }
+
+    /**
+     * Mide las tramas por segundo de encode y decode de FrameCodec con tramas
+     * de 64 bytes sin y con CRC32C y de 1 KB con CRC32C, en lotes de 64.
+     */
+    @Test
+    public void testCodecThroughput() throws Exception {
+        int[] Tamaños = {64, 64, 1024};
+        boolean[] ConCRC = {false, true, true};
+        final int Lote = 64;
+        final int Rondas = 20000;
+        final int[] Contador = new int[1];
+        FrameListener Cuenta;
+        FrameCodec Codec;
+        ByteBuffer[] Datos;
+        ByteBuffer Codificado;
+        long Inicio, Encode, Decode;
+        int i, j, Ronda;
+
+        Cuenta = new FrameListener() {
+            @Override
+            public void handleFrame(ByteBuffer Frame) {
+                Contador[0]++;
+            }
+        };
+        for (i = 0; i < Tamaños.length; i++) {
+            Codec = new FrameCodec(64 * 1024, ConCRC[i]);
+            Datos = new ByteBuffer[Lote];
+            for (j = 0; j < Lote; j++) {
+                Datos[j] = ByteBuffer.wrap(frame(j, Tamaños[i]));
+            }
+            Codificado = ByteBuffer.allocate(Lote * Codec.getMaxEncodedSize());
+            for (j = 0; j < Lote; j++) {
+                Codec.encode(Datos[j], Codificado);
+                Datos[j].rewind();
+            }
+            Codificado.flip();
+            Encode = 0;
+            Decode = 0;
+            // La primera ronda calienta el JIT
+            for (Ronda = 0; Ronda < 2; Ronda++) {
+                Inicio = System.nanoTime();
+                for (j = 0; j < Rondas; j++) {
+                    Codec.encode(Datos);
+                    for (ByteBuffer Dato : Datos) {
+                        Dato.rewind();
+                    }
+                }
+                Encode = System.nanoTime() - Inicio;
+                Contador[0] = 0;
+                Inicio = System.nanoTime();
+                for (j = 0; j < Rondas; j++) {
+                    Codec.decode(Codificado, Cuenta);
+                    Codificado.rewind();
+                }
+                Decode = System.nanoTime() - Inicio;
+                assertEquals(Lote * Rondas, Contador[0]);
+            }
+            System.out.printf("FrameCodec %d B %s: encode %.1f M frames/s, decode %.1f M frames/s (%.0f MB/s)%n",
+                    Tamaños[i], (ConCRC[i] ? "CRC32C" : "no CRC"), (double) Lote * Rondas * 1e3 / Encode,
+                    (double) Lote * Rondas * 1e3 / Decode, (double) Lote * Rondas * Tamaños[i] * 1e9 / Decode / 1048576.0);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import com.bolivartech.utils.exception.UtilsException;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Mide la latencia de ida y vuelta de TcpIpClient contra el eco del
+ * TcpIpServer en modo NIO por loopback, en los modos de recepcion por
+ * consulta, bloqueante con Recive(Timeout) y bloqueante con listener, y el
+ * rendimiento de recepcion con el SyncroBuffer y con el SpscSyncroBuffer.
+ *
+ * @author Julian Bolivar
+ */
+public class TcpIpClientTest {
+
+    private static final int SIZE = 64;
+    // Bytes que el servidor envia en la prueba de rendimiento
+    private static final long BULK = 128L * 1024 * 1024;
+
+    private TcpIpServer Server;
+    private TcpIpClient Client;
+    private int Port;
+
+    @Before
+    public void setUp() throws Exception {
+        try (ServerSocket Libre = new ServerSocket(0)) {
+            this.Port = Libre.getLocalPort();
+        }
+        this.Server = new TcpIpServer(this.Port, 2);
+        this.Server.setReceiveListener(new TcpIpReceiveListener() {
+            @Override
+            public void handleReceive(final TcpIpNioConnection Connection, byte[] Datos) {
+                if (Datos.length == 1) {
+                    // Un solo byte pide el envio masivo de la prueba de rendimiento
+                    new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            bulkSend(Connection);
+                        }
+                    }).start();
+                } else {
+                    try {
+                        Connection.Send(Datos);
+                    } catch (UtilsException ex) {
+                        // El cliente cerro la conexion
+                    }
+                }
+            }
+        });
+        this.Server.start();
+        this.Client = new TcpIpClient("127.0.0.1", this.Port);
+        this.Client.setTCPNoDelay(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.Client.Close();
+        this.Server.Stop();
+    }
+
+    /**
+     * Envia BULK bytes por la conexion en bloques de 64 KB, esperando cuando
+     * la cola de envio llega a la marca de nivel alto.
+     */
+    private static void bulkSend(TcpIpNioConnection Connection) {
+        ByteBuffer Bloque = ByteBuffer.allocateDirect(64 * 1024);
+        long Enviados;
+
+        Enviados = 0;
+        try {
+            while (Enviados < BULK) {
+                Bloque.clear();
+                try {
+                    Enviados += Connection.send(Bloque);
+                } catch (UtilsException ex) {
+                    if (ex.getErrorCode() != TcpIpNioConnection.ERROR_BACKPRESSURE) {
+                        throw ex;
+                    }
+                    LockSupport.parkNanos(100000);
+                }
+            }
+        } catch (UtilsException ex) {
+            // El cliente cerro la conexion
+        }
+    }
+
+    /**
+     * Fuente de las respuestas del eco
+     */
+    private interface Respuestas {
+
+        byte[] next() throws InterruptedException;
+    }
+
+    /**
+     * Envia "Rondas" mensajes de SIZE bytes, espera cada eco completo y
+     * reporta la latencia promedio, p50 y p99 si "Modo" no es NULL.
+     */
+    private void measure(String Modo, int Rondas, Respuestas Fuente) throws Exception {
+        byte[] Mensaje = new byte[SIZE];
+        byte[] Parte;
+        long[] Tiempos = new long[Rondas];
+        long Inicio, Total;
+        int i, Recibidos;
+
+        Total = 0;
+        for (i = 0; i < Rondas; i++) {
+            Mensaje[0] = (byte) i;
+            Inicio = System.nanoTime();
+            this.Client.Send(Mensaje);
+            Recibidos = 0;
+            while (Recibidos < SIZE) {
+                Parte = Fuente.next();
+                assertNotNull("Echo not received", Parte);
+                if (Recibidos == 0) {
+                    assertEquals(Mensaje[0], Parte[0]);
+                }
+                Recibidos += Parte.length;
+            }
+            Tiempos[i] = System.nanoTime() - Inicio;
+            Total += Tiempos[i];
+        }
+        Arrays.sort(Tiempos);
+        if (Modo != null) {
+            System.out.printf("TcpIpClient %s RTT: avg %.1f us, p50 %.1f us, p99 %.1f us (%d rounds)%n",
+                    Modo, Total / 1e3 / Rondas, Tiempos[Rondas / 2] / 1e3, Tiempos[(Rondas * 99) / 100] / 1e3, Rondas);
+        }
+    }
+
+    /**
+     * Modo por consulta, la hebra de recepcion revisa el socket cada 100-500
+     * ms, por lo que solo se miden pocas rondas.
+     */
+    @Test
+    public void testPollingLatency() throws Exception {
+
+        this.Client.setReceiveMode(TcpIpClient.RECEIVE_POLLING);
+        this.Client.Open();
+        this.measure("polling + Recive(timeout)", 5, new Respuestas() {
+            @Override
+            public byte[] next() {
+                return Client.Recive(5000);
+            }
+        });
+    }
+
+    /**
+     * Modo bloqueante con Recive(Timeout)
+     */
+    @Test
+    public void testBlockingReciveLatency() throws Exception {
+        Respuestas Fuente;
+
+        this.Client.setReceiveMode(TcpIpClient.RECEIVE_BLOCKING);
+        this.Client.Open();
+        Fuente = new Respuestas() {
+            @Override
+            public byte[] next() {
+                return Client.Recive(5000);
+            }
+        };
+        // La primera medicion calienta el JIT
+        this.measure(null, 1000, Fuente);
+        this.measure("blocking + Recive(timeout)", 5000, Fuente);
+    }
+
+    /**
+     * Modo bloqueante con Recive(Timeout) sobre el SpscSyncroBuffer
+     */
+    @Test
+    public void testBlockingSingleReaderLatency() throws Exception {
+        Respuestas Fuente;
+
+        this.Client.setReceiveMode(TcpIpClient.RECEIVE_BLOCKING);
+        this.Client.setSingleReaderCapacity(64 * 1024);
+        this.Client.Open();
+        Fuente = new Respuestas() {
+            @Override
+            public byte[] next() {
+                return Client.Recive(5000);
+            }
+        };
+        // La primera medicion calienta el JIT
+        this.measure(null, 1000, Fuente);
+        this.measure("blocking + Recive(timeout) + SpscSyncroBuffer", 5000, Fuente);
+    }
+
+    /**
+     * Recibe BULK bytes del servidor con receive(ByteBuffer) y reporta los MB
+     * por segundo.
+     */
+    private void bulk(String Modo) throws Exception {
+        ByteBuffer Destino = ByteBuffer.allocate(64 * 1024);
+        long Recibidos, Inicio, Limite;
+        int Leidos;
+
+        this.Client.setReceiveMode(TcpIpClient.RECEIVE_BLOCKING);
+        this.Client.Open();
+        Inicio = System.nanoTime();
+        Limite = Inicio + TimeUnit.SECONDS.toNanos(120);
+        this.Client.Send(new byte[1]);
+        Recibidos = 0;
+        while ((Recibidos < BULK) && (System.nanoTime() < Limite)) {
+            Destino.clear();
+            Leidos = this.Client.receive(Destino);
+            if (Leidos > 0) {
+                Recibidos += Leidos;
+            } else {
+                LockSupport.parkNanos(10000);
+            }
+        }
+        assertEquals(BULK, Recibidos);
+        System.out.printf("TcpIpClient %s receive: %.0f MB/s%n", Modo, BULK / 1048576.0 / ((System.nanoTime() - Inicio) / 1e9));
+    }
+
+    /**
+     * Rendimiento de recepcion con el SyncroBuffer que crece sin limite
+     */
+    @Test
+    public void testBulkSyncroBuffer() throws Exception {
+
+        this.bulk("SyncroBuffer");
+    }
+
+    /**
+     * Rendimiento de recepcion con el SpscSyncroBuffer de 1 MB
+     */
+    @Test
+    public void testBulkSingleReader() throws Exception {
+
+        this.Client.setSingleReaderCapacity(1024 * 1024);
+        this.bulk("SpscSyncroBuffer");
+    }
+
+    /**
+     * Modo bloqueante con TcpIpClientListener
+     */
+    @Test
+    public void testBlockingListenerLatency() throws Exception {
+        final LinkedBlockingQueue<byte[]> Cola = new LinkedBlockingQueue<byte[]>();
+        Respuestas Fuente;
+
+        this.Client.setReceiveMode(TcpIpClient.RECEIVE_BLOCKING);
+        this.Client.setReceiveListener(new TcpIpClientListener() {
+            @Override
+            public void handleReceive(TcpIpClient Client, byte[] Datos) {
+                Cola.add(Datos);
+            }
+        });
+        this.Client.Open();
+        Fuente = new Respuestas() {
+            @Override
+            public byte[] next() throws InterruptedException {
+                return Cola.poll(5, TimeUnit.SECONDS);
+            }
+        };
+        // La primera medicion calienta el JIT
+        this.measure(null, 1000, Fuente);
+        this.measure("blocking + listener", 5000, Fuente);
+    }
+}
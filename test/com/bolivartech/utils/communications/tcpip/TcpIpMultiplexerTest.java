@@ -0,0 +1,346 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import com.bolivartech.utils.exception.UtilsException;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de TcpIpMultiplexer entre un TcpIpClient y una TcpIpNioConnection
+ * del TcpIpServer por loopback: extremos con ventanas iniciales distintas,
+ * flujos abiertos al mismo tiempo por ambos extremos y el limite del tamaño
+ * de los fragmentos.
+ *
+ * @author Julian Bolivar
+ */
+public class TcpIpMultiplexerTest {
+
+    // Ventanas iniciales distintas en cada extremo
+    private static final int CLIENTWINDOW = 16 * 1024;
+    private static final int SERVERWINDOW = 256 * 1024;
+
+    private TcpIpServer Server;
+    private TcpIpClient Client;
+    private TcpIpMultiplexer ClientMux;
+    // Multiplexor del servidor, se crea con los primeros datos de la conexion
+    private final ConcurrentHashMap<TcpIpNioConnection, TcpIpMultiplexer> ServerMux = new ConcurrentHashMap<TcpIpNioConnection, TcpIpMultiplexer>();
+    private final CountDownLatch ServerReady = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        int Port;
+
+        try (ServerSocket Libre = new ServerSocket(0)) {
+            Port = Libre.getLocalPort();
+        }
+        this.Server = new TcpIpServer(Port, 1);
+        this.Server.setReceiveListener(new TcpIpReceiveListener() {
+            @Override
+            public void handleReceive(TcpIpNioConnection Connection, byte[] Datos) {
+                TcpIpMultiplexer Mux;
+
+                Mux = ServerMux.get(Connection);
+                if (Mux == null) {
+                    Mux = new TcpIpMultiplexer(Connection);
+                    Mux.setInitialWindow(SERVERWINDOW);
+                    Mux.start();
+                    ServerMux.put(Connection, Mux);
+                    ServerReady.countDown();
+                }
+                Mux.handleData(Datos);
+            }
+        });
+        this.Server.start();
+        this.Client = new TcpIpClient("127.0.0.1", Port);
+        this.ClientMux = new TcpIpMultiplexer(this.Client);
+        this.ClientMux.setInitialWindow(CLIENTWINDOW);
+        this.Client.Open();
+        this.ClientMux.start();
+        assertTrue("Server multiplexer not created", this.ServerReady.await(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.ClientMux.Stop();
+        for (TcpIpMultiplexer Mux : this.ServerMux.values()) {
+            Mux.Stop();
+        }
+        this.Client.Close();
+        this.Server.Stop();
+    }
+
+    /**
+     * Retorna el multiplexor del servidor
+     */
+    private TcpIpMultiplexer serverMux() {
+        return this.ServerMux.values().iterator().next();
+    }
+
+    /**
+     * Espera el primer flujo nuevo abierto por el otro extremo
+     */
+    private static TcpIpStream awaitStream(TcpIpMultiplexer Mux) throws InterruptedException {
+        TcpIpStream[] Nuevos;
+        TcpIpStream Result = null;
+        int Espera;
+
+        Espera = 0;
+        while ((Result == null) && (Espera < 500)) {
+            Nuevos = Mux.getNewStreams();
+            if (Nuevos.length > 0) {
+                Result = Nuevos[0];
+            } else {
+                Thread.sleep(10);
+                Espera++;
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Lee "Total" bytes del flujo y verifica el patron de los datos
+     */
+    private static long readAll(TcpIpStream Stream, long Total) {
+        byte[] Datos;
+        long Result, Limite;
+        int i;
+
+        Result = 0;
+        Limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((Result < Total) && (System.nanoTime() < Limite)) {
+            Datos = Stream.Recive(1000);
+            if (Datos != null) {
+                for (i = 0; i < Datos.length; i++) {
+                    assertEquals((byte) (Result + i), Datos[i]);
+                }
+                Result += Datos.length;
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Envia "Total" bytes por el flujo con un patron verificable
+     */
+    private static void writeAll(TcpIpStream Stream, long Total) throws UtilsException {
+        byte[] Bloque = new byte[8192];
+        long Enviados;
+        int i, Longitud;
+
+        Enviados = 0;
+        while (Enviados < Total) {
+            Longitud = (int) Math.min(Bloque.length, Total - Enviados);
+            for (i = 0; i < Longitud; i++) {
+                Bloque[i] = (byte) (Enviados + i);
+            }
+            Stream.send(ByteBuffer.wrap(Bloque, 0, Longitud));
+            Enviados += Longitud;
+        }
+    }
+
+    /**
+     * Envia "Total" bytes de "Origen" a "Destino" desde otra hebra, ya que el
+     * emisor se bloquea hasta que el receptor lee, y retorna los bytes
+     * recibidos.
+     */
+    private static long transfer(final TcpIpStream Origen, TcpIpStream Destino, final long Total) throws Exception {
+        final UtilsException[] Error = new UtilsException[1];
+        Thread Escritor;
+        long Result;
+
+        Escritor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writeAll(Origen, Total);
+                } catch (UtilsException ex) {
+                    Error[0] = ex;
+                }
+            }
+        });
+        Escritor.start();
+        Result = readAll(Destino, Total);
+        Escritor.join(5000);
+        assertNull(Error[0]);
+        return Result;
+    }
+
+    /**
+     * Con ventanas iniciales distintas cada extremo envia dentro de la ventana
+     * anunciada por el otro: el servidor con ventana de 256 KB envia 1 MB al
+     * cliente de 16 KB y viceversa, sin que el receptor lo tome como exceso de
+     * ventana y cierre la conexion.
+     */
+    @Test
+    public void testDifferentWindows() throws Exception {
+        final long Total = 1024 * 1024;
+        TcpIpStream Local, Remoto;
+
+        Local = this.ClientMux.openStream();
+        Local.Send(new byte[]{0});
+        Remoto = awaitStream(this.serverMux());
+        assertNotNull("Stream not opened on the server", Remoto);
+        assertEquals(1, readAll(Remoto, 1));
+        assertEquals("Server to client transfer incomplete", Total, transfer(Remoto, Local, Total));
+        assertEquals("Client to server transfer incomplete", Total, transfer(Local, Remoto, Total));
+        assertFalse(Local.isRemoteClosed());
+        assertFalse(Remoto.isRemoteClosed());
+    }
+
+    /**
+     * Los dos extremos abren un flujo al mismo tiempo: el cliente usa numeros
+     * impares y el servidor pares, por lo que se crean dos flujos distintos y
+     * cada uno recibe solo los datos del suyo. Un extremo no puede crear un
+     * flujo con un numero del otro.
+     */
+    @Test
+    public void testSimultaneousOpen() throws Exception {
+        TcpIpStream DelCliente, DelServidor, EnServidor, EnCliente;
+
+        DelCliente = this.ClientMux.openStream();
+        DelServidor = this.serverMux().openStream();
+        assertEquals(1, DelCliente.getStreamID() & 1);
+        assertEquals(0, DelServidor.getStreamID() & 1);
+        assertNotEquals(0, DelServidor.getStreamID());
+        DelCliente.Send(new byte[]{1, 1, 1});
+        DelServidor.Send(new byte[]{2, 2});
+        EnServidor = awaitStream(this.serverMux());
+        EnCliente = awaitStream(this.ClientMux);
+        assertNotNull(EnServidor);
+        assertNotNull(EnCliente);
+        assertEquals(DelCliente.getStreamID(), EnServidor.getStreamID());
+        assertEquals(DelServidor.getStreamID(), EnCliente.getStreamID());
+        assertEquals(3, EnServidor.Recive(5000).length);
+        assertEquals(2, EnCliente.Recive(5000).length);
+        assertEquals(0, DelCliente.getPendingBytes());
+        assertFalse(DelCliente.DataAvailable());
+        assertFalse(DelServidor.DataAvailable());
+        try {
+            this.ClientMux.getStream(DelServidor.getStreamID() + 2);
+            fail("Stream created with a remote ID");
+        } catch (UtilsException ex) {
+            assertEquals(TcpIpStream.ERROR_STREAMID, ex.getErrorCode());
+        }
+        assertTrue(this.ClientMux.getStream(DelCliente.getStreamID()) == DelCliente);
+    }
+
+    /**
+     * Mientras un flujo transfiere 8 MB del cliente al servidor, los mensajes
+     * de 8 bytes de otro flujo van y vuelven sin esperar a la transferencia:
+     * la hebra de escritura intercala un fragmento de cada flujo por lote, por
+     * lo que el tiempo de ida y vuelta es menor que el de enviar una ventana
+     * del flujo grande.
+     */
+    @Test
+    public void testSmallMessagesNotDelayedByBulk() throws Exception {
+        final long Total = 8L * 1024 * 1024;
+        final TcpIpStream Grande, Masivo, Eco;
+        final long[] Recibidos = new long[1];
+        final UtilsException[] Error = new UtilsException[1];
+        TcpIpStream Ping;
+        Thread Escritor, Lector, Respuesta;
+        long[] Tiempos;
+        long Inicio, Envio, Duracion, Ventana;
+        byte[] Datos;
+        int Muestras;
+
+        Grande = this.ClientMux.openStream();
+        Grande.Send(new byte[]{0});
+        Masivo = awaitStream(this.serverMux());
+        assertNotNull(Masivo);
+        assertEquals(1, readAll(Masivo, 1));
+        Ping = this.ClientMux.openStream();
+        Ping.Send(new byte[]{0});
+        Eco = awaitStream(this.serverMux());
+        assertNotNull(Eco);
+        assertEquals(1, Eco.Recive(5000).length);
+        // El servidor lee el flujo grande y devuelve los mensajes del otro
+        Lector = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Recibidos[0] = readAll(Masivo, Total);
+            }
+        });
+        Respuesta = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                byte[] Mensaje;
+
+                try {
+                    while ((Mensaje = Eco.Recive(2000)) != null) {
+                        Eco.Send(Mensaje);
+                    }
+                } catch (UtilsException ex) {
+                    Error[0] = ex;
+                }
+            }
+        });
+        Escritor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writeAll(Grande, Total);
+                } catch (UtilsException ex) {
+                    Error[0] = ex;
+                }
+            }
+        });
+        Lector.start();
+        Respuesta.start();
+        Inicio = System.nanoTime();
+        Escritor.start();
+        // Mide la ida y vuelta de los mensajes mientras dura la transferencia
+        Tiempos = new long[100000];
+        Muestras = 0;
+        while (Escritor.isAlive() && (Muestras < Tiempos.length)) {
+            Envio = System.nanoTime();
+            Ping.Send(new byte[8]);
+            Datos = Ping.Recive(5000);
+            assertNotNull("Echo lost during the bulk transfer", Datos);
+            assertEquals(8, Datos.length);
+            Tiempos[Muestras++] = System.nanoTime() - Envio;
+        }
+        Escritor.join(30000);
+        Lector.join(30000);
+        Duracion = System.nanoTime() - Inicio;
+        Respuesta.join(5000);
+        assertNull(Error[0]);
+        assertEquals("Bulk transfer incomplete", Total, Recibidos[0]);
+        Tiempos = Arrays.copyOf(Tiempos, Muestras);
+        Arrays.sort(Tiempos);
+        System.out.printf("TcpIpMultiplexer: 8 MB in %.0f ms, %d echoes of 8 B, round trip median %.2f ms, max %.2f ms%n",
+                Duracion / 1e6, Muestras, Tiempos[Muestras / 2] / 1e6, Tiempos[Muestras - 1] / 1e6);
+        assertTrue("Too few echoes during the transfer", Muestras >= 5);
+        // Sin intercalado cada mensaje espera al menos a una ventana completa
+        // del flujo grande, que es lo que puede tener pendiente
+        Ventana = (Duracion * SERVERWINDOW) / Total;
+        assertTrue("Small message delayed by the bulk stream: " + Tiempos[Muestras - 1] + " ns, window " + Ventana + " ns", Tiempos[Muestras - 1] < Ventana);
+    }
+
+    /**
+     * El tamaño de los fragmentos no excede el lote de escritura de 64 KB
+     */
+    @Test
+    public void testChunkSizeLimit() {
+
+        this.ClientMux.setChunkSize(TcpIpMultiplexer.MAXFRAME);
+        assertEquals(64 * 1024, this.ClientMux.getChunkSize());
+        this.ClientMux.setChunkSize(0);
+        assertEquals(1, this.ClientMux.getChunkSize());
+        this.ClientMux.setChunkSize(4096);
+        assertEquals(4096, this.ClientMux.getChunkSize());
+    }
+}
@@ -0,0 +1,221 @@
+package com.bolivartech.utils.communications.tcpip;
+
+import com.bolivartech.utils.exception.UtilsException;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas del modo NIO de TcpIpServer: la marca de nivel alto de la cola de
+ * envio, la latencia de ida y vuelta por loopback y el numero de conexiones
+ * simultaneas atendidas por los selectores.
+ *
+ * @author Julian Bolivar
+ */
+public class TcpIpServerTest {
+
+    private static final int LOOPS = 2;
+
+    private TcpIpServer Server;
+    private int Port;
+
+    /**
+     * Retorna un puerto libre de loopback
+     */
+    private static int freePort() throws IOException {
+        int Result;
+
+        try (ServerSocket Libre = new ServerSocket(0)) {
+            Result = Libre.getLocalPort();
+        }
+        return Result;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        this.Port = freePort();
+        this.Server = new TcpIpServer(this.Port, LOOPS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.Server.Stop();
+    }
+
+    /**
+     * Receptor que devuelve al cliente los datos recibidos
+     */
+    private static final class Eco implements TcpIpReceiveListener {
+
+        @Override
+        public void handleReceive(TcpIpNioConnection Connection, byte[] Datos) {
+            try {
+                Connection.Send(Datos);
+            } catch (UtilsException ex) {
+                // El cliente cerro la conexion
+            }
+        }
+    }
+
+    /**
+     * Espera la primera conexion nueva del servidor
+     */
+    private TcpIpNioConnection awaitConnection() throws InterruptedException {
+        TcpIpNioConnection[] Nuevas;
+        TcpIpNioConnection Result = null;
+        int Espera;
+
+        Espera = 0;
+        while ((Result == null) && (Espera < 500)) {
+            Nuevas = this.Server.getNewNioConnections();
+            if ((Nuevas != null) && (Nuevas.length > 0)) {
+                Result = Nuevas[0];
+            } else {
+                Thread.sleep(10);
+                Espera++;
+            }
+        }
+        return Result;
+    }
+
+    /**
+     * Si el cliente no lee, Send falla con ERROR_BACKPRESSURE al llegar a la
+     * marca de nivel alto sin encolar mas datos, y vuelve a aceptar envios
+     * cuando el cliente lee y la cola se vacia.
+     */
+    @Test
+    public void testSendHighWaterMark() throws Exception {
+        final long Marca = 1024 * 1024;
+        final byte[] Bloque = new byte[64 * 1024];
+        TcpIpNioConnection Connection;
+        UtilsException Rechazo;
+        long Encolados;
+        int Envios, Espera;
+
+        this.Server.start();
+        try (Socket Cliente = new Socket("127.0.0.1", this.Port)) {
+            Connection = this.awaitConnection();
+            assertNotNull("Connection not accepted", Connection);
+            Connection.setMaxPendingBytes(Marca);
+            Rechazo = null;
+            Envios = 0;
+            while ((Rechazo == null) && (Envios < 100000)) {
+                try {
+                    Connection.Send(Bloque);
+                    Envios++;
+                } catch (UtilsException ex) {
+                    Rechazo = ex;
+                }
+            }
+            assertNotNull("Send never applied backpressure", Rechazo);
+            assertEquals(TcpIpNioConnection.ERROR_BACKPRESSURE, Rechazo.getErrorCode());
+            Encolados = Connection.getPendingBytes();
+            assertTrue("Pending bytes over the high-water mark: " + Encolados, Encolados <= Marca);
+            assertTrue(Connection.isOpen());
+            // El cliente lee todo lo enviado y la cola se vacia
+            InputStream Entrada = Cliente.getInputStream();
+            long Faltan = (long) Envios * Bloque.length;
+            byte[] Lectura = new byte[64 * 1024];
+            while (Faltan > 0) {
+                Faltan -= Entrada.read(Lectura, 0, (int) Math.min(Lectura.length, Faltan));
+            }
+            Espera = 0;
+            while ((Connection.getPendingBytes() > 0) && (Espera < 500)) {
+                Thread.sleep(10);
+                Espera++;
+            }
+            assertEquals(0, Connection.getPendingBytes());
+            Connection.Send(Bloque);
+        }
+    }
+
+    /**
+     * Mide la latencia de ida y vuelta de un eco de 64 bytes por loopback con
+     * TCP_NODELAY.
+     */
+    @Test
+    public void testLoopbackLatency() throws Exception {
+        final int Rondas = 5000;
+        byte[] Mensaje = new byte[64];
+        byte[] Respuesta = new byte[64];
+        long[] Tiempos = new long[Rondas];
+        long Inicio, Total;
+        int i;
+
+        this.Server.setReceiveListener(new Eco());
+        this.Server.start();
+        try (Socket Cliente = new Socket("127.0.0.1", this.Port)) {
+            Cliente.setTcpNoDelay(true);
+            OutputStream Salida = Cliente.getOutputStream();
+            DataInputStream Entrada = new DataInputStream(Cliente.getInputStream());
+            // Calentamiento del JIT
+            for (i = 0; i < 1000; i++) {
+                Salida.write(Mensaje);
+                Entrada.readFully(Respuesta);
+            }
+            Total = 0;
+            for (i = 0; i < Rondas; i++) {
+                Mensaje[0] = (byte) i;
+                Inicio = System.nanoTime();
+                Salida.write(Mensaje);
+                Entrada.readFully(Respuesta);
+                Tiempos[i] = System.nanoTime() - Inicio;
+                Total += Tiempos[i];
+                assertEquals(Mensaje[0], Respuesta[0]);
+            }
+        }
+        Arrays.sort(Tiempos);
+        System.out.printf("TcpIpServer NIO loopback RTT: avg %.1f us, p50 %.1f us, p99 %.1f us%n",
+                Total / 1e3 / Rondas, Tiempos[Rondas / 2] / 1e3, Tiempos[(Rondas * 99) / 100] / 1e3);
+    }
+
+    /**
+     * Abre muchas conexiones simultaneas sobre los selectores, todas reciben
+     * su eco y la cuenta de conexiones vuelve a cero al cerrarlas.
+     */
+    @Test
+    public void testConnectionCount() throws Exception {
+        final int Conexiones = 2000;
+        Socket[] Clientes = new Socket[Conexiones];
+        long Inicio;
+        int i, Espera;
+
+        this.Server.setReceiveListener(new Eco());
+        this.Server.start();
+        Inicio = System.nanoTime();
+        try {
+            for (i = 0; i < Conexiones; i++) {
+                Clientes[i] = new Socket("127.0.0.1", this.Port);
+                Clientes[i].getOutputStream().write(i & 0x7F);
+            }
+            for (i = 0; i < Conexiones; i++) {
+                assertEquals("Connection " + i + " not echoed", i & 0x7F, Clientes[i].getInputStream().read());
+            }
+            assertEquals(Conexiones, this.Server.getConnectionCount());
+            System.out.printf("TcpIpServer NIO %d connections on %d loops: opened and echoed in %.0f ms%n",
+                    Conexiones, LOOPS, (System.nanoTime() - Inicio) / 1e6);
+        } finally {
+            for (i = 0; i < Conexiones; i++) {
+                if (Clientes[i] != null) {
+                    Clientes[i].close();
+                }
+            }
+        }
+        Espera = 0;
+        while ((this.Server.getConnectionCount() > 0) && (Espera < 1000)) {
+            Thread.sleep(10);
+            Espera++;
+        }
+        assertEquals("Closed connections not removed", 0, this.Server.getConnectionCount());
+    }
+}
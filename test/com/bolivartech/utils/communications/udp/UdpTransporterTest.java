@@ -0,0 +1,243 @@
+package com.bolivartech.utils.communications.udp;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de UdpTransporter por loopback: recuperacion con FEC de los
+ * datagramas descartados por un reenviador con perdidas inyectadas, incluido
+ * un grupo incompleto sin retardo de agrupacion, y descarte de los datagramas
+ * que no vienen del destino.
+ *
+ * @author Julian Bolivar
+ */
+public class UdpTransporterTest {
+
+    private static final int SIZE = 100;
+    // Buffers de los sockets para que las unicas perdidas sean las inyectadas
+    private static final int BUFFER = 4 * 1024 * 1024;
+
+    private UdpTransporter Emisor;
+    private UdpTransporter Receptor;
+    private DatagramSocket Relevo;
+    private Thread Reenvio;
+    private volatile boolean Activo;
+    // Datagramas descartados por el reenviador
+    private final AtomicInteger Descartados = new AtomicInteger(0);
+
+    @Before
+    public void setUp() throws Exception {
+        this.Relevo = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        this.Relevo.setSoTimeout(50);
+        this.Relevo.setReceiveBufferSize(BUFFER);
+        this.Activo = true;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.Activo = false;
+        if (this.Reenvio != null) {
+            this.Reenvio.join();
+        }
+        this.Relevo.close();
+        if (this.Emisor != null) {
+            this.Emisor.Close();
+        }
+        if (this.Receptor != null) {
+            this.Receptor.Close();
+        }
+    }
+
+    /**
+     * Inicia la hebra que reenvia al receptor los datagramas que llegan al
+     * relevo. Si "Bloque" es 0 descarta los datagramas de datos cuyo indice en
+     * el grupo esta en "Perdidas", si no los que ocupan las posiciones
+     * "Perdidas" dentro de cada bloque de "Bloque" datagramas.
+     */
+    private void relay(final int Destino, final int Bloque, final int... Perdidas) {
+
+        this.Reenvio = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                DatagramPacket Paquete = new DatagramPacket(new byte[UdpTransporter.MAXDATAGRAM], UdpTransporter.MAXDATAGRAM);
+                InetSocketAddress Receptor = new InetSocketAddress(InetAddress.getLoopbackAddress(), Destino);
+                boolean Descartar;
+                long Numero = 0;
+
+                while (Activo) {
+                    try {
+                        Paquete.setLength(UdpTransporter.MAXDATAGRAM);
+                        Relevo.receive(Paquete);
+                        Descartar = false;
+                        for (int Posicion : Perdidas) {
+                            if (Bloque == 0) {
+                                // Tipo en el byte 0 e indice en el grupo en el byte 5
+                                Descartar |= ((Paquete.getData()[0] == 0) && ((Paquete.getData()[5] & 0xFF) == Posicion));
+                            } else {
+                                Descartar |= ((Numero % Bloque) == Posicion);
+                            }
+                        }
+                        Numero++;
+                        if (Descartar) {
+                            Descartados.incrementAndGet();
+                        } else {
+                            Relevo.send(new DatagramPacket(Paquete.getData(), Paquete.getLength(), Receptor));
+                        }
+                    } catch (SocketTimeoutException ex) {
+                        // Revisa si debe terminar
+                    } catch (Exception ex) {
+                        Activo = false;
+                    }
+                }
+            }
+        }, "UdpTransporterTest-relay");
+        this.Reenvio.start();
+    }
+
+    /**
+     * Retorna el mensaje numero "Numero"
+     */
+    private static byte[] message(int Numero) {
+        byte[] Result = new byte[SIZE];
+
+        Result[0] = (byte) (Numero >>> 8);
+        Result[1] = (byte) Numero;
+        Result[SIZE - 1] = (byte) 0x5A;
+        return Result;
+    }
+
+    /**
+     * Recibe los mensajes disponibles y los agrega a "Recibidos"
+     */
+    private void drain(Set<Integer> Recibidos) {
+        byte[] Datos;
+
+        while ((Datos = this.Receptor.Recive()) != null) {
+            assertEquals(SIZE, Datos.length);
+            Recibidos.add(((Datos[0] & 0xFF) << 8) | (Datos[1] & 0xFF));
+            assertArrayEquals(message(((Datos[0] & 0xFF) << 8) | (Datos[1] & 0xFF)), Datos);
+        }
+    }
+
+    /**
+     * Con FEC 8+2 y sin retardo de agrupacion cada mensaje es un datagrama.
+     * El reenviador descarta los datagramas de datos 1 y 5 de cada grupo (20%
+     * de los datos en los grupos completos) y todos se reconstruyen, incluso
+     * el del ultimo grupo incompleto de 3 datagramas, que se cierra por
+     * GROUPDELAY sin llamar a flush.
+     */
+    @Test
+    public void testRecoversInjectedLoss() throws Exception {
+        final int Mensajes = 803;
+        Set<Integer> Recibidos = new HashSet<Integer>();
+        long Limite;
+        int i;
+
+        this.Receptor = new UdpTransporter(null, 0, 0);
+        this.Receptor.setReceiveBufferSize(BUFFER);
+        this.Receptor.Open();
+        this.relay(this.Receptor.getLocalPort(), 0, 1, 5);
+        this.Emisor = new UdpTransporter("127.0.0.1", this.Relevo.getLocalPort(), 0);
+        this.Emisor.setFEC(8, 2);
+        this.Emisor.Open();
+        assertEquals(0, this.Emisor.getBatchDelay());
+        for (i = 0; i < Mensajes; i++) {
+            this.Emisor.Send(message(i));
+            this.drain(Recibidos);
+        }
+        Limite = System.nanoTime() + 5000000000L;
+        while ((Recibidos.size() < Mensajes) && (System.nanoTime() < Limite)) {
+            Thread.sleep(5);
+            this.drain(Recibidos);
+        }
+        System.out.printf("UdpTransporter FEC 8+2, data shards 1 and 5 dropped: %d/%d messages, %d of %d dropped datagrams recovered%n",
+                Recibidos.size(), Mensajes, this.Receptor.getRecoveredCount(), this.Descartados.get());
+        assertEquals("Messages lost", Mensajes, Recibidos.size());
+        assertTrue("No datagrams dropped", this.Descartados.get() >= 201);
+        assertEquals(this.Descartados.get(), this.Receptor.getRecoveredCount());
+    }
+
+    /**
+     * Sin FEC los mismos descartes se pierden, lo que confirma que el
+     * reenviador los inyecta.
+     */
+    @Test
+    public void testLossWithoutFEC() throws Exception {
+        final int Mensajes = 800;
+        Set<Integer> Recibidos = new HashSet<Integer>();
+        long Limite;
+        int i;
+
+        this.Receptor = new UdpTransporter(null, 0, 0);
+        this.Receptor.setReceiveBufferSize(BUFFER);
+        this.Receptor.Open();
+        this.relay(this.Receptor.getLocalPort(), 8, 1, 5);
+        this.Emisor = new UdpTransporter("127.0.0.1", this.Relevo.getLocalPort(), 0);
+        this.Emisor.Open();
+        for (i = 0; i < Mensajes; i++) {
+            this.Emisor.Send(message(i));
+            this.drain(Recibidos);
+        }
+        Limite = System.nanoTime() + 1000000000L;
+        while ((Recibidos.size() < (Mensajes * 3) / 4) && (System.nanoTime() < Limite)) {
+            Thread.sleep(5);
+            this.drain(Recibidos);
+        }
+        Thread.sleep(100);
+        this.drain(Recibidos);
+        assertEquals(200, this.Descartados.get());
+        assertEquals((Mensajes * 3) / 4, Recibidos.size());
+        assertEquals(0, this.Receptor.getRecoveredCount());
+    }
+
+    /**
+     * Un transporter con destino descarta los datagramas de otros emisores.
+     */
+    @Test
+    public void testIgnoresOtherSenders() throws Exception {
+        UdpTransporter Intruso;
+        byte[] Datos;
+        long Limite;
+        int Puerto;
+
+        try (DatagramSocket Libre = new DatagramSocket(0)) {
+            Puerto = Libre.getLocalPort();
+        }
+        this.Receptor = new UdpTransporter("127.0.0.1", Puerto, 0);
+        this.Receptor.Open();
+        this.Emisor = new UdpTransporter("127.0.0.1", this.Receptor.getLocalPort(), Puerto);
+        this.Emisor.Open();
+        Intruso = new UdpTransporter("127.0.0.1", this.Receptor.getLocalPort(), 0);
+        Intruso.Open();
+        try {
+            Intruso.Send(message(1));
+            this.Emisor.Send(message(2));
+            Limite = System.nanoTime() + 2000000000L;
+            Datos = null;
+            while ((Datos == null) && (System.nanoTime() < Limite)) {
+                Datos = this.Receptor.Recive();
+                if (Datos == null) {
+                    Thread.sleep(5);
+                }
+            }
+            assertArrayEquals(message(2), Datos);
+            Thread.sleep(50);
+            assertNull("Datagram from another sender accepted", this.Receptor.Recive());
+        } finally {
+            Intruso.Close();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bolivartech.utils.communications.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de DirectBufferPool: clases de tamaño de acquire, reuso de los
+ * buffers liberados, limite de buffers libres por clase, descarte de los
+ * buffers que no son del pool y uso concurrente.
+ *
+ * @author Julian Bolivar
+ */
+public class DirectBufferPoolTest {
+
+    /**
+     * acquire retorna buffers directos con la capacidad de la clase de tamaño
+     * y el limite en el tamaño solicitado; los mayores a MAXSIZE se reservan
+     * con su tamaño exacto.
+     */
+    @Test
+    public void testAcquireSizeClasses() {
+        DirectBufferPool Pool = new DirectBufferPool(4);
+        ByteBuffer Buffer;
+
+        Buffer = Pool.acquire(1);
+        assertTrue(Buffer.isDirect());
+        assertEquals(DirectBufferPool.MINSIZE, Buffer.capacity());
+        assertEquals(0, Buffer.position());
+        assertEquals(1, Buffer.limit());
+        assertEquals(DirectBufferPool.MINSIZE, Pool.acquire(DirectBufferPool.MINSIZE).capacity());
+        assertEquals(2 * DirectBufferPool.MINSIZE, Pool.acquire(DirectBufferPool.MINSIZE + 1).capacity());
+        assertEquals(8192, Pool.acquire(5000).capacity());
+        assertEquals(DirectBufferPool.MAXSIZE, Pool.acquire(DirectBufferPool.MAXSIZE).capacity());
+        Buffer = Pool.acquire(DirectBufferPool.MAXSIZE + 1);
+        assertEquals(DirectBufferPool.MAXSIZE + 1, Buffer.capacity());
+        assertEquals(DirectBufferPool.MAXSIZE + 1, Buffer.limit());
+        assertEquals(6, Pool.getAllocatedCount());
+        assertEquals(0, Pool.getReusedCount());
+    }
+
+    /**
+     * Un buffer liberado se reusa limpio para cualquier tamaño de su clase.
+     */
+    @Test
+    public void testReleaseReuses() {
+        DirectBufferPool Pool = new DirectBufferPool(4);
+        ByteBuffer Primero, Segundo;
+
+        Primero = Pool.acquire(3000);
+        Primero.putInt(7);
+        Primero.flip();
+        Pool.release(Primero);
+        Segundo = Pool.acquire(4096);
+        assertSame(Primero, Segundo);
+        assertEquals(0, Segundo.position());
+        assertEquals(4096, Segundo.limit());
+        assertEquals(1, Pool.getAllocatedCount());
+        assertEquals(1, Pool.getReusedCount());
+        // Otra clase de tamaño no lo reusa
+        Pool.release(Segundo);
+        assertNotSame(Segundo, Pool.acquire(1000));
+        assertEquals(2, Pool.getAllocatedCount());
+    }
+
+    /**
+     * Cada clase guarda como maximo MaxPerClass buffers libres, los demas se
+     * descartan; las clases son independientes.
+     */
+    @Test
+    public void testMaxPerClassLimit() {
+        DirectBufferPool Pool = new DirectBufferPool(2);
+        ByteBuffer[] Buffers = new ByteBuffer[3];
+        int i;
+
+        for (i = 0; i < Buffers.length; i++) {
+            Buffers[i] = Pool.acquire(1024);
+        }
+        for (i = 0; i < Buffers.length; i++) {
+            Pool.release(Buffers[i]);
+        }
+        Pool.release(Pool.acquire(64));
+        assertEquals(4, Pool.getAllocatedCount());
+        for (i = 0; i < Buffers.length; i++) {
+            Pool.acquire(1024);
+        }
+        assertEquals(2, Pool.getReusedCount());
+        assertEquals(5, Pool.getAllocatedCount());
+        Pool.acquire(64);
+        assertEquals(3, Pool.getReusedCount());
+
+        // Sin buffers libres no se guarda ninguno
+        Pool = new DirectBufferPool(0);
+        Pool.release(Pool.acquire(1024));
+        Pool.acquire(1024);
+        assertEquals(0, Pool.getReusedCount());
+        assertEquals(2, Pool.getAllocatedCount());
+    }
+
+    /**
+     * release descarta los buffers en el heap, de solo lectura, mayores a
+     * MAXSIZE o con una capacidad que no es de una clase de tamaño.
+     */
+    @Test
+    public void testReleaseIgnoresForeignBuffers() {
+        DirectBufferPool Pool = new DirectBufferPool(4);
+
+        Pool.release(null);
+        Pool.release(ByteBuffer.allocate(1024));
+        Pool.release(ByteBuffer.allocateDirect(1024).asReadOnlyBuffer());
+        Pool.release(ByteBuffer.allocateDirect(1000));
+        Pool.release(Pool.acquire(DirectBufferPool.MAXSIZE + 1));
+        Pool.acquire(1000);
+        Pool.acquire(DirectBufferPool.MAXSIZE + 1);
+        assertEquals(0, Pool.getReusedCount());
+        assertEquals(3, Pool.getAllocatedCount());
+    }
+
+    /**
+     * Varias hebras reservan y liberan buffers a la vez: ninguna recibe un
+     * buffer que otra esta usando y el pool no reserva mas buffers que los que
+     * se usan al mismo tiempo mas los descartados por el limite.
+     */
+    @Test
+    public void testConcurrentAcquireRelease() throws Exception {
+        final DirectBufferPool Pool = new DirectBufferPool(8);
+        final AtomicInteger Errores = new AtomicInteger(0);
+        final int Hebras = 4;
+        final int Rondas = 20000;
+        Thread[] Trabajadores;
+        int i;
+
+        Trabajadores = new Thread[Hebras];
+        for (i = 0; i < Hebras; i++) {
+            final byte Marca = (byte) (i + 1);
+            Trabajadores[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    ByteBuffer Buffer;
+                    int n, k;
+
+                    for (n = 0; n < Rondas; n++) {
+                        Buffer = Pool.acquire(512);
+                        for (k = 0; k < 512; k++) {
+                            Buffer.put(k, Marca);
+                        }
+                        Thread.yield();
+                        for (k = 0; k < 512; k++) {
+                            if (Buffer.get(k) != Marca) {
+                                Errores.incrementAndGet();
+                                break;
+                            }
+                        }
+                        Pool.release(Buffer);
+                    }
+                }
+            });
+            Trabajadores[i].start();
+        }
+        for (Thread Trabajador : Trabajadores) {
+            Trabajador.join();
+        }
+        assertEquals("Buffer shared between threads", 0, Errores.get());
+        assertEquals((long) Hebras * Rondas, Pool.getAllocatedCount() + Pool.getReusedCount());
+        assertTrue("Buffers not reused: " + Pool.getAllocatedCount(), Pool.getAllocatedCount() <= Hebras);
+    }
+}
@@ -0,0 +1,227 @@
+package com.bolivartech.utils.communications.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de los buffers circulares SyncroBuffer y SpscSyncroBuffer: datos
+ * que cruzan el final del arreglo, crecimiento de SyncroBuffer con los datos
+ * partidos, espera del productor de SpscSyncroBuffer cuando esta lleno y una
+ * transferencia concurrente entre una hebra productora y una consumidora.
+ *
+ * @author Julian Bolivar
+ */
+public class SyncroBufferTest {
+
+    /**
+     * Retorna "Size" bytes del patron empezando en la posicion "Desde"
+     */
+    private static byte[] pattern(long Desde, int Size) {
+        byte[] Result = new byte[Size];
+        int i;
+
+        for (i = 0; i < Size; i++) {
+            Result[i] = (byte) ((Desde + i) * 31);
+        }
+        return Result;
+    }
+
+    /**
+     * Escribe y lee bloques que cruzan el final del arreglo por put(byte[]),
+     * put(ByteBuffer), read, read(ByteBuffer), getBytes y getByte.
+     */
+    private static void wrapAround(ByteRingBuffer Buffer) {
+        ByteBuffer Destino;
+        byte[] Leidos;
+        long Escritos, Consumidos;
+        int Ronda;
+
+        Escritos = 0;
+        Consumidos = 0;
+        for (Ronda = 0; Ronda < 20; Ronda++) {
+            Buffer.put(pattern(Escritos, 100));
+            Buffer.put(ByteBuffer.wrap(pattern(Escritos + 100, 60)));
+            Escritos += 160;
+            assertEquals(Escritos - Consumidos, Buffer.length());
+            Leidos = new byte[70];
+            assertEquals(70, Buffer.read(Leidos, 0, 70));
+            assertArrayEquals(pattern(Consumidos, 70), Leidos);
+            Consumidos += 70;
+            Destino = ByteBuffer.allocate(50);
+            assertEquals(50, Buffer.read(Destino));
+            assertArrayEquals(pattern(Consumidos, 50), Destino.array());
+            Consumidos += 50;
+            assertArrayEquals(pattern(Consumidos, 39), Buffer.getBytes(39));
+            Consumidos += 39;
+            assertEquals(pattern(Consumidos, 1)[0], Buffer.getByte());
+            Consumidos++;
+            assertEquals(0, Buffer.length());
+        }
+        assertNull(Buffer.getall());
+        assertEquals(0, Buffer.getByte());
+    }
+
+    /**
+     * Una hebra escribe "Total" bytes del patron en bloques de tamaño
+     * aleatorio mientras la hebra de la prueba los lee con espera y verifica
+     * el orden.
+     */
+    private static void producerConsumer(final ByteRingBuffer Buffer, final long Total) throws Exception {
+        final Throwable[] Error = new Throwable[1];
+        Thread Productor;
+        byte[] Bloque;
+        long Leidos, Limite, Inicio;
+        int i, Cantidad;
+
+        Productor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Random Azar = new Random(7);
+                long Escritos = 0;
+                int Longitud;
+
+                try {
+                    while (Escritos < Total) {
+                        Longitud = (int) Math.min(1 + Azar.nextInt(5000), Total - Escritos);
+                        if ((Longitud & 1) == 0) {
+                            Buffer.put(pattern(Escritos, Longitud));
+                        } else {
+                            Buffer.put(ByteBuffer.wrap(pattern(Escritos, Longitud)));
+                        }
+                        Escritos += Longitud;
+                    }
+                } catch (Throwable ex) {
+                    Error[0] = ex;
+                }
+            }
+        }, "SyncroBufferTest-producer");
+        Bloque = new byte[3000];
+        Leidos = 0;
+        Inicio = System.nanoTime();
+        Limite = Inicio + TimeUnit.SECONDS.toNanos(30);
+        Productor.start();
+        while ((Leidos < Total) && (System.nanoTime() < Limite)) {
+            Cantidad = Buffer.read(Bloque, 0, Bloque.length, 100);
+            for (i = 0; i < Cantidad; i++) {
+                assertEquals((byte) ((Leidos + i) * 31), Bloque[i]);
+            }
+            Leidos += Cantidad;
+        }
+        Productor.join(5000);
+        System.out.printf("%s: %d bytes producer/consumer in %.1f ms%n", Buffer.getClass().getSimpleName(), Leidos, (System.nanoTime() - Inicio) / 1e6);
+        assertNull(Error[0]);
+        assertEquals(Total, Leidos);
+        assertEquals(0, Buffer.length());
+    }
+
+    @Test
+    public void testSyncroBufferWrapAround() {
+
+        wrapAround(new SyncroBuffer());
+    }
+
+    /**
+     * Al crecer con los datos partidos entre el final y el inicio del arreglo
+     * se conserva el orden, y getall retorna todo lo pendiente.
+     */
+    @Test
+    public void testSyncroBufferGrowth() {
+        SyncroBuffer Buffer = new SyncroBuffer();
+        byte[] Leidos = new byte[150];
+        long Consumidos;
+
+        // 256 bytes iniciales: los siguientes 200 bytes cruzan el final
+        Buffer.put(pattern(0, 200));
+        assertEquals(150, Buffer.read(Leidos, 0, 150));
+        Buffer.put(pattern(200, 200));
+        // Crece a 1024 con los datos partidos
+        Buffer.put(pattern(400, 700));
+        Buffer.put((byte) 0x11);
+        assertEquals(951, Buffer.length());
+        Consumidos = 150;
+        assertArrayEquals(pattern(Consumidos, 950), Buffer.getBytes(950));
+        assertEquals(0x11, Buffer.getByte());
+        // Un bloque mayor a varias duplicaciones
+        Buffer.put(pattern(0, 100000));
+        assertArrayEquals(pattern(0, 100000), Buffer.getall());
+        assertNull(Buffer.getall());
+    }
+
+    @Test
+    public void testSyncroBufferProducerConsumer() throws Exception {
+
+        producerConsumer(new SyncroBuffer(), 32L * 1024 * 1024);
+    }
+
+    @Test
+    public void testSpscWrapAround() {
+        SpscSyncroBuffer Buffer = new SpscSyncroBuffer(200);
+
+        assertEquals(256, Buffer.getCapacity());
+        wrapAround(Buffer);
+    }
+
+    /**
+     * La capacidad no crece: con el buffer lleno el productor espera hasta
+     * que el consumidor libera espacio, y close lo libera descartando el
+     * resto.
+     */
+    @Test
+    public void testSpscFullWaitsForSpace() throws Exception {
+        final SpscSyncroBuffer Buffer = new SpscSyncroBuffer(64);
+        final long[] Fin = new long[1];
+        Thread Productor;
+        byte[] Leidos;
+
+        Productor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Buffer.put(pattern(0, 100));
+                Fin[0] = System.nanoTime();
+            }
+        });
+        Productor.start();
+        Thread.sleep(200);
+        assertTrue("Producer did not wait for space", Productor.isAlive());
+        assertEquals(64, Buffer.length());
+        Leidos = Buffer.getBytes(40);
+        assertArrayEquals(pattern(0, 40), Leidos);
+        Productor.join(5000);
+        assertTrue(Fin[0] > 0);
+        assertEquals(60, Buffer.length());
+        assertArrayEquals(pattern(40, 60), Buffer.getall());
+
+        // close libera al productor que espera
+        Productor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Buffer.put(pattern(0, 200));
+            }
+        });
+        Productor.start();
+        Thread.sleep(100);
+        assertTrue(Productor.isAlive());
+        Buffer.close();
+        Productor.join(5000);
+        assertTrue("Producer not released by close", !Productor.isAlive());
+        assertEquals(64, Buffer.length());
+        Buffer.put((byte) 1);
+        assertEquals(64, Buffer.length());
+    }
+
+    /**
+     * Con una capacidad menor a los bloques el productor y el consumidor se
+     * alternan esperando espacio y datos.
+     */
+    @Test
+    public void testSpscProducerConsumer() throws Exception {
+
+        producerConsumer(new SpscSyncroBuffer(4096), 32L * 1024 * 1024);
+    }
+}
@@ -0,0 +1,236 @@
+package com.bolivartech.utils.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas del BTRemoteHandler y el BTRemoteHandlerServer por loopback:
+ * agrupacion de mensajes en tramas, control de flujo por creditos con un
+ * handler local detenido, reconexion al reiniciar el servidor y descarte de
+ * los mensajes de una trama reenviada.
+ *
+ * @author Julian Bolivar
+ */
+public class BTRemoteHandlerTest {
+
+    private int Port;
+    private BTHandler Local;
+    private BTRemoteHandlerServer Server;
+    private BTRemoteHandler Remote;
+    // Numeros de los mensajes recibidos por el handler local en orden
+    private final List<Integer> Recibidos = Collections.synchronizedList(new ArrayList<Integer>());
+    // Detiene al handler local hasta que se libera
+    private volatile CountDownLatch Retener = new CountDownLatch(0);
+
+    @Before
+    public void setUp() throws Exception {
+
+        try (ServerSocket Libre = new ServerSocket(0)) {
+            this.Port = Libre.getLocalPort();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        this.Retener.countDown();
+        if (this.Remote != null) {
+            this.Remote.Stop(0);
+        }
+        if (this.Server != null) {
+            this.Server.Stop();
+        }
+        if (this.Local != null) {
+            this.Local.Shutdown(null);
+        }
+    }
+
+    /**
+     * Crea el handler local con una cola de "Size" mensajes y el servidor
+     */
+    private void startServer(int Size, int Window) throws Exception {
+
+        this.Local = new BTHandler(Size, null);
+        this.Local.setMessageHandler(new BTMessageHandler() {
+            @Override
+            public void handleMessage(BTMessage msg) {
+                try {
+                    Retener.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                Recibidos.add(msg.getInteger("n"));
+            }
+        });
+        this.Server = new BTRemoteHandlerServer(this.Port, this.Local, null);
+        this.Server.setCreditWindow(Window);
+        this.Server.Start();
+    }
+
+    /**
+     * Retorna el mensaje numero "Numero"
+     */
+    private static BTMessage message(int Numero) {
+        BTMessage Result = new BTMessage();
+
+        Result.setInteger("n", Numero);
+        return Result;
+    }
+
+    /**
+     * Envia los mensajes numerados de "Desde" hasta "Hasta" - 1
+     */
+    private void send(int Desde, int Hasta) {
+        int i;
+
+        for (i = Desde; i < Hasta; i++) {
+            assertTrue(this.Remote.sendMessage(message(i)));
+        }
+    }
+
+    /**
+     * Espera a que el handler local reciba "Total" mensajes y verifica que
+     * llegaron en orden y sin duplicados
+     */
+    private void awaitReceived(int Total) throws InterruptedException {
+        long Limite;
+        int i;
+
+        Limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while ((this.Recibidos.size() < Total) && (System.nanoTime() < Limite)) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(Total, this.Recibidos.size());
+        for (i = 0; i < Total; i++) {
+            assertEquals(Integer.valueOf(i), this.Recibidos.get(i));
+        }
+    }
+
+    /**
+     * Los mensajes encolados mientras se establece la conexion se envian
+     * agrupados en tramas de hasta BatchSize mensajes.
+     */
+    @Test
+    public void testBatching() throws Exception {
+        final int Mensajes = 3000;
+
+        this.startServer(0, 4096);
+        this.Remote = new BTRemoteHandler("127.0.0.1", this.Port, null);
+        this.Remote.setBatchSize(128);
+        this.send(0, Mensajes);
+        this.awaitReceived(Mensajes);
+        System.out.printf("BTRemoteHandler: %d messages in %d frames%n", this.Remote.getSentCount(), this.Remote.getFrameCount());
+        assertEquals(Mensajes, this.Remote.getSentCount());
+        assertTrue("Messages not batched", this.Remote.getFrameCount() < (Mensajes / 2));
+        assertTrue(this.Remote.getFrameCount() >= (Mensajes / 128));
+        assertEquals(0, this.Server.getDroppedCount());
+    }
+
+    /**
+     * Con el handler local detenido el servidor deja de devolver creditos al
+     * llenarse su cola, el remitente se detiene sin que se descarten mensajes
+     * y al liberar el handler se entregan todos.
+     */
+    @Test
+    public void testCreditFlowControl() throws Exception {
+        final int Mensajes = 1000;
+        final int Ventana = 16;
+        final int Cola = 32;
+
+        this.Retener = new CountDownLatch(1);
+        this.startServer(Cola, Ventana);
+        this.Remote = new BTRemoteHandler("127.0.0.1", this.Port, null);
+        this.Remote.setBatchSize(8);
+        this.send(0, Mensajes);
+        Thread.sleep(500);
+        // La ventana, la cola local y el lote que despacha el handler detenido
+        assertTrue("Sender not stopped by credits: " + this.Server.getReceivedCount(), this.Server.getReceivedCount() <= (Ventana + (2 * Cola) + 8));
+        assertTrue(this.Remote.getPendingCount() > 0);
+        this.Retener.countDown();
+        this.awaitReceived(Mensajes);
+        assertEquals(0, this.Server.getDroppedCount());
+        assertEquals(0, this.Remote.getRejectedCount());
+    }
+
+    /**
+     * Al detener el servidor el remitente conserva los mensajes y al
+     * reiniciarse se reconecta y los entrega en orden y una sola vez.
+     */
+    @Test
+    public void testReconnect() throws Exception {
+
+        this.startServer(0, 1024);
+        this.Remote = new BTRemoteHandler("127.0.0.1", this.Port, null);
+        this.send(0, 200);
+        this.awaitReceived(200);
+        this.Server.Stop();
+        Thread.sleep(200);
+        assertTrue(!this.Remote.isConnected());
+        this.send(200, 500);
+        Thread.sleep(200);
+        this.Server.Start();
+        this.awaitReceived(500);
+        assertTrue(this.Remote.getReconnectCount() >= 1);
+        assertEquals(0, this.Server.getDuplicatedCount());
+    }
+
+    /**
+     * Una trama reenviada por otra conexion de la misma sesion solo entrega
+     * los mensajes que aun no habian sido entregados.
+     */
+    @Test
+    public void testResentFrameNotDelivered() throws Exception {
+
+        this.startServer(0, 1024);
+        this.sendRaw(77, 1, 0, 1, 2);
+        this.awaitReceived(3);
+        // Reenvio de los mensajes 2 y 3 con el mensaje 4 en otra conexion
+        this.sendRaw(77, 2, 1, 2, 3);
+        this.awaitReceived(4);
+        assertEquals(2, this.Server.getDuplicatedCount());
+    }
+
+    /**
+     * Envia por una conexion nueva de la sesion "Sesion" una trama con los
+     * mensajes "Numeros" empezando en la secuencia "Primera"
+     */
+    private void sendRaw(long Sesion, long Primera, int... Numeros) throws Exception {
+        ByteArrayOutputStream Datos = new ByteArrayOutputStream();
+        DataOutputStream Mensajes = new DataOutputStream(Datos);
+        DataOutputStream Out;
+        DataInputStream In;
+
+        for (int Numero : Numeros) {
+            message(Numero).writeTo(Mensajes);
+        }
+        Mensajes.flush();
+        try (Socket s = new Socket("127.0.0.1", this.Port)) {
+            Out = new DataOutputStream(s.getOutputStream());
+            In = new DataInputStream(s.getInputStream());
+            Out.writeInt(BTRemoteHandler.PROTOCOL);
+            Out.writeLong(Sesion);
+            assertEquals(1024, In.readInt());
+            Out.writeInt(Datos.size());
+            Out.writeInt(Numeros.length);
+            Out.writeLong(Primera);
+            Datos.writeTo(Out);
+            Out.flush();
+            // Creditos devueltos por la trama
+            assertEquals(Numeros.length, In.readInt());
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.bolivartech.utils.kerneltasks;
+
+import com.bolivartech.utils.log.LoggerManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de los carriles seriales por llave de KernelTasks, del controlador
+ * del tamaño del pool y medicion de su rendimiento en tareas por segundo.
+ *
+ * @author Julian Bolivar
+ */
+public class KernelTasksTest {
+
+    private KernelTasks Kernel;
+
+    @Before
+    public void setUp() {
+        this.Kernel = new KernelTasks(null);
+    }
+
+    @After
+    public void tearDown() {
+        this.Kernel.Shutdown(this.Kernel.getControlKey());
+    }
+
+    /**
+     * Tarea que registra su secuencia en el carril de su llave y verifica que
+     * ninguna otra tarea de la misma llave se ejecute al mismo tiempo.
+     */
+    private static final class Registro extends BTTask {
+
+        private final List<Integer> Secuencia;
+        private final AtomicInteger Ejecutando;
+        private final AtomicInteger Solapadas;
+        private final CountDownLatch Fin;
+        private final int Numero;
+
+        Registro(List<Integer> Secuencia, AtomicInteger Ejecutando, AtomicInteger Solapadas, CountDownLatch Fin, int Numero) {
+            super(null);
+            this.Secuencia = Secuencia;
+            this.Ejecutando = Ejecutando;
+            this.Solapadas = Solapadas;
+            this.Fin = Fin;
+            this.Numero = Numero;
+        }
+
+        @Override
+        public void Execute(LoggerManager BTLogM) {
+
+            if (this.Ejecutando.incrementAndGet() != 1) {
+                this.Solapadas.incrementAndGet();
+            }
+            synchronized (this.Secuencia) {
+                this.Secuencia.add(this.Numero);
+            }
+            this.Ejecutando.decrementAndGet();
+            this.Fin.countDown();
+        }
+    }
+
+    /**
+     * Tarea vacia que solo marca su finalizacion.
+     */
+    private static final class Vacia extends BTTask {
+
+        private final CountDownLatch Fin;
+
+        Vacia(CountDownLatch Fin) {
+            super(null);
+            this.Fin = Fin;
+        }
+
+        @Override
+        public void Execute(LoggerManager BTLogM) {
+            this.Fin.countDown();
+        }
+    }
+
+    /**
+     * Las tareas de cada llave se ejecutan una a la vez y en el orden en que
+     * se agregaron, aunque varias hebras agreguen tareas de llaves distintas,
+     * y los carriles se liberan al terminar.
+     */
+    @Test
+    public void testKeyedOrder() throws Exception {
+        final int Llaves = 64;
+        final int PorLlave = 200;
+        final int Productores = 4;
+        final List<List<Integer>> Secuencias = new ArrayList<List<Integer>>();
+        final AtomicInteger[] Ejecutando = new AtomicInteger[Llaves];
+        final AtomicInteger Solapadas = new AtomicInteger(0);
+        final AtomicInteger Rechazadas = new AtomicInteger(0);
+        final CountDownLatch Fin = new CountDownLatch(Llaves * PorLlave);
+        Thread[] Hebras;
+        int i, j, Espera;
+
+        for (i = 0; i < Llaves; i++) {
+            Secuencias.add(new ArrayList<Integer>());
+            Ejecutando[i] = new AtomicInteger(0);
+        }
+        Hebras = new Thread[Productores];
+        for (i = 0; i < Productores; i++) {
+            final int Productor = i;
+            Hebras[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    int n, k;
+
+                    // Cada productor es dueño de las llaves k con k % Productores == Productor
+                    for (n = 0; n < PorLlave; n++) {
+                        for (k = Productor; k < Llaves; k += Productores) {
+                            if (!Kernel.addTask(Integer.valueOf(k), new Registro(Secuencias.get(k), Ejecutando[k], Solapadas, Fin, n))) {
+                                Rechazadas.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+            Hebras[i].start();
+        }
+        for (Thread Hebra : Hebras) {
+            Hebra.join();
+        }
+        assertEquals("Rejected tasks", 0, Rechazadas.get());
+        assertTrue("Tasks not finished", Fin.await(60, TimeUnit.SECONDS));
+        assertEquals("Tasks of the same key overlapped", 0, Solapadas.get());
+        for (i = 0; i < Llaves; i++) {
+            List<Integer> Secuencia = Secuencias.get(i);
+            assertEquals(PorLlave, Secuencia.size());
+            for (j = 0; j < PorLlave; j++) {
+                assertEquals("Key " + i + " out of order", j, Secuencia.get(j).intValue());
+            }
+        }
+        Espera = 0;
+        while ((this.Kernel.activeLanes() > 0) && (Espera < 100)) {
+            Thread.sleep(50);
+            Espera++;
+        }
+        assertEquals("Idle lanes not reclaimed", 0, this.Kernel.activeLanes());
+    }
+
+    /**
+     * Las tareas de llaves distintas se ejecutan en paralelo: la tarea de la
+     * llave A espera a la de la llave B, lo que no termina si los carriles se
+     * ejecutaran en serie.
+     */
+    @Test
+    public void testKeysRunInParallel() throws Exception {
+        final CountDownLatch LlaveB = new CountDownLatch(1);
+        final CountDownLatch Fin = new CountDownLatch(2);
+
+        assertTrue(this.Kernel.addTask("A", new BTTask(null) {
+            @Override
+            public void Execute(LoggerManager BTLogM) {
+                try {
+                    if (LlaveB.await(10, TimeUnit.SECONDS)) {
+                        Fin.countDown();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+        assertTrue(this.Kernel.addTask("B", new BTTask(null) {
+            @Override
+            public void Execute(LoggerManager BTLogM) {
+                LlaveB.countDown();
+                Fin.countDown();
+            }
+        }));
+        assertTrue("Lanes of different keys did not run in parallel", Fin.await(20, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Mide el rendimiento en tareas por segundo de las tareas sin llave y de
+     * los carriles seriales con 1, 16 y 1024 llaves.
+     */
+    @Test
+    public void testKeyedThroughput() throws Exception {
+        final int Tareas = 100000;
+        int[] Llaves = {0, 1, 16, 1024};
+        CountDownLatch Fin;
+        long Inicio, Tiempo;
+        int i, Ronda;
+
+        for (int NumLlaves : Llaves) {
+            Tiempo = 0;
+            // La primera ronda calienta el JIT
+            for (Ronda = 0; Ronda < 2; Ronda++) {
+                Fin = new CountDownLatch(Tareas);
+                Inicio = System.nanoTime();
+                for (i = 0; i < Tareas; i++) {
+                    if (NumLlaves == 0) {
+                        assertTrue(this.Kernel.addTask(new Vacia(Fin)));
+                    } else {
+                        assertTrue(this.Kernel.addTask(Integer.valueOf(i % NumLlaves), new Vacia(Fin)));
+                    }
+                }
+                assertTrue("Tasks not finished", Fin.await(120, TimeUnit.SECONDS));
+                Tiempo = System.nanoTime() - Inicio;
+            }
+            System.out.printf("KernelTasks %s: %.0f tasks/s%n", (NumLlaves == 0 ? "unkeyed" : NumLlaves + " keys"), Tareas * 1e9 / Tiempo);
+        }
+    }
+
+    /**
+     * Tarea que simula una espera de E/S de "Espera" milisegundos.
+     */
+    private static final class Bloqueante extends BTTask {
+
+        private final CountDownLatch Fin;
+        private final long Espera;
+
+        Bloqueante(CountDownLatch Fin, long Espera) {
+            super(null);
+            this.Fin = Fin;
+            this.Espera = Espera;
+        }
+
+        @Override
+        public void Execute(LoggerManager BTLogM) {
+            try {
+                Thread.sleep(this.Espera);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            this.Fin.countDown();
+        }
+    }
+
+    /**
+     * Con el controlador habilitado y tareas que esperan E/S acumuladas en la
+     * cola, el pool crece por encima de su tamaño inicial porque el
+     * rendimiento mejora con cada hebra; al quedar inactivo se reduce hasta el
+     * minimo.
+     */
+    @Test
+    public void testAdaptivePoolGrowsAndShrinks() throws Exception {
+        final int Tareas = 3000;
+        BTAdaptiveThreadPool.PoolMetrics Metricas;
+        CountDownLatch Fin;
+        long Limite;
+        int Inicial, Maximo;
+
+        this.Kernel.setAdaptivePoolSize(true, 1, 16);
+        Fin = new CountDownLatch(Tareas + 1);
+        assertTrue(this.Kernel.addTask(new Bloqueante(Fin, 0)));
+        Metricas = this.Kernel.getPoolMetrics();
+        Limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((Metricas == null) && (System.nanoTime() < Limite)) {
+            Thread.sleep(10);
+            Metricas = this.Kernel.getPoolMetrics();
+        }
+        assertTrue("Kernel not started", Metricas != null);
+        assertTrue(Metricas.isAdaptive());
+        Inicial = Metricas.getPoolSize();
+        for (int i = 0; i < Tareas; i++) {
+            assertTrue(this.Kernel.addTask(new Bloqueante(Fin, 10)));
+        }
+        Maximo = Inicial;
+        Limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(90);
+        while ((Fin.getCount() > 0) && (System.nanoTime() < Limite)) {
+            Thread.sleep(100);
+            Maximo = Math.max(Maximo, this.Kernel.getPoolMetrics().getPoolSize());
+        }
+        assertEquals("Tasks not finished", 0, Fin.getCount());
+        Metricas = this.Kernel.getPoolMetrics();
+        System.out.printf("KernelTasks adaptive pool: %d threads at start, %d at most, %d grows%n", Inicial, Maximo, Metricas.getGrows());
+        assertTrue("Pool did not grow under an I/O bound backlog", Maximo > Inicial);
+        assertTrue(Metricas.getGrows() > 0);
+        // Inactivo, el controlador reduce una hebra por muestra hasta el minimo
+        Limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((this.Kernel.getPoolMetrics().getPoolSize() > 1) && (System.nanoTime() < Limite)) {
+            Thread.sleep(100);
+        }
+        Metricas = this.Kernel.getPoolMetrics();
+        assertEquals("Idle pool not shrunk to the minimum", 1, Metricas.getPoolSize());
+        assertTrue(Metricas.getShrinks() >= (Maximo - 1));
+    }
+}
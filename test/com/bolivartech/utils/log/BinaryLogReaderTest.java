@@ -0,0 +1,196 @@
+package com.bolivartech.utils.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de BinaryLogReader sobre un segmento escrito por FileLogger en el
+ * formato binario: lectura completa, rango de tiempo y filtro de tipos y
+ * niveles, tanto en el segmento cerrado con indice como en una copia sin
+ * indice como la de un segmento que no se cerro.
+ *
+ * @author Julian Bolivar
+ */
+public class BinaryLogReaderTest {
+
+    // Registros escritos, milisegundos entre registros y cada cuantos hay un error
+    private static final int REGISTROS = 6000;
+    private static final long PASO = 10;
+    private static final int ERRORES = 100;
+    // Unidades distintas usadas por los registros
+    private static final int UNIDADES = 7;
+
+    private FileLogger Logger;
+    private File Directorio;
+    private File Segmento;
+    private long Base;
+
+    @Before
+    public void setUp() throws Exception {
+        File[] Archivos;
+        int i;
+
+        this.Directorio = Files.createTempDirectory("btblog").toFile();
+        this.Logger = FileLogger.getInstance();
+        this.Logger.setSaveEventTypes(FileLogger.TYPE_ALL);
+        this.Logger.setSaveRegLevel(FileLogger.LEVEL_ALL);
+        this.Logger.setRotateFileSizeThreshold(1024);
+        this.Logger.setRotateFileTimeThreshold(60);
+        this.Logger.setCompressRotated(false);
+        this.Logger.setBinaryFormat(true);
+        this.Logger.setFullFileDescriptor(this.Directorio.getAbsolutePath(), "binario");
+        this.Base = System.currentTimeMillis() - (REGISTROS * PASO);
+        for (i = 0; i < REGISTROS; i++) {
+            if ((i % ERRORES) == 0) {
+                this.Logger.LogMessage(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, unit(i), message(i), this.Base + (i * PASO));
+            } else {
+                this.Logger.LogMessage(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, unit(i), message(i), this.Base + (i * PASO));
+            }
+        }
+        // Al detenerse el logger cierra el segmento con su indice
+        this.Logger.Shutdown();
+        this.Logger.setBinaryFormat(false);
+        Archivos = this.Directorio.listFiles();
+        assertNotNull(Archivos);
+        for (File Archivo : Archivos) {
+            if (Archivo.getName().endsWith(".blog")) {
+                this.Segmento = Archivo;
+            }
+        }
+        assertNotNull("Binary segment not written", this.Segmento);
+    }
+
+    @After
+    public void tearDown() {
+        File[] Archivos;
+
+        Archivos = this.Directorio.listFiles();
+        if (Archivos != null) {
+            for (File Archivo : Archivos) {
+                Archivo.delete();
+            }
+        }
+        this.Directorio.delete();
+    }
+
+    /**
+     * Retorna la unidad del registro "Numero"
+     */
+    private static String unit(int Numero) {
+        return "Unit" + (Numero % UNIDADES);
+    }
+
+    /**
+     * Retorna el mensaje del registro "Numero"
+     */
+    private static String message(int Numero) {
+        return "binary record " + Numero + " ñ";
+    }
+
+    /**
+     * Copia el segmento sin el indice ni el pie, como un segmento que no se
+     * cerro, y retorna la copia
+     */
+    private File unindexedCopy() throws IOException {
+        File Result;
+        long Indice;
+
+        Result = new File(this.Directorio, "abierto.blog");
+        Files.copy(this.Segmento.toPath(), Result.toPath());
+        try (RandomAccessFile Archivo = new RandomAccessFile(Result, "rw")) {
+            // El pie termina con el desplazamiento del indice y la marca
+            Archivo.seek(Archivo.length() - BinaryLogWriter.FOOTERMAGIC.length - 8);
+            Indice = Archivo.readLong();
+            Archivo.setLength(Indice);
+        }
+        return Result;
+    }
+
+    /**
+     * Lee los registros con "Reader" y verifica que sean los numeros de
+     * "Desde" a "Hasta" con paso "Salto", retornando cuantos leyo
+     */
+    private static int verify(BinaryLogReader Reader, int Desde, int Hasta, int Salto, long Base) throws Exception {
+        BinaryLogReader.Record Registro;
+        int Numero, Result;
+
+        Result = 0;
+        Numero = Desde;
+        while ((Registro = Reader.next()) != null) {
+            assertTrue("Unexpected record " + Registro.getMessaje(), Numero <= Hasta);
+            assertEquals(message(Numero), Registro.getMessaje());
+            assertEquals(unit(Numero), Registro.getUnit());
+            assertEquals(Base + (Numero * PASO), Registro.getTimeMillis());
+            assertEquals(((Numero % ERRORES) == 0 ? LoggerManager.TYPE_ERROR : LoggerManager.TYPE_EVENT), Registro.getType());
+            Numero += Salto;
+            Result++;
+        }
+        return Result;
+    }
+
+    /**
+     * Recorre el segmento completo, un rango de tiempo, el rango con el
+     * filtro de errores y de nuevo el segmento completo despues de rebobinar
+     */
+    private void readAll(BinaryLogReader Reader) throws Exception {
+        BinaryLogReader.Record Registro;
+        int Total;
+
+        assertEquals(REGISTROS, verify(Reader, 0, REGISTROS - 1, 1, this.Base));
+        assertNull(Reader.next());
+        Reader.setRange(this.Base + (1000 * PASO), this.Base + (2000 * PASO));
+        assertEquals(1001, verify(Reader, 1000, 2000, 1, this.Base));
+        Reader.setFilter(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR);
+        Reader.rewind();
+        assertEquals(11, verify(Reader, 1000, 2000, ERRORES, this.Base));
+        // Sin los errores, 14 de ellos desde el registro 4501
+        Reader.setFilter(BinaryLogReader.TYPE_ALL, LoggerManager.LEVEL_INFO);
+        Reader.setRange(this.Base + (4500 * PASO) + 1, Long.MAX_VALUE);
+        Total = 0;
+        while ((Registro = Reader.next()) != null) {
+            assertEquals(LoggerManager.LEVEL_INFO, Registro.getLevel());
+            assertTrue(Registro.getTimeMillis() > (this.Base + (4500 * PASO)));
+            Total++;
+        }
+        assertEquals(REGISTROS - 4501 - 14, Total);
+        Reader.setFilter(BinaryLogReader.TYPE_ALL, BinaryLogReader.LEVEL_ALL);
+        Reader.setRange(Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(REGISTROS, verify(Reader, 0, REGISTROS - 1, 1, this.Base));
+    }
+
+    @Test
+    public void testIndexedSegment() throws Exception {
+        BinaryLogReader Reader;
+
+        Reader = new BinaryLogReader(this.Segmento.getAbsolutePath());
+        try {
+            assertTrue("Closed segment without index", Reader.isIndexed());
+            this.readAll(Reader);
+        } finally {
+            Reader.close();
+        }
+    }
+
+    @Test
+    public void testUnindexedSegment() throws Exception {
+        BinaryLogReader Reader;
+
+        Reader = new BinaryLogReader(this.unindexedCopy().getAbsolutePath());
+        try {
+            assertFalse(Reader.isIndexed());
+            this.readAll(Reader);
+        } finally {
+            Reader.close();
+        }
+    }
+}
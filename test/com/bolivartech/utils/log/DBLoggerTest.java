@@ -0,0 +1,369 @@
+package com.bolivartech.utils.log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListResourceBundle;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de DBLogger contra un driver JDBC simulado, verifica que los lotes
+ * se guardan, que una conexion caida se reemplaza por una nueva del pool sin
+ * recurrir a la insercion registro por registro y que un registro rechazado
+ * por la base de datos solo se pierde el.
+ *
+ * @author Julian Bolivar
+ */
+public class DBLoggerTest {
+
+    private static final String URL = "jdbc:btstub:logger";
+    private static final String REJECTED = "REJECTED";
+
+    // Registros confirmados con commit en la base de datos simulada
+    private static final List<String> Guardados = new ArrayList<String>();
+    // Inserciones registro por registro
+    private static final AtomicInteger FilaPorFila = new AtomicInteger(0);
+    // Conexiones abiertas y cerradas por el pool
+    private static final AtomicInteger Abiertas = new AtomicInteger(0);
+    private static final AtomicInteger Cerradas = new AtomicInteger(0);
+    // Si es TRUE la siguiente conexion que ejecute un lote queda caida
+    private static volatile boolean Caer = false;
+
+    static {
+        try {
+            DriverManager.registerDriver(new StubDriver());
+        } catch (SQLException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private DBLogger Logger;
+
+    @Before
+    public void setUp() {
+        synchronized (Guardados) {
+            Guardados.clear();
+        }
+        FilaPorFila.set(0);
+        Abiertas.set(0);
+        Cerradas.set(0);
+        Caer = false;
+        this.Logger = DBLogger.getInstance();
+        this.Logger.setDBDescriptor(Descriptor.class.getName());
+        this.Logger.setSaveEventTypes(DBLogger.TYPE_ALL);
+        this.Logger.setSaveRegLevel(DBLogger.LEVEL_ALL);
+    }
+
+    @After
+    public void tearDown() {
+        this.Logger.Shutdown();
+    }
+
+    /**
+     * Descriptor de la base de datos simulada usado por el pool de conexiones.
+     */
+    public static class Descriptor extends ListResourceBundle {
+
+        @Override
+        protected Object[][] getContents() {
+            return new Object[][]{
+                {"database.driver", StubDriver.class.getName()},
+                {"database.url", URL},
+                {"database.username", "logger"},
+                {"database.password", "logger"}
+            };
+        }
+    }
+
+    /**
+     * Driver JDBC que simula la tabla de bitacoras en memoria.
+     */
+    public static class StubDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            Connection Result = null;
+
+            if (this.acceptsURL(url)) {
+                Abiertas.incrementAndGet();
+                Result = (Connection) Proxy.newProxyInstance(DBLoggerTest.class.getClassLoader(), new Class<?>[]{Connection.class}, new StubConnection());
+            }
+            return Result;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    /**
+     * Retorna el valor por defecto del tipo de retorno del metodo.
+     */
+    private static Object Defecto(Method Metodo) {
+        Object Result = null;
+        Class<?> Tipo = Metodo.getReturnType();
+
+        if (Tipo == boolean.class) {
+            Result = Boolean.FALSE;
+        } else if (Tipo == int.class) {
+            Result = Integer.valueOf(0);
+        } else if (Tipo == long.class) {
+            Result = Long.valueOf(0);
+        }
+        return Result;
+    }
+
+    /**
+     * Conexion simulada, al caer todas sus operaciones fallan con
+     * SQLTransientConnectionException e isValid retorna FALSE.
+     */
+    private static final class StubConnection implements InvocationHandler {
+
+        private boolean AutoCommit = true;
+        private boolean Caida = false;
+        private boolean Cerrada = false;
+        private final List<String> Pendientes = new ArrayList<String>();
+
+        void check() throws SQLException {
+            if (this.Caida) {
+                throw new SQLTransientConnectionException("Communications link failure", "08S01");
+            }
+        }
+
+        void add(List<String> Filas) {
+            this.Pendientes.addAll(Filas);
+            if (this.AutoCommit) {
+                this.commit();
+            }
+        }
+
+        void commit() {
+            synchronized (Guardados) {
+                Guardados.addAll(this.Pendientes);
+            }
+            this.Pendientes.clear();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object Result = null;
+            String Nombre = method.getName();
+
+            if (Nombre.equals("equals")) {
+                Result = (proxy == args[0]);
+            } else if (Nombre.equals("hashCode")) {
+                Result = System.identityHashCode(proxy);
+            } else if (Nombre.equals("toString")) {
+                Result = "StubConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+            } else if (Nombre.equals("isClosed")) {
+                Result = this.Cerrada;
+            } else if (Nombre.equals("isValid")) {
+                Result = !this.Caida && !this.Cerrada;
+            } else if (Nombre.equals("close")) {
+                if (!this.Cerrada) {
+                    this.Cerrada = true;
+                    Cerradas.incrementAndGet();
+                }
+            } else {
+                this.check();
+                if (Nombre.equals("getAutoCommit")) {
+                    Result = this.AutoCommit;
+                } else if (Nombre.equals("setAutoCommit")) {
+                    this.AutoCommit = (Boolean) args[0];
+                } else if (Nombre.equals("commit")) {
+                    this.commit();
+                } else if (Nombre.equals("rollback")) {
+                    this.Pendientes.clear();
+                } else if (Nombre.equals("prepareStatement")) {
+                    Result = Proxy.newProxyInstance(DBLoggerTest.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, new StubStatement(this));
+                } else {
+                    Result = Defecto(method);
+                }
+            }
+            return Result;
+        }
+    }
+
+    /**
+     * Sentencia de insercion simulada, rechaza los mensajes REJECTED con el
+     * SQLState 22001 (dato demasiado largo).
+     */
+    private static final class StubStatement implements InvocationHandler {
+
+        private final StubConnection Conexion;
+        private final Map<Integer, Object> Parametros = new HashMap<Integer, Object>();
+        private final List<String> Lote = new ArrayList<String>();
+
+        StubStatement(StubConnection Conexion) {
+            this.Conexion = Conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object Result = null;
+            String Nombre = method.getName();
+            List<String> Fila;
+
+            if (Nombre.equals("close") || Nombre.equals("equals") || Nombre.equals("hashCode") || Nombre.equals("toString")) {
+                Result = (Nombre.equals("equals") ? (proxy == args[0]) : (Nombre.equals("hashCode") ? System.identityHashCode(proxy) : (Nombre.equals("toString") ? "StubStatement" : null)));
+            } else {
+                this.Conexion.check();
+                if (Nombre.startsWith("set")) {
+                    this.Parametros.put((Integer) args[0], args[1]);
+                } else if (Nombre.equals("addBatch")) {
+                    this.Lote.add((String) this.Parametros.get(5));
+                } else if (Nombre.equals("executeBatch")) {
+                    if (Caer) {
+                        Caer = false;
+                        this.Conexion.Caida = true;
+                        this.Conexion.check();
+                    }
+                    if (this.Lote.contains(REJECTED)) {
+                        this.Lote.clear();
+                        throw new BatchUpdateException("Data too long", "22001", 0, new int[0]);
+                    }
+                    this.Conexion.add(this.Lote);
+                    Result = new int[this.Lote.size()];
+                    this.Lote.clear();
+                } else if (Nombre.equals("executeUpdate")) {
+                    FilaPorFila.incrementAndGet();
+                    if (REJECTED.equals(this.Parametros.get(5))) {
+                        throw new SQLException("Data too long", "22001");
+                    }
+                    Fila = new ArrayList<String>();
+                    Fila.add((String) this.Parametros.get(5));
+                    this.Conexion.add(Fila);
+                    Result = Integer.valueOf(1);
+                } else {
+                    Result = Defecto(method);
+                }
+            }
+            return Result;
+        }
+    }
+
+    /**
+     * Espera hasta que la base de datos simulada tenga "Count" registros.
+     */
+    private int awaitSaved(int Count) throws InterruptedException {
+        int Result, Espera;
+
+        Espera = 0;
+        do {
+            synchronized (Guardados) {
+                Result = Guardados.size();
+            }
+            if (Result < Count) {
+                Thread.sleep(20);
+                Espera++;
+            }
+        } while ((Result < Count) && (Espera < 1000));
+        return Result;
+    }
+
+    /**
+     * Publica "Count" mensajes con el prefijo dado.
+     */
+    private void publish(String Prefijo, int Count) {
+        int i;
+
+        for (i = 0; i < Count; i++) {
+            this.Logger.LogMessage(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, "DBLoggerTest", Prefijo + i);
+        }
+    }
+
+    /**
+     * Todos los mensajes se guardan por lotes sin insercion registro por
+     * registro.
+     */
+    @Test
+    public void testAllRowsSaved() throws Exception {
+
+        this.publish("row-", 1000);
+        assertEquals(1000, this.awaitSaved(1000));
+        assertEquals("Row by row inserts", 0, FilaPorFila.get());
+    }
+
+    /**
+     * Si la conexion cae el lote se guarda en una conexion nueva del pool, la
+     * conexion caida se cierra y no se insertan los mensajes uno por uno.
+     */
+    @Test
+    public void testDeadConnectionReplaced() throws Exception {
+
+        this.publish("before-", 10);
+        assertEquals(10, this.awaitSaved(10));
+        Caer = true;
+        this.publish("after-", 500);
+        assertEquals("Messages lost after the connection dropped", 510, this.awaitSaved(510));
+        assertFalse("Connection was never dropped", Caer);
+        assertTrue("Dead connection not closed", Cerradas.get() >= 1);
+        assertEquals("Row by row inserts on a dead connection", 0, FilaPorFila.get());
+    }
+
+    /**
+     * Si la base de datos rechaza un mensaje el lote se guarda registro por
+     * registro y solo se pierde el mensaje rechazado.
+     */
+    @Test
+    public void testRejectedRowOnly() throws Exception {
+
+        this.publish("ok-", 50);
+        this.Logger.LogMessage(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, "DBLoggerTest", REJECTED);
+        this.publish("ok2-", 50);
+        assertEquals(100, this.awaitSaved(100));
+        Thread.sleep(200);
+        synchronized (Guardados) {
+            assertEquals(100, Guardados.size());
+            assertFalse(Guardados.contains(REJECTED));
+        }
+        assertTrue("No row by row fallback", FilaPorFila.get() > 0);
+        assertEquals("Connection closed on a data error", 0, Cerradas.get());
+    }
+}
@@ -0,0 +1,166 @@
+package com.bolivartech.utils.log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas del filtro isEnabled de los manejadores de bitacoras y de
+ * DeferredLogMessage: el texto del mensaje se genera una sola vez en la hebra
+ * del manejador y no se genera para los eventos descartados por el filtro.
+ *
+ * @author Julian Bolivar
+ */
+public class DeferredLogMessageTest {
+
+    private static final String UNIT = "DeferredLogMessageTest";
+
+    private PrinterLogger Printer;
+    private Logger Unidad;
+    private Handler Captura;
+    // Textos publicados por PrinterLogger para la unidad de la prueba
+    private final List<String> Textos = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * Argumento que cuenta sus conversiones a texto y guarda la hebra de la
+     * ultima
+     */
+    private static final class Argumento {
+
+        final AtomicInteger Conversiones = new AtomicInteger(0);
+        volatile Thread Hebra = null;
+        volatile String Valor = "first";
+
+        @Override
+        public String toString() {
+            this.Conversiones.incrementAndGet();
+            this.Hebra = Thread.currentThread();
+            return this.Valor;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        this.Unidad = Logger.getLogger(UNIT);
+        this.Unidad.setUseParentHandlers(false);
+        this.Unidad.setLevel(Level.ALL);
+        this.Captura = new Handler() {
+            @Override
+            public void publish(LogRecord Registro) {
+                Textos.add(Registro.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        this.Unidad.addHandler(this.Captura);
+        this.Printer = PrinterLogger.getInstance();
+        this.Printer.setSaveEventTypes(LoggerManager.TYPE_ERROR);
+        this.Printer.setSaveRegLevel(LoggerManager.LEVEL_ERROR | LoggerManager.LEVEL_FATAL);
+    }
+
+    @After
+    public void tearDown() {
+        this.Printer.Shutdown();
+        this.Printer.setSaveEventTypes(LoggerRouter.TYPE_ALL);
+        this.Printer.setSaveRegLevel(LoggerRouter.LEVEL_ALL);
+        this.Unidad.removeHandler(this.Captura);
+    }
+
+    /**
+     * Espera a que PrinterLogger publique "Total" textos
+     */
+    private void awaitTexts(int Total) throws InterruptedException {
+        long Limite;
+
+        Limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((this.Textos.size() < Total) && (System.nanoTime() < Limite)) {
+            Thread.sleep(10);
+        }
+        assertEquals(Total, this.Textos.size());
+    }
+
+    /**
+     * isEnabled sigue las mascaras de tipos y niveles del manejador, y el
+     * router solo acepta los eventos que algun sink guarda.
+     */
+    @Test
+    public void testIsEnabled() throws Exception {
+        LoggerRouter Router;
+
+        assertTrue(this.Printer.isEnabled(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR));
+        assertTrue(this.Printer.isEnabled(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_FATAL));
+        assertFalse(this.Printer.isEnabled(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_ERROR));
+        assertFalse(this.Printer.isEnabled(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_INFO));
+        this.Printer.setSaveRegLevel(LoggerRouter.LEVEL_ALL);
+        assertTrue(this.Printer.isEnabled(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_INFO));
+
+        Router = new LoggerRouter();
+        try {
+            assertFalse("Router without sinks enabled", Router.isEnabled(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR));
+            Router.addSink(this.Printer, LoggerManager.TYPE_ERROR | LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_ERROR, 1024, LoggerRouter.POLICY_BLOCK);
+            assertTrue(Router.isEnabled(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR));
+            // El sink lo acepta pero el manejador no guarda eventos
+            assertFalse(Router.isEnabled(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_ERROR));
+            // El manejador lo guarda pero el sink no lo acepta
+            assertFalse(Router.isEnabled(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_INFO));
+        } finally {
+            Router.Shutdown();
+        }
+    }
+
+    /**
+     * El argumento de un mensaje diferido se convierte a texto una sola vez,
+     * en la hebra de PrinterLogger y no en la que registra; el de un evento
+     * descartado por el filtro nunca se convierte.
+     */
+    @Test
+    public void testRenderedOnConsumerThread() throws Exception {
+        Argumento Guardado, Descartado;
+
+        Guardado = new Argumento();
+        Descartado = new Argumento();
+        this.Printer.LogMessage(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, UNIT, new DeferredLogMessage("TESTLOC001", "dropped {}", new Object[]{Descartado}, null, false));
+        this.Printer.LogMessage(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, UNIT, new DeferredLogMessage("TESTLOC002", "kept {} of {}", new Object[]{Guardado, 2}, null, false));
+        this.awaitTexts(1);
+        assertTrue(this.Textos.get(0), this.Textos.get(0).endsWith("(TESTLOC002) kept first of 2"));
+        assertEquals(1, Guardado.Conversiones.get());
+        assertNotSame("Message rendered by the producer", Thread.currentThread(), Guardado.Hebra);
+        assertEquals(0, Descartado.Conversiones.get());
+    }
+
+    /**
+     * Los argumentos se guardan por referencia: el texto muestra el valor que
+     * tiene el argumento cuando se genera, y una vez generado no cambia.
+     */
+    @Test
+    public void testArgumentsCapturedByReference() {
+        Argumento Mutable = new Argumento();
+        DeferredLogMessage Diferido;
+
+        Diferido = new DeferredLogMessage("TESTLOC003", "value {}", new Object[]{Mutable}, null, false);
+        Mutable.Valor = "second";
+        assertEquals("(TESTLOC003) value second", Diferido.toString());
+        Mutable.Valor = "third";
+        assertEquals("(TESTLOC003) value second", Diferido.toString());
+        assertEquals(1, Mutable.Conversiones.get());
+    }
+}
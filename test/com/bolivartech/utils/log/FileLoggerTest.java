@@ -0,0 +1,142 @@
+package com.bolivartech.utils.log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de la escritura por lotes de FileLogger y medicion de su
+ * rendimiento en lineas por segundo.
+ *
+ * @author Julian Bolivar
+ */
+public class FileLoggerTest {
+
+    // Marca de las lineas escritas por las pruebas
+    private static final String MARCA = "FileLoggerTest";
+
+    private FileLogger Logger;
+    private File Directorio;
+
+    @Before
+    public void setUp() throws IOException {
+        this.Directorio = Files.createTempDirectory("btlog").toFile();
+        this.Logger = FileLogger.getInstance();
+        this.Logger.setSaveEventTypes(FileLogger.TYPE_ALL);
+        this.Logger.setSaveRegLevel(FileLogger.LEVEL_ALL);
+        // Sin rotacion durante las pruebas, 1 GB y 60 minutos
+        this.Logger.setRotateFileSizeThreshold(1024);
+        this.Logger.setRotateFileTimeThreshold(60);
+        this.Logger.setCompressRotated(false);
+        this.Logger.setBinaryFormat(false);
+    }
+
+    @After
+    public void tearDown() {
+        File[] Archivos;
+
+        this.Logger.Shutdown();
+        this.Logger.setMappedMode(false);
+        this.Logger.setSyncOnFlush(false);
+        Archivos = this.Directorio.listFiles();
+        if (Archivos != null) {
+            for (File Archivo : Archivos) {
+                Archivo.delete();
+            }
+        }
+        this.Directorio.delete();
+    }
+
+    /**
+     * Escribe "Lineas" lineas con el nombre base "Base" y espera a que el
+     * logger las vuelque al archivo, retornando el tiempo en nanosegundos que
+     * tomo publicarlas y el tiempo total hasta detener el logger.
+     */
+    private long[] escribir(String Base, int Lineas) {
+        long[] Tiempos = new long[2];
+        long Inicio;
+        int i;
+
+        this.Logger.setFullFileDescriptor(this.Directorio.getAbsolutePath(), Base);
+        Inicio = System.nanoTime();
+        for (i = 0; i < Lineas; i++) {
+            this.Logger.LogMessage(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, MARCA, MARCA + " line " + i);
+        }
+        Tiempos[0] = System.nanoTime() - Inicio;
+        this.Logger.Shutdown();
+        Tiempos[1] = System.nanoTime() - Inicio;
+        return Tiempos;
+    }
+
+    /**
+     * Cuenta las lineas de las pruebas en los archivos de texto con el nombre
+     * base "Base".
+     */
+    private int contar(String Base) throws IOException {
+        File[] Archivos;
+        String Linea;
+        int Total = 0;
+
+        Archivos = this.Directorio.listFiles();
+        assertTrue("Log directory not readable", Archivos != null);
+        for (File Archivo : Archivos) {
+            if (Archivo.getName().contains(Base) && Archivo.getName().endsWith(".log")) {
+                try (BufferedReader In = Files.newBufferedReader(Archivo.toPath(), StandardCharsets.UTF_8)) {
+                    while ((Linea = In.readLine()) != null) {
+                        if (Linea.contains(MARCA + " line ")) {
+                            Total++;
+                        }
+                    }
+                }
+            }
+        }
+        return Total;
+    }
+
+    /**
+     * Todas las lineas publicadas se escriben en el archivo al detener el
+     * logger, en el modo por canal y en el modo mapeado.
+     */
+    @Test
+    public void testAllLinesWritten() throws Exception {
+
+        this.escribir("canal", 20000);
+        assertEquals("Lines lost in channel mode", 20000, this.contar("canal"));
+        this.Logger.setMappedMode(true);
+        this.escribir("mapeado", 20000);
+        assertEquals("Lines lost in mapped mode", 20000, this.contar("mapeado"));
+    }
+
+    /**
+     * Mide el rendimiento en lineas por segundo del modo por canal, del modo
+     * con fsync por lote y del modo mapeado, tanto al publicar como hasta que
+     * el logger se detiene con todas las lineas escritas. El tiempo total
+     * incluye la espera de hasta 500 ms de Shutdown.
+     */
+    @Test
+    public void testThroughput() throws Exception {
+        final int Lineas = 200000;
+        String[] Modos = {"buffered", "fsync", "mapped"};
+        long[] Tiempos;
+        int Ronda;
+
+        for (String Modo : Modos) {
+            this.Logger.setSyncOnFlush(Modo.equals("fsync"));
+            this.Logger.setMappedMode(Modo.equals("mapped"));
+            Tiempos = null;
+            // La primera ronda calienta el JIT
+            for (Ronda = 0; Ronda < 2; Ronda++) {
+                Tiempos = this.escribir(Modo + Ronda, Lineas);
+                assertEquals("Lines lost in " + Modo + " mode", Lineas, this.contar(Modo + Ronda));
+            }
+            System.out.printf("FileLogger %s: %.0f lines/s published, %.0f lines/s written%n", Modo, Lineas * 1e9 / Tiempos[0], Lineas * 1e9 / Tiempos[1]);
+        }
+    }
+}
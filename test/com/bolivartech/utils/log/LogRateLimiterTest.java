@@ -0,0 +1,120 @@
+package com.bolivartech.utils.log;
+
+import com.bolivartech.utils.exception.UtilsException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de LogRateLimiter: la rafaga y el relleno del balde de fichas de
+ * cada ubicacion, la cuenta de suprimidos retornada al recuperar ficha y los
+ * resumenes de flush.
+ *
+ * @author Julian Bolivar
+ */
+public class LogRateLimiterTest {
+
+    private static final String CLASE = "TESTCLS";
+
+    /**
+     * Cada ubicacion tiene su balde: tras la rafaga los mensajes se suprimen,
+     * al rellenarse el balde acquire retorna cuantos se suprimieron y la
+     * cuenta se reinicia.
+     */
+    @Test
+    public void testTokenBucket() throws Exception {
+        LogRateLimiter Limiter = new LogRateLimiter(10, 5, 60000);
+        int i;
+
+        for (i = 0; i < 5; i++) {
+            assertEquals(0, Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "error"));
+        }
+        for (i = 0; i < 20; i++) {
+            assertEquals(LogRateLimiter.SUPPRESSED, Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "error"));
+        }
+        // Otra ubicacion de la misma clase no comparte el balde
+        assertEquals(0, Limiter.acquire(CLASE, "002", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "other"));
+        assertEquals(20, Limiter.getSuppressedCount());
+        // A 10 mensajes por segundo en 250 ms hay al menos 2 fichas
+        Thread.sleep(250);
+        assertEquals(20, Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "error"));
+        assertEquals(0, Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "error"));
+        // El balde no acumula mas de Burst fichas
+        Thread.sleep(1000);
+        for (i = 0; i < 5; i++) {
+            assertEquals(0, Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "error"));
+        }
+        assertEquals(LogRateLimiter.SUPPRESSED, Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "error"));
+    }
+
+    /**
+     * flush retorna un resumen por ubicacion con mensajes suprimidos, con el
+     * tipo, nivel y plantilla del ultimo, y reinicia las cuentas; los
+     * suprimidos ya reportados por flush no se vuelven a reportar en acquire.
+     */
+    @Test
+    public void testSummaries() throws Exception {
+        LogRateLimiter Limiter = new LogRateLimiter(0.001, 1, 60000);
+        Map<String, LogRateLimiter.Summary> Resumenes;
+        List<LogRateLimiter.Summary> Lista;
+        LogRateLimiter.Summary Resumen;
+        int i;
+
+        for (i = 0; i < 4; i++) {
+            Limiter.acquire(CLASE, "001", LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, "first");
+        }
+        Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_WARNING, "last");
+        for (i = 0; i < 8; i++) {
+            Limiter.acquire(null, null, LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, "unknown");
+        }
+        Limiter.acquire(CLASE, "003", LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, "once");
+        Lista = Limiter.flush();
+        Resumenes = new HashMap<String, LogRateLimiter.Summary>();
+        for (LogRateLimiter.Summary Item : Lista) {
+            Resumenes.put(Item.getLocationID(), Item);
+        }
+        // La ubicacion 003 no suprimio mensajes
+        assertEquals(2, Lista.size());
+        Resumen = Resumenes.get(CLASE + "001");
+        assertEquals(4, Resumen.getCount());
+        assertEquals(LoggerManager.TYPE_ERROR, Resumen.getType());
+        assertEquals(LoggerManager.LEVEL_WARNING, Resumen.getLevel());
+        assertEquals("last", Resumen.getTemplate());
+        assertEquals(7, Resumenes.get("??????????").getCount());
+        assertEquals(11, Limiter.getSuppressedCount());
+        assertTrue(Limiter.flush().isEmpty());
+        // Sin fichas el siguiente mensaje vuelve a contarse desde cero
+        Limiter.acquire(CLASE, "001", LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, "again");
+        assertEquals(1, Limiter.flush().get(0).getCount());
+    }
+
+    /**
+     * La tasa, la rafaga y el intervalo de resumen deben ser positivos
+     */
+    @Test
+    public void testInvalidParameters() {
+
+        try {
+            new LogRateLimiter(0, 1, 1000);
+            fail("Zero rate accepted");
+        } catch (UtilsException ex) {
+            assertEquals(LogRateLimiter.ERROR_INVALIDRATE, ex.getErrorCode());
+        }
+        try {
+            new LogRateLimiter(1, 0, 1000);
+            fail("Zero burst accepted");
+        } catch (UtilsException ex) {
+            assertEquals(LogRateLimiter.ERROR_INVALIDRATE, ex.getErrorCode());
+        }
+        try {
+            new LogRateLimiter(1, 1, 0);
+            fail("Zero interval accepted");
+        } catch (UtilsException ex) {
+            assertEquals(LogRateLimiter.ERROR_INVALIDINTERVAL, ex.getErrorCode());
+        }
+    }
+}
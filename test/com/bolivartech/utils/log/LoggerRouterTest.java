@@ -0,0 +1,113 @@
+package com.bolivartech.utils.log;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de LoggerRouter: el instante guardado de cada evento es el de su
+ * registro en el router aunque el sink lo reciba mucho despues.
+ *
+ * @author Julian Bolivar
+ */
+public class LoggerRouterTest {
+
+    private static final String UNIT = "LoggerRouterTest";
+
+    /**
+     * Retorna el instante en milisegundos del texto "(Event:yyyy/MM/dd
+     * HH:mm:ss.mmm)mensaje" generado por PrinterLogger
+     */
+    private static long instant(String Texto) throws Exception {
+        String Fecha;
+        int Punto;
+
+        Fecha = Texto.substring(Texto.indexOf(':') + 1, Texto.indexOf(')'));
+        Punto = Fecha.lastIndexOf('.');
+        return new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.").parse(Fecha.substring(0, Punto + 1)).getTime()
+                + Integer.parseInt(Fecha.substring(Punto + 1));
+    }
+
+    /**
+     * El handler de la unidad detiene a la hebra de PrinterLogger durante 2
+     * segundos, con lo que su buffer se llena y los eventos restantes esperan
+     * en el buffer del router. Todos los eventos se guardan con el instante en
+     * que se registraron y no con el de su entrega.
+     */
+    @Test
+    public void testEventInstantKept() throws Exception {
+        final int Eventos = 6000;
+        final long Retencion = 2000;
+        final CountDownLatch Liberar = new CountDownLatch(1);
+        final List<String> Textos = Collections.synchronizedList(new ArrayList<String>());
+        Logger Unidad;
+        Handler Captura;
+        PrinterLogger Printer;
+        LoggerRouter Router;
+        long Registro, Instante, Espera;
+        int i;
+
+        Unidad = Logger.getLogger(UNIT);
+        Unidad.setUseParentHandlers(false);
+        Unidad.setLevel(Level.ALL);
+        Captura = new Handler() {
+            @Override
+            public void publish(LogRecord Registro) {
+                try {
+                    Liberar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                Textos.add(Registro.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Unidad.addHandler(Captura);
+        Printer = PrinterLogger.getInstance();
+        Printer.setSaveEventTypes(LoggerRouter.TYPE_ALL);
+        Printer.setSaveRegLevel(LoggerRouter.LEVEL_ALL);
+        Router = new LoggerRouter();
+        Router.addSink(Printer, LoggerRouter.TYPE_ALL, LoggerRouter.LEVEL_ALL, 8192, LoggerRouter.POLICY_BLOCK);
+        try {
+            Registro = System.currentTimeMillis();
+            for (i = 0; i < Eventos; i++) {
+                Router.LogMessage(LoggerManager.TYPE_EVENT, LoggerManager.LEVEL_INFO, UNIT, "event " + i);
+            }
+            Thread.sleep(Retencion);
+            assertTrue("Router buffer did not back up", Router.getPendingCount(Printer) > 0);
+            Liberar.countDown();
+            Espera = 0;
+            while ((Textos.size() < Eventos) && (Espera < 3000)) {
+                Thread.sleep(10);
+                Espera++;
+            }
+            assertEquals(Eventos, Textos.size());
+            for (String Texto : Textos) {
+                Instante = instant(Texto);
+                assertTrue("Event stamped at delivery: " + Texto, (Instante - Registro) < (Retencion / 2));
+            }
+        } finally {
+            Liberar.countDown();
+            Router.Shutdown();
+            Printer.Shutdown();
+            Unidad.removeHandler(Captura);
+        }
+    }
+}